@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the event stream framing: {@link StreamedJsonObjects}
+ * in memory and {@link Events#monitor()} over a loopback socket.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventsBenchmark {
+
+    /**
+     * Number of events in the stream.
+     */
+    @Param({"100000"})
+    private int events;
+
+    /**
+     * Streamed events.
+     */
+    private byte[] stream;
+
+    /**
+     * Stub engine.
+     */
+    private StubDocker stub;
+
+    /**
+     * Docker pointed to the stub.
+     */
+    private Docker docker;
+
+    /**
+     * Generate the events and start the stub.
+     * @throws IOException If the stub cannot start.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.stream = Payloads.events(this.events);
+        this.stub = new StubDocker().serve("/v1.35/events", this.stream);
+        this.docker = this.stub.docker();
+    }
+
+    /**
+     * Stop the stub.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.stub.close();
+    }
+
+    /**
+     * Frame and parse the events, in memory.
+     * @return Number of events.
+     */
+    @Benchmark
+    public int frame() {
+        final StreamedJsonObjects objects = new StreamedJsonObjects(
+            new ByteArrayInputStream(this.stream)
+        );
+        int count = 0;
+        while(objects.hasNext()) {
+            objects.next();
+            count = count + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Monitor the events streamed by the stub, until it closes.
+     * @return Number of events.
+     * @throws IOException If something goes wrong.
+     */
+    @Benchmark
+    public long monitor() throws IOException {
+        return this.docker.events().monitor().count();
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * In-memory benchmarks of the JSON handling: reading list and inspect
+ * responses, {@link Merged} and {@link JsonResource} delegation and
+ * the building of filtered URIs.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    /**
+     * Called URI, for the status check.
+     */
+    private static final URI CALLED = URI.create(
+        "http://localhost/v1.35/containers/json"
+    );
+
+    /**
+     * Number of containers in the listing.
+     */
+    @Param({"100", "10000"})
+    private int containers;
+
+    /**
+     * GET /containers/json payload.
+     */
+    private byte[] list;
+
+    /**
+     * GET /containers/{id}/json payload.
+     */
+    private byte[] inspection;
+
+    /**
+     * Parsed inspection.
+     */
+    private JsonObject inspected;
+
+    /**
+     * Merged JsonResource, already loaded.
+     */
+    private JsonResource loaded;
+
+    /**
+     * Filters of a listing.
+     */
+    private Map<String, Iterable<String>> filters;
+
+    /**
+     * Generate the payloads.
+     */
+    @Setup
+    public void setup() {
+        this.list = Payloads.containers(this.containers);
+        final String container = Payloads.container(0);
+        this.inspection = container.getBytes();
+        this.inspected = Json.createReader(
+            new StringReader(container)
+        ).readObject();
+        this.loaded = new Merged(
+            this.inspected,
+            Json.createObjectBuilder().add("Name", "/service_0").build()
+        );
+        this.loaded.size();
+        this.filters = new HashMap<>();
+        this.filters.put("status", Arrays.asList("running", "paused"));
+        this.filters.put(
+            "label", Arrays.asList("tier=web", "com.docker.compose.project")
+        );
+        this.filters.put("network", Arrays.asList("bridge"));
+    }
+
+    /**
+     * Read a containers listing at once.
+     * @return The array.
+     * @throws IOException If something goes wrong.
+     */
+    @Benchmark
+    public JsonArray readJsonArray() throws IOException {
+        return new ReadJsonArray(
+            new MatchStatus(JsonBenchmark.CALLED, HttpStatus.SC_OK)
+        ).handleResponse(JsonBenchmark.response(this.list));
+    }
+
+    /**
+     * Read a container inspection.
+     * @return The object.
+     * @throws IOException If something goes wrong.
+     */
+    @Benchmark
+    public JsonObject readJsonObject() throws IOException {
+        return new ReadJsonObject(
+            new MatchStatus(JsonBenchmark.CALLED, HttpStatus.SC_OK)
+        ).handleResponse(JsonBenchmark.response(this.inspection));
+    }
+
+    /**
+     * Merge two objects and read a field, paying for the first access.
+     * @return The field.
+     */
+    @Benchmark
+    public String mergeAndRead() {
+        return new Merged(
+            this.inspected,
+            Json.createObjectBuilder().add("Name", "/service_0").build()
+        ).getString("Name");
+    }
+
+    /**
+     * Read fields through an already loaded {@link JsonResource}.
+     * @return Something of the fields, so they are not optimized away.
+     */
+    @Benchmark
+    public int delegate() {
+        return this.loaded.getString("Id").length()
+            + this.loaded.getJsonObject("NetworkSettings").size()
+            + this.loaded.getJsonArray("Mounts").size()
+            + this.loaded.getInt("Created");
+    }
+
+    /**
+     * Build a filtered listing URI.
+     * @return The URI.
+     */
+    @Benchmark
+    public URI filteredUri() {
+        return new FilteredUriBuilder(
+            new UncheckedUriBuilder(JsonBenchmark.CALLED.toString())
+                .addParameter("all", "true"),
+            this.filters
+        ).build();
+    }
+
+    /**
+     * A 200 OK response with the given payload.
+     * @param payload Payload.
+     * @return HttpResponse.
+     */
+    private static HttpResponse response(final byte[] payload) {
+        final HttpResponse response = new BasicHttpResponse(
+            HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK"
+        );
+        response.setEntity(
+            new InputStreamEntity(
+                new ByteArrayInputStream(payload), payload.length
+            )
+        );
+        return response;
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of reading 50 MB of multiplexed logs: the bare frame reader,
+ * {@link ReadLogString} and {@link Logs#fetch()} over a loopback socket.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class LogsBenchmark {
+
+    /**
+     * Size of the logs.
+     */
+    private static final int SIZE = 50 * 1024 * 1024;
+
+    /**
+     * Logged container.
+     */
+    private static final String ID = Payloads.id(42);
+
+    /**
+     * Multiplexed logs.
+     */
+    private byte[] logs;
+
+    /**
+     * Stub engine.
+     */
+    private StubDocker stub;
+
+    /**
+     * Docker pointed to the stub.
+     */
+    private Docker docker;
+
+    /**
+     * Generate the logs and start the stub.
+     * @throws IOException If the stub cannot start.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.logs = Payloads.logs(LogsBenchmark.SIZE);
+        this.stub = new StubDocker().serve(
+            "/v1.35/containers/" + LogsBenchmark.ID + "/logs", this.logs
+        );
+        this.docker = this.stub.docker();
+    }
+
+    /**
+     * Stop the stub.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.stub.close();
+    }
+
+    /**
+     * Walk the frames without keeping them.
+     * @return Number of payload bytes.
+     * @throws IOException If something goes wrong.
+     */
+    @Benchmark
+    public long frames() throws IOException {
+        final long[] total = new long[1];
+        new MultiplexedStream(new ByteArrayInputStream(this.logs)).readAll(
+            (stream, payload) -> total[0] += payload.remaining()
+        );
+        return total[0];
+    }
+
+    /**
+     * Demultiplex the logs into a String, in memory.
+     * @return Logs.
+     * @throws IOException If something goes wrong.
+     */
+    @Benchmark
+    public String readLogString() throws IOException {
+        final HttpResponse response = new BasicHttpResponse(
+            HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK"
+        );
+        response.setEntity(
+            new InputStreamEntity(
+                new ByteArrayInputStream(this.logs), this.logs.length
+            )
+        );
+        return new ReadLogString(
+            new MatchStatus(URI.create("http://localhost"), HttpStatus.SC_OK)
+        ).handleResponse(response);
+    }
+
+    /**
+     * Fetch the logs from the stub engine.
+     * @return Logs.
+     * @throws IOException If something goes wrong.
+     */
+    @Benchmark
+    public String fetch() throws IOException {
+        return this.docker.containers().get(LogsBenchmark.ID).logs().fetch();
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Payloads shaped like the ones captured from a real Docker engine
+ * (API v1.35), generated in memory so the benchmarks need no fixtures.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class Payloads {
+
+    /**
+     * Hidden ctor.
+     */
+    private Payloads() {
+    }
+
+    /**
+     * A GET /containers/json?all=true response.
+     * @param count Number of containers in the list.
+     * @return JSON array, as bytes.
+     */
+    static byte[] containers(final int count) {
+        final StringBuilder json = new StringBuilder(count * 1024);
+        json.append('[');
+        for(int idx = 0; idx < count; idx = idx + 1) {
+            if(idx > 0) {
+                json.append(',');
+            }
+            json.append(Payloads.container(idx));
+        }
+        json.append(']');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One entry of the containers list.
+     * @param idx Index of the container.
+     * @return JSON object.
+     */
+    static String container(final int idx) {
+        final String id = Payloads.id(idx);
+        return new StringBuilder(1024)
+            .append("{\"Id\":\"").append(id).append('"')
+            .append(",\"Names\":[\"/service_").append(idx).append("\"]")
+            .append(",\"Image\":\"registry.local/app/service:1.").append(idx % 7)
+            .append("\",\"ImageID\":\"sha256:").append(Payloads.id(idx % 7))
+            .append("\",\"Command\":\"/docker-entrypoint.sh nginx -g 'daemon off;'\"")
+            .append(",\"Created\":").append(1_540_000_000L + idx)
+            .append(",\"Ports\":[{\"IP\":\"0.0.0.0\",\"PrivatePort\":80,")
+            .append("\"PublicPort\":").append(30_000 + idx % 20_000)
+            .append(",\"Type\":\"tcp\"}]")
+            .append(",\"Labels\":{\"com.docker.compose.project\":\"bench\",")
+            .append("\"com.docker.compose.service\":\"service_").append(idx)
+            .append("\",\"tier\":\"").append(idx % 3 == 0 ? "db" : "web")
+            .append("\"},\"State\":\"").append(idx % 5 == 0 ? "exited" : "running")
+            .append("\",\"Status\":\"Up 3 hours\"")
+            .append(",\"HostConfig\":{\"NetworkMode\":\"bridge\"}")
+            .append(",\"NetworkSettings\":{\"Networks\":{\"bridge\":{")
+            .append("\"IPAMConfig\":null,\"Links\":null,\"Aliases\":null,")
+            .append("\"NetworkID\":\"").append(Payloads.id(0))
+            .append("\",\"EndpointID\":\"").append(Payloads.id(idx + 1))
+            .append("\",\"Gateway\":\"172.17.0.1\",\"IPAddress\":\"172.17.")
+            .append(idx / 250 % 256).append('.').append(idx % 250 + 2)
+            .append("\",\"IPPrefixLen\":16,\"IPv6Gateway\":\"\",")
+            .append("\"GlobalIPv6Address\":\"\",\"GlobalIPv6PrefixLen\":0,")
+            .append("\"MacAddress\":\"02:42:ac:11:00:02\",\"DriverOpts\":null}}}")
+            .append(",\"Mounts\":[{\"Type\":\"volume\",\"Name\":\"data_")
+            .append(idx).append("\",\"Source\":\"/var/lib/docker/volumes/data_")
+            .append(idx).append("/_data\",\"Destination\":\"/data\",")
+            .append("\"Driver\":\"local\",\"Mode\":\"z\",\"RW\":true,")
+            .append("\"Propagation\":\"\"}]}")
+            .toString();
+    }
+
+    /**
+     * A multiplexed GET /containers/{id}/logs response: stdout and stderr
+     * frames of realistic log lines.
+     * @param size Approximate size of the payload, in bytes.
+     * @return Framed bytes.
+     */
+    static byte[] logs(final int size) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(
+            size + 1024
+        );
+        int line = 0;
+        while(out.size() < size) {
+            final byte[] payload = String.format(
+                "2018-10-17T10:%02d:%02d.%06dZ %s [worker-%d] request "
+                + "GET /api/v1/items/%d completed in %d ms%n",
+                line / 60 % 60, line % 60, line % 1_000_000,
+                line % 10 == 0 ? "WARN" : "INFO", line % 16, line, line % 300
+            ).getBytes(StandardCharsets.UTF_8);
+            final ByteBuffer header = ByteBuffer.allocate(8);
+            header.put((byte) (line % 10 == 0 ? 2 : 1));
+            header.position(4);
+            header.putInt(payload.length);
+            out.write(header.array(), 0, 8);
+            out.write(payload, 0, payload.length);
+            line = line + 1;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A GET /events response: objects written back to back, one per line.
+     * @param count Number of events.
+     * @return Streamed bytes.
+     */
+    static byte[] events(final int count) {
+        final StringBuilder json = new StringBuilder(count * 512);
+        final String[] actions = {"create", "start", "die", "destroy"};
+        for(int idx = 0; idx < count; idx = idx + 1) {
+            final String id = Payloads.id(idx / actions.length);
+            json.append("{\"status\":\"").append(actions[idx % actions.length])
+                .append("\",\"id\":\"").append(id)
+                .append("\",\"from\":\"registry.local/app/service:1.0\"")
+                .append(",\"Type\":\"container\",\"Action\":\"")
+                .append(actions[idx % actions.length])
+                .append("\",\"Actor\":{\"ID\":\"").append(id)
+                .append("\",\"Attributes\":{\"image\":")
+                .append("\"registry.local/app/service:1.0\",\"name\":\"service_")
+                .append(idx).append("\",\"tier\":\"web\"}}")
+                .append(",\"scope\":\"local\",\"time\":")
+                .append(1_540_000_000L + idx / 1000)
+                .append(",\"timeNano\":").append(1_540_000_000_000_000_000L + idx)
+                .append("}\n");
+        }
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A 64 hex digits id, like the ones Docker generates.
+     * @param idx Seed.
+     * @return Id.
+     */
+    static String id(final int idx) {
+        final String hex = String.format("%016x", idx * 0x9E3779B97F4A7C15L);
+        return hex + hex + hex + hex;
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-process stub of a Docker engine, answering every GET with a canned
+ * payload chosen by path, sent chunked like the engine does.
+ * It uses the JDK's own HTTP server, so the benchmarks measure the library
+ * and the loopback socket, not a third-party server.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class StubDocker implements AutoCloseable {
+
+    /**
+     * The server.
+     */
+    private final HttpServer server;
+
+    /**
+     * Payloads by path.
+     */
+    private final Map<String, byte[]> payloads;
+
+    /**
+     * Ctor.
+     * @throws IOException If the server cannot be started.
+     */
+    StubDocker() throws IOException {
+        this.payloads = new HashMap<>();
+        this.server = HttpServer.create(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0
+        );
+        this.server.createContext("/", this::answer);
+        this.server.start();
+    }
+
+    /**
+     * Answer GET requests on the given path (the query is ignored).
+     * @param path Path, including the API version (e.g. /v1.35/events).
+     * @param payload JSON payload.
+     * @return This stub.
+     */
+    StubDocker serve(final String path, final byte[] payload) {
+        this.payloads.put(path, payload);
+        return this;
+    }
+
+    /**
+     * Docker pointed to this stub, at the very address it is bound to, so
+     * no name resolution (e.g. localhost to ::1 first) is measured.
+     * @return Docker.
+     */
+    Docker docker() {
+        final InetSocketAddress bound = this.server.getAddress();
+        try {
+            return new TcpDocker(
+                new URI(
+                    "http", null, bound.getAddress().getHostAddress(),
+                    bound.getPort(), null, null, null
+                )
+            );
+        } catch (final URISyntaxException ex) {
+            throw new IllegalStateException(
+                "Invalid address of the stub: " + bound, ex
+            );
+        }
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+    }
+
+    /**
+     * Answer an exchange.
+     * @param exchange HTTP exchange.
+     * @throws IOException If the payload cannot be written.
+     */
+    private void answer(final HttpExchange exchange) throws IOException {
+        final byte[] payload = this.payloads.get(
+            exchange.getRequestURI().getPath()
+        );
+        try (final OutputStream body = exchange.getResponseBody()) {
+            if(payload == null) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                exchange.getResponseHeaders().add(
+                    "Content-Type", "application/json"
+                );
+                exchange.sendResponseHeaders(200, 0);
+                body.write(payload);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Version of the Docker Engine API (e.g. v1.41), with the features which
+ * depend on it. Code can check a feature instead of comparing versions:
+ * <pre>
+ *     if(docker.apiVersion().oneShotStats()) {
+ *         ...
+ *     }
+ * </pre>
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class ApiVersion implements Comparable<ApiVersion> {
+
+    /**
+     * Format of a version, with or without the leading v.
+     */
+    private static final Pattern FORMAT = Pattern.compile(
+        "v?(\\d+)\\.(\\d+)"
+    );
+
+    /**
+     * The highest version of the API for which this library implements
+     * features (see {@link #oneShotStats()}). Newer engines are spoken to
+     * in this version, unless they no longer accept it; the features then
+     * pick the endpoints which the negotiated version offers.
+     */
+    public static final ApiVersion SUPPORTED = new ApiVersion("v1.41");
+
+    /**
+     * Major version.
+     */
+    private final int major;
+
+    /**
+     * Minor version.
+     */
+    private final int minor;
+
+    /**
+     * Ctor.
+     * @param version Version, as in the base URI (v1.41) or as reported
+     *  by the engine (1.41).
+     * @throws IllegalArgumentException If the version is not valid.
+     */
+    public ApiVersion(final String version) {
+        final Matcher matcher = ApiVersion.FORMAT.matcher(version);
+        if(!matcher.matches()) {
+            throw new IllegalArgumentException(
+                "Invalid API version: " + version
+            );
+        }
+        this.major = Integer.parseInt(matcher.group(1));
+        this.minor = Integer.parseInt(matcher.group(2));
+    }
+
+    /**
+     * Can one sample of a Container's stats be read without waiting for
+     * a second one (the one-shot parameter)?
+     * @return True if the one-shot stats are offered.
+     */
+    public boolean oneShotStats() {
+        return this.compareTo(new ApiVersion("v1.41")) >= 0;
+    }
+
+    @Override
+    public int compareTo(final ApiVersion other) {
+        final int result;
+        if(this.major == other.major) {
+            result = Integer.compare(this.minor, other.minor);
+        } else {
+            result = Integer.compare(this.major, other.major);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other || other instanceof ApiVersion
+            && this.compareTo((ApiVersion) other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.major * 1000 + this.minor;
+    }
+
+    @Override
+    public String toString() {
+        return "v" + this.major + "." + this.minor;
+    }
+
+    /**
+     * The API version in the path of a URI (e.g. unix://localhost:80/v1.35
+     * or unix://localhost:80/v1.35/containers/123).
+     * @param uri URI.
+     * @return The version of the first segment which is one, if any.
+     */
+    static Optional<ApiVersion> fromUri(final URI uri) {
+        Optional<ApiVersion> version = Optional.empty();
+        final String path = uri.getPath();
+        if(path != null) {
+            for(final String segment : path.split("/")) {
+                if(ApiVersion.FORMAT.matcher(segment).matches()) {
+                    version = Optional.of(new ApiVersion(segment));
+                    break;
+                }
+            }
+        }
+        return version;
+    }
+}
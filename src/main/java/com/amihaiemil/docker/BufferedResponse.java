@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * A response read in memory, which can be handled many times.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class BufferedResponse {
+
+    /**
+     * Status code.
+     */
+    private final int status;
+
+    /**
+     * Reason phrase.
+     */
+    private final String reason;
+
+    /**
+     * Body.
+     */
+    private final byte[] body;
+
+    /**
+     * Content type of the body.
+     */
+    private final ContentType type;
+
+    /**
+     * Ctor.
+     * @param response Response to read.
+     * @throws IOException If the body cannot be read.
+     */
+    BufferedResponse(final HttpResponse response) throws IOException {
+        this.status = response.getStatusLine().getStatusCode();
+        this.reason = response.getStatusLine().getReasonPhrase();
+        if(response.getEntity() == null) {
+            this.body = new byte[0];
+            this.type = ContentType.APPLICATION_JSON;
+        } else {
+            this.body = EntityUtils.toByteArray(response.getEntity());
+            final ContentType given = ContentType.get(response.getEntity());
+            if(given == null) {
+                this.type = ContentType.APPLICATION_JSON;
+            } else {
+                this.type = given;
+            }
+        }
+    }
+
+    /**
+     * Status code.
+     * @return Integer HTTP status.
+     */
+    int status() {
+        return this.status;
+    }
+
+    /**
+     * A fresh response with the read status and body.
+     * @return HttpResponse.
+     */
+    HttpResponse response() {
+        final HttpResponse response = new BasicHttpResponse(
+            HttpVersion.HTTP_1_1, this.status, this.reason
+        );
+        response.setEntity(new ByteArrayEntity(this.body, this.type));
+        return response;
+    }
+}
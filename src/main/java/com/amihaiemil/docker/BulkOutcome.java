@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Outcome of an operation run on many resources at once: for which keys
+ * it succeeded, for which it failed and with what error, and how long it
+ * took. The keys are whatever identifies the resources to the operation,
+ * e.g. the Containers' IDs for {@link Containers#stopAll(int)} or the
+ * references of the images for {@link Images#prePull(Iterable, int)}.
+ * <pre>
+ *     final BulkOutcome removed = docker.containers()
+ *         .filter(labels).removeAll(50, true);
+ *     if(!removed.failed().isEmpty()) {
+ *         ...
+ *     }
+ * </pre>
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class BulkOutcome {
+
+    /**
+     * Keys for which the operation succeeded.
+     */
+    private final Collection<String> succeeded;
+
+    /**
+     * Errors, by key for which the operation failed.
+     */
+    private final Map<String, Exception> failed;
+
+    /**
+     * Time from the first request until the last response.
+     */
+    private final Duration elapsed;
+
+    /**
+     * Time taken by the slowest request.
+     */
+    private final Duration slowest;
+
+    /**
+     * Ctor.
+     * @param succeeded Keys for which the operation succeeded.
+     * @param failed Errors, by key for which the operation failed.
+     * @param elapsed Time from the first request until the last response.
+     * @param slowest Time taken by the slowest request.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    BulkOutcome(
+        final Collection<String> succeeded,
+        final Map<String, Exception> failed,
+        final Duration elapsed, final Duration slowest
+    ) {
+        this.succeeded = Collections.unmodifiableCollection(
+            new ArrayList<>(succeeded)
+        );
+        this.failed = Collections.unmodifiableMap(new HashMap<>(failed));
+        this.elapsed = elapsed;
+        this.slowest = slowest;
+    }
+
+    /**
+     * Keys for which the operation succeeded.
+     * @return Collection of keys.
+     */
+    public Collection<String> succeeded() {
+        return this.succeeded;
+    }
+
+    /**
+     * Keys for which the operation failed, with the error (usually an
+     * IOException or {@link UnexpectedResponseException}) of each.
+     * @return Errors, by key.
+     */
+    public Map<String, Exception> failed() {
+        return this.failed;
+    }
+
+    /**
+     * Number of keys the operation was run for.
+     * @return Count.
+     */
+    public int total() {
+        return this.succeeded.size() + this.failed.size();
+    }
+
+    /**
+     * Time from the first request until the last response.
+     * @return Duration.
+     */
+    public Duration elapsed() {
+        return this.elapsed;
+    }
+
+    /**
+     * Time taken by the slowest request.
+     * @return Duration.
+     */
+    public Duration slowest() {
+        return this.slowest;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d succeeded, %d failed in %d ms (slowest request: %d ms)",
+            this.succeeded.size(), this.failed.size(),
+            this.elapsed.toMillis(), this.slowest.toMillis()
+        );
+    }
+}
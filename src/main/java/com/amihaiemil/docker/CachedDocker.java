@@ -0,0 +1,292 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.http.client.HttpClient;
+
+/**
+ * Docker which keeps the inspections of containers, images, networks and
+ * volumes in memory, so repeated calls to {@code inspect()} do not go to the
+ * server:
+ * <pre>
+ *     final CachedDocker docker = new CachedDocker(
+ *         new UnixDocker(new File("/var/run/docker.sock")),
+ *         Duration.ofSeconds(10), 1000
+ *     );
+ *     final JsonObject state = docker.containers().get("web").inspect();
+ *     ...
+ *     docker.close();
+ * </pre>
+ * The cache is bounded: an inspection lives at most the given time and,
+ * when the cache is full, the least recently read one is evicted.<br><br>
+ *
+ * A background thread follows the Docker events and invalidates the
+ * inspections affected by each of them (start, die, rename, destroy,
+ * connect, tag, untag etc), so an inspection is never served after an event
+ * changed it. While the events are not followed (e.g. the connection
+ * dropped, whatever the reason, and is being reopened with a backoff, see
+ * {@link Events#monitor(Duration, Duration)}), every inspection goes to
+ * the server.
+ * Changes made through this Docker invalidate the affected inspections
+ * right away.<br><br>
+ *
+ * The containers, images, networks, volumes etc are reached through the
+ * caching HttpClient, which is also the one returned by
+ * {@link #httpClient()}, and have this Docker as theirs; everything else
+ * (ping, events, version, info, the API version) is delegated to the
+ * decorated Docker.<br><br>
+ *
+ * The event stream holds one connection of the decorated Docker's
+ * HttpClient. Call {@link #close()} to stop following the events.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class CachedDocker implements Docker, AutoCloseable {
+
+    /**
+     * The decorated Docker.
+     */
+    private final Docker origin;
+
+    /**
+     * The cached inspections.
+     */
+    private final InspectionCache cache;
+
+    /**
+     * Events being followed.
+     */
+    private final ResumedEvents events;
+
+    /**
+     * Ctor. Inspections live 5 seconds and at most 1000 of them are kept.
+     * @param origin The Docker to decorate.
+     */
+    public CachedDocker(final Docker origin) {
+        this(origin, Duration.ofSeconds(5), 1000);
+    }
+
+    /**
+     * Ctor.
+     * @param origin The Docker to decorate.
+     * @param ttl Time to live of an inspection.
+     * @param size Maximum number of inspections kept.
+     */
+    public CachedDocker(
+        final Docker origin, final Duration ttl, final int size
+    ) {
+        this(origin, new InspectionCache(origin.httpClient(), ttl, size));
+    }
+
+    /**
+     * Ctor.
+     * @param origin The Docker to decorate.
+     * @param cache The cached inspections.
+     */
+    private CachedDocker(final Docker origin, final InspectionCache cache) {
+        this.origin = origin;
+        this.cache = cache;
+        this.events = ResumedEvents.following(
+            origin.events().filter(
+                () -> Collections.singletonMap(
+                    "type",
+                    Arrays.asList("container", "image", "network", "volume")
+                )
+            ),
+            new Liveness(cache)
+        );
+        final Thread follow = new Thread(
+            this::follow, "docker-java-api-inspection-cache"
+        );
+        follow.setDaemon(true);
+        follow.start();
+    }
+
+    @Override
+    public boolean ping() throws IOException {
+        return this.origin.ping();
+    }
+
+    @Override
+    public Events events() {
+        return this.origin.events();
+    }
+
+    @Override
+    public Containers containers() {
+        return new ListedContainers(this.cache, this.uri("/containers"), this);
+    }
+
+    @Override
+    public Images images() {
+        return new ListedImages(this.cache, this.uri("/images"), this);
+    }
+
+    @Override
+    public Networks networks() {
+        return new ListedNetworks(this.cache, this.uri("/networks"), this);
+    }
+
+    @Override
+    public Volumes volumes() {
+        return new ListedVolumes(this.cache, this.uri("/volumes"), this);
+    }
+
+    @Override
+    public Execs execs() {
+        return new RtExecs(this.cache, this.uri("/exec"), this);
+    }
+
+    @Override
+    public Swarm swarm() {
+        return new RtSwarm(this.cache, this.uri("/swarm"), this);
+    }
+
+    @Override
+    public DockerSystem system() {
+        return new RtDockerSystem(this.cache, this.uri("/system"), this);
+    }
+
+    @Override
+    public Plugins plugins() {
+        return this.origin.plugins();
+    }
+
+    /**
+     * Version of the decorated Docker, which may be memoized (see
+     * {@link MemoizedDocker}).
+     * @return Version.
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public Version version() throws IOException {
+        return this.origin.version();
+    }
+
+    /**
+     * Info of the decorated Docker, which may be memoized (see
+     * {@link MemoizedDocker}).
+     * @return Info.
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public Info info() throws IOException {
+        return this.origin.info();
+    }
+
+    @Override
+    public ApiVersion apiVersion() {
+        return this.origin.apiVersion();
+    }
+
+    /**
+     * The caching HttpClient, so the requests made with it are served
+     * from, and invalidate, the cached inspections.
+     * @return HttpClient.
+     */
+    @Override
+    public HttpClient httpClient() {
+        return this.cache;
+    }
+
+    /**
+     * Stop following the events and close the decorated Docker, if it is
+     * closeable. Afterwards, every inspection goes to the server.
+     * @throws IOException If the decorated Docker cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.events.close();
+        this.cache.live(false);
+        RtDocker.close(this.origin);
+    }
+
+    /**
+     * The decorated Docker, for {@link RtDocker#baseUri(Docker)}.
+     * @return Docker.
+     */
+    Docker origin() {
+        return this.origin;
+    }
+
+    /**
+     * URI of an API, under the current base URI of the decorated Docker
+     * (e.g. once a {@link NegotiatedDocker} negotiated its version).
+     * @param path Path of the API.
+     * @return URI.
+     */
+    private URI uri(final String path) {
+        return URI.create(RtDocker.baseUri(this.origin).toString() + path);
+    }
+
+    /**
+     * Follow the events and invalidate the cached inspections, until this
+     * Docker is closed.
+     */
+    private void follow() {
+        try {
+            this.events.follow();
+            this.events.forEachRemaining(this.cache::invalidate);
+        } finally {
+            this.cache.live(false);
+        }
+    }
+
+    /**
+     * The cache serves inspections only while the events are followed.
+     */
+    private static final class Liveness implements ResumedEvents.Connection {
+
+        /**
+         * The cached inspections.
+         */
+        private final InspectionCache cache;
+
+        /**
+         * Ctor.
+         * @param cache The cached inspections.
+         */
+        Liveness(final InspectionCache cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public void opened() {
+            this.cache.live(true);
+        }
+
+        @Override
+        public void dropped() {
+            this.cache.live(false);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.time.Duration;
+
+/**
+ * A pooled connection which was leased and not returned for longer than
+ * the threshold given to a {@link LeakDetectingHttpClient}. Usually, a
+ * stream of logs, events or an image tarball which was never closed.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class ConnectionLeak {
+
+    /**
+     * For how long the connection was held, when the leak was detected.
+     */
+    private final Duration held;
+
+    /**
+     * Stack trace of the thread which leased the connection.
+     */
+    private final Throwable trace;
+
+    /**
+     * Ctor.
+     * @param held For how long the connection was held.
+     * @param trace Stack trace of the thread which leased the connection.
+     */
+    ConnectionLeak(final Duration held, final Throwable trace) {
+        this.held = held;
+        this.trace = trace;
+    }
+
+    /**
+     * For how long the connection was held, when the leak was detected.
+     * @return Duration.
+     */
+    public Duration held() {
+        return this.held;
+    }
+
+    /**
+     * Where the connection was leased: the stack trace of this Throwable
+     * is the one of the thread which leased it.
+     * @return Throwable, never thrown.
+     */
+    public Throwable trace() {
+        return this.trace;
+    }
+
+    @Override
+    public String toString() {
+        return "Connection not returned to the pool after " + this.held;
+    }
+}
@@ -46,6 +46,16 @@ public interface Container extends JsonObject {
      */
     JsonObject inspect() throws IOException;
 
+    /**
+     * Inspect this container, reading only the fields selected by
+     * the given projection. Everything else in the response is skipped,
+     * without being built.
+     * @param projection Selected fields.
+     * @return Projected container info in Json format.
+     * @throws IOException If something goes wrong.
+     */
+    JsonObject inspect(Projection projection) throws IOException;
+
     /**
      * Start this container.
      * @see <a href="https://docs.docker.com/engine/api/v1.35/#operation/ContainerStart">Start Container</a>
@@ -130,6 +140,44 @@ public interface Container extends JsonObject {
      */
     Logs logs();
     
+    /**
+     * Get one sample of the resource usage statistics of this container.
+     * @see <a href="https://docs.docker.com/engine/api/v1.35/#operation/ContainerStats">Container Stats</a>
+     * @return Stats of this container.
+     * @throws IOException If something goes wrong.
+     * @throws UnexpectedResponseException If the status response is not
+     *  the expected one (200 OK).
+     */
+    Stats stats() throws IOException, UnexpectedResponseException;
+
+    /**
+     * Get one sample of the resource usage statistics of this container,
+     * as fast as the engine can give it. If the API version offers the
+     * one-shot stats (see {@link ApiVersion#oneShotStats()}), the engine
+     * does not wait for a second sample, so the CPU deltas and percent are
+     * not known; use it for memory, network and block I/O. Otherwise, it
+     * is the same as {@link #stats()}.
+     * @see <a href="https://docs.docker.com/engine/api/v1.41/#operation/ContainerStats">Container Stats</a>
+     * @return Stats of this container.
+     * @throws IOException If something goes wrong.
+     * @throws UnexpectedResponseException If the status response is not
+     *  the expected one (200 OK).
+     */
+    Stats snapshot() throws IOException, UnexpectedResponseException;
+
+    /**
+     * Stream the resource usage statistics of this container. The samples
+     * are given to the StatsSamples as they come, until it returns false or
+     * the container stops.
+     * @see <a href="https://docs.docker.com/engine/api/v1.35/#operation/ContainerStats">Container Stats</a>
+     * @param samples Receives the samples.
+     * @throws IOException If something goes wrong.
+     * @throws UnexpectedResponseException If the status response is not
+     *  the expected one (200 OK).
+     */
+    void stats(StatsSamples samples)
+        throws IOException, UnexpectedResponseException;
+
     /**
      * Return the Docker engine where this Container came from.
      * @return Docker.
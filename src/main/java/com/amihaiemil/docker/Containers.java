@@ -76,7 +76,9 @@ public interface Containers extends Iterable<Container> {
     Container create(final JsonObject container) throws IOException;
 
     /**
-     * Return all Containers, not only the running ones.
+     * Return all Containers, not only the running ones. The containers are
+     * read as they are iterated; the returned Iterator is also Closeable,
+     * so close it if you stop before the end, to release its connection.
      * @return Iterator over all the containers.
      */
     Iterator<Container> all();
@@ -96,6 +98,86 @@ public interface Containers extends Iterable<Container> {
      */
     Containers filter(Map<String, Iterable<String>> filters);
 
+    /**
+     * Project the listed Containers on some of their fields. Everything
+     * else in the listing is skipped, without being built. The Id is
+     * always kept, so the Containers can still be started, stopped etc.
+     * @param projection Selected fields.
+     * @return Projected containers.
+     */
+    Containers projected(Projection projection);
+
+    /**
+     * Stream the Stats of these Containers, over at most the given number
+     * of connections, kept open in parallel. The samples of all the streams
+     * are given to the same ContainersStats, one at a time, until it
+     * returns false or all the Containers stop. Containers which disappear
+     * before their stream is opened are skipped.<br><br>
+     *
+     * Each stream holds its connection for as long as it lasts, so, to have
+     * a snapshot of all the Containers within one sampling interval, the
+     * number of connections (and the size of the connection pool, see
+     * {@link PoolConfig}) should not be smaller than the number of
+     * Containers. Otherwise, the Containers over the limit are sampled only
+     * after other Containers stop.
+     * @param connections Maximum number of parallel connections.
+     * @param samples Receives the samples.
+     * @throws IOException If something goes wrong.
+     * @throws UnexpectedResponseException If a status response is not
+     *  the expected one.
+     */
+    void stats(int connections, ContainersStats samples)
+        throws IOException, UnexpectedResponseException;
+
+    /**
+     * Start all these Containers (running or not), sending at most the
+     * given number of requests in parallel. A failure of one Container
+     * does not stop the others; it is reported in the outcome.
+     * @param parallel Maximum number of parallel requests.
+     * @return Outcome of each Container and timing.
+     * @throws IOException If the Containers cannot be listed or the
+     *  calling thread is interrupted.
+     */
+    BulkOutcome startAll(int parallel) throws IOException;
+
+    /**
+     * Stop all these running Containers, sending at most the given number
+     * of requests in parallel. A failure of one Container does not stop
+     * the others; it is reported in the outcome.
+     * @param parallel Maximum number of parallel requests.
+     * @return Outcome of each Container and timing.
+     * @throws IOException If the Containers cannot be listed or the
+     *  calling thread is interrupted.
+     */
+    BulkOutcome stopAll(int parallel) throws IOException;
+
+    /**
+     * Kill all these running Containers, sending at most the given number
+     * of requests in parallel. A failure of one Container does not stop
+     * the others; it is reported in the outcome.
+     * @param parallel Maximum number of parallel requests.
+     * @return Outcome of each Container and timing.
+     * @throws IOException If the Containers cannot be listed or the
+     *  calling thread is interrupted.
+     */
+    BulkOutcome killAll(int parallel) throws IOException;
+
+    /**
+     * Remove all these Containers (running or not), sending at most the
+     * given number of requests in parallel. A failure of one Container
+     * does not stop the others; it is reported in the outcome.<br><br>
+     *
+     * The requests share the connection pool of the Docker's HttpClient
+     * (see {@link PoolConfig}), so the parallelism is also bounded by its
+     * maximum number of connections per route, if it is known.
+     * @param parallel Maximum number of parallel requests.
+     * @param force If a Container is running, kill it before removing it.
+     * @return Outcome of each Container and timing.
+     * @throws IOException If the Containers cannot be listed or the
+     *  calling thread is interrupted.
+     */
+    BulkOutcome removeAll(int parallel, boolean force) throws IOException;
+
     /**
      * Return the Docker engine where these Containers came from.
      * @return Docker.
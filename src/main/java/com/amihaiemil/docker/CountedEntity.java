@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+/**
+ * HttpEntity which counts the bytes read from or written by it. The read
+ * content tells, only once, how many bytes were read when it reaches its
+ * end or is closed.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class CountedEntity extends HttpEntityWrapper {
+
+    /**
+     * Bytes read or written so far.
+     */
+    private final AtomicLong bytes;
+
+    /**
+     * Told the bytes read, once the content is consumed or closed.
+     */
+    private final LongConsumer consumed;
+
+    /**
+     * Was the consumer told already?
+     */
+    private final AtomicBoolean told;
+
+    /**
+     * Ctor.
+     * @param entity Entity to count.
+     */
+    CountedEntity(final HttpEntity entity) {
+        this(entity, read -> { });
+    }
+
+    /**
+     * Ctor.
+     * @param entity Entity to count.
+     * @param consumed Told the bytes read, once the content is consumed
+     *  or closed.
+     */
+    CountedEntity(final HttpEntity entity, final LongConsumer consumed) {
+        super(entity);
+        this.bytes = new AtomicLong();
+        this.consumed = consumed;
+        this.told = new AtomicBoolean();
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new CountedInput(super.getContent(), this.bytes, this::tell);
+    }
+
+    @Override
+    public void writeTo(final OutputStream out) throws IOException {
+        super.writeTo(new CountedOutput(out, this.bytes));
+    }
+
+    /**
+     * Bytes read or written so far.
+     * @return Number of bytes.
+     */
+    long bytes() {
+        return this.bytes.get();
+    }
+
+    /**
+     * Tell the consumer how many bytes were read, if not told already.
+     */
+    private void tell() {
+        if(this.told.compareAndSet(false, true)) {
+            this.consumed.accept(this.bytes.get());
+        }
+    }
+
+    /**
+     * InputStream counting the bytes read.
+     */
+    private static final class CountedInput extends FilterInputStream {
+
+        /**
+         * Counter.
+         */
+        private final AtomicLong bytes;
+
+        /**
+         * Called at the end of the stream or when it is closed.
+         */
+        private final Runnable end;
+
+        /**
+         * Ctor.
+         * @param input Stream to count.
+         * @param bytes Counter.
+         * @param end Called at the end of the stream or when it is closed.
+         */
+        CountedInput(
+            final InputStream input, final AtomicLong bytes, final Runnable end
+        ) {
+            super(input);
+            this.bytes = bytes;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = super.read();
+            if(read >= 0) {
+                this.bytes.incrementAndGet();
+            } else {
+                this.end.run();
+            }
+            return read;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int off, final int len)
+            throws IOException {
+            final int read = super.read(buffer, off, len);
+            if(read > 0) {
+                this.bytes.addAndGet(read);
+            } else if(read < 0) {
+                this.end.run();
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                this.end.run();
+            }
+        }
+
+        @Override
+        public long skip(final long count) throws IOException {
+            final long skipped = super.skip(count);
+            this.bytes.addAndGet(skipped);
+            return skipped;
+        }
+    }
+
+    /**
+     * OutputStream counting the bytes written.
+     */
+    private static final class CountedOutput extends FilterOutputStream {
+
+        /**
+         * Counter.
+         */
+        private final AtomicLong bytes;
+
+        /**
+         * Ctor.
+         * @param output Stream to count.
+         * @param bytes Counter.
+         */
+        CountedOutput(final OutputStream output, final AtomicLong bytes) {
+            super(output);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void write(final int data) throws IOException {
+            this.out.write(data);
+            this.bytes.incrementAndGet();
+        }
+
+        @Override
+        public void write(final byte[] buffer, final int off, final int len)
+            throws IOException {
+            this.out.write(buffer, off, len);
+            this.bytes.addAndGet(len);
+        }
+    }
+}
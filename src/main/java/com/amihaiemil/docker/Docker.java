@@ -111,6 +111,15 @@ public interface Docker {
      */
     Info info() throws IOException;
 
+    /**
+     * The version of the API which this Docker speaks, with the features
+     * it offers. It is the one given at construction, or the one picked
+     * by {@link NegotiatedDocker}; no request is made, except for the
+     * negotiation of a NegotiatedDocker, the first time.
+     * @return ApiVersion.
+     */
+    ApiVersion apiVersion();
+
     /**
      * The underlying, immutable, Apache HttpClient.<br><br>
      *
@@ -27,6 +27,7 @@ package com.amihaiemil.docker;
 
 import javax.json.JsonObject;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.function.Supplier;
@@ -84,6 +85,27 @@ public interface Events {
     Stream<JsonObject> monitor()
         throws IOException, UnexpectedResponseException;
 
+    /**
+     * Start monitoring these events and keep monitoring them when the
+     * connection drops (e.g. the Docker daemon restarts). The Stream
+     * reconnects, waiting between attempts for the given backoff, doubled
+     * after each failed attempt up to the given maximum, and resumes from
+     * the timestamp of the last event it returned. The events which the
+     * server sends again are skipped, so no event is lost or returned twice.
+     * <br><br>
+     * Like {@link #monitor()}, the Stream is <b>infinite</b>, unless an
+     * until timestamp was specified. Closing it stops the reconnects.
+     * @param backoff Time to wait before the first reconnect attempt.
+     * @param max Maximum time to wait between reconnect attempts.
+     * @throws IOException If there is any I/O problem when connecting
+     *  for the first time.
+     * @throws UnexpectedResponseException If the first response is not
+     *  200 OK.
+     * @return Stream of events.
+     */
+    Stream<JsonObject> monitor(final Duration backoff, final Duration max)
+        throws IOException, UnexpectedResponseException;
+
     /**
      * Docker where these events came from.
      * @return Docker.
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.time.Duration;
+
+/**
+ * A finished call to the Docker API, as measured for {@link Metrics}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class Exchange {
+
+    /**
+     * HTTP method.
+     */
+    private final String method;
+
+    /**
+     * Endpoint template.
+     */
+    private final String endpoint;
+
+    /**
+     * Status code.
+     */
+    private final int status;
+
+    /**
+     * Latency.
+     */
+    private final Duration latency;
+
+    /**
+     * Bytes sent.
+     */
+    private final long sent;
+
+    /**
+     * Bytes received.
+     */
+    private final long received;
+
+    /**
+     * Ctor.
+     * @param method HTTP method.
+     * @param endpoint Endpoint template.
+     * @param status Status code, 0 if there was no response.
+     * @param latency Latency.
+     * @param sent Bytes sent.
+     * @param received Bytes received.
+     * @checkstyle ParameterNumber (6 lines)
+     */
+    Exchange(
+        final String method, final String endpoint, final int status,
+        final Duration latency, final long sent, final long received
+    ) {
+        this.method = method;
+        this.endpoint = endpoint;
+        this.status = status;
+        this.latency = latency;
+        this.sent = sent;
+        this.received = received;
+    }
+
+    /**
+     * HTTP method (GET, POST etc).
+     * @return Method.
+     */
+    public String method() {
+        return this.method;
+    }
+
+    /**
+     * Endpoint template, e.g. {@code /containers/{id}/start}.
+     * @return Endpoint.
+     */
+    public String endpoint() {
+        return this.endpoint;
+    }
+
+    /**
+     * Status code of the response, or 0 if the request failed before a
+     * response came (e.g. connection refused, timeout).
+     * @return Status code.
+     */
+    public int status() {
+        return this.status;
+    }
+
+    /**
+     * Time from sending the request (including the wait for a pooled
+     * connection) until the response was handled. For streamed responses
+     * (logs, events, stats), until the status line and headers came.
+     * @return Duration.
+     */
+    public Duration latency() {
+        return this.latency;
+    }
+
+    /**
+     * Bytes of the request body that were sent.
+     * @return Number of bytes.
+     */
+    public long sent() {
+        return this.sent;
+    }
+
+    /**
+     * Bytes of the response body that were read. For streamed responses,
+     * the exchange is finished only once the body is read to the end or
+     * closed, so these are the bytes read until then.
+     * @return Number of bytes.
+     */
+    public long received() {
+        return this.received;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s %s %d in %d ms (%d bytes sent, %d bytes received)",
+            this.method, this.endpoint, this.status, this.latency.toMillis(),
+            this.sent, this.received
+        );
+    }
+}
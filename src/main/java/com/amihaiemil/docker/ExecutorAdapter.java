@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import javax.json.JsonObject;
+
+/**
+ * Plain adapter which runs calls against a {@link Docker} on an
+ * {@link Executor} and gives their results as {@link CompletableFuture}s,
+ * so they can be composed instead of blocking the caller:
+ * <pre>
+ *     final ExecutorAdapter docker = new ExecutorAdapter(
+ *         new UnixDocker(new File("/var/run/docker.sock"), new PoolConfig()
+ *             .maxTotal(100).maxPerRoute(100)
+ *         ),
+ *         Executors.newFixedThreadPool(100)
+ *     );
+ *     docker.create("web", config)
+ *         .thenCompose(docker::start)
+ *         .join();
+ * </pre>
+ * If an operation fails, the future completes exceptionally with a
+ * {@link CompletionException} wrapping the original {@link IOException}
+ * or {@link UnexpectedResponseException}.<br><br>
+ * It is not an asynchronous Docker client and it is not non-blocking I/O:
+ * the requests are sent with the Docker's blocking HttpClient, so every
+ * call in flight holds one of the Executor's threads and one pooled
+ * connection until its response arrives. Thousands of calls in flight
+ * need thousands of threads; size the Executor and the pool together.
+ * A Docker whose calls in flight hold no thread while they wait for the
+ * engine (e.g. over HttpAsyncClient for TCP and NIO over the unix socket
+ * channel) is yet to be written.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class ExecutorAdapter {
+
+    /**
+     * The Docker which performs the calls.
+     */
+    private final Docker docker;
+
+    /**
+     * Executor running the calls.
+     */
+    private final Executor executor;
+
+    /**
+     * Ctor.
+     * @param docker The Docker which performs the calls.
+     * @param executor Executor running the calls.
+     */
+    public ExecutorAdapter(final Docker docker, final Executor executor) {
+        this.docker = docker;
+        this.executor = executor;
+    }
+
+    /**
+     * Create a container with a random name.
+     * @param container Json config as specified in the API's docs.
+     * @return Future Container.
+     */
+    public CompletableFuture<Container> create(final JsonObject container) {
+        return this.call(dkr -> dkr.containers().create(container));
+    }
+
+    /**
+     * Create a container.
+     * @param name Container's name.
+     * @param container Json config as specified in the API's docs.
+     * @return Future Container.
+     */
+    public CompletableFuture<Container> create(
+        final String name, final JsonObject container
+    ) {
+        return this.call(dkr -> dkr.containers().create(name, container));
+    }
+
+    /**
+     * Start the given container.
+     * @param container Container to start.
+     * @return Future completed with the started container.
+     */
+    public CompletableFuture<Container> start(final Container container) {
+        return this.call(
+            dkr -> {
+                container.start();
+                return container;
+            }
+        );
+    }
+
+    /**
+     * Stop the given container.
+     * @param container Container to stop.
+     * @return Future completed with the stopped container.
+     */
+    public CompletableFuture<Container> stop(final Container container) {
+        return this.call(
+            dkr -> {
+                container.stop();
+                return container;
+            }
+        );
+    }
+
+    /**
+     * Kill the given container.
+     * @param container Container to kill.
+     * @return Future completed with the killed container.
+     */
+    public CompletableFuture<Container> kill(final Container container) {
+        return this.call(
+            dkr -> {
+                container.kill();
+                return container;
+            }
+        );
+    }
+
+    /**
+     * Restart the given container.
+     * @param container Container to restart.
+     * @return Future completed with the restarted container.
+     */
+    public CompletableFuture<Container> restart(final Container container) {
+        return this.call(
+            dkr -> {
+                container.restart();
+                return container;
+            }
+        );
+    }
+
+    /**
+     * Remove the given container.
+     * @param container Container to remove.
+     * @return Future completed when the container is removed.
+     */
+    public CompletableFuture<Void> remove(final Container container) {
+        return this.call(
+            dkr -> {
+                container.remove();
+                return null;
+            }
+        );
+    }
+
+    /**
+     * Inspect the given container.
+     * @param container Container to inspect.
+     * @return Future inspection.
+     */
+    public CompletableFuture<JsonObject> inspect(final Container container) {
+        return this.call(dkr -> container.inspect());
+    }
+
+    /**
+     * Wait on the given container.
+     * @param container Container to wait on.
+     * @param state The state to wait for. One of "not-running"
+     *  (the default if null), "next-exit", or "removed".
+     * @return Future exit code of the container.
+     */
+    public CompletableFuture<Integer> waitOn(
+        final Container container, final String state
+    ) {
+        return this.call(dkr -> container.waitOn(state));
+    }
+
+    /**
+     * Pull an Image.
+     * @param name Name of the image to pull.
+     * @param tag Tag or digest for the image.
+     * @return Future Image.
+     */
+    public CompletableFuture<Image> pull(final String name, final String tag) {
+        return this.call(dkr -> dkr.images().pull(name, tag));
+    }
+
+    /**
+     * Run any other operation (on Networks, Volumes, Swarm etc.)
+     * on the Executor.
+     * <pre>
+     *     docker.call(docker -> docker.networks().create("backend"));
+     * </pre>
+     * @param call The operation.
+     * @param <T> Type of the result.
+     * @return Future result.
+     */
+    public <T> CompletableFuture<T> call(final Call<T> call) {
+        return CompletableFuture.supplyAsync(
+            () -> {
+                try {
+                    return call.call(this.docker);
+                } catch (final IOException ex) {
+                    throw new CompletionException(ex);
+                }
+            },
+            this.executor
+        );
+    }
+
+    /**
+     * The Docker which performs the calls.
+     * @return Docker.
+     */
+    public Docker docker() {
+        return this.docker;
+    }
+
+    /**
+     * An operation against the Docker API.
+     * @param <T> Type of the result.
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+
+        /**
+         * Perform the operation.
+         * @param docker The Docker API.
+         * @return The result.
+         * @throws IOException If something goes wrong.
+         */
+        T call(Docker docker) throws IOException;
+    }
+}
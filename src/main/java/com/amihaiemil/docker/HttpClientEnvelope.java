@@ -26,6 +26,7 @@
 package com.amihaiemil.docker;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.function.Supplier;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpRequest;
@@ -126,4 +127,71 @@ abstract class HttpClientEnvelope implements HttpClient {
             target, request, responseHandler, context
         );
     }
+
+    /**
+     * HTTP method of a request, whichever way it was built.
+     * @param request Request.
+     * @return Method (e.g. GET).
+     */
+    static String method(final HttpRequest request) {
+        return request.getRequestLine().getMethod();
+    }
+
+    /**
+     * Path of a request, whichever way it was built (with an absolute URI
+     * or with a path and a separate HttpHost).
+     * @param request Request.
+     * @return Path.
+     */
+    static String path(final HttpRequest request) {
+        final String path;
+        if(request instanceof HttpUriRequest) {
+            path = ((HttpUriRequest) request).getURI().getPath();
+        } else {
+            path = URI.create(request.getRequestLine().getUri()).getPath();
+        }
+        return path;
+    }
+
+    /**
+     * Maximum number of connections per route of the pool under the given
+     * HttpClient, looking through the envelopes of this library.
+     * @param client HttpClient.
+     * @return Maximum number of connections, or Integer.MAX_VALUE if the
+     *  pool is not known.
+     */
+    static int maxPerRoute(final HttpClient client) {
+        final int max;
+        if(client instanceof HttpClientEnvelope) {
+            max = ((HttpClientEnvelope) client).maxPerRoute();
+        } else {
+            max = Integer.MAX_VALUE;
+        }
+        return max;
+    }
+
+    /**
+     * Maximum number of connections per route of the pool under this
+     * envelope.
+     * @return Maximum number of connections, or Integer.MAX_VALUE if the
+     *  pool is not known.
+     */
+    int maxPerRoute() {
+        return HttpClientEnvelope.maxPerRoute(this.enveloped);
+    }
+
+    /**
+     * A call to the enveloped HttpClient, through one of its overloads.
+     * @param <T> Type of the result.
+     */
+    @FunctionalInterface
+    interface Call<T> {
+
+        /**
+         * Make the call.
+         * @return Result.
+         * @throws IOException If an I/O error occurs.
+         */
+        T call() throws IOException;
+    }
 }
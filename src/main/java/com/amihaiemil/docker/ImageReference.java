@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+/**
+ * Reference to an image (e.g. ubuntu, ubuntu:18.04,
+ * docker.io/library/ubuntu:18.04, registry:5000/app@sha256:...), in the
+ * canonical form used by the Docker engine when it lists images: Docker Hub
+ * images without the registry and the library namespace, and the tag
+ * latest when neither a tag nor a digest is given. Two references to the
+ * same image are equal.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class ImageReference {
+
+    /**
+     * Name of the image, without tag or digest.
+     */
+    private final String name;
+
+    /**
+     * Tag or digest.
+     */
+    private final String tag;
+
+    /**
+     * Ctor.
+     * @param reference Reference to an image.
+     */
+    ImageReference(final String reference) {
+        final int digest = reference.indexOf('@');
+        final int colon = reference.lastIndexOf(':');
+        final String repository;
+        if(digest >= 0) {
+            repository = reference.substring(0, digest);
+            this.tag = reference.substring(digest + 1);
+        } else if(colon > reference.lastIndexOf('/')) {
+            repository = reference.substring(0, colon);
+            this.tag = reference.substring(colon + 1);
+        } else {
+            repository = reference;
+            this.tag = "latest";
+        }
+        this.name = ImageReference.canonical(repository);
+    }
+
+    /**
+     * Name of the image, without tag or digest.
+     * @return String.
+     */
+    String name() {
+        return this.name;
+    }
+
+    /**
+     * Tag or digest of the image.
+     * @return String.
+     */
+    String tag() {
+        return this.tag;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other || other instanceof ImageReference
+            && this.toString().equals(other.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.toString().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        final String separator;
+        if(this.tag.contains(":")) {
+            separator = "@";
+        } else {
+            separator = ":";
+        }
+        return this.name + separator + this.tag;
+    }
+
+    /**
+     * Name of the repository, without the Docker Hub registry and the
+     * library namespace.
+     * @param repository Name of the repository.
+     * @return Canonical name.
+     */
+    private static String canonical(final String repository) {
+        return repository
+            .replaceFirst("^(index\\.)?docker\\.io/", "")
+            .replaceFirst("^library/", "");
+    }
+}
@@ -26,9 +26,13 @@
 package com.amihaiemil.docker;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Images API.
@@ -57,6 +61,56 @@ public interface Images extends Iterable<Image> {
         final String name, final String tag
     ) throws IOException, UnexpectedResponseException;
 
+    /**
+     * Pull an Image from the Docker registry, following its progress.
+     * The progress messages are read as the Docker engine sends them and
+     * each of them is given to the listener, on the calling thread, with
+     * the download rate of its layer and of the whole pull.<br><br>
+     * If the pull makes no progress for longer than the stall timeout
+     * (e.g. the registry hangs), it is aborted.
+     * @param name Name of the image to pull.
+     * @param tag Tag or digest for the image.
+     * @param listener Consumer of the progress.
+     * @param stall Time without progress after which the pull is aborted.
+     *  Use Duration.ZERO to never abort it.
+     * @return The created {@link Image}.
+     * @throws IOException If an I/O error occurs, if the Docker engine
+     *  reports an error during the pull or if the pull stalled.
+     * @throws UnexpectedResponseException If the API responds with an
+     *  unexpected status.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    Image pull(
+        final String name, final String tag,
+        final Consumer<PullProgress> listener, final Duration stall
+    ) throws IOException, UnexpectedResponseException;
+
+    /**
+     * Pull the given images, except the ones which are already among these
+     * Images, sending at most the given number of pulls in parallel. The
+     * references are compared in their canonical form, so ubuntu,
+     * ubuntu:latest and docker.io/library/ubuntu:latest are pulled once and
+     * reported under the first of them; references by digest are compared
+     * with the digests of these Images.
+     * If another thread of this JVM is already pulling one of the images
+     * from the same Docker engine, its pull is awaited instead of sending
+     * a new one.<br><br>
+     *
+     * A failed pull does not stop the others; it is reported in the
+     * outcome. The images which were already present are reported as
+     * succeeded. The pulls share the connection pool of the Docker's
+     * HttpClient (see {@link PoolConfig}), so the parallelism is also
+     * bounded by it.
+     * @param references References of the images (e.g. ubuntu:18.04,
+     *  registry:5000/app@sha256:...).
+     * @param parallel Maximum number of parallel pulls.
+     * @return Outcome of each reference and timing.
+     * @throws IOException If these Images cannot be listed or the calling
+     *  thread is interrupted.
+     */
+    BulkOutcome prePull(Iterable<String> references, int parallel)
+        throws IOException;
+
     /**
      * Import an Image.
      * @param source The URL from which the image can be retrieved.
@@ -83,6 +137,32 @@ public interface Images extends Iterable<Image> {
     Images importFromTar(
         String file) throws IOException, UnexpectedResponseException;
 
+    /**
+     * Import images from tar file. The file is streamed to the
+     * Docker engine, it is never loaded in memory.
+     *
+     * @param file Tar file containing Images.
+     * @return Images All images, including the newly imported ones.
+     * @throws IOException If an I/O error occurs.
+     * @throws UnexpectedResponseException If the API responds with an
+     *  unexpected status.
+     */
+    Images importFromTar(Path file)
+        throws IOException, UnexpectedResponseException;
+
+    /**
+     * Import images from a tarball, which is streamed to the Docker engine
+     * (chunked) as it is read. The stream is closed once it was sent.
+     *
+     * @param tar Tarball containing Images.
+     * @return Images All images, including the newly imported ones.
+     * @throws IOException If an I/O error occurs.
+     * @throws UnexpectedResponseException If the API responds with an
+     *  unexpected status.
+     */
+    Images importFromTar(InputStream tar)
+        throws IOException, UnexpectedResponseException;
+
     /**
      * Deletes unused images.
      * @throws IOException If an I/O error occurs.
@@ -101,6 +181,38 @@ public interface Images extends Iterable<Image> {
      */
     Reader save() throws IOException, UnexpectedResponseException;
 
+    /**
+     * Save the given images in a tarball. The tarball is not decoded
+     * in any way: the returned stream gives the raw bytes sent by
+     * the Docker engine, as they arrive. Wrap it with
+     * {@link java.nio.channels.Channels#newChannel(InputStream)} if you
+     * need a ReadableByteChannel.<br><br>
+     * Close the stream when you are done: if it was not read until the
+     * end, the connection is aborted instead of being drained.
+     * @param names Names or IDs of the images to save.
+     * @return InputStream of the tarball.
+     * @see <a href="https://docs.docker.com/engine/api/v1.35/#operation/ImageGetAll">Export Images</a>
+     * @throws IOException If an I/O error occurs.
+     * @throws UnexpectedResponseException If the API responds with an
+     *  unexpected status.
+     */
+    InputStream save(Iterable<String> names)
+        throws IOException, UnexpectedResponseException;
+
+    /**
+     * Save the given images in a tarball, written directly to the given
+     * file. An existing file is replaced.
+     * @param names Names or IDs of the images to save.
+     * @param target File where the tarball is written.
+     * @return Number of bytes written.
+     * @see <a href="https://docs.docker.com/engine/api/v1.35/#operation/ImageGetAll">Export Images</a>
+     * @throws IOException If an I/O error occurs.
+     * @throws UnexpectedResponseException If the API responds with an
+     *  unexpected status.
+     */
+    long save(Iterable<String> names, Path target)
+        throws IOException, UnexpectedResponseException;
+
     /**
      * Filter these images.
      * @param filters Filters to apply.
@@ -0,0 +1,814 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * Keeps an in-memory {@link Mirror} of the containers, images, networks
+ * and volumes of a Docker, so they can be queried without calling the
+ * server:
+ * <pre>
+ *     final Informer informer = new Informer(docker);
+ *     ...
+ *     final Collection&lt;JsonObject&gt; web = informer.containers()
+ *         .labeled("app", "web");
+ *     final Collection&lt;JsonObject&gt; running = informer.containers()
+ *         .indexed("status", "running");
+ *     ...
+ *     informer.close();
+ * </pre>
+ * A background thread opens the event stream and then lists each kind of
+ * resource once. Afterwards, the events are applied as follows:
+ * <ul>
+ *     <li>if the event says enough about the change, it is applied right
+ *     away to the mirrored resource, without calling the server: a
+ *     container which started, died, was paused, unpaused, renamed or
+ *     disconnected from a network, a resource which was destroyed or an
+ *     image which was deleted. The "State" of a container is changed, but
+ *     its "Status" text (e.g. "Up 5 minutes") is only changed when it is
+ *     listed again;</li>
+ *     <li>otherwise, only the resource it is about is listed again: a
+ *     container or network filtered by id, a volume filtered by name and an
+ *     image filtered by the reference (name:tag) in the event. If the image
+ *     event has no reference (e.g. untag), all the images are listed
+ *     again.</li>
+ * </ul>
+ * The listings are not made right away: they wait for the given debounce
+ * time (100 milliseconds by default), so a burst of events about the same
+ * resource (e.g. create, attach, connect, start) is followed by one
+ * listing.<br><br>
+ *
+ * If the event stream fails or ends, or a listing failed, the stream is
+ * reopened with a backoff (see {@link Events#monitor(Duration, Duration)})
+ * and, since the server may not send again all the events which were
+ * missed, all the resources are listed again. Until then,
+ * {@link #synced()} is false and the mirrors may be behind the server. The
+ * event stream holds one connection of the Docker's HttpClient.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class Informer implements AutoCloseable {
+
+    /**
+     * Key of the listing of all the images.
+     */
+    private static final String IMAGES = "images";
+
+    /**
+     * Mirrored containers.
+     */
+    private final Mirror containers;
+
+    /**
+     * Mirrored images.
+     */
+    private final Mirror images;
+
+    /**
+     * Mirrored networks.
+     */
+    private final Mirror networks;
+
+    /**
+     * Mirrored volumes.
+     */
+    private final Mirror volumes;
+
+    /**
+     * Are the mirrors in sync with the server?
+     */
+    private final AtomicBoolean synced;
+
+    /**
+     * Listings waiting for the debounce time.
+     */
+    private final Refreshes refreshes;
+
+    /**
+     * Events being followed.
+     */
+    private final ResumedEvents events;
+
+    /**
+     * Ctor. Listings wait 100 milliseconds for more events about the same
+     * resource.
+     * @param docker Docker to mirror.
+     * @throws IllegalArgumentException If the Docker is not one of the
+     *  implementations offered by this library.
+     */
+    public Informer(final Docker docker) {
+        this(docker, Duration.ofMillis(100L));
+    }
+
+    /**
+     * Ctor.
+     * @param docker Docker to mirror.
+     * @param debounce How long a listing waits for more events about the
+     *  same resource.
+     * @throws IllegalArgumentException If the Docker is not one of the
+     *  implementations offered by this library.
+     */
+    public Informer(final Docker docker, final Duration debounce) {
+        this.containers = new Mirror(
+            "Id",
+            () -> docker.containers().all(),
+            id -> docker.containers().filter(Informer.filter("id", id)).all(),
+            Informer.forContainers()
+        );
+        this.images = new Mirror(
+            "Id",
+            () -> docker.images().iterator(),
+            name -> docker.images()
+                .filter(Informer.filter("reference", name)).iterator(),
+            Informer.indexes()
+        );
+        this.networks = new Mirror(
+            "Id",
+            () -> docker.networks().iterator(),
+            id -> docker.networks().filter(Informer.filter("id", id))
+                .iterator(),
+            Informer.indexes()
+        );
+        this.volumes = new Mirror(
+            "Name",
+            () -> docker.volumes().iterator(),
+            name -> docker.volumes().filter(Informer.filter("name", name))
+                .iterator(),
+            Informer.indexes()
+        );
+        this.synced = new AtomicBoolean(false);
+        this.refreshes = new Refreshes(debounce, this::drop);
+        this.events = ResumedEvents.following(
+            docker.events().filter(
+                () -> Collections.singletonMap(
+                    "type",
+                    Arrays.asList("container", "image", "network", "volume")
+                )
+            ),
+            new Resync(this)
+        );
+        final Thread follow = new Thread(
+            this::follow, "docker-java-api-informer"
+        );
+        follow.setDaemon(true);
+        follow.start();
+    }
+
+    /**
+     * Mirrored containers, all of them (not only the running ones).
+     * @return Mirror.
+     */
+    public Mirror containers() {
+        return this.containers;
+    }
+
+    /**
+     * Mirrored images.
+     * @return Mirror.
+     */
+    public Mirror images() {
+        return this.images;
+    }
+
+    /**
+     * Mirrored networks.
+     * @return Mirror.
+     */
+    public Mirror networks() {
+        return this.networks;
+    }
+
+    /**
+     * Mirrored volumes.
+     * @return Mirror.
+     */
+    public Mirror volumes() {
+        return this.volumes;
+    }
+
+    /**
+     * Are the mirrors in sync with the server? It is false until the first
+     * listing is done and while the event stream is being reopened.
+     * @return True or false.
+     */
+    public boolean synced() {
+        return this.synced.get();
+    }
+
+    /**
+     * Stop following the events. The mirrors keep their last state.
+     */
+    @Override
+    public void close() {
+        this.events.close();
+        this.refreshes.close();
+    }
+
+    /**
+     * Apply an event to the mirrors.
+     * @param event Event, as streamed by {@link Events#monitor()}.
+     */
+    void apply(final JsonObject event) {
+        final String type = event.getString("Type", "");
+        final String action = event.getString("Action", "");
+        final JsonObject none = Json.createObjectBuilder().build();
+        final JsonObject actor = event.getJsonObject("Actor");
+        final String id;
+        final JsonObject attributes;
+        if(actor == null) {
+            id = "";
+            attributes = none;
+        } else {
+            id = actor.getString("ID", "");
+            attributes = Informer.object(actor, "Attributes");
+        }
+        if("container".equals(type)) {
+            this.container(action, id, attributes);
+        } else if("image".equals(type)) {
+            this.image(action, id, attributes.getString("name", ""));
+        } else if("network".equals(type)) {
+            this.network(action, id, attributes);
+        } else if("volume".equals(type)
+            && !"mount".equals(action) && !"unmount".equals(action)) {
+            this.changed(this.volumes, action, id);
+        }
+    }
+
+    /**
+     * Make the listings which are waiting for the debounce time now.
+     */
+    void flush() {
+        this.refreshes.flush();
+    }
+
+    /**
+     * Apply a container event. Exec events do not change the listed
+     * container.
+     * @param action Event action.
+     * @param id ID of the container.
+     * @param attributes Attributes of the event.
+     */
+    private void container(
+        final String action, final String id, final JsonObject attributes
+    ) {
+        final String state = Informer.state(action);
+        final BooleanSupplier delta;
+        if("destroy".equals(action)) {
+            delta = () -> Informer.removed(this.containers, id);
+        } else if(!state.isEmpty()) {
+            delta = () -> this.containers.update(
+                id, json -> Informer.with(json, "State", state)
+            );
+        } else if("rename".equals(action)) {
+            final String name = "/" + attributes.getString("name", "");
+            delta = () -> this.containers.update(
+                id, json -> Informer.with(json, "Names", name)
+            );
+        } else {
+            delta = () -> false;
+        }
+        if(!action.startsWith("exec_") && !id.isEmpty()) {
+            this.refreshes.apply(
+                "container:" + id, delta, () -> this.containers.refresh(id)
+            );
+        }
+    }
+
+    /**
+     * Apply an image event. A deleted image is removed; otherwise, the
+     * images with the reference of the event are listed again or, if it
+     * has none, all of them. Pushing or saving does not change an image.
+     * @param action Event action.
+     * @param id ID of the image.
+     * @param name Name of the image, as given in the event.
+     */
+    private void image(
+        final String action, final String id, final String name
+    ) {
+        if("delete".equals(action)) {
+            this.refreshes.apply(
+                Informer.IMAGES, () -> Informer.removed(this.images, id),
+                () -> this.images.resync()
+            );
+        } else if(!name.isEmpty() && !name.startsWith("sha256:")) {
+            this.refreshes.apply(
+                "image:" + name, () -> false, () -> this.tagged(name)
+            );
+        } else if(!"push".equals(action) && !"save".equals(action)) {
+            this.refreshes.apply(
+                Informer.IMAGES, () -> false, () -> this.images.resync()
+            );
+        }
+    }
+
+    /**
+     * Apply a network event. Connecting or disconnecting a container does
+     * not change the listed network, but it changes the listed container.
+     * @param action Event action.
+     * @param id ID of the network.
+     * @param attributes Attributes of the event.
+     */
+    private void network(
+        final String action, final String id, final JsonObject attributes
+    ) {
+        final String container = attributes.getString("container", "");
+        if("connect".equals(action) || "disconnect".equals(action)) {
+            final String name = attributes.getString("name", "");
+            final BooleanSupplier delta;
+            if("disconnect".equals(action)) {
+                delta = () -> this.containers.update(
+                    container, json -> Informer.disconnected(json, name)
+                );
+            } else {
+                delta = () -> false;
+            }
+            if(!container.isEmpty()) {
+                this.refreshes.apply(
+                    "container:" + container, delta,
+                    () -> this.containers.refresh(container)
+                );
+            }
+        } else {
+            this.changed(this.networks, action, id);
+        }
+    }
+
+    /**
+     * A network or volume changed: remove it if it was destroyed, list it
+     * again otherwise.
+     * @param mirror Mirror of the resource.
+     * @param action Event action.
+     * @param id ID of the resource.
+     */
+    private void changed(
+        final Mirror mirror, final String action, final String id
+    ) {
+        final BooleanSupplier delta;
+        if("destroy".equals(action)) {
+            delta = () -> Informer.removed(mirror, id);
+        } else {
+            delta = () -> false;
+        }
+        final String kind;
+        if(mirror == this.networks) {
+            kind = "network:";
+        } else {
+            kind = "volume:";
+        }
+        if(!id.isEmpty()) {
+            this.refreshes.apply(kind + id, delta, () -> mirror.refresh(id));
+        }
+    }
+
+    /**
+     * List again the images with the given reference. The reference may
+     * have been moved from another image, which loses it.
+     * @param reference Reference (name:tag).
+     */
+    private void tagged(final String reference) {
+        final Set<String> listed = this.images.refresh(reference);
+        final List<String> untagged = new ArrayList<>();
+        for(final JsonObject image : this.images.all()) {
+            final String id = image.getString("Id", "");
+            if(!listed.contains(id)
+                && Informer.tags(image).contains(reference)) {
+                untagged.add(id);
+            }
+        }
+        for(final String id : untagged) {
+            this.images.update(id, json -> Informer.untag(json, reference));
+        }
+    }
+
+    /**
+     * Follow the events and update the mirrors, until this Informer is
+     * closed. If an event cannot be applied, the event stream is dropped,
+     * so it is reopened and all the resources are listed again.
+     */
+    private void follow() {
+        try {
+            this.events.follow();
+            while(this.events.hasNext()) {
+                final JsonObject event = this.events.next();
+                try {
+                    this.apply(event);
+                } catch (final UnexpectedResponseException
+                    | IllegalStateException | JsonException ex) {
+                    this.drop();
+                }
+            }
+        } finally {
+            this.synced.set(false);
+        }
+    }
+
+    /**
+     * Drop the event stream, so it is reopened and all the resources are
+     * listed again.
+     */
+    private void drop() {
+        this.events.drop();
+    }
+
+    /**
+     * List all the resources again. The listings waiting for the debounce
+     * time are not needed anymore.
+     */
+    private void resync() {
+        this.refreshes.clear();
+        this.containers.resync();
+        this.images.resync();
+        this.networks.resync();
+        this.volumes.resync();
+    }
+
+    /**
+     * Remove a destroyed resource.
+     * @param mirror Mirror of the resource.
+     * @param id ID of the resource.
+     * @return Always true, the event was enough.
+     */
+    private static boolean removed(final Mirror mirror, final String id) {
+        mirror.remove(id);
+        return true;
+    }
+
+    /**
+     * State of a container after the given event action.
+     * @param action Event action.
+     * @return State or an empty string, if the action does not tell it.
+     */
+    private static String state(final String action) {
+        final String state;
+        if("start".equals(action) || "unpause".equals(action)) {
+            state = "running";
+        } else if("die".equals(action)) {
+            state = "exited";
+        } else if("pause".equals(action)) {
+            state = "paused";
+        } else {
+            state = "";
+        }
+        return state;
+    }
+
+    /**
+     * The given resource with a changed attribute. "Names" is an array.
+     * @param resource Listed resource.
+     * @param name Name of the attribute.
+     * @param value New value.
+     * @return JsonObject.
+     */
+    private static JsonObject with(
+        final JsonObject resource, final String name, final String value
+    ) {
+        final JsonObjectBuilder changed = Informer.without(resource, name);
+        if("Names".equals(name)) {
+            changed.add(name, Json.createArrayBuilder().add(value));
+        } else {
+            changed.add(name, value);
+        }
+        return changed.build();
+    }
+
+    /**
+     * The given container, without the given network.
+     * @param container Listed container.
+     * @param network Name of the network.
+     * @return JsonObject.
+     */
+    private static JsonObject disconnected(
+        final JsonObject container, final String network
+    ) {
+        final JsonObject settings = Informer.object(
+            container, "NetworkSettings"
+        );
+        return Informer.without(container, "NetworkSettings").add(
+            "NetworkSettings",
+            Informer.without(settings, "Networks").add(
+                "Networks",
+                Informer.without(
+                    Informer.object(settings, "Networks"), network
+                )
+            )
+        ).build();
+    }
+
+    /**
+     * The given image, without the given reference in its RepoTags.
+     * @param image Listed image.
+     * @param reference Reference (name:tag).
+     * @return JsonObject.
+     */
+    private static JsonObject untag(
+        final JsonObject image, final String reference
+    ) {
+        final JsonArrayBuilder tags = Json.createArrayBuilder();
+        for(final String tag : Informer.tags(image)) {
+            if(!tag.equals(reference)) {
+                tags.add(tag);
+            }
+        }
+        return Informer.without(image, "RepoTags").add("RepoTags", tags)
+            .build();
+    }
+
+    /**
+     * The RepoTags of a listed image.
+     * @param image Listed image.
+     * @return Tags.
+     */
+    private static Collection<String> tags(final JsonObject image) {
+        final Set<String> tags = new HashSet<>();
+        final JsonValue repo = image.get("RepoTags");
+        if(repo instanceof JsonArray) {
+            for(final JsonValue tag : (JsonArray) repo) {
+                if(tag instanceof JsonString) {
+                    tags.add(((JsonString) tag).getString());
+                }
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * A builder with the attributes of the given object, but one.
+     * @param json JsonObject.
+     * @param name Name of the attribute left out.
+     * @return JsonObjectBuilder.
+     */
+    private static JsonObjectBuilder without(
+        final JsonObject json, final String name
+    ) {
+        final JsonObjectBuilder builder = Json.createObjectBuilder();
+        for(final Map.Entry<String, JsonValue> entry : json.entrySet()) {
+            if(!entry.getKey().equals(name)) {
+                builder.add(entry.getKey(), entry.getValue());
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * The JsonObject at the given key, or an empty one.
+     * @param json JsonObject.
+     * @param key Key.
+     * @return JsonObject.
+     */
+    private static JsonObject object(final JsonObject json, final String key) {
+        final JsonObject object;
+        if(json.get(key) instanceof JsonObject) {
+            object = json.getJsonObject(key);
+        } else {
+            object = Json.createObjectBuilder().build();
+        }
+        return object;
+    }
+
+    /**
+     * Filter with one value.
+     * @param name Filter name.
+     * @param value Filter value.
+     * @return Filters.
+     */
+    private static Map<String, Iterable<String>> filter(
+        final String name, final String value
+    ) {
+        return Collections.singletonMap(
+            name, Collections.singletonList(value)
+        );
+    }
+
+    /**
+     * The label index, which all the resources have.
+     * @return Index functions, by name.
+     */
+    private static
+        Map<String, Function<JsonObject, Collection<String>>> indexes() {
+        final Map<String, Function<JsonObject, Collection<String>>> indexes;
+        indexes = new HashMap<>();
+        indexes.put("label", Mirror::labels);
+        return indexes;
+    }
+
+    /**
+     * The indexes of containers: label, image, network and status.
+     * @return Index functions, by name.
+     */
+    private static
+        Map<String, Function<JsonObject, Collection<String>>> forContainers() {
+        final Map<String, Function<JsonObject, Collection<String>>> indexes;
+        indexes = Informer.indexes();
+        indexes.put("image", json -> Mirror.strings(json, "Image", "ImageID"));
+        indexes.put("network", json -> Mirror.networks(json));
+        indexes.put("status", json -> Mirror.strings(json, "State"));
+        return indexes;
+    }
+
+    /**
+     * Thread of the listings which waited for the debounce time.
+     * @param task Task.
+     * @return Thread.
+     */
+    private static Thread daemon(final Runnable task) {
+        final Thread refresh = new Thread(
+            task, "docker-java-api-informer-refresh"
+        );
+        refresh.setDaemon(true);
+        return refresh;
+    }
+
+    /**
+     * Listings of resources, each waiting for the debounce time after it
+     * was asked for, so the following ones for the same resource are
+     * coalesced into it. While a listing waits or is being made, the
+     * changes to its resource are not applied from the events, since the
+     * listing could overwrite them with an older state: the listing is
+     * asked for again instead.
+     */
+    private static final class Refreshes {
+
+        /**
+         * How long a listing waits.
+         */
+        private final Duration debounce;
+
+        /**
+         * Called when a listing failed.
+         */
+        private final Runnable failed;
+
+        /**
+         * Makes the listings, after they waited.
+         */
+        private final ScheduledExecutorService timer;
+
+        /**
+         * Waiting listings, by the resource they are about.
+         */
+        private final Map<String, Runnable> waiting;
+
+        /**
+         * Resources being listed.
+         */
+        private final Set<String> listing;
+
+        /**
+         * Ctor.
+         * @param debounce How long a listing waits.
+         * @param failed Called when a listing failed.
+         */
+        Refreshes(final Duration debounce, final Runnable failed) {
+            this.debounce = debounce;
+            this.failed = failed;
+            this.timer = Executors.newSingleThreadScheduledExecutor(
+                Informer::daemon
+            );
+            this.waiting = new LinkedHashMap<>();
+            this.listing = new HashSet<>();
+        }
+
+        /**
+         * Apply a change to a resource, if it is not being listed and the
+         * event was enough, or list the resource later.
+         * @param key The resource.
+         * @param delta Applies the change; false if the event was not
+         *  enough.
+         * @param refresh Lists the resource.
+         */
+        void apply(
+            final String key, final BooleanSupplier delta,
+            final Runnable refresh
+        ) {
+            synchronized(this.waiting) {
+                if(this.waiting.containsKey(key)
+                    || this.listing.contains(key) || !delta.getAsBoolean()) {
+                    if(this.waiting.isEmpty() && !this.timer.isShutdown()) {
+                        this.timer.schedule(
+                            this::flush, this.debounce.toNanos(),
+                            TimeUnit.NANOSECONDS
+                        );
+                    }
+                    this.waiting.putIfAbsent(key, refresh);
+                }
+            }
+        }
+
+        /**
+         * Make the waiting listings now.
+         */
+        void flush() {
+            final Map<String, Runnable> due;
+            synchronized(this.waiting) {
+                due = new LinkedHashMap<>(this.waiting);
+                this.waiting.clear();
+                this.listing.addAll(due.keySet());
+            }
+            try {
+                due.values().forEach(Runnable::run);
+            } catch (final UnexpectedResponseException
+                | IllegalStateException | JsonException ex) {
+                this.failed.run();
+            } finally {
+                synchronized(this.waiting) {
+                    this.listing.removeAll(due.keySet());
+                }
+            }
+        }
+
+        /**
+         * Forget the waiting listings, since everything is listed again.
+         */
+        void clear() {
+            synchronized(this.waiting) {
+                this.waiting.clear();
+            }
+        }
+
+        /**
+         * Stop making listings.
+         */
+        void close() {
+            this.timer.shutdownNow();
+        }
+    }
+
+    /**
+     * Lists all the resources each time the events are followed again.
+     */
+    private static final class Resync implements ResumedEvents.Connection {
+
+        /**
+         * The Informer.
+         */
+        private final Informer informer;
+
+        /**
+         * Ctor.
+         * @param informer The Informer.
+         */
+        Resync(final Informer informer) {
+            this.informer = informer;
+        }
+
+        @Override
+        public void opened() {
+            this.informer.resync();
+            this.informer.synced.set(true);
+        }
+
+        @Override
+        public void dropped() {
+            this.informer.synced.set(false);
+        }
+    }
+}
@@ -48,25 +48,41 @@ final class Inspection extends JsonResource {
      */
     Inspection(final HttpClient client, final String url)
         throws UnexpectedResponseException, IOException {
-        super(fetch(client, url));
+        this(client, url, JsonFactories.SHARED);
+    }
+
+    /**
+     * Ctor.
+     * @param client The Http client.
+     * @param url The request URL.
+     * @param json JSON factories to read the inspection with.
+     * @throws UnexpectedResponseException If Docker's response code is not 200.
+     * @throws IOException If an I/O error occurs.
+     */
+    Inspection(
+        final HttpClient client, final String url, final JsonFactories json
+    ) throws UnexpectedResponseException, IOException {
+        super(fetch(client, url, json));
     }
     
     /**
      * Fetch the JsonObject resource.
      * @param client The Http client.
      * @param url The request URL.
+     * @param json JSON factories to read the inspection with.
      * @return The fetched JsonObject.
      * @throws UnexpectedResponseException If Docker's response code is not 200.
      * @throws IOException If an I/O error occurs.
      */
-    private static JsonObject fetch(final HttpClient client, final String url)
-        throws UnexpectedResponseException, IOException {
+    private static JsonObject fetch(
+        final HttpClient client, final String url, final JsonFactories json
+    ) throws UnexpectedResponseException, IOException {
         final HttpGet inspect = new HttpGet(url);
         try {
             return client.execute(
                 inspect,
-                new ReadJsonObject(
-                    new MatchStatus(inspect.getURI(), HttpStatus.SC_OK)
+                new ReadLazyJsonObject(
+                    new MatchStatus(inspect.getURI(), HttpStatus.SC_OK), json
                 )
             );
         } finally {
@@ -0,0 +1,569 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * HttpClient which keeps the successful inspections of containers, images,
+ * networks and volumes in memory. It is bounded: entries expire after
+ * the given time to live and, when it is full, the least recently read
+ * entry is evicted.<br><br>
+ *
+ * Inspections are served from memory only while the cache is live, that is
+ * while someone is following the Docker events and giving them to
+ * {@link #invalidate(JsonObject)}. Only the inspections made through
+ * {@code execute(request, handler)}, as this library makes them, are
+ * served from memory. Any request other than a GET, made through any of
+ * the execute overloads, also invalidates the resource it touches, both
+ * before it is sent and after its response arrived, so the caller always
+ * reads its own writes, even if an inspection was in flight meanwhile.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class InspectionCache extends HttpClientEnvelope {
+
+    /**
+     * Inspection paths: /containers/{id}/json, /images/{name}/json,
+     * /networks/{id} and /volumes/{name}.
+     */
+    private static final Pattern INSPECTION = Pattern.compile(
+        ".*/(containers|images)/(.+)/json$|.*/(networks|volumes)/([^/]+)$"
+    );
+
+    /**
+     * Paths of requests which change a resource:
+     * /{kind}/{name}[/operation].
+     */
+    private static final Pattern WRITE = Pattern.compile(
+        ".*/(containers|images|networks|volumes)/([^/]+)(/.*)?$"
+    );
+
+    /**
+     * Cached responses, by request URI, in the order of their last read.
+     */
+    private final Map<String, Cached> entries;
+
+    /**
+     * Time to live of an entry, in nanoseconds.
+     */
+    private final long ttl;
+
+    /**
+     * Incremented on each invalidation, so a response which was fetched
+     * before an invalidation is not stored after it.
+     */
+    private long generation;
+
+    /**
+     * Are the events followed?
+     */
+    private volatile boolean live;
+
+    /**
+     * Ctor.
+     * @param origin The HttpClient which performs the requests.
+     * @param ttl Time to live of an inspection.
+     * @param size Maximum number of inspections kept.
+     */
+    InspectionCache(
+        final HttpClient origin, final Duration ttl, final int size
+    ) {
+        super(() -> origin);
+        this.ttl = ttl.toNanos();
+        this.entries = new Bounded(size);
+    }
+
+    @Override
+    public HttpResponse execute(final HttpUriRequest request)
+        throws IOException, ClientProtocolException {
+        return this.written(request, () -> super.execute(request));
+    }
+
+    @Override
+    public HttpResponse execute(
+        final HttpUriRequest request, final HttpContext context
+    ) throws IOException, ClientProtocolException {
+        return this.written(request, () -> super.execute(request, context));
+    }
+
+    @Override
+    public HttpResponse execute(
+        final HttpHost target, final HttpRequest request
+    ) throws IOException, ClientProtocolException {
+        return this.written(request, () -> super.execute(target, request));
+    }
+
+    @Override
+    public HttpResponse execute(
+        final HttpHost target, final HttpRequest request,
+        final HttpContext context
+    ) throws IOException, ClientProtocolException {
+        return this.written(
+            request, () -> super.execute(target, request, context)
+        );
+    }
+
+    @Override
+    public <T> T execute(
+        final HttpUriRequest request,
+        final ResponseHandler<? extends T> handler, final HttpContext context
+    ) throws IOException, ClientProtocolException {
+        return this.written(
+            request, () -> super.execute(request, handler, context)
+        );
+    }
+
+    @Override
+    public <T> T execute(
+        final HttpHost target, final HttpRequest request,
+        final ResponseHandler<? extends T> handler
+    ) throws IOException, ClientProtocolException {
+        return this.written(
+            request, () -> super.execute(target, request, handler)
+        );
+    }
+
+    // @checkstyle ParameterNumber (4 lines)
+    @Override
+    public <T> T execute(
+        final HttpHost target, final HttpRequest request,
+        final ResponseHandler<? extends T> handler, final HttpContext context
+    ) throws IOException, ClientProtocolException {
+        return this.written(
+            request, () -> super.execute(target, request, handler, context)
+        );
+    }
+
+    @Override
+    public <T> T execute(
+        final HttpUriRequest request,
+        final ResponseHandler<? extends T> handler
+    ) throws IOException, ClientProtocolException {
+        return this.written(request, () -> this.inspected(request, handler));
+    }
+
+    /**
+     * Serve an inspection from memory, if it is live and cached, or
+     * fetch it and keep it.
+     * @param request Request.
+     * @param handler Response handler.
+     * @param <T> Type of the handled response.
+     * @return Handled response.
+     * @throws IOException If an I/O error occurs.
+     */
+    private <T> T inspected(
+        final HttpUriRequest request,
+        final ResponseHandler<? extends T> handler
+    ) throws IOException {
+        final Matcher inspection = InspectionCache.INSPECTION.matcher(
+            request.getURI().getPath()
+        );
+        final T result;
+        if(this.live && "GET".equals(request.getMethod())
+            && inspection.matches()) {
+            final String uri = request.getURI().toString();
+            Cached cached = this.cached(uri);
+            if(cached == null) {
+                final long before = this.generation();
+                cached = super.execute(
+                    request,
+                    response -> new Cached(
+                        InspectionCache.kind(inspection),
+                        InspectionCache.name(inspection),
+                        response
+                    )
+                );
+                this.store(uri, cached, before);
+            }
+            result = handler.handleResponse(cached.response());
+        } else {
+            result = super.execute(request, handler);
+        }
+        return result;
+    }
+
+    /**
+     * Start or stop serving inspections from memory. Stopping also clears
+     * the cache, since the events which came in the meantime are lost.
+     * @param following True if the events are being followed.
+     */
+    void live(final boolean following) {
+        synchronized(this.entries) {
+            this.live = following;
+            this.generation = this.generation + 1;
+            this.entries.clear();
+        }
+    }
+
+    /**
+     * Invalidate the inspections of the resources affected by a Docker event.
+     * Images are known by many names and tags, so any image event
+     * invalidates all of them.
+     * @param event Event, as streamed by {@link Events#monitor()}.
+     */
+    void invalidate(final JsonObject event) {
+        final String type = event.getString("Type", "");
+        final JsonObject none = Json.createObjectBuilder().build();
+        final JsonObject actor = InspectionCache.object(event, "Actor", none);
+        final String id = actor.getString("ID", "");
+        final JsonObject attributes = InspectionCache.object(
+            actor, "Attributes", none
+        );
+        if("container".equals(type)) {
+            this.invalidate(
+                "containers", id,
+                attributes.getString("name", ""),
+                attributes.getString("oldName", "")
+            );
+        } else if("image".equals(type)) {
+            this.invalidate("images", null);
+        } else if("network".equals(type)) {
+            this.invalidate("networks", id, attributes.getString("name", ""));
+            this.invalidate(
+                "containers", attributes.getString("container", "")
+            );
+        } else if("volume".equals(type)) {
+            this.invalidate("volumes", id);
+        }
+    }
+
+    /**
+     * Invalidate the inspections of a kind of resource.
+     * @param kind Kind of resource (containers, images, networks, volumes).
+     * @param id Full ID of the resource or null, to invalidate all the
+     *  resources of this kind.
+     * @param names Other names of the resource.
+     */
+    private void invalidate(
+        final String kind, final String id, final String... names
+    ) {
+        synchronized(this.entries) {
+            this.generation = this.generation + 1;
+            final Iterator<Cached> all = this.entries.values().iterator();
+            while(all.hasNext()) {
+                final Cached cached = all.next();
+                if(cached.kind.equals(kind)
+                    && (id == null || cached.names(id, names))) {
+                    all.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Send a request, invalidating the resource it changes, if it is not
+     * a GET, before it is sent and after its response arrived. The second
+     * invalidation drops an inspection which was fetched while the
+     * request was in flight, and may hold the state before the change.
+     * @param request Request.
+     * @param call Sends the request.
+     * @param <T> Type of the result.
+     * @return Result.
+     * @throws IOException If an I/O error occurs.
+     */
+    private <T> T written(final HttpRequest request, final Call<T> call)
+        throws IOException {
+        this.written(request);
+        try {
+            return call.call();
+        } finally {
+            this.written(request);
+        }
+    }
+
+    /**
+     * Invalidate the resource changed by a request which is not a GET.
+     * @param request Request.
+     */
+    private void written(final HttpRequest request) {
+        if(!"GET".equals(HttpClientEnvelope.method(request))) {
+            final Matcher write = InspectionCache.WRITE.matcher(
+                HttpClientEnvelope.path(request)
+            );
+            if(write.matches()) {
+                final String kind = write.group(1);
+                final String name = write.group(2);
+                if("images".equals(kind) || "prune".equals(name)) {
+                    this.invalidate(kind, null);
+                } else {
+                    this.invalidate(kind, name);
+                }
+            }
+        }
+    }
+
+    /**
+     * The live entry of the given URI.
+     * @param uri Request URI.
+     * @return Cached response or null if it is missing or expired.
+     */
+    private Cached cached(final String uri) {
+        synchronized(this.entries) {
+            Cached cached = this.entries.get(uri);
+            if(cached != null
+                && System.nanoTime() - cached.stored >= this.ttl) {
+                this.entries.remove(uri);
+                cached = null;
+            }
+            return cached;
+        }
+    }
+
+    /**
+     * Store a fetched response, unless it failed or it was invalidated
+     * while it was being fetched.
+     * @param uri Request URI.
+     * @param cached Fetched response.
+     * @param before Generation before the fetch.
+     */
+    private void store(
+        final String uri, final Cached cached, final long before
+    ) {
+        synchronized(this.entries) {
+            if(this.live && cached.response.status() == HttpStatus.SC_OK
+                && this.generation == before) {
+                this.entries.put(uri, cached);
+            }
+        }
+    }
+
+    /**
+     * Current generation.
+     * @return Generation.
+     */
+    private long generation() {
+        synchronized(this.entries) {
+            return this.generation;
+        }
+    }
+
+    /**
+     * The JsonObject at the given key.
+     * @param json JsonObject.
+     * @param key Key.
+     * @param fallback Returned if the key is missing or not an object.
+     * @return JsonObject.
+     */
+    private static JsonObject object(
+        final JsonObject json, final String key, final JsonObject fallback
+    ) {
+        final JsonObject object;
+        if(json.get(key) instanceof JsonObject) {
+            object = json.getJsonObject(key);
+        } else {
+            object = fallback;
+        }
+        return object;
+    }
+
+    /**
+     * Kind of the inspected resource.
+     * @param inspection Matched inspection path.
+     * @return Kind (containers, images, networks, volumes).
+     */
+    private static String kind(final Matcher inspection) {
+        final String kind;
+        if(inspection.group(1) == null) {
+            kind = inspection.group(3);
+        } else {
+            kind = inspection.group(1);
+        }
+        return kind;
+    }
+
+    /**
+     * Name or ID of the inspected resource, as given in the path.
+     * @param inspection Matched inspection path.
+     * @return Name or ID.
+     */
+    private static String name(final Matcher inspection) {
+        final String name;
+        if(inspection.group(2) == null) {
+            name = inspection.group(4);
+        } else {
+            name = inspection.group(2);
+        }
+        return name;
+    }
+
+    /**
+     * A response read in memory.
+     */
+    private static final class Cached {
+
+        /**
+         * Kind of the resource.
+         */
+        private final String kind;
+
+        /**
+         * Name or ID of the resource, as it was requested.
+         */
+        private final String name;
+
+        /**
+         * Full ID of the resource (the name, for volumes), as inspected,
+         * or an empty string if it is not known.
+         */
+        private final String full;
+
+        /**
+         * The response, read in memory.
+         */
+        private final BufferedResponse response;
+
+        /**
+         * When it was read, in nanoseconds.
+         */
+        private final long stored;
+
+        /**
+         * Ctor.
+         * @param kind Kind of the resource.
+         * @param name Name or ID of the resource, as it was requested.
+         * @param response Response to read.
+         * @throws IOException If the body cannot be read.
+         */
+        Cached(
+            final String kind, final String name, final HttpResponse response
+        ) throws IOException {
+            this.kind = kind;
+            this.name = name;
+            this.response = new BufferedResponse(response);
+            this.stored = System.nanoTime();
+            this.full = Cached.identity(kind, this.response);
+        }
+
+        /**
+         * Is this the resource with the given ID or names? The resource may
+         * have been requested by a prefix of its ID or by a name, so it is
+         * matched by the full ID which it was inspected with.
+         * @param id Full ID.
+         * @param names Other names.
+         * @return True or false.
+         */
+        boolean names(final String id, final String... names) {
+            boolean matches = !id.isEmpty()
+                && (id.equals(this.full) || id.equals(this.name));
+            for(final String other : names) {
+                matches = matches || this.name.equals(
+                    other.replaceFirst("^/", "")
+                );
+            }
+            return matches;
+        }
+
+        /**
+         * A fresh response with the read status and body.
+         * @return HttpResponse.
+         */
+        HttpResponse response() {
+            return this.response.response();
+        }
+
+        /**
+         * Full ID of an inspected resource: its Id or, for volumes, its
+         * Name.
+         * @param kind Kind of the resource.
+         * @param response Inspection.
+         * @return ID or an empty string, if it cannot be read.
+         */
+        private static String identity(
+            final String kind, final BufferedResponse response
+        ) {
+            String identity = "";
+            if(response.status() == HttpStatus.SC_OK) {
+                final String key;
+                if("volumes".equals(kind)) {
+                    key = "Name";
+                } else {
+                    key = "Id";
+                }
+                try {
+                    identity = JsonFactories.SHARED.object(
+                        response.response().getEntity().getContent()
+                    ).getString(key, "");
+                } catch (final IOException | JsonException ex) {
+                    identity = "";
+                }
+            }
+            return identity;
+        }
+    }
+
+    /**
+     * Entries in the order of their last read, which evict the least
+     * recently read one when there are more than the maximum.
+     */
+    private static final class Bounded extends LinkedHashMap<String, Cached> {
+
+        /**
+         * Serialization marker.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Maximum number of entries.
+         */
+        private final int size;
+
+        /**
+         * Ctor.
+         * @param size Maximum number of entries.
+         */
+        Bounded(final int size) {
+            super(16, 0.75f, true);
+            this.size = size;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(
+            final Map.Entry<String, Cached> eldest
+        ) {
+            return this.size() > this.size;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import javax.json.JsonArray;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonReaderFactory;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+
+/**
+ * Reader, parser and builder factories, looked up once and shared by every
+ * response handler.<br><br>
+ *
+ * Each call of {@link javax.json.Json#createReader(InputStream)} looks up
+ * the {@link JsonProvider} through the ServiceLoader and the new provider
+ * comes with its own, empty buffer pool. The factories here are created
+ * once, so the lookup is paid once and the readers, which are closed after
+ * use, give their buffers back to the same pool. The same goes for
+ * {@link javax.json.Json#createObjectBuilder()} and friends, which the
+ * per-value code paths should not call either.<br><br>
+ *
+ * By default, every Docker uses the same, shared factories. A Docker can
+ * be given its own, configured ones, which are then used by all its
+ * resources and response handlers:
+ * <pre>
+ *     final Docker docker = new UnixDocker(
+ *         client, "v1.35", new JsonFactories(config)
+ *     );
+ * </pre>
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class JsonFactories {
+
+    /**
+     * Factories shared by the whole library, with the provider's defaults.
+     */
+    static final JsonFactories SHARED = new JsonFactories(
+        Collections.emptyMap()
+    );
+
+    /**
+     * Reader factory.
+     */
+    private final JsonReaderFactory readers;
+
+    /**
+     * Parser factory.
+     */
+    private final JsonParserFactory parsers;
+
+    /**
+     * Builder factory.
+     */
+    private final JsonBuilderFactory builders;
+
+    /**
+     * Ctor.
+     * @param config Provider-specific configuration of the factories
+     *  (e.g. the buffer pool, for the reference implementation).
+     */
+    public JsonFactories(final Map<String, ?> config) {
+        this(JsonProvider.provider(), config);
+    }
+
+    /**
+     * Ctor.
+     * @param provider JsonProvider to create the factories with.
+     * @param config Provider-specific configuration of the factories
+     *  (e.g. the buffer pool, for the reference implementation).
+     */
+    public JsonFactories(
+        final JsonProvider provider, final Map<String, ?> config
+    ) {
+        this(
+            provider.createReaderFactory(config),
+            provider.createParserFactory(config),
+            provider.createBuilderFactory(config)
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param readers Reader factory.
+     * @param parsers Parser factory.
+     * @param builders Builder factory.
+     */
+    JsonFactories(
+        final JsonReaderFactory readers,
+        final JsonParserFactory parsers,
+        final JsonBuilderFactory builders
+    ) {
+        this.readers = readers;
+        this.parsers = parsers;
+        this.builders = builders;
+    }
+
+    /**
+     * Read a JsonObject and close the stream.
+     * @param content JSON content.
+     * @return JsonObject.
+     */
+    JsonObject object(final InputStream content) {
+        try (final JsonReader reader = this.readers.createReader(content)) {
+            return reader.readObject();
+        }
+    }
+
+    /**
+     * Read a JsonArray and close the stream.
+     * @param content JSON content.
+     * @return JsonArray.
+     */
+    JsonArray array(final InputStream content) {
+        try (final JsonReader reader = this.readers.createReader(content)) {
+            return reader.readArray();
+        }
+    }
+
+    /**
+     * Parser over the given stream. The caller has to close it.
+     * @param content JSON content.
+     * @return JsonParser.
+     */
+    JsonParser parser(final InputStream content) {
+        return this.parsers.createParser(content);
+    }
+
+    /**
+     * Factory of object and array builders, to be used instead of
+     * {@link javax.json.Json#createObjectBuilder()} and
+     * {@link javax.json.Json#createArrayBuilder()}.
+     * @return JsonBuilderFactory.
+     */
+    JsonBuilderFactory builders() {
+        return this.builders;
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Frames the JsonObjects which are streamed, one after the other,
+ * by the Docker API (e.g. the events from /events or the stats
+ * from /containers/{id}/stats).<br><br>
+ *
+ * The bytes are framed as they come: we track the depth of the braces,
+ * outside of the Json strings, and a frame is complete only once its
+ * closing brace arrived, no matter how big it is or in how many chunks
+ * it was sent. The read and frame buffers are reused between objects.
+ * A frame may not be bigger than a maximum size (16 MB by default), so
+ * one huge or unterminated object cannot take all the memory, and the
+ * frame buffer shrinks back after a frame bigger than 1 MB.<br><br>
+ *
+ * Once an object exceeds the maximum size, {@link #next()} fails right
+ * away. If it is called again, it first skips the rest of that object,
+ * still tracking its depth and strings but without buffering it, and then
+ * frames the following one.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class JsonFrames {
+
+    /**
+     * Size of the read buffer.
+     */
+    private static final int CHUNK = 8192;
+
+    /**
+     * Default maximum size of a frame.
+     */
+    private static final int MAX_FRAME = 16 * 1024 * 1024;
+
+    /**
+     * Size up to which the frame buffer is kept between frames.
+     */
+    private static final int RETAINED = 128 * JsonFrames.CHUNK;
+
+    /**
+     * Streamed content.
+     */
+    private final InputStream content;
+
+    /**
+     * Bytes read from the content, not yet framed.
+     */
+    private final byte[] chunk;
+
+    /**
+     * Maximum size of a frame.
+     */
+    private final int max;
+
+    /**
+     * Position of the next byte to frame, in the chunk.
+     */
+    private int position;
+
+    /**
+     * Number of valid bytes in the chunk.
+     */
+    private int limit;
+
+    /**
+     * Bytes of the last framed JsonObject.
+     */
+    private byte[] frame;
+
+    /**
+     * Number of valid bytes in the frame.
+     */
+    private int length;
+
+    /**
+     * Depth of the braces, in the current object.
+     */
+    private int depth;
+
+    /**
+     * Is the current byte inside a Json string?
+     */
+    private boolean string;
+
+    /**
+     * Was the previous byte, inside a Json string, an escaping backslash?
+     */
+    private boolean escaped;
+
+    /**
+     * Is the rest of an oversized object being skipped?
+     */
+    private boolean skipping;
+
+    /**
+     * Ctor.
+     * @param content Streamed content.
+     */
+    JsonFrames(final InputStream content) {
+        this(content, JsonFrames.MAX_FRAME);
+    }
+
+    /**
+     * Ctor.
+     * @param content Streamed content.
+     * @param max Maximum size of a frame, in bytes.
+     */
+    JsonFrames(final InputStream content, final int max) {
+        this.content = content;
+        this.max = max;
+        this.chunk = new byte[JsonFrames.CHUNK];
+        this.frame = new byte[JsonFrames.CHUNK];
+    }
+
+    /**
+     * Frame the next JsonObject.
+     * @return True if a JsonObject was framed, false if the stream ended.
+     * @throws IllegalStateException If the JsonObject is bigger than the
+     *  maximum size of a frame. The rest of it is skipped by the next call.
+     */
+    boolean next() {
+        this.length = 0;
+        if(this.frame.length > JsonFrames.RETAINED) {
+            this.frame = new byte[JsonFrames.CHUNK];
+        }
+        boolean framed = false;
+        while(!framed && this.fill()) {
+            final byte current = this.chunk[this.position];
+            this.position = this.position + 1;
+            if(this.depth > 0 || current == '{') {
+                final boolean closed = this.scan(current);
+                if(this.skipping) {
+                    this.skipping = !closed;
+                } else {
+                    this.append(current, closed);
+                    framed = closed;
+                }
+            }
+        }
+        return framed;
+    }
+
+    /**
+     * The last framed JsonObject. It is valid only until the next call
+     * of {@link #next()}, since the frame buffer is reused.
+     * @return Bytes of the JsonObject.
+     */
+    InputStream frame() {
+        return new ByteArrayInputStream(this.frame, 0, this.length);
+    }
+
+    /**
+     * A copy of the last framed JsonObject's bytes, which stays valid
+     * after the next call of {@link #next()}.
+     * @return Bytes of the JsonObject.
+     */
+    byte[] bytes() {
+        return Arrays.copyOf(this.frame, this.length);
+    }
+
+    /**
+     * Make sure there are bytes left to frame in the chunk.
+     * @return True if there are bytes to frame, false if the stream ended.
+     */
+    private boolean fill() {
+        try {
+            while(this.position >= this.limit && this.limit >= 0) {
+                this.limit = this.content.read(this.chunk);
+                this.position = 0;
+            }
+        } catch (final IOException ex) {
+            throw new IllegalStateException(
+                "IOException when reading streamed JsonObjects!", ex
+            );
+        }
+        return this.limit >= 0;
+    }
+
+    /**
+     * Track the depth of the braces, outside of the Json strings.
+     * @param current Byte of the current object.
+     * @return True if the byte closed the object, false otherwise.
+     */
+    private boolean scan(final byte current) {
+        boolean closed = false;
+        if(this.string) {
+            if(this.escaped) {
+                this.escaped = false;
+            } else if(current == '\\') {
+                this.escaped = true;
+            } else if(current == '"') {
+                this.string = false;
+            }
+        } else if(current == '"') {
+            this.string = true;
+        } else if(current == '{') {
+            this.depth = this.depth + 1;
+        } else if(current == '}') {
+            this.depth = this.depth - 1;
+            closed = this.depth == 0;
+        }
+        return closed;
+    }
+
+    /**
+     * Append a byte to the frame, growing it if needed.
+     * @param current Byte to append.
+     * @param closed Did the byte close the object?
+     * @throws IllegalStateException If the frame is full. The rest of the
+     *  object is then skipped.
+     */
+    private void append(final byte current, final boolean closed) {
+        if(this.length == this.max) {
+            this.length = 0;
+            this.frame = new byte[JsonFrames.CHUNK];
+            this.skipping = !closed;
+            throw new IllegalStateException(
+                "Streamed JsonObject bigger than " + this.max + " bytes!"
+            );
+        }
+        if(this.length == this.frame.length) {
+            this.frame = Arrays.copyOf(
+                this.frame, Math.min(this.frame.length * 2, this.max)
+            );
+        }
+        this.frame[this.length] = current;
+        this.length = this.length + 1;
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParsingException;
+
+/**
+ * Json values read from a {@link JsonParser}, as they are streamed.
+ * JSON-P 1.0 has no way of getting a whole JsonObject from the
+ * parser, so we build it from the parsing events.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class JsonParserValue {
+
+    /**
+     * The parser.
+     */
+    private final JsonParser parser;
+
+    /**
+     * Ctor.
+     * @param parser The parser.
+     */
+    JsonParserValue(final JsonParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Read the value whose first event was just consumed. The parser
+     * is left right after the value's last event.
+     * @param event First event of the value.
+     * @return JsonValue.
+     * @checkstyle CyclomaticComplexity (50 lines)
+     */
+    JsonValue value(final JsonParser.Event event) {
+        final JsonValue value;
+        if(event == JsonParser.Event.START_OBJECT) {
+            value = this.object();
+        } else if(event == JsonParser.Event.START_ARRAY) {
+            value = this.array();
+        } else if(event == JsonParser.Event.VALUE_STRING) {
+            value = JsonFactories.SHARED.builders().createArrayBuilder()
+                .add(this.parser.getString()).build().get(0);
+        } else if(event == JsonParser.Event.VALUE_NUMBER) {
+            value = JsonFactories.SHARED.builders().createArrayBuilder()
+                .add(this.parser.getBigDecimal()).build().get(0);
+        } else if(event == JsonParser.Event.VALUE_TRUE) {
+            value = JsonValue.TRUE;
+        } else if(event == JsonParser.Event.VALUE_FALSE) {
+            value = JsonValue.FALSE;
+        } else if(event == JsonParser.Event.VALUE_NULL) {
+            value = JsonValue.NULL;
+        } else {
+            throw new JsonParsingException(
+                "Unexpected event for a value: " + event,
+                this.parser.getLocation()
+            );
+        }
+        return value;
+    }
+
+    /**
+     * Read the JsonObject whose START_OBJECT event was just consumed.
+     * The parser is left right after the matching END_OBJECT.
+     * @return JsonObject.
+     * @checkstyle CyclomaticComplexity (50 lines)
+     */
+    JsonObject object() {
+        final JsonObjectBuilder builder = JsonFactories.SHARED.builders()
+            .createObjectBuilder();
+        String key = null;
+        JsonParser.Event event = this.parser.next();
+        while(event != JsonParser.Event.END_OBJECT) {
+            if(event == JsonParser.Event.KEY_NAME) {
+                key = this.parser.getString();
+            } else if(event == JsonParser.Event.START_OBJECT) {
+                builder.add(key, this.object());
+            } else if(event == JsonParser.Event.START_ARRAY) {
+                builder.add(key, this.array());
+            } else if(event == JsonParser.Event.VALUE_STRING) {
+                builder.add(key, this.parser.getString());
+            } else if(event == JsonParser.Event.VALUE_NUMBER) {
+                builder.add(key, this.parser.getBigDecimal());
+            } else if(event == JsonParser.Event.VALUE_TRUE) {
+                builder.add(key, JsonValue.TRUE);
+            } else if(event == JsonParser.Event.VALUE_FALSE) {
+                builder.add(key, JsonValue.FALSE);
+            } else if(event == JsonParser.Event.VALUE_NULL) {
+                builder.addNull(key);
+            } else {
+                throw new JsonParsingException(
+                    "Unexpected event in JsonObject: " + event,
+                    this.parser.getLocation()
+                );
+            }
+            event = this.parser.next();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Read the JsonArray whose START_ARRAY event was just consumed.
+     * The parser is left right after the matching END_ARRAY.
+     * @return JsonArray.
+     * @checkstyle CyclomaticComplexity (50 lines)
+     */
+    JsonArray array() {
+        final JsonArrayBuilder builder = JsonFactories.SHARED.builders()
+            .createArrayBuilder();
+        JsonParser.Event event = this.parser.next();
+        while(event != JsonParser.Event.END_ARRAY) {
+            if(event == JsonParser.Event.START_OBJECT) {
+                builder.add(this.object());
+            } else if(event == JsonParser.Event.START_ARRAY) {
+                builder.add(this.array());
+            } else if(event == JsonParser.Event.VALUE_STRING) {
+                builder.add(this.parser.getString());
+            } else if(event == JsonParser.Event.VALUE_NUMBER) {
+                builder.add(this.parser.getBigDecimal());
+            } else if(event == JsonParser.Event.VALUE_TRUE) {
+                builder.add(JsonValue.TRUE);
+            } else if(event == JsonParser.Event.VALUE_FALSE) {
+                builder.add(JsonValue.FALSE);
+            } else if(event == JsonParser.Event.VALUE_NULL) {
+                builder.addNull();
+            } else {
+                throw new JsonParsingException(
+                    "Unexpected event in JsonArray: " + event,
+                    this.parser.getLocation()
+                );
+            }
+            event = this.parser.next();
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,582 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * JsonObject over the raw bytes of its JSON, decoded only as it is read.
+ * <br><br>
+ * The first read indexes the top-level fields: for each key, it remembers
+ * where the value starts and ends, without decoding anything. A value is
+ * decoded the first time it is read and then kept, so listing thousands
+ * of resources and reading two fields of each costs two small decodings
+ * per resource, instead of building all of them, with all of their
+ * nested objects. The whole JsonObject is built only if it is iterated
+ * or printed.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ * @checkstyle ClassDataAbstractionCoupling (400 lines)
+ */
+final class LazyJsonObject
+    extends AbstractMap<String, JsonValue> implements JsonObject {
+
+    /**
+     * JSON of the object, UTF-8 encoded.
+     */
+    private final byte[] bytes;
+
+    /**
+     * JSON factories to decode the values with.
+     */
+    private final JsonFactories json;
+
+    /**
+     * Index of the top-level fields, built on first read.
+     */
+    private volatile Index index;
+
+    /**
+     * The whole JsonObject, built only if needed.
+     */
+    private volatile JsonObject whole;
+
+    /**
+     * Ctor.
+     * @param bytes JSON of the object, UTF-8 encoded. It is not copied.
+     */
+    LazyJsonObject(final byte[] bytes) {
+        this(bytes, JsonFactories.SHARED);
+    }
+
+    /**
+     * Ctor.
+     * @param bytes JSON of the object, UTF-8 encoded. It is not copied.
+     * @param json JSON factories to decode the values with.
+     */
+    LazyJsonObject(final byte[] bytes, final JsonFactories json) {
+        this.bytes = bytes;
+        this.json = json;
+    }
+
+    @Override
+    public JsonArray getJsonArray(final String name) {
+        return (JsonArray) this.get(name);
+    }
+
+    @Override
+    public JsonObject getJsonObject(final String name) {
+        return (JsonObject) this.get(name);
+    }
+
+    @Override
+    public JsonNumber getJsonNumber(final String name) {
+        return (JsonNumber) this.get(name);
+    }
+
+    @Override
+    public JsonString getJsonString(final String name) {
+        return (JsonString) this.get(name);
+    }
+
+    @Override
+    public String getString(final String name) {
+        return this.getJsonString(name).getString();
+    }
+
+    @Override
+    public String getString(final String name, final String defaultValue) {
+        final JsonValue value = this.get(name);
+        final String result;
+        if(value instanceof JsonString) {
+            result = ((JsonString) value).getString();
+        } else {
+            result = defaultValue;
+        }
+        return result;
+    }
+
+    @Override
+    public int getInt(final String name) {
+        return this.getJsonNumber(name).intValue();
+    }
+
+    @Override
+    public int getInt(final String name, final int defaultValue) {
+        final JsonValue value = this.get(name);
+        final int result;
+        if(value instanceof JsonNumber) {
+            result = ((JsonNumber) value).intValue();
+        } else {
+            result = defaultValue;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean getBoolean(final String name) {
+        final JsonValue value = this.get(name);
+        if(value == null) {
+            throw new NullPointerException("No value for " + name);
+        }
+        if(value != JsonValue.TRUE && value != JsonValue.FALSE) {
+            throw new ClassCastException(name + " is not a boolean");
+        }
+        return value == JsonValue.TRUE;
+    }
+
+    @Override
+    public boolean getBoolean(final String name, final boolean defaultValue) {
+        final JsonValue value = this.get(name);
+        final boolean result;
+        if(value == JsonValue.TRUE || value == JsonValue.FALSE) {
+            result = value == JsonValue.TRUE;
+        } else {
+            result = defaultValue;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isNull(final String name) {
+        return this.get(name).equals(JsonValue.NULL);
+    }
+
+    @Override
+    public ValueType getValueType() {
+        return ValueType.OBJECT;
+    }
+
+    @Override
+    public int size() {
+        return this.fields().slots.size();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return this.fields().slots.containsKey(key);
+    }
+
+    @Override
+    public JsonValue get(final Object key) {
+        final Index fields = this.fields();
+        final Integer slot = fields.slots.get(key);
+        JsonValue value = null;
+        if(slot != null) {
+            value = fields.values.get(slot);
+            if(value == null) {
+                value = this.decode(fields.starts[slot], fields.ends[slot]);
+                fields.values.set(slot, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(this.fields().slots.keySet());
+    }
+
+    @Override
+    public Set<Entry<String, JsonValue>> entrySet() {
+        return this.materialized().entrySet();
+    }
+
+    @Override
+    public String toString() {
+        return this.materialized().toString();
+    }
+
+    /**
+     * The index of the fields, built on first call.
+     * @return Index.
+     */
+    private Index fields() {
+        Index fields = this.index;
+        if(fields == null) {
+            fields = new Index(this.bytes, this.json);
+            this.index = fields;
+        }
+        return fields;
+    }
+
+    /**
+     * The whole JsonObject, built on first call.
+     * @return JsonObject.
+     */
+    private JsonObject materialized() {
+        JsonObject object = this.whole;
+        if(object == null) {
+            object = this.json.object(
+                new ByteArrayInputStream(this.bytes)
+            );
+            this.whole = object;
+        }
+        return object;
+    }
+
+    /**
+     * Decode the value between the given offsets.
+     * @param start Offset of the value's first byte.
+     * @param end Offset after the value's last byte.
+     * @return JsonValue.
+     */
+    private JsonValue decode(final int start, final int end) {
+        final byte first = this.bytes[start];
+        final JsonValue value;
+        if(first == '{') {
+            value = this.json.object(
+                new ByteArrayInputStream(this.bytes, start, end - start)
+            );
+        } else if(first == '[') {
+            value = this.json.array(
+                new ByteArrayInputStream(this.bytes, start, end - start)
+            );
+        } else if(first == 't') {
+            value = JsonValue.TRUE;
+        } else if(first == 'f') {
+            value = JsonValue.FALSE;
+        } else if(first == 'n') {
+            value = JsonValue.NULL;
+        } else if(first == '"' && !Index.escaped(this.bytes, start, end)) {
+            value = this.json.builders().createArrayBuilder().add(
+                new String(
+                    this.bytes, start + 1, end - start - 2,
+                    StandardCharsets.UTF_8
+                )
+            ).build().get(0);
+        } else if(first == '"') {
+            value = this.json.array(Index.wrapped(this.bytes, start, end))
+                .get(0);
+        } else {
+            value = this.json.builders().createArrayBuilder().add(
+                new BigDecimal(
+                    new String(
+                        this.bytes, start, end - start,
+                        StandardCharsets.US_ASCII
+                    )
+                )
+            ).build().get(0);
+        }
+        return value;
+    }
+
+    /**
+     * Offsets of the top-level fields of a JsonObject and their values,
+     * as they are decoded.
+     */
+    private static final class Index {
+
+        /**
+         * Initial capacity, in fields.
+         */
+        private static final int FIELDS = 16;
+
+        /**
+         * Slot of each key, in order.
+         */
+        private final Map<String, Integer> slots;
+
+        /**
+         * Offset of each value's first byte, by slot.
+         */
+        private int[] starts;
+
+        /**
+         * Offset after each value's last byte, by slot.
+         */
+        private int[] ends;
+
+        /**
+         * Decoded values, by slot.
+         */
+        private final AtomicReferenceArray<JsonValue> values;
+
+        /**
+         * JSON factories to decode the escaped keys with.
+         */
+        private final JsonFactories factories;
+
+        /**
+         * Ctor.
+         * @param json JSON of the object.
+         * @param factories JSON factories to decode the escaped keys with.
+         */
+        Index(final byte[] json, final JsonFactories factories) {
+            this.factories = factories;
+            this.slots = new LinkedHashMap<>();
+            this.starts = new int[Index.FIELDS];
+            this.ends = new int[Index.FIELDS];
+            int pos = Index.skip(
+                json, Index.expect(json, Index.skip(json, 0), '{')
+            );
+            boolean more = Index.byteAt(json, pos) != '}';
+            while(more) {
+                Index.expect(json, pos, '"');
+                final int key = Index.string(json, pos);
+                final String name = this.key(json, pos, key);
+                final int start = Index.skip(
+                    json, Index.expect(json, Index.skip(json, key), ':')
+                );
+                final int end = Index.value(json, start);
+                this.put(name, start, end);
+                pos = Index.skip(json, end);
+                more = Index.byteAt(json, pos) == ',';
+                if(more) {
+                    pos = Index.skip(json, pos + 1);
+                } else {
+                    Index.expect(json, pos, '}');
+                }
+            }
+            this.values = new AtomicReferenceArray<>(this.slots.size());
+        }
+
+        /**
+         * Remember where a field's value is. The last of duplicate keys
+         * wins, like it does when building a JsonObject.
+         * @param name Key.
+         * @param start Offset of the value's first byte.
+         * @param end Offset after the value's last byte.
+         */
+        private void put(final String name, final int start, final int end) {
+            Integer slot = this.slots.get(name);
+            if(slot == null) {
+                slot = this.slots.size();
+                this.slots.put(name, slot);
+                if(slot == this.starts.length) {
+                    this.starts = Arrays.copyOf(this.starts, slot * 2);
+                    this.ends = Arrays.copyOf(this.ends, slot * 2);
+                }
+            }
+            this.starts[slot] = start;
+            this.ends[slot] = end;
+        }
+
+        /**
+         * Decode a key from its bytes.
+         * @param json JSON.
+         * @param start Offset of the key's opening quote.
+         * @param end Offset after the key's closing quote.
+         * @return Key.
+         */
+        private String key(
+            final byte[] json, final int start, final int end
+        ) {
+            final String key;
+            if(Index.escaped(json, start, end)) {
+                key = ((JsonString) this.factories.array(
+                    Index.wrapped(json, start, end)
+                ).get(0)).getString();
+            } else {
+                key = new String(
+                    json, start + 1, end - start - 2, StandardCharsets.UTF_8
+                );
+            }
+            return key;
+        }
+
+        /**
+         * A scalar value as the only element of an array, so it can be
+         * decoded by a reader.
+         * @param json JSON.
+         * @param start Offset of the value's first byte.
+         * @param end Offset after the value's last byte.
+         * @return Array with the value, as JSON.
+         */
+        private static InputStream wrapped(
+            final byte[] json, final int start, final int end
+        ) {
+            return new SequenceInputStream(
+                Collections.enumeration(
+                    Arrays.asList(
+                        new ByteArrayInputStream(new byte[] {'['}),
+                        new ByteArrayInputStream(json, start, end - start),
+                        new ByteArrayInputStream(new byte[] {']'})
+                    )
+                )
+            );
+        }
+
+        /**
+         * Is there any escape between the given offsets?
+         * @param json JSON.
+         * @param start Start offset.
+         * @param end End offset.
+         * @return True or false.
+         */
+        private static boolean escaped(
+            final byte[] json, final int start, final int end
+        ) {
+            boolean found = false;
+            for(int pos = start; pos < end && !found; pos = pos + 1) {
+                found = json[pos] == '\\';
+            }
+            return found;
+        }
+
+        /**
+         * Find the end of the value starting at the given offset.
+         * @param json JSON.
+         * @param start Offset of the value's first byte.
+         * @return Offset after the value's last byte.
+         */
+        private static int value(final byte[] json, final int start) {
+            final byte first = Index.byteAt(json, start);
+            final int end;
+            if(first == '"') {
+                end = Index.string(json, start);
+            } else if(first == '{' || first == '[') {
+                end = Index.structure(json, start);
+            } else {
+                int pos = start;
+                while(pos < json.length && !Index.delimits(json[pos])) {
+                    pos = pos + 1;
+                }
+                if(pos == start) {
+                    throw new JsonException(
+                        "Expected a value at byte " + start
+                    );
+                }
+                end = pos;
+            }
+            return end;
+        }
+
+        /**
+         * Does the byte end a number or a literal?
+         * @param current Byte.
+         * @return True or false.
+         */
+        private static boolean delimits(final byte current) {
+            return ",}] \t\r\n".indexOf(current) >= 0;
+        }
+
+        /**
+         * Find the end of the string starting at the given offset.
+         * @param json JSON.
+         * @param start Offset of the opening quote.
+         * @return Offset after the closing quote.
+         */
+        private static int string(final byte[] json, final int start) {
+            int pos = start + 1;
+            while(Index.byteAt(json, pos) != '"') {
+                if(json[pos] == '\\') {
+                    pos = pos + 1;
+                }
+                pos = pos + 1;
+            }
+            return pos + 1;
+        }
+
+        /**
+         * Find the end of the object or array starting at the given offset.
+         * @param json JSON.
+         * @param start Offset of the opening brace or bracket.
+         * @return Offset after the closing brace or bracket.
+         */
+        private static int structure(final byte[] json, final int start) {
+            int depth = 0;
+            int pos = start;
+            do {
+                final byte current = Index.byteAt(json, pos);
+                if(current == '"') {
+                    pos = Index.string(json, pos);
+                } else {
+                    if(current == '{' || current == '[') {
+                        depth = depth + 1;
+                    } else if(current == '}' || current == ']') {
+                        depth = depth - 1;
+                    }
+                    pos = pos + 1;
+                }
+            } while(depth > 0);
+            return pos;
+        }
+
+        /**
+         * Skip the whitespace starting at the given offset.
+         * @param json JSON.
+         * @param start Offset.
+         * @return Offset of the next non-whitespace byte.
+         */
+        private static int skip(final byte[] json, final int start) {
+            int pos = start;
+            while(pos < json.length && json[pos] <= ' ' && json[pos] >= 0) {
+                pos = pos + 1;
+            }
+            return pos;
+        }
+
+        /**
+         * Make sure the given byte is at the given offset.
+         * @param json JSON.
+         * @param pos Offset.
+         * @param expected Expected byte.
+         * @return Offset after the expected byte.
+         */
+        private static int expect(
+            final byte[] json, final int pos, final char expected
+        ) {
+            if(Index.byteAt(json, pos) != expected) {
+                throw new JsonException(
+                    "Expected '" + expected + "' at byte " + pos
+                );
+            }
+            return pos + 1;
+        }
+
+        /**
+         * The byte at the given offset.
+         * @param json JSON.
+         * @param pos Offset.
+         * @return Byte.
+         */
+        private static byte byteAt(final byte[] json, final int pos) {
+            if(pos >= json.length) {
+                throw new JsonException("Unexpected end of JsonObject");
+            }
+            return json[pos];
+        }
+    }
+}
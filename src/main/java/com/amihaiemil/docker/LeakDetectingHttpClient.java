@@ -0,0 +1,272 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * HttpClient which remembers where each streamed response was received and
+ * reports the ones whose content is not read to the end or closed in time,
+ * as {@link ConnectionLeak}s: their connections are not returned to the
+ * pool. Each leak is reported once. The responses are checked whenever
+ * a request is sent, so a starving pool reports its leaks right when it
+ * starts starving. The responses handled through the execute overloads
+ * which take a ResponseHandler always return their connections, so they
+ * are not tracked. Neither are the streams which are meant to stay open
+ * for as long as their reader wants (events, followed logs, streamed
+ * stats): this library sends them with a {@link #longLived()} context, so
+ * a stream of events which is never closed is not reported either.
+ * Remembering the stack trace of each response has a
+ * cost: stack it on a client while hunting leaks, or in agents which run
+ * for a long time:
+ * <pre>
+ *     final Docker docker = new UnixDocker(
+ *         new File("/var/run/docker.sock"), new PoolConfig(),
+ *         client -> new LeakDetectingHttpClient(
+ *             client, Duration.ofMinutes(5),
+ *             leak -> log.warn(leak.toString(), leak.trace())
+ *         )
+ *     );
+ * </pre>
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class LeakDetectingHttpClient extends HttpClientEnvelope {
+
+    /**
+     * Attribute of the context of a long-lived request.
+     */
+    private static final String LONG_LIVED =
+        "com.amihaiemil.docker.long-lived";
+
+    /**
+     * Responses held for longer than this are leaks, in nanoseconds.
+     */
+    private final long threshold;
+
+    /**
+     * Where the leaks are reported.
+     */
+    private final Consumer<ConnectionLeak> report;
+
+    /**
+     * Streamed responses whose content was not consumed or closed yet.
+     */
+    private final Set<Lease> leases;
+
+    /**
+     * Ctor.
+     * @param origin HttpClient which sends the requests.
+     * @param threshold Responses held for longer than this are leaks.
+     * @param report Where the leaks are reported.
+     */
+    public LeakDetectingHttpClient(
+        final HttpClient origin, final Duration threshold,
+        final Consumer<ConnectionLeak> report
+    ) {
+        super(() -> origin);
+        this.threshold = threshold.toNanos();
+        this.report = report;
+        this.leases = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    public HttpResponse execute(final HttpUriRequest request)
+        throws IOException {
+        return this.tracked(null, () -> super.execute(request));
+    }
+
+    @Override
+    public HttpResponse execute(
+        final HttpUriRequest request, final HttpContext context
+    ) throws IOException {
+        return this.tracked(context, () -> super.execute(request, context));
+    }
+
+    @Override
+    public HttpResponse execute(
+        final HttpHost target, final HttpRequest request
+    ) throws IOException {
+        return this.tracked(null, () -> super.execute(target, request));
+    }
+
+    @Override
+    public HttpResponse execute(
+        final HttpHost target, final HttpRequest request,
+        final HttpContext context
+    ) throws IOException {
+        return this.tracked(
+            context, () -> super.execute(target, request, context)
+        );
+    }
+
+    @Override
+    public <T> T execute(
+        final HttpUriRequest request,
+        final ResponseHandler<? extends T> handler
+    ) throws IOException {
+        this.check();
+        return super.execute(request, handler);
+    }
+
+    @Override
+    public <T> T execute(
+        final HttpUriRequest request,
+        final ResponseHandler<? extends T> handler, final HttpContext context
+    ) throws IOException {
+        this.check();
+        return super.execute(request, handler, context);
+    }
+
+    @Override
+    public <T> T execute(
+        final HttpHost target, final HttpRequest request,
+        final ResponseHandler<? extends T> handler
+    ) throws IOException {
+        this.check();
+        return super.execute(target, request, handler);
+    }
+
+    // @checkstyle ParameterNumber (4 lines)
+    @Override
+    public <T> T execute(
+        final HttpHost target, final HttpRequest request,
+        final ResponseHandler<? extends T> handler, final HttpContext context
+    ) throws IOException {
+        this.check();
+        return super.execute(target, request, handler, context);
+    }
+
+    /**
+     * Context of a request whose response is streamed for as long as its
+     * reader wants (e.g. events, followed logs). Its response is never
+     * reported as a leak.
+     * @return HttpContext.
+     */
+    static HttpContext longLived() {
+        final HttpContext context = new BasicHttpContext();
+        context.setAttribute(LeakDetectingHttpClient.LONG_LIVED, true);
+        return context;
+    }
+
+    /**
+     * Report the responses which are held for too long and were not
+     * reported yet.
+     */
+    void check() {
+        final long now = System.nanoTime();
+        for(final Lease lease : this.leases) {
+            final long held = now - lease.start;
+            if(held > this.threshold
+                && lease.reported.compareAndSet(false, true)) {
+                this.report.accept(
+                    new ConnectionLeak(Duration.ofNanos(held), lease.trace)
+                );
+            }
+        }
+    }
+
+    /**
+     * Make the call and remember its response until its content is read
+     * to the end or closed, if it is streamed and not long-lived.
+     * @param context Context of the request, possibly null.
+     * @param call Call of the enveloped HttpClient.
+     * @return Response.
+     * @throws IOException If an I/O error occurs.
+     */
+    private HttpResponse tracked(
+        final HttpContext context, final Call<HttpResponse> call
+    ) throws IOException {
+        this.check();
+        final Lease lease = new Lease();
+        final HttpResponse response = call.call();
+        final HttpEntity entity = response.getEntity();
+        if(entity != null && entity.isStreaming()
+            && !LeakDetectingHttpClient.longLived(context)) {
+            this.leases.add(lease);
+            response.setEntity(
+                new CountedEntity(entity, read -> this.leases.remove(lease))
+            );
+        }
+        return response;
+    }
+
+    /**
+     * Is this the context of a long-lived request?
+     * @param context Context of the request, possibly null.
+     * @return True if the request is long-lived, false otherwise.
+     */
+    private static boolean longLived(final HttpContext context) {
+        return context != null && context.getAttribute(
+            LeakDetectingHttpClient.LONG_LIVED
+        ) != null;
+    }
+
+    /**
+     * A streamed response, holding a connection.
+     */
+    private static final class Lease {
+
+        /**
+         * When the response was requested, in nanoseconds.
+         */
+        private final long start;
+
+        /**
+         * Where the response was requested.
+         */
+        private final Throwable trace;
+
+        /**
+         * Whether the lease was already reported as a leak.
+         */
+        private final AtomicBoolean reported;
+
+        /**
+         * Ctor.
+         */
+        Lease() {
+            this.start = System.nanoTime();
+            this.trace = new Throwable("Connection leased here");
+            this.reported = new AtomicBoolean();
+        }
+    }
+}
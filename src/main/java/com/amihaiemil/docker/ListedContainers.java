@@ -34,6 +34,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.function.Function;
+import javax.json.JsonObject;
 
 /**
  * Listed containers, which may have filters applied.
@@ -51,6 +53,11 @@ final class ListedContainers extends RtContainers {
      */
     private final boolean withSize;
 
+    /**
+     * Reads the JsonObject of each listed container.
+     */
+    private final Function<JsonFrames, JsonObject> reader;
+
     /**
      * Ctor.
      * @param client The http client.
@@ -75,10 +82,34 @@ final class ListedContainers extends RtContainers {
         final HttpClient client, final URI uri,
         final Docker dkr, final Map<String, Iterable<String>> filters,
         final boolean withSize
+    ) {
+        this(
+            client, uri, dkr, filters, withSize,
+            frames -> new LazyJsonObject(
+                frames.bytes(), RtDocker.json(dkr)
+            )
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param client The http client.
+     * @param uri The URI for this Containers API.
+     * @param dkr The docker entry point.
+     * @param filters Container filter
+     * @param withSize Size query flag
+     * @param reader Reads the JsonObject of each listed container.
+     * @checkstyle ParameterNumber (2 lines)
+     */
+    ListedContainers(
+        final HttpClient client, final URI uri,
+        final Docker dkr, final Map<String, Iterable<String>> filters,
+        final boolean withSize, final Function<JsonFrames, JsonObject> reader
     ) {
         super(client, uri, dkr);
         this.filters = filters;
         this.withSize = withSize;
+        this.reader = reader;
     }
 
     @Override
@@ -96,6 +127,7 @@ final class ListedContainers extends RtContainers {
         return new ResourcesIterator<>(
             super.client(),
             new HttpGet(uri.build()),
+            this.reader,
             json -> new RtContainer(
                 json,
                 super.client(),
@@ -114,7 +146,8 @@ final class ListedContainers extends RtContainers {
             this.baseUri(),
             this.docker(),
             this.filters,
-            newWithSize
+            newWithSize,
+            this.reader
         );
     }
 
@@ -134,6 +167,7 @@ final class ListedContainers extends RtContainers {
         return new ResourcesIterator<>(
             super.client(),
             new HttpGet(uri.build()),
+            this.reader,
             json -> new RtContainer(
                 json,
                 super.client(),
@@ -156,7 +190,21 @@ final class ListedContainers extends RtContainers {
             this.baseUri(),
             this.docker(),
             merged,
-            this.withSize
+            this.withSize,
+            this.reader
+        );
+    }
+
+    @Override
+    public Containers projected(final Projection projection) {
+        final Projection identified = projection.with("Id");
+        return new ListedContainers(
+            super.client(),
+            this.baseUri(),
+            this.docker(),
+            this.filters,
+            this.withSize,
+            frames -> identified.read(frames.frame())
         );
     }
 }
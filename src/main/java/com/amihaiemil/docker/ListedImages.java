@@ -83,6 +83,7 @@ final class ListedImages extends RtImages {
         return new ResourcesIterator<>(
             super.client(),
             new HttpGet(uri.build()),
+            RtDocker.json(super.docker()),
             img -> new RtImage(
                 img,
                 super.client(),
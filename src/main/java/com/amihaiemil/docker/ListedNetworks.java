@@ -84,6 +84,7 @@ final class ListedNetworks extends RtNetworks {
             new HttpGet(
                 uri.build()
             ),
+            RtDocker.json(super.docker()),
             network -> new RtNetwork(
                 network,
                 super.client(),
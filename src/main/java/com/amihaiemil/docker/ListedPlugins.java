@@ -78,6 +78,7 @@ final class ListedPlugins extends RtPlugins {
             new HttpGet(
                 uri.build()
             ),
+            RtDocker.json(super.docker()),
             plugin -> new RtPlugin(
                 plugin,
                 super.client(),
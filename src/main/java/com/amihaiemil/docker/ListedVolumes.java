@@ -28,6 +28,7 @@ package com.amihaiemil.docker;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -83,7 +84,8 @@ final class ListedVolumes extends RtVolumes {
             return super.client().execute(
                 get,
                 new ReadJsonObject(
-                    new MatchStatus(get.getURI(), HttpStatus.SC_OK)
+                    new MatchStatus(get.getURI(), HttpStatus.SC_OK),
+                    RtDocker.json(super.docker())
                 )
             ).getJsonArray("Volumes").stream()
                 .map(json -> (JsonObject) json)
@@ -102,11 +104,26 @@ final class ListedVolumes extends RtVolumes {
                 ).collect(Collectors.toList())
                 .iterator();
         } catch (final IOException err) {
-            throw new RuntimeException(
-                String.format("Error executing GET on %s", super.baseUri())
+            throw new IllegalStateException(
+                String.format("Error executing GET on %s", super.baseUri()),
+                err
             );
         } finally {
             get.releaseConnection();
         }
     }
+
+    @Override
+    public Volumes filter(final Map<String, Iterable<String>> fltrs) {
+        final Map<String, Iterable<String>> merged = new HashMap<>(
+            this.filters
+        );
+        merged.putAll(fltrs);
+        return new ListedVolumes(
+            super.client(),
+            this.baseUri(),
+            this.docker(),
+            merged
+        );
+    }
 }
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Receives the frames of a multiplexed logs stream, as they are
+ * demultiplexed:
+ * <pre>
+ *     container.logs().fetch(
+ *         (stream, payload) -&gt; {
+ *             if(stream == LogFrames.STDERR) {
+ *                 errors.write(payload);
+ *             } else {
+ *                 out.write(payload);
+ *             }
+ *         }
+ *     );
+ * </pre>
+ * The payload is given as it was sent by Docker, no charset decoding
+ * is done. Pay attention: the ByteBuffer is reused for the next frames,
+ * so its content is valid only during the call. Copy it if you need to
+ * keep it. A big frame may be given in more consecutive pieces, all
+ * with the same stream type.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+@FunctionalInterface
+public interface LogFrames {
+
+    /**
+     * Stream type of stdin (written on stdout).
+     */
+    int STDIN = 0;
+
+    /**
+     * Stream type of stdout.
+     */
+    int STDOUT = 1;
+
+    /**
+     * Stream type of stderr.
+     */
+    int STDERR = 2;
+
+    /**
+     * Receive a frame.
+     * @param stream Stream type (0 - stdin, 1 - stdout, 2 - stderr).
+     * @param payload Payload of the frame, readable until the call returns.
+     * @throws IOException If something goes wrong.
+     */
+    void frame(int stream, ByteBuffer payload) throws IOException;
+}
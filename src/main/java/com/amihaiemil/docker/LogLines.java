@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over the lines of a multiplexed logs stream. Frames are read
+ * from the stream only when the caller asks for more lines, so a slow
+ * consumer throttles the reading (and, through TCP, the Docker engine)
+ * instead of buffering the logs in memory. A line longer than 64 KB is
+ * split, so the buffers stay bounded.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class LogLines implements Iterator<String> {
+
+    /**
+     * Maximum length of a line, in bytes.
+     */
+    private static final int MAX_LINE = 65536;
+
+    /**
+     * Demultiplexed frames.
+     */
+    private final MultiplexedStream frames;
+
+    /**
+     * Unfinished lines of stdin, stdout and stderr.
+     */
+    private final ByteArrayOutputStream[] pending;
+
+    /**
+     * Lines ready to be returned.
+     */
+    private final Deque<String> ready;
+
+    /**
+     * Whether the stream ended.
+     */
+    private boolean ended;
+
+    /**
+     * Ctor.
+     * @param frames Demultiplexed frames.
+     */
+    LogLines(final MultiplexedStream frames) {
+        this.frames = frames;
+        this.pending = new ByteArrayOutputStream[] {
+            new ByteArrayOutputStream(),
+            new ByteArrayOutputStream(),
+            new ByteArrayOutputStream(),
+        };
+        this.ready = new ArrayDeque<>();
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while(this.ready.isEmpty() && !this.ended) {
+                this.ended = !this.frames.next(this::split);
+                if(this.ended) {
+                    for(final ByteArrayOutputStream line : this.pending) {
+                        if(line.size() > 0) {
+                            this.flush(line);
+                        }
+                    }
+                }
+            }
+        } catch (final IOException ex) {
+            throw new IllegalStateException(
+                "IOException when reading the logs!", ex
+            );
+        }
+        return !this.ready.isEmpty();
+    }
+
+    @Override
+    public String next() {
+        if(!this.hasNext()) {
+            throw new NoSuchElementException("No more log lines.");
+        }
+        return this.ready.poll();
+    }
+
+    /**
+     * Split the payload of a frame into lines.
+     * @param stream Stream type.
+     * @param payload Payload.
+     */
+    private void split(final int stream, final ByteBuffer payload) {
+        final int index = Math.max(0, Math.min(stream, LogFrames.STDERR));
+        final ByteArrayOutputStream line = this.pending[index];
+        while(payload.hasRemaining()) {
+            final byte current = payload.get();
+            if(current == '\n') {
+                this.flush(line);
+            } else {
+                line.write(current);
+                if(line.size() >= LogLines.MAX_LINE) {
+                    this.flush(line);
+                }
+            }
+        }
+    }
+
+    /**
+     * The line is finished.
+     * @param line Bytes of the line.
+     */
+    private void flush(final ByteArrayOutputStream line) {
+        this.ready.add(new String(line.toByteArray(), StandardCharsets.UTF_8));
+        line.reset();
+    }
+}
@@ -27,6 +27,8 @@ package com.amihaiemil.docker;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
 
 /**
  * Logs of a Container.
@@ -45,6 +47,29 @@ public interface Logs {
      */
     String fetch() throws IOException, UnexpectedResponseException;
     
+    /**
+     * Fetch all the present logs, frame by frame, as bytes. Use this
+     * instead of {@link #fetch()} when the logs are big or when you need
+     * to tell stdout from stderr: nothing is decoded or buffered in memory.
+     * @param frames Receiver of the demultiplexed frames.
+     * @throws IOException If something goes wrong.
+     * @throws UnexpectedResponseException If the status response is not
+     *  the expected one.
+     */
+    void fetch(LogFrames frames)
+        throws IOException, UnexpectedResponseException;
+
+    /**
+     * Follow the logs, frame by frame, as bytes. This method blocks
+     * until the container stops (or the receiver throws an exception).
+     * @param frames Receiver of the demultiplexed frames.
+     * @throws IOException If something goes wrong.
+     * @throws UnexpectedResponseException If the status response is not
+     *  the expected one.
+     */
+    void follow(LogFrames frames)
+        throws IOException, UnexpectedResponseException;
+
     /**
      * Return the logs as a stream.
      * @return Reader logs' reader.
@@ -54,6 +79,46 @@ public interface Logs {
      */
     Reader follow() throws IOException, UnexpectedResponseException;
 
+    /**
+     * Follow the logs as a Stream of lines, demultiplexed and decoded as
+     * UTF-8. The lines are read from the Docker engine only as fast as the
+     * Stream is consumed, so a slow consumer throttles the reading instead
+     * of filling the memory. Like the events, the Stream ends only when the
+     * container stops, so you should close it when you are done:
+     * <pre>
+     *   try (final Stream&lt;String&gt; lines = container.logs()
+     *       .tail(100).timestamps().followLines()) {
+     *       lines.limit(1000).forEach(shipper::send);
+     *   }
+     * </pre>
+     * @return Stream of log lines.
+     * @throws IOException If something goes wrong.
+     * @throws UnexpectedResponseException If the status response is not
+     *  the expected one.
+     */
+    Stream<String> followLines()
+        throws IOException, UnexpectedResponseException;
+
+    /**
+     * Show only the logs since the given timestamp.
+     * @param timestamp Timestamp.
+     * @return New Logs instance.
+     */
+    Logs since(LocalDateTime timestamp);
+
+    /**
+     * Show only the given number of lines, from the end of the logs.
+     * @param lines Number of lines.
+     * @return New Logs instance.
+     */
+    Logs tail(int lines);
+
+    /**
+     * Add timestamps to every log line.
+     * @return New Logs instance.
+     */
+    Logs timestamps();
+
     /**
      * Show stdout logs only.
      * @return New Logs instance.
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.time.Duration;
+import org.apache.http.client.HttpClient;
+
+/**
+ * Docker which keeps its {@link Version} and {@link Info} in memory, so
+ * code which checks them often (e.g. feature checks, capacity decisions)
+ * does not make a request each time:
+ * <pre>
+ *     final MemoizedDocker docker = new MemoizedDocker(
+ *         new UnixDocker(new File("/var/run/docker.sock")),
+ *         Duration.ofMinutes(1)
+ *     );
+ *     final String api = docker.version().apiVersion();
+ *     ...
+ *     docker.refresh();
+ * </pre>
+ * Each of them is fetched again when it is older than the refresh
+ * interval, or after {@link #refresh()}. Threads which ask for them while
+ * they are fetched wait for that fetch, instead of making their own
+ * requests. Everything else is delegated to the decorated Docker, so it
+ * can be decorated further (e.g. by {@link CachedDocker}) in any order.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class MemoizedDocker implements Docker, AutoCloseable {
+
+    /**
+     * The decorated Docker.
+     */
+    private final Docker origin;
+
+    /**
+     * Memoized Version.
+     */
+    private final Memo<Version> version;
+
+    /**
+     * Memoized Info.
+     */
+    private final Memo<Info> info;
+
+    /**
+     * Ctor.
+     * @param origin The Docker to decorate.
+     * @param refresh Interval after which the Version and Info are fetched
+     *  again. Duration.ZERO keeps them until {@link #refresh()}.
+     */
+    public MemoizedDocker(final Docker origin, final Duration refresh) {
+        this.origin = origin;
+        this.version = new Memo<>(() -> origin.version(), refresh);
+        this.info = new Memo<>(() -> origin.info(), refresh);
+    }
+
+    @Override
+    public boolean ping() throws IOException {
+        return this.origin.ping();
+    }
+
+    @Override
+    public Events events() {
+        return this.origin.events();
+    }
+
+    @Override
+    public Containers containers() {
+        return this.origin.containers();
+    }
+
+    @Override
+    public Images images() {
+        return this.origin.images();
+    }
+
+    @Override
+    public Networks networks() {
+        return this.origin.networks();
+    }
+
+    @Override
+    public Volumes volumes() {
+        return this.origin.volumes();
+    }
+
+    @Override
+    public Execs execs() {
+        return this.origin.execs();
+    }
+
+    @Override
+    public Swarm swarm() {
+        return this.origin.swarm();
+    }
+
+    @Override
+    public DockerSystem system() {
+        return this.origin.system();
+    }
+
+    @Override
+    public Plugins plugins() {
+        return this.origin.plugins();
+    }
+
+    @Override
+    public Version version() throws IOException {
+        return this.version.get();
+    }
+
+    @Override
+    public Info info() throws IOException {
+        return this.info.get();
+    }
+
+    @Override
+    public ApiVersion apiVersion() {
+        return this.origin.apiVersion();
+    }
+
+    @Override
+    public HttpClient httpClient() {
+        return this.origin.httpClient();
+    }
+
+    /**
+     * Close the decorated Docker, if it is closeable (e.g. a
+     * {@link CachedDocker}).
+     * @throws IOException If the decorated Docker cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        RtDocker.close(this.origin);
+    }
+
+    /**
+     * The decorated Docker, for {@link RtDocker#baseUri(Docker)}.
+     * @return Docker.
+     */
+    Docker origin() {
+        return this.origin;
+    }
+
+    /**
+     * Forget the Version and Info, so they are fetched again the next time
+     * they are needed (e.g. after the Docker engine was upgraded or its
+     * configuration changed).
+     */
+    public void refresh() {
+        this.version.clear();
+        this.info.clear();
+    }
+
+    /**
+     * A value fetched from the server.
+     * @param <T> Type of the value.
+     */
+    @FunctionalInterface
+    private interface Fetch<T> {
+
+        /**
+         * Fetch the value.
+         * @return Value.
+         * @throws IOException If an I/O error occurs.
+         */
+        T fetch() throws IOException;
+    }
+
+    /**
+     * A value kept in memory for at most the refresh interval.
+     * @param <T> Type of the value.
+     */
+    private static final class Memo<T> {
+
+        /**
+         * Fetches the value.
+         */
+        private final Fetch<T> fetch;
+
+        /**
+         * Refresh interval, in nanoseconds; 0 if the value never expires.
+         */
+        private final long refresh;
+
+        /**
+         * The value, or null if it was not fetched yet.
+         */
+        private T value;
+
+        /**
+         * When the value was fetched, in nanoseconds.
+         */
+        private long fetched;
+
+        /**
+         * Ctor.
+         * @param fetch Fetches the value.
+         * @param refresh Refresh interval.
+         */
+        Memo(final Fetch<T> fetch, final Duration refresh) {
+            this.fetch = fetch;
+            this.refresh = refresh.toNanos();
+        }
+
+        /**
+         * The value, fetched if it is missing or expired.
+         * @return Value.
+         * @throws IOException If an I/O error occurs.
+         */
+        synchronized T get() throws IOException {
+            final long now = System.nanoTime();
+            if(this.value == null
+                || this.refresh > 0L && now - this.fetched >= this.refresh) {
+                this.value = this.fetch.fetch();
+                this.fetched = now;
+            }
+            return this.value;
+        }
+
+        /**
+         * Forget the value.
+         */
+        synchronized void clear() {
+            this.value = null;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+import java.util.regex.Pattern;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * HttpClient which reports the latency, status, transferred bytes and
+ * number of in-flight requests of each call to {@link Metrics}, whichever
+ * of the execute overloads it is made through. It decorates any HttpClient,
+ * e.g. the pooled one of a {@link UnixDocker}:
+ * <pre>
+ *     final Docker docker = new UnixDocker(
+ *         new File("/var/run/docker.sock"), new PoolConfig(),
+ *         client -> new MeteredHttpClient(client, metrics)
+ *     );
+ * </pre>
+ * The time spent waiting for a pooled connection is reported only for
+ * the pools built by this library, when this client is stacked on them.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class MeteredHttpClient extends HttpClientEnvelope {
+
+    /**
+     * API version prefix of the paths.
+     */
+    private static final Pattern VERSION = Pattern.compile("^/v[0-9.]+/");
+
+    /**
+     * Resources addressed by ID (or name) in the path.
+     */
+    private static final Set<String> RESOURCES = new HashSet<>(
+        Arrays.asList(
+            "containers", "images", "networks", "volumes", "exec",
+            "plugins", "services", "nodes", "tasks", "secrets", "configs",
+            "distribution"
+        )
+    );
+
+    /**
+     * Resources whose names may contain slashes (e.g. library/ubuntu).
+     */
+    private static final Set<String> NAMED = new HashSet<>(
+        Arrays.asList("images", "plugins", "distribution")
+    );
+
+    /**
+     * Operations on named resources, ending their paths.
+     */
+    private static final Set<String> OPERATIONS = new HashSet<>(
+        Arrays.asList(
+            "json", "history", "push", "tag", "get", "enable", "disable",
+            "upgrade", "set"
+        )
+    );
+
+    /**
+     * Operations on whole collections, which are not IDs.
+     */
+    private static final Set<String> COLLECTION = new HashSet<>(
+        Arrays.asList(
+            "json", "create", "prune", "load", "get", "search", "pull",
+            "privileges"
+        )
+    );
+
+    /**
+     * Where the readings go.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     * @param origin HttpClient to meter.
+     * @param metrics Where the readings go.
+     */
+    public MeteredHttpClient(final HttpClient origin, final Metrics metrics) {
+        super(() -> origin);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public HttpResponse execute(final HttpUriRequest request)
+        throws IOException {
+        return this.metered(request, () -> super.execute(request));
+    }
+
+    @Override
+    public HttpResponse execute(
+        final HttpUriRequest request, final HttpContext context
+    ) throws IOException {
+        return this.metered(request, () -> super.execute(request, context));
+    }
+
+    @Override
+    public HttpResponse execute(
+        final HttpHost target, final HttpRequest request
+    ) throws IOException {
+        return this.metered(request, () -> super.execute(target, request));
+    }
+
+    @Override
+    public HttpResponse execute(
+        final HttpHost target, final HttpRequest request,
+        final HttpContext context
+    ) throws IOException {
+        return this.metered(
+            request, () -> super.execute(target, request, context)
+        );
+    }
+
+    @Override
+    public <T> T execute(
+        final HttpUriRequest request,
+        final ResponseHandler<? extends T> handler
+    ) throws IOException {
+        return this.metered(
+            request, handler, counting -> super.execute(request, counting)
+        );
+    }
+
+    @Override
+    public <T> T execute(
+        final HttpUriRequest request,
+        final ResponseHandler<? extends T> handler, final HttpContext context
+    ) throws IOException {
+        return this.metered(
+            request, handler,
+            counting -> super.execute(request, counting, context)
+        );
+    }
+
+    @Override
+    public <T> T execute(
+        final HttpHost target, final HttpRequest request,
+        final ResponseHandler<? extends T> handler
+    ) throws IOException {
+        return this.metered(
+            request, handler,
+            counting -> super.execute(target, request, counting)
+        );
+    }
+
+    // @checkstyle ParameterNumber (4 lines)
+    @Override
+    public <T> T execute(
+        final HttpHost target, final HttpRequest request,
+        final ResponseHandler<? extends T> handler, final HttpContext context
+    ) throws IOException {
+        return this.metered(
+            request, handler,
+            counting -> super.execute(target, request, counting, context)
+        );
+    }
+
+    /**
+     * Endpoint template of a path: the API version is removed and the IDs
+     * or names of the resources are replaced with {id} or {name}.
+     * E.g. /v1.35/containers/4fa6e0f0c678/start becomes
+     * /containers/{id}/start.
+     * @param path Path of a request.
+     * @return Endpoint template.
+     */
+    static String endpoint(final String path) {
+        final String[] parts = MeteredHttpClient.VERSION.matcher(path)
+            .replaceFirst("/").substring(1).split("/");
+        final String endpoint;
+        if(parts.length < 2 || !MeteredHttpClient.RESOURCES.contains(parts[0])
+            || MeteredHttpClient.COLLECTION.contains(parts[1])
+            && parts.length == 2) {
+            endpoint = "/" + String.join("/", parts);
+        } else if(MeteredHttpClient.NAMED.contains(parts[0])) {
+            final String last = parts[parts.length - 1];
+            if(parts.length > 2
+                && MeteredHttpClient.OPERATIONS.contains(last)) {
+                endpoint = "/" + parts[0] + "/{name}/" + last;
+            } else {
+                endpoint = "/" + parts[0] + "/{name}";
+            }
+        } else {
+            parts[1] = "{id}";
+            endpoint = "/" + String.join("/", parts);
+        }
+        return endpoint;
+    }
+
+    /**
+     * Meter a call which returns the response. The body of the response is
+     * counted as the caller reads it, so the call is reported as finished
+     * once the body is read to the end or closed.
+     * @param request Request.
+     * @param call Call of the enveloped HttpClient.
+     * @return Response.
+     * @throws IOException If an I/O error occurs.
+     */
+    private HttpResponse metered(
+        final HttpRequest request, final Call<HttpResponse> call
+    ) throws IOException {
+        final String method = HttpClientEnvelope.method(request);
+        final String endpoint = MeteredHttpClient.endpoint(
+            HttpClientEnvelope.path(request)
+        );
+        final CountedEntity sent = MeteredHttpClient.counted(request);
+        this.metrics.started(method, endpoint);
+        final long start = System.nanoTime();
+        TimedConnections.waited();
+        HttpResponse response = null;
+        try {
+            response = call.call();
+        } finally {
+            this.leased();
+            if(response == null) {
+                this.metrics.finished(
+                    new Exchange(
+                        method, endpoint, 0,
+                        Duration.ofNanos(System.nanoTime() - start),
+                        MeteredHttpClient.bytes(sent), 0L
+                    )
+                );
+            }
+        }
+        final Duration latency = Duration.ofNanos(System.nanoTime() - start);
+        final int status = response.getStatusLine().getStatusCode();
+        final LongConsumer report = received -> this.metrics.finished(
+            new Exchange(
+                method, endpoint, status, latency,
+                MeteredHttpClient.bytes(sent), received
+            )
+        );
+        final HttpEntity entity = response.getEntity();
+        if(entity == null || entity.getContentLength() == 0L) {
+            report.accept(0L);
+        } else {
+            response.setEntity(new CountedEntity(entity, report));
+        }
+        return response;
+    }
+
+    /**
+     * Meter a call whose response is handled.
+     * @param request Request.
+     * @param handler Handler of the response.
+     * @param call Call of the enveloped HttpClient, with the handler which
+     *  counts the received bytes.
+     * @param <T> Type of the result.
+     * @return Result.
+     * @throws IOException If an I/O error occurs.
+     */
+    private <T> T metered(
+        final HttpRequest request, final ResponseHandler<? extends T> handler,
+        final Handled<T> call
+    ) throws IOException {
+        final String method = HttpClientEnvelope.method(request);
+        final String endpoint = MeteredHttpClient.endpoint(
+            HttpClientEnvelope.path(request)
+        );
+        final CountedEntity sent = MeteredHttpClient.counted(request);
+        final AtomicInteger status = new AtomicInteger();
+        final AtomicReference<CountedEntity> received =
+            new AtomicReference<>();
+        this.metrics.started(method, endpoint);
+        final long start = System.nanoTime();
+        TimedConnections.waited();
+        try {
+            return call.call(
+                response -> {
+                    status.set(response.getStatusLine().getStatusCode());
+                    if(response.getEntity() != null) {
+                        received.set(new CountedEntity(response.getEntity()));
+                        response.setEntity(received.get());
+                    }
+                    return handler.handleResponse(response);
+                }
+            );
+        } finally {
+            this.leased();
+            this.metrics.finished(
+                new Exchange(
+                    method, endpoint, status.get(),
+                    Duration.ofNanos(System.nanoTime() - start),
+                    MeteredHttpClient.bytes(sent),
+                    MeteredHttpClient.bytes(received.get())
+                )
+            );
+        }
+    }
+
+    /**
+     * Report how long the current thread waited for a pooled connection,
+     * if it asked for one.
+     */
+    private void leased() {
+        TimedConnections.waited().ifPresent(this.metrics::leased);
+    }
+
+    /**
+     * Wrap the body of the request, if any, so it is counted.
+     * @param request Request.
+     * @return The counted body or null if the request has no body.
+     */
+    private static CountedEntity counted(final HttpRequest request) {
+        CountedEntity counted = null;
+        if(request instanceof HttpEntityEnclosingRequest) {
+            final HttpEntityEnclosingRequest enclosing =
+                (HttpEntityEnclosingRequest) request;
+            if(enclosing.getEntity() != null) {
+                counted = new CountedEntity(enclosing.getEntity());
+                enclosing.setEntity(counted);
+            }
+        }
+        return counted;
+    }
+
+    /**
+     * Bytes counted by an entity.
+     * @param entity Counted entity, possibly null.
+     * @return Number of bytes, 0 if there is no entity.
+     */
+    private static long bytes(final CountedEntity entity) {
+        final long bytes;
+        if(entity == null) {
+            bytes = 0L;
+        } else {
+            bytes = entity.bytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * A call to the enveloped HttpClient, whose response is handled.
+     * @param <T> Type of the result.
+     */
+    @FunctionalInterface
+    private interface Handled<T> {
+
+        /**
+         * Make the call.
+         * @param counting Handler which counts the received bytes and then
+         *  handles the response.
+         * @return Result.
+         * @throws IOException If an I/O error occurs.
+         */
+        T call(ResponseHandler<? extends T> counting) throws IOException;
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.time.Duration;
+
+/**
+ * Receives the measurements of the calls made to the Docker API. Implement
+ * it to bridge the readings to your metrics library (e.g. Micrometer,
+ * Prometheus) and give it to a {@link MeteredHttpClient}:
+ * <pre>
+ *     final Docker docker = new UnixDocker(
+ *         new File("/var/run/docker.sock"), new PoolConfig(),
+ *         client -> new MeteredHttpClient(
+ *             client,
+ *             new Metrics() {
+ *                 &#64;Override
+ *                 public void started(String method, String endpoint) {
+ *                     inFlight.incrementAndGet();
+ *                 }
+ *                 &#64;Override
+ *                 public void finished(Exchange exchange) {
+ *                     inFlight.decrementAndGet();
+ *                     registry.timer(
+ *                         "docker.api", "method", exchange.method(),
+ *                         "endpoint", exchange.endpoint(),
+ *                         "status", String.valueOf(exchange.status())
+ *                     ).record(exchange.latency());
+ *                 }
+ *                 &#64;Override
+ *                 public void leased(Duration wait) {
+ *                     registry.timer("docker.pool.wait").record(wait);
+ *                 }
+ *             }
+ *         )
+ *     );
+ * </pre>
+ * Endpoints are templates, not actual paths (e.g.
+ * {@code /containers/{id}/start}), so they can be used as tags. The
+ * methods are called by the threads making the requests, so they must be
+ * thread-safe and fast.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public interface Metrics {
+
+    /**
+     * A request is about to be sent. Each call is followed by a call to
+     * {@link #finished(Exchange)} with the same method and endpoint, so the
+     * difference is the number of requests in flight.
+     * @param method HTTP method.
+     * @param endpoint Endpoint template.
+     */
+    void started(String method, String endpoint);
+
+    /**
+     * A request finished, successfully or not.
+     * @param exchange The request and its outcome.
+     */
+    void finished(Exchange exchange);
+
+    /**
+     * A connection was leased from the pool. Only the pools built by
+     * this library (e.g. the one of {@link UnixDocker}) report it.
+     * @param wait How long the request waited for the connection.
+     */
+    void leased(Duration wait);
+}
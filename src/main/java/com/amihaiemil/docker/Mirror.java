@@ -0,0 +1,414 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * In-memory copy of one kind of Docker resources (containers, images,
+ * networks or volumes), as they are listed by the API. It is kept up to
+ * date by an {@link Informer}; the queries never go to the server.<br><br>
+ *
+ * Besides their ID ("id"), the resources are indexed by their labels
+ * ("label", with the values "key" and "key=value"). Containers are also
+ * indexed by "image" (name and ID), "network" (name and ID) and "status"
+ * (e.g. running, exited).<br><br>
+ *
+ * It can be read by many threads; only its Informer changes it. Each
+ * change (a resource put, updated or removed, together with its indexes)
+ * is atomic: a query sees the resources and the indexes either before or
+ * after it.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class Mirror {
+
+    /**
+     * Name of the index by ID.
+     */
+    private static final String ID = "id";
+
+    /**
+     * Attribute holding the ID of a resource (Id or Name).
+     */
+    private final String key;
+
+    /**
+     * Lists all the resources.
+     */
+    private final Supplier<Iterator<? extends JsonObject>> all;
+
+    /**
+     * Lists the resource with the given ID. It may list more.
+     */
+    private final Function<String, Iterator<? extends JsonObject>> one;
+
+    /**
+     * Index functions, by index name.
+     */
+    private final Map<String, Function<JsonObject, Collection<String>>> keys;
+
+    /**
+     * Resources, by ID.
+     */
+    private final Map<String, JsonObject> resources;
+
+    /**
+     * IDs of resources, by index name and indexed value.
+     */
+    private final Map<String, Map<String, Set<String>>> indexes;
+
+    /**
+     * Guards the resources together with the indexes: the queries read
+     * them, the changes write them.
+     */
+    private final ReadWriteLock lock;
+
+    /**
+     * Ctor.
+     * @param key Attribute holding the ID of a resource (Id or Name).
+     * @param all Lists all the resources.
+     * @param one Lists the resource with the given ID. It may list more.
+     * @param keys Index functions, by index name.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    Mirror(
+        final String key, final Supplier<Iterator<? extends JsonObject>> all,
+        final Function<String, Iterator<? extends JsonObject>> one,
+        final Map<String, Function<JsonObject, Collection<String>>> keys
+    ) {
+        this.key = key;
+        this.all = all;
+        this.one = one;
+        this.keys = keys;
+        this.resources = new ConcurrentHashMap<>();
+        this.indexes = new ConcurrentHashMap<>();
+        for(final String index : keys.keySet()) {
+            this.indexes.put(index, new ConcurrentHashMap<>());
+        }
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * All the mirrored resources.
+     * @return Collection of JsonObject.
+     */
+    public Collection<JsonObject> all() {
+        return Collections.unmodifiableCollection(
+            this.resources.values()
+        );
+    }
+
+    /**
+     * The resources with the given label.
+     * @param label Label key.
+     * @return Collection of JsonObject.
+     */
+    public Collection<JsonObject> labeled(final String label) {
+        return this.indexed("label", label);
+    }
+
+    /**
+     * The resources with the given label value.
+     * @param label Label key.
+     * @param value Label value.
+     * @return Collection of JsonObject.
+     */
+    public Collection<JsonObject> labeled(
+        final String label, final String value
+    ) {
+        return this.indexed("label", label + "=" + value);
+    }
+
+    /**
+     * The resources having the given value in an index.
+     * @param index Index name (id, label, image, network, status).
+     * @param value Indexed value.
+     * @return Collection of JsonObject, empty if none matches.
+     * @throws IllegalArgumentException If there is no such index.
+     */
+    public Collection<JsonObject> indexed(
+        final String index, final String value
+    ) {
+        this.lock.readLock().lock();
+        try {
+            return this.found(index, value);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of mirrored resources.
+     * @return Size.
+     */
+    public int size() {
+        return this.resources.size();
+    }
+
+    /**
+     * The resources having the given value in an index, read while the
+     * resources and the indexes are not being changed.
+     * @param index Index name.
+     * @param value Indexed value.
+     * @return Collection of JsonObject.
+     */
+    private Collection<JsonObject> found(
+        final String index, final String value
+    ) {
+        final Collection<JsonObject> found;
+        if(Mirror.ID.equals(index)) {
+            final JsonObject resource = this.resources.get(value);
+            if(resource == null) {
+                found = Collections.emptyList();
+            } else {
+                found = Collections.singletonList(resource);
+            }
+        } else {
+            final Map<String, Set<String>> ids = this.indexes.get(index);
+            if(ids == null) {
+                throw new IllegalArgumentException(
+                    "There is no index named " + index + "."
+                );
+            }
+            found = ids.getOrDefault(value, Collections.emptySet()).stream()
+                .map(this.resources::get)
+                .filter(resource -> resource != null)
+                .collect(Collectors.toList());
+        }
+        return found;
+    }
+
+    /**
+     * List all the resources again, replacing the mirrored ones.
+     */
+    void resync() {
+        final Set<String> listed = new HashSet<>();
+        final Iterator<? extends JsonObject> listing = this.all.get();
+        try {
+            while(listing.hasNext()) {
+                listed.add(this.put(listing.next()));
+            }
+        } finally {
+            ResourcesIterator.release(listing);
+        }
+        final List<String> gone = this.resources.keySet().stream()
+            .filter(id -> !listed.contains(id))
+            .collect(Collectors.toList());
+        gone.forEach(this::remove);
+    }
+
+    /**
+     * List the resource with the given ID (or name, if the listing is
+     * filtered by name) again. It is removed if it is not listed anymore.
+     * @param id ID or name.
+     * @return IDs of the listed resources.
+     */
+    Set<String> refresh(final String id) {
+        final Set<String> listed = new HashSet<>();
+        final Iterator<? extends JsonObject> listing = this.one.apply(id);
+        try {
+            while(listing.hasNext()) {
+                listed.add(this.put(listing.next()));
+            }
+        } finally {
+            ResourcesIterator.release(listing);
+        }
+        if(!listed.contains(id)) {
+            this.remove(id);
+        }
+        return listed;
+    }
+
+    /**
+     * Change the mirrored resource with the given ID, without listing it
+     * again, re-indexing it.
+     * @param id ID.
+     * @param change Gives the changed resource.
+     * @return True if the resource was mirrored, false otherwise.
+     */
+    boolean update(final String id, final UnaryOperator<JsonObject> change) {
+        this.lock.writeLock().lock();
+        try {
+            final JsonObject resource = this.resources.get(id);
+            if(resource != null) {
+                this.put(change.apply(resource));
+            }
+            return resource != null;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the resource with the given ID.
+     * @param id ID.
+     */
+    void remove(final String id) {
+        this.lock.writeLock().lock();
+        try {
+            final JsonObject removed = this.resources.remove(id);
+            if(removed != null) {
+                this.unindex(id, removed);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mirror a listed resource.
+     * @param resource Listed resource.
+     * @return ID of the resource.
+     */
+    private String put(final JsonObject resource) {
+        final String id = resource.getString(this.key);
+        this.lock.writeLock().lock();
+        try {
+            final JsonObject previous = this.resources.put(id, resource);
+            if(previous != null) {
+                this.unindex(id, previous);
+            }
+            for(final String index : this.keys.keySet()) {
+                final Map<String, Set<String>> ids = this.indexes.get(index);
+                for(final String value : this.keys.get(index).apply(resource)) {
+                    ids.computeIfAbsent(
+                        value, val -> ConcurrentHashMap.newKeySet()
+                    ).add(id);
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        return id;
+    }
+
+    /**
+     * Remove a resource from the indexes.
+     * @param id ID of the resource.
+     * @param resource Indexed resource.
+     */
+    private void unindex(final String id, final JsonObject resource) {
+        for(final String index : this.keys.keySet()) {
+            final Map<String, Set<String>> ids = this.indexes.get(index);
+            for(final String value : this.keys.get(index).apply(resource)) {
+                final Set<String> indexed = ids.get(value);
+                if(indexed != null) {
+                    indexed.remove(id);
+                    if(indexed.isEmpty()) {
+                        ids.remove(value, indexed);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Label index: each label, alone and with its value.
+     * @param resource Resource.
+     * @return Indexed values.
+     */
+    static Collection<String> labels(final JsonObject resource) {
+        final Set<String> values = new HashSet<>();
+        final JsonValue labels = resource.get("Labels");
+        if(labels instanceof JsonObject) {
+            for(final Map.Entry<String, JsonValue> label
+                : ((JsonObject) labels).entrySet()) {
+                values.add(label.getKey());
+                if(label.getValue() instanceof JsonString) {
+                    values.add(
+                        label.getKey() + "="
+                        + ((JsonString) label.getValue()).getString()
+                    );
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * The string values of the given attributes, if present.
+     * @param resource Resource.
+     * @param names Attribute names.
+     * @return Indexed values.
+     */
+    static Collection<String> strings(
+        final JsonObject resource, final String... names
+    ) {
+        final Set<String> values = new HashSet<>();
+        for(final String name : names) {
+            final JsonValue value = resource.get(name);
+            if(value instanceof JsonString) {
+                values.add(((JsonString) value).getString());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Network index of a listed container: names and IDs of its networks.
+     * @param container Listed container.
+     * @return Indexed values.
+     */
+    static Collection<String> networks(final JsonObject container) {
+        final Set<String> values = new HashSet<>();
+        final JsonValue settings = container.get("NetworkSettings");
+        if(settings instanceof JsonObject) {
+            final JsonValue networks = ((JsonObject) settings).get("Networks");
+            if(networks instanceof JsonObject) {
+                for(final Map.Entry<String, JsonValue> network
+                    : ((JsonObject) networks).entrySet()) {
+                    values.add(network.getKey());
+                    if(network.getValue() instanceof JsonObject) {
+                        values.addAll(
+                            Mirror.strings(
+                                (JsonObject) network.getValue(), "NetworkID"
+                            )
+                        );
+                    }
+                }
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Demultiplexer of the application/vnd.docker.raw-stream format, used by
+ * Docker to send the logs of containers without a TTY. Each frame has
+ * a header:
+ * <pre>
+ * [8]byte{STREAM_TYPE, 0, 0, 0, SIZE1, SIZE2, SIZE3, SIZE4}
+ * </pre>
+ * STREAM_TYPE is 0 (stdin), 1 (stdout) or 2 (stderr) and SIZE1-4 are the
+ * four bytes of the uint32 size of the payload, encoded as big endian.
+ * Everything is read as bytes and the payloads are given through the same,
+ * bounded, buffer.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class MultiplexedStream {
+
+    /**
+     * Size of the frame header.
+     */
+    private static final int HEADER = 8;
+
+    /**
+     * Maximum number of payload bytes given at once.
+     */
+    private static final int MAX_PIECE = 65536;
+
+    /**
+     * The multiplexed content.
+     */
+    private final InputStream content;
+
+    /**
+     * Frame header.
+     */
+    private final byte[] header;
+
+    /**
+     * Payload buffer, reused between frames.
+     */
+    private final byte[] payload;
+
+    /**
+     * Ctor.
+     * @param content The multiplexed content.
+     */
+    MultiplexedStream(final InputStream content) {
+        this.content = content;
+        this.header = new byte[MultiplexedStream.HEADER];
+        this.payload = new byte[MultiplexedStream.MAX_PIECE];
+    }
+
+    /**
+     * Read the next frame and give it to the receiver.
+     * @param frames Receiver of the frame.
+     * @return True if a frame was read, false if the stream ended.
+     * @throws IOException If the stream cannot be read or it ended
+     *  in the middle of a frame.
+     */
+    boolean next(final LogFrames frames) throws IOException {
+        final boolean read = this.fill(this.header, MultiplexedStream.HEADER);
+        if(read) {
+            final int stream = this.header[0];
+            long size = ByteBuffer.wrap(this.header).getInt(4) & 0xFFFFFFFFL;
+            while(size > 0) {
+                final int piece = (int) Math.min(
+                    size, MultiplexedStream.MAX_PIECE
+                );
+                if(!this.fill(this.payload, piece)) {
+                    throw new IOException(
+                        "Multiplexed stream ended in the middle of a frame."
+                    );
+                }
+                frames.frame(
+                    stream,
+                    ByteBuffer.wrap(this.payload, 0, piece).asReadOnlyBuffer()
+                );
+                size = size - piece;
+            }
+        }
+        return read;
+    }
+
+    /**
+     * Read all the remaining frames.
+     * @param frames Receiver of the frames.
+     * @throws IOException If the stream cannot be read.
+     */
+    void readAll(final LogFrames frames) throws IOException {
+        boolean more = true;
+        while(more) {
+            more = this.next(frames);
+        }
+    }
+
+    /**
+     * Fill the given buffer with exactly the given number of bytes.
+     * @param buffer Buffer to fill.
+     * @param length Number of bytes to read.
+     * @return True if the bytes were read, false if the stream ended
+     *  before the first of them.
+     * @throws IOException If the stream ended after the first byte.
+     */
+    private boolean fill(final byte[] buffer, final int length)
+        throws IOException {
+        int off = 0;
+        int read = 0;
+        while(off < length && read != -1) {
+            read = this.content.read(buffer, off, length - off);
+            if(read > 0) {
+                off = off + read;
+            }
+        }
+        if(off > 0 && off < length) {
+            throw new IOException(
+                "Multiplexed stream ended in the middle of a frame."
+            );
+        }
+        return off == length;
+    }
+}
@@ -0,0 +1,296 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import javax.json.JsonObject;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+
+/**
+ * Docker which speaks the highest API version known by both this library
+ * and the engine, instead of the one given at construction:
+ * <pre>
+ *     final Docker docker = new NegotiatedDocker(
+ *         new UnixDocker(new File("/var/run/docker.sock"))
+ *     );
+ *     final List&lt;Container&gt; running = docker.containers().all();
+ * </pre>
+ * The engine's version is read once, from the unversioned /version
+ * endpoint, the first time something depends on it (e.g. the first call
+ * of {@link #containers()} or {@link #apiVersion()}); building this
+ * Docker makes no request. If the engine cannot be reached then, the calls
+ * go to the decorated Docker as it is and the negotiation is tried again
+ * after a backoff (1 second, doubled after each failure, up to 1 minute),
+ * so calls made while the engine is down do not each wait for /version.
+ * <br><br>
+ *
+ * The negotiated version is {@link ApiVersion#SUPPORTED}, or the engine's
+ * version if it is older, or the engine's minimum version if it no longer
+ * accepts {@link ApiVersion#SUPPORTED}. The APIs which depend on it go to
+ * the server through the decorated Docker's HttpClient, with the negotiated
+ * version; features which depend on it (see {@link ApiVersion}) are then
+ * used automatically. Everything else ({@link #ping()}, {@link #version()},
+ * {@link #info()} etc) is delegated to the decorated Docker.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class NegotiatedDocker implements Docker, AutoCloseable {
+
+    /**
+     * Longest time to wait before negotiating again, in nanoseconds.
+     */
+    private static final long MAX_BACKOFF = Duration.ofMinutes(1).toNanos();
+
+    /**
+     * The decorated Docker.
+     */
+    private final Docker origin;
+
+    /**
+     * Docker speaking the negotiated version, or null if it was not
+     * negotiated yet.
+     */
+    private Docker negotiated;
+
+    /**
+     * Time to wait after the next failed negotiation, in nanoseconds.
+     */
+    private long backoff;
+
+    /**
+     * Whether a negotiation failed.
+     */
+    private boolean failed;
+
+    /**
+     * Moment (System.nanoTime()) before which no negotiation is tried.
+     */
+    private long retry;
+
+    /**
+     * Ctor.
+     * @param origin The Docker to decorate.
+     */
+    public NegotiatedDocker(final Docker origin) {
+        this(origin, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Ctor.
+     * @param origin The Docker to decorate.
+     * @param backoff Time to wait before negotiating again, after the
+     *  first failed negotiation. It is doubled after each failure.
+     */
+    NegotiatedDocker(final Docker origin, final Duration backoff) {
+        this.origin = origin;
+        this.backoff = backoff.toNanos();
+    }
+
+    @Override
+    public boolean ping() throws IOException {
+        return this.origin.ping();
+    }
+
+    @Override
+    public Events events() {
+        return this.negotiated().events();
+    }
+
+    @Override
+    public Containers containers() {
+        return this.negotiated().containers();
+    }
+
+    @Override
+    public Images images() {
+        return this.negotiated().images();
+    }
+
+    @Override
+    public Networks networks() {
+        return this.negotiated().networks();
+    }
+
+    @Override
+    public Volumes volumes() {
+        return this.negotiated().volumes();
+    }
+
+    @Override
+    public Execs execs() {
+        return this.negotiated().execs();
+    }
+
+    @Override
+    public Swarm swarm() {
+        return this.negotiated().swarm();
+    }
+
+    @Override
+    public DockerSystem system() {
+        return this.negotiated().system();
+    }
+
+    @Override
+    public Plugins plugins() {
+        return this.origin.plugins();
+    }
+
+    @Override
+    public Version version() throws IOException {
+        return this.origin.version();
+    }
+
+    @Override
+    public Info info() throws IOException {
+        return this.origin.info();
+    }
+
+    @Override
+    public ApiVersion apiVersion() {
+        return this.negotiated().apiVersion();
+    }
+
+    @Override
+    public HttpClient httpClient() {
+        return this.origin.httpClient();
+    }
+
+    /**
+     * Close the decorated Docker, if it is closeable (e.g. a
+     * {@link CachedDocker}).
+     * @throws IOException If the decorated Docker cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        RtDocker.close(this.origin);
+    }
+
+    /**
+     * The Docker speaking the negotiated version, negotiated now if it
+     * was not yet. If the engine's version cannot be read, or the last
+     * attempt failed less than a backoff ago, it is the decorated Docker.
+     * @return Docker.
+     */
+    synchronized Docker negotiated() {
+        Docker docker = this.negotiated;
+        final long now = System.nanoTime();
+        if(docker == null && this.failed && now - this.retry < 0L) {
+            docker = this.origin;
+        } else if(docker == null) {
+            try {
+                this.negotiated = new Versioned(
+                    this.origin, NegotiatedDocker.negotiate(this.origin)
+                );
+                docker = this.negotiated;
+            } catch (final IOException | UnexpectedResponseException ex) {
+                this.failed = true;
+                this.retry = now + this.backoff;
+                this.backoff = Math.min(
+                    this.backoff * 2L, NegotiatedDocker.MAX_BACKOFF
+                );
+                docker = this.origin;
+            }
+        }
+        return docker;
+    }
+
+    /**
+     * Read the engine's version and build the base URI with the
+     * negotiated one.
+     * @param origin The Docker to decorate.
+     * @return Base URI.
+     * @throws IOException If the engine's version cannot be read.
+     */
+    private static URI negotiate(final Docker origin) throws IOException {
+        final String base = RtDocker.baseUri(origin).toString();
+        final String root;
+        if(ApiVersion.fromUri(URI.create(base)).isPresent()) {
+            root = base.substring(0, base.lastIndexOf('/'));
+        } else {
+            root = base;
+        }
+        final HttpGet version = new HttpGet(root + "/version");
+        final JsonObject engine;
+        try {
+            engine = origin.httpClient().execute(
+                version,
+                new ReadJsonObject(
+                    new MatchStatus(version.getURI(), HttpStatus.SC_OK),
+                    RtDocker.json(origin)
+                )
+            );
+        } finally {
+            version.releaseConnection();
+        }
+        return URI.create(
+            root + "/" + NegotiatedDocker.highest(
+                new ApiVersion(engine.getString("ApiVersion")),
+                new ApiVersion(engine.getString("MinAPIVersion", "1.12"))
+            )
+        );
+    }
+
+    /**
+     * The highest version known by both this library and the engine.
+     * @param max The engine's version.
+     * @param min The engine's minimum version.
+     * @return ApiVersion.
+     */
+    private static ApiVersion highest(
+        final ApiVersion max, final ApiVersion min
+    ) {
+        ApiVersion highest = ApiVersion.SUPPORTED;
+        if(max.compareTo(highest) < 0) {
+            highest = max;
+        }
+        if(min.compareTo(highest) > 0) {
+            highest = min;
+        }
+        return highest;
+    }
+
+    /**
+     * Docker speaking the negotiated version.
+     */
+    private static final class Versioned extends RtDocker {
+
+        /**
+         * Ctor. It has the decorated Docker's HttpClient and JSON
+         * factories.
+         * @param origin The decorated Docker.
+         * @param uri Base URI, with the negotiated version.
+         */
+        Versioned(final Docker origin, final URI uri) {
+            super(origin.httpClient(), uri, RtDocker.json(origin));
+        }
+    }
+}
@@ -0,0 +1,328 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import javax.json.stream.JsonParser;
+
+/**
+ * Stats read with a JsonParser, without building the JsonObject.
+ * Only the monitored counters are kept, everything else is skipped.
+ * The same instance is refilled by every call of
+ * {@link #parse(JsonParser)}, so it can be reused for a whole stream
+ * of samples.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class ParsedStats implements Stats {
+
+    /**
+     * Deepest level of the stats document we care about.
+     */
+    private static final int DEPTH = 8;
+
+    /**
+     * Keys of the objects and arrays we are in, by depth.
+     */
+    private final String[] path;
+
+    /**
+     * Total CPU usage of the container.
+     */
+    private long cpu;
+
+    /**
+     * Total CPU usage of the container, at the previous sample.
+     */
+    private long precpu;
+
+    /**
+     * CPU usage of the host.
+     */
+    private long system;
+
+    /**
+     * CPU usage of the host, at the previous sample.
+     */
+    private long presystem;
+
+    /**
+     * Online CPUs, as sent by Docker.
+     */
+    private int online;
+
+    /**
+     * Number of per CPU usages, for older engines which do not send
+     * the online CPUs.
+     */
+    private int percpu;
+
+    /**
+     * Memory usage.
+     */
+    private long memory;
+
+    /**
+     * Memory limit.
+     */
+    private long limit;
+
+    /**
+     * Received network bytes.
+     */
+    private long received;
+
+    /**
+     * Sent network bytes.
+     */
+    private long sent;
+
+    /**
+     * Bytes read from the block devices.
+     */
+    private long read;
+
+    /**
+     * Bytes written to the block devices.
+     */
+    private long written;
+
+    /**
+     * Operation of the current blkio entry.
+     */
+    private String operation;
+
+    /**
+     * Value of the current blkio entry.
+     */
+    private long value;
+
+    /**
+     * Ctor.
+     */
+    ParsedStats() {
+        this.path = new String[ParsedStats.DEPTH];
+    }
+
+    /**
+     * Read the next stats document from the given parser.
+     * @param parser JsonParser positioned before the document.
+     * @checkstyle CyclomaticComplexity (50 lines)
+     */
+    void parse(final JsonParser parser) {
+        this.reset();
+        int depth = 0;
+        String key = null;
+        while(parser.hasNext()) {
+            final JsonParser.Event event = parser.next();
+            if(event == JsonParser.Event.KEY_NAME) {
+                key = parser.getString();
+            } else if(event == JsonParser.Event.VALUE_NUMBER) {
+                this.number(depth, key, parser.getLong());
+            } else if(event == JsonParser.Event.VALUE_STRING) {
+                if(depth == 4 && "op".equals(key) && this.blkio()) {
+                    this.operation = parser.getString();
+                }
+            } else if(event == JsonParser.Event.START_OBJECT
+                || event == JsonParser.Event.START_ARRAY) {
+                if(depth < ParsedStats.DEPTH) {
+                    this.path[depth] = key;
+                }
+                depth = depth + 1;
+                key = null;
+            } else if(event == JsonParser.Event.END_OBJECT
+                || event == JsonParser.Event.END_ARRAY) {
+                if(depth == 4 && this.blkio()) {
+                    this.entry();
+                }
+                depth = depth - 1;
+                key = null;
+            }
+        }
+    }
+
+    @Override
+    public long cpuDelta() {
+        return this.cpu - this.precpu;
+    }
+
+    @Override
+    public long systemCpuDelta() {
+        return this.system - this.presystem;
+    }
+
+    @Override
+    public int onlineCpus() {
+        final int cpus;
+        if(this.online > 0) {
+            cpus = this.online;
+        } else {
+            cpus = this.percpu;
+        }
+        return cpus;
+    }
+
+    @Override
+    public double cpuPercent() {
+        double percent = 0.0;
+        final long delta = this.cpuDelta();
+        final long host = this.systemCpuDelta();
+        if(delta > 0 && host > 0) {
+            percent = (double) delta / host * this.onlineCpus() * 100.0;
+        }
+        return percent;
+    }
+
+    @Override
+    public long memoryUsage() {
+        return this.memory;
+    }
+
+    @Override
+    public long memoryLimit() {
+        return this.limit;
+    }
+
+    @Override
+    public long networkRxBytes() {
+        return this.received;
+    }
+
+    @Override
+    public long networkTxBytes() {
+        return this.sent;
+    }
+
+    @Override
+    public long blkioReadBytes() {
+        return this.read;
+    }
+
+    @Override
+    public long blkioWriteBytes() {
+        return this.written;
+    }
+
+    /**
+     * Keep a number, if it is one of the monitored counters.
+     * @param depth Depth of the number.
+     * @param key Key of the number, null if it is in an array.
+     * @param number The number.
+     * @checkstyle CyclomaticComplexity (40 lines)
+     */
+    private void number(final int depth, final String key, final long number) {
+        if(depth == 2) {
+            this.section(key, number);
+        } else if(depth == 3 && "networks".equals(this.path[1])) {
+            if("rx_bytes".equals(key)) {
+                this.received = this.received + number;
+            } else if("tx_bytes".equals(key)) {
+                this.sent = this.sent + number;
+            }
+        } else if(depth == 3 && "cpu_usage".equals(this.path[2])
+            && "total_usage".equals(key)) {
+            if("cpu_stats".equals(this.path[1])) {
+                this.cpu = number;
+            } else if("precpu_stats".equals(this.path[1])) {
+                this.precpu = number;
+            }
+        } else if(depth == 4 && "value".equals(key) && this.blkio()) {
+            this.value = number;
+        } else if(depth == 4 && key == null
+            && "percpu_usage".equals(this.path[3])
+            && "cpu_stats".equals(this.path[1])) {
+            this.percpu = this.percpu + 1;
+        }
+    }
+
+    /**
+     * Keep a number found directly in a section (e.g. memory_stats).
+     * @param key Key of the number.
+     * @param number The number.
+     * @checkstyle CyclomaticComplexity (30 lines)
+     */
+    private void section(final String key, final long number) {
+        final String name = this.path[1];
+        if("memory_stats".equals(name)) {
+            if("usage".equals(key)) {
+                this.memory = number;
+            } else if("limit".equals(key)) {
+                this.limit = number;
+            }
+        } else if("cpu_stats".equals(name)) {
+            if("system_cpu_usage".equals(key)) {
+                this.system = number;
+            } else if("online_cpus".equals(key)) {
+                this.online = (int) number;
+            }
+        } else if("precpu_stats".equals(name)
+            && "system_cpu_usage".equals(key)) {
+            this.presystem = number;
+        }
+    }
+
+    /**
+     * Are we in an entry of blkio_stats.io_service_bytes_recursive?
+     * @return True or false.
+     */
+    private boolean blkio() {
+        return "blkio_stats".equals(this.path[1])
+            && "io_service_bytes_recursive".equals(this.path[2]);
+    }
+
+    /**
+     * Add the current blkio entry to the read or written bytes.
+     */
+    private void entry() {
+        if("read".equalsIgnoreCase(this.operation)) {
+            this.read = this.read + this.value;
+        } else if("write".equalsIgnoreCase(this.operation)) {
+            this.written = this.written + this.value;
+        }
+        this.operation = null;
+        this.value = 0;
+    }
+
+    /**
+     * Reset all the counters, before reading a new sample.
+     */
+    private void reset() {
+        this.cpu = 0;
+        this.precpu = 0;
+        this.system = 0;
+        this.presystem = 0;
+        this.online = 0;
+        this.percpu = 0;
+        this.memory = 0;
+        this.limit = 0;
+        this.received = 0;
+        this.sent = 0;
+        this.read = 0;
+        this.written = 0;
+        this.operation = null;
+        this.value = 0;
+    }
+}
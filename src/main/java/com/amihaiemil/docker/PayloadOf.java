@@ -26,7 +26,6 @@
 package com.amihaiemil.docker;
 
 import java.io.IOException;
-import javax.json.Json;
 import javax.json.JsonObject;
 import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.HttpRequest;
@@ -52,12 +51,13 @@ final class PayloadOf extends JsonResource {
             try {
                 final JsonObject body;
                 if (request instanceof HttpEntityEnclosingRequest) {
-                    body = Json.createReader(
+                    body = JsonFactories.SHARED.object(
                         ((HttpEntityEnclosingRequest) request).getEntity()
                             .getContent()
-                    ).readObject();
+                    );
                 } else {
-                    body =  Json.createObjectBuilder().build();
+                    body = JsonFactories.SHARED.builders().createObjectBuilder()
+                        .build();
                 }
                 return body;
             } catch (final IOException ex) {
@@ -76,9 +76,9 @@ final class PayloadOf extends JsonResource {
     PayloadOf(final HttpResponse response) {
         super(() -> {
             try {
-                return Json.createReader(
+                return JsonFactories.SHARED.object(
                     response.getEntity().getContent()
-                ).readObject();
+                );
             } catch (final IOException ex) {
                 throw new IllegalStateException(
                     "Cannot read response payload", ex
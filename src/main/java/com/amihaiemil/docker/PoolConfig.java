@@ -0,0 +1,285 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+/**
+ * Configuration of the HTTP connection pool used by {@link UnixDocker}.
+ * It is immutable: every method returns a new, modified, configuration.
+ * <pre>
+ *     final Docker docker = new UnixDocker(
+ *         new File("/var/run/docker.sock"),
+ *         new PoolConfig()
+ *             .maxTotal(200)
+ *             .maxPerRoute(200)
+ *             .evictIdleAfter(Duration.ofSeconds(30))
+ *             .socketTimeout(Duration.ofSeconds(60))
+ *     );
+ * </pre>
+ * By default, the pool holds at most 10 connections, stale connections are
+ * validated after 2 seconds of inactivity, idle connections are not evicted,
+ * connections live forever and there are no socket or connect timeouts.
+ * The decorators of the pooled client (e.g. {@link MeteredHttpClient})
+ * are given to the {@link UnixDocker}, not to this configuration.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ * @checkstyle ParameterNumber (200 lines)
+ */
+public final class PoolConfig {
+
+    /**
+     * Maximum number of connections in the pool.
+     */
+    private final int total;
+
+    /**
+     * Maximum number of connections per route.
+     */
+    private final int route;
+
+    /**
+     * Validate connections which have been idle for this long.
+     */
+    private final Duration validate;
+
+    /**
+     * Evict connections which have been idle for this long.
+     * Zero means idle connections are never evicted.
+     */
+    private final Duration idle;
+
+    /**
+     * Total time to live of a connection. Zero means forever.
+     */
+    private final Duration ttl;
+
+    /**
+     * Socket (read) timeout. Zero means infinite.
+     */
+    private final Duration socket;
+
+    /**
+     * Connect timeout. Zero means infinite.
+     */
+    private final Duration connect;
+
+    /**
+     * Ctor with the default settings.
+     */
+    public PoolConfig() {
+        this(
+            10, 10, Duration.ofSeconds(2), Duration.ZERO,
+            Duration.ZERO, Duration.ZERO, Duration.ZERO
+        );
+    }
+
+    /**
+     * Primary Ctor.
+     * @param total Maximum number of connections in the pool.
+     * @param route Maximum number of connections per route.
+     * @param validate Validate connections idle for this long.
+     * @param idle Evict connections idle for this long.
+     * @param ttl Total time to live of a connection.
+     * @param socket Socket timeout.
+     * @param connect Connect timeout.
+     */
+    private PoolConfig(
+        final int total, final int route, final Duration validate,
+        final Duration idle, final Duration ttl,
+        final Duration socket, final Duration connect
+    ) {
+        this.total = total;
+        this.route = route;
+        this.validate = validate;
+        this.idle = idle;
+        this.ttl = ttl;
+        this.socket = socket;
+        this.connect = connect;
+    }
+
+    /**
+     * Maximum number of connections in the pool.
+     * @param max Maximum number of connections.
+     * @return New PoolConfig.
+     */
+    public PoolConfig maxTotal(final int max) {
+        return new PoolConfig(
+            PoolConfig.positive(max, "maxTotal"), this.route, this.validate,
+            this.idle, this.ttl, this.socket, this.connect
+        );
+    }
+
+    /**
+     * Maximum number of connections per route. With a unix socket,
+     * there is only one route, so this should usually be the same
+     * as {@link #maxTotal(int)}.
+     * @param max Maximum number of connections per route.
+     * @return New PoolConfig.
+     */
+    public PoolConfig maxPerRoute(final int max) {
+        return new PoolConfig(
+            this.total, PoolConfig.positive(max, "maxPerRoute"), this.validate,
+            this.idle, this.ttl, this.socket, this.connect
+        );
+    }
+
+    /**
+     * Validate pooled connections which have been idle for
+     * longer than the given duration, before leasing them.
+     * @param inactivity Inactivity duration.
+     * @return New PoolConfig.
+     */
+    public PoolConfig validateAfterInactivity(final Duration inactivity) {
+        return new PoolConfig(
+            this.total, this.route, inactivity,
+            this.idle, this.ttl, this.socket, this.connect
+        );
+    }
+
+    /**
+     * Evict, in background, pooled connections which have been idle for
+     * longer than the given duration. Expired connections are evicted too.
+     * @param inactivity Inactivity duration.
+     * @return New PoolConfig.
+     */
+    public PoolConfig evictIdleAfter(final Duration inactivity) {
+        return new PoolConfig(
+            this.total, this.route, this.validate,
+            inactivity, this.ttl, this.socket, this.connect
+        );
+    }
+
+    /**
+     * Total time to live of a pooled connection, regardless of its activity.
+     * @param live Time to live.
+     * @return New PoolConfig.
+     */
+    public PoolConfig timeToLive(final Duration live) {
+        return new PoolConfig(
+            this.total, this.route, this.validate,
+            this.idle, live, this.socket, this.connect
+        );
+    }
+
+    /**
+     * Socket timeout: maximum period of inactivity between two data packets.
+     * Pay attention when following logs or monitoring events, since these
+     * streams may stay silent for a long time.
+     * @param timeout Socket timeout.
+     * @return New PoolConfig.
+     */
+    public PoolConfig socketTimeout(final Duration timeout) {
+        return new PoolConfig(
+            this.total, this.route, this.validate,
+            this.idle, this.ttl, timeout, this.connect
+        );
+    }
+
+    /**
+     * Timeout until a connection is established.
+     * @param timeout Connect timeout.
+     * @return New PoolConfig.
+     */
+    public PoolConfig connectTimeout(final Duration timeout) {
+        return new PoolConfig(
+            this.total, this.route, this.validate,
+            this.idle, this.ttl, this.socket, timeout
+        );
+    }
+
+    /**
+     * Build the connection manager described by this configuration.
+     * @param registry Registry of socket factories.
+     * @return Pooling connection manager.
+     */
+    PoolingHttpClientConnectionManager manager(
+        final Registry<ConnectionSocketFactory> registry
+    ) {
+        final PoolingHttpClientConnectionManager pool;
+        if(this.ttl.isZero()) {
+            pool = new PoolingHttpClientConnectionManager(registry);
+        } else {
+            pool = new PoolingHttpClientConnectionManager(
+                registry, null, null, null,
+                this.ttl.toMillis(), TimeUnit.MILLISECONDS
+            );
+        }
+        pool.setMaxTotal(this.total);
+        pool.setDefaultMaxPerRoute(this.route);
+        pool.setValidateAfterInactivity((int) this.validate.toMillis());
+        return pool;
+    }
+
+    /**
+     * Configure an HttpClientBuilder with the given pool and
+     * the timeouts and eviction policy described by this configuration.
+     * The time each request waits for a connection is measured, for
+     * the {@link MeteredHttpClient} which may decorate the client.
+     * @param pool Connection manager built by {@link #manager(Registry)}.
+     * @return Configured HttpClientBuilder.
+     */
+    HttpClientBuilder builder(final PoolingHttpClientConnectionManager pool) {
+        final HttpClientBuilder builder = HttpClientBuilder.create()
+            .setConnectionManager(new TimedConnections(pool))
+            .setDefaultRequestConfig(
+                RequestConfig.custom()
+                    .setSocketTimeout((int) this.socket.toMillis())
+                    .setConnectTimeout((int) this.connect.toMillis())
+                    .build()
+            );
+        if(!this.idle.isZero()) {
+            builder
+                .evictExpiredConnections()
+                .evictIdleConnections(
+                    this.idle.toMillis(), TimeUnit.MILLISECONDS
+                );
+        }
+        return builder;
+    }
+
+    /**
+     * Make sure the given number is strictly positive.
+     * @param number Number to check.
+     * @param name Name of the setting.
+     * @return The number, if positive.
+     */
+    private static int positive(final int number, final String name) {
+        if(number <= 0) {
+            throw new IllegalArgumentException(
+                name + " must be greater than 0, but was " + number
+            );
+        }
+        return number;
+    }
+}
@@ -0,0 +1,265 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.json.JsonArray;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * Pre-pull of many images, see {@link Images#prePull(Iterable, int)}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class PrePull {
+
+    /**
+     * The Images, where the pulled images go.
+     */
+    private final RtImages images;
+
+    /**
+     * Ctor.
+     * @param images The Images, where the pulled images go.
+     */
+    PrePull(final RtImages images) {
+        this.images = images;
+    }
+
+    /**
+     * Pull the given images, except the ones which are already present,
+     * at most the given number at a time.
+     * @param references References of the images.
+     * @param parallel Maximum number of parallel pulls.
+     * @return BulkOutcome.
+     * @throws IOException If the Images cannot be listed or the calling
+     *  thread is interrupted.
+     */
+    BulkOutcome run(final Iterable<String> references, final int parallel)
+        throws IOException {
+        final ExecutorService pulls = Executors.newFixedThreadPool(parallel);
+        final Queue<String> succeeded = new ConcurrentLinkedQueue<>();
+        final Map<String, Exception> failed = new ConcurrentHashMap<>();
+        final AtomicLong slowest = new AtomicLong();
+        final long start = System.nanoTime();
+        try {
+            final Map<String, Future<?>> pending = new LinkedHashMap<>();
+            for(final String reference : this.missing(references, succeeded)) {
+                pending.put(
+                    reference,
+                    pulls.submit(
+                        () -> this.pull(reference, succeeded, failed, slowest)
+                    )
+                );
+            }
+            for(final Map.Entry<String, Future<?>> pull : pending.entrySet()) {
+                PrePull.await(pull.getKey(), pull.getValue(), failed);
+            }
+        } finally {
+            pulls.shutdownNow();
+        }
+        return new BulkOutcome(
+            succeeded, failed,
+            Duration.ofNanos(System.nanoTime() - start),
+            Duration.ofNanos(slowest.get())
+        );
+    }
+
+    /**
+     * The given references, without the ones whose image is already present
+     * or was referenced before. The present ones are added to the succeeded.
+     * @param references References of the images.
+     * @param succeeded References for which the pull succeeded.
+     * @return References of the images to pull.
+     */
+    private List<String> missing(
+        final Iterable<String> references, final Queue<String> succeeded
+    ) {
+        final Set<ImageReference> present = this.present();
+        final Set<ImageReference> requested = new HashSet<>();
+        final List<String> missing = new ArrayList<>();
+        for(final String reference : references) {
+            final ImageReference image = new ImageReference(reference);
+            if(requested.add(image)) {
+                if(present.contains(image)) {
+                    succeeded.add(reference);
+                } else {
+                    missing.add(reference);
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Tags and digests of the images which are already present.
+     * @return References.
+     */
+    private Set<ImageReference> present() {
+        final Set<ImageReference> present = new HashSet<>();
+        final Iterator<Image> listing = this.images.iterator();
+        try {
+            while(listing.hasNext()) {
+                PrePull.references(listing.next(), present);
+            }
+        } finally {
+            ResourcesIterator.release(listing);
+        }
+        return present;
+    }
+
+    /**
+     * Add the tags and digests of the given image to the references.
+     * @param image Image.
+     * @param references References.
+     */
+    private static void references(
+        final Image image, final Set<ImageReference> references
+    ) {
+        for(final String key : Arrays.asList("RepoTags", "RepoDigests")) {
+            final JsonValue names = image.get(key);
+            if(names instanceof JsonArray) {
+                ((JsonArray) names).getValuesAs(JsonString.class).forEach(
+                    name -> references.add(new ImageReference(name.getString()))
+                );
+            }
+        }
+    }
+
+    /**
+     * Pull one image, unless it is already being pulled through the same
+     * Docker, in which case that pull is awaited, and record its
+     * outcome.
+     * @param reference Reference of the image.
+     * @param succeeded References for which the pull succeeded.
+     * @param failed Errors, by reference.
+     * @param slowest Nanoseconds taken by the slowest pull so far.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    private void pull(
+        final String reference, final Queue<String> succeeded,
+        final Map<String, Exception> failed, final AtomicLong slowest
+    ) {
+        final long sent = System.nanoTime();
+        final ImageReference image = new ImageReference(reference);
+        final Map<ImageReference, CompletableFuture<Void>> pulling =
+            this.images.pulling();
+        final CompletableFuture<Void> mine = new CompletableFuture<>();
+        final CompletableFuture<Void> running = pulling.putIfAbsent(
+            image, mine
+        );
+        try {
+            if(running == null) {
+                try {
+                    this.images.pull(
+                        image.name(), image.tag(),
+                        progress -> { }, Duration.ZERO
+                    );
+                    mine.complete(null);
+                } catch (final IOException | UnexpectedResponseException ex) {
+                    mine.completeExceptionally(ex);
+                    throw ex;
+                } finally {
+                    if(!mine.isDone()) {
+                        mine.completeExceptionally(
+                            new IllegalStateException(
+                                "Pull failed: " + reference
+                            )
+                        );
+                    }
+                    pulling.remove(image, mine);
+                }
+            } else {
+                running.join();
+            }
+            succeeded.add(reference);
+        } catch (final IOException | UnexpectedResponseException ex) {
+            failed.put(reference, ex);
+        } catch (final CompletionException ex) {
+            failed.put(reference, PrePull.failure(ex.getCause()));
+        }
+        slowest.accumulateAndGet(System.nanoTime() - sent, Math::max);
+    }
+
+    /**
+     * Wait for the pull of one image. If it ended with an unexpected
+     * error, it is recorded as its failure, so the other pulls go on.
+     * @param reference Reference of the image.
+     * @param pull Pull of the image.
+     * @param failed Errors, by reference.
+     * @throws IOException If the calling thread is interrupted.
+     */
+    private static void await(
+        final String reference, final Future<?> pull,
+        final Map<String, Exception> failed
+    ) throws IOException {
+        try {
+            pull.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting on pulls.", ex);
+        } catch (final ExecutionException ex) {
+            failed.put(reference, PrePull.failure(ex.getCause()));
+        }
+    }
+
+    /**
+     * The failure to record for a pull which ended with the given cause.
+     * An Error is wrapped, since the outcome only holds Exceptions.
+     * @param cause Cause of the failed pull.
+     * @return Exception.
+     */
+    private static Exception failure(final Throwable cause) {
+        final Exception failure;
+        if(cause instanceof Exception) {
+            failure = (Exception) cause;
+        } else {
+            failure = new IllegalStateException(cause);
+        }
+        return failure;
+    }
+}
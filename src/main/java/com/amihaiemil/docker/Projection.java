@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParsingException;
+
+/**
+ * A projection of a resource's JsonObject on some of its fields, given
+ * as dot-separated paths (e.g. "State.Status" or "NetworkSettings.IPAddress").
+ * The Json is read with a streaming parser and everything outside the paths
+ * is skipped, without being built. The projected object keeps the nesting:
+ * <pre>
+ *   final JsonObject state = container.inspect(
+ *       new Projection("State.Status", "State.Health")
+ *   ).getJsonObject("State");
+ * </pre>
+ * A path selects the whole value it points to; it cannot go inside
+ * arrays.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class Projection {
+
+    /**
+     * Selected paths.
+     */
+    private final Set<String> paths;
+
+    /**
+     * Tree of the selected keys.
+     */
+    private final Keys tree;
+
+    /**
+     * Ctor.
+     * @param paths Dot-separated paths of the selected fields.
+     */
+    public Projection(final String... paths) {
+        this(Arrays.asList(paths));
+    }
+
+    /**
+     * Ctor.
+     * @param paths Dot-separated paths of the selected fields.
+     */
+    public Projection(final Collection<String> paths) {
+        if(paths.isEmpty()) {
+            throw new IllegalArgumentException("No paths to project on.");
+        }
+        this.paths = Collections.unmodifiableSet(new LinkedHashSet<>(paths));
+        this.tree = new Keys();
+        for(final String path : this.paths) {
+            this.tree.select(path);
+        }
+    }
+
+    /**
+     * The selected paths.
+     * @return Paths.
+     */
+    public Set<String> paths() {
+        return this.paths;
+    }
+
+    /**
+     * This projection, also selecting the given paths.
+     * @param more More paths.
+     * @return Projection.
+     */
+    public Projection with(final String... more) {
+        final Set<String> all = new LinkedHashSet<>(this.paths);
+        all.addAll(Arrays.asList(more));
+        return new Projection(all);
+    }
+
+    @Override
+    public String toString() {
+        return "Projection" + this.paths;
+    }
+
+    /**
+     * Read the projection of the JsonObject from the given content.
+     * The content is closed.
+     * @param content Json content.
+     * @return Projected JsonObject.
+     */
+    JsonObject read(final InputStream content) {
+        try (final JsonParser parser = JsonFactories.SHARED.parser(content)) {
+            final JsonParser.Event first = parser.next();
+            if(first != JsonParser.Event.START_OBJECT) {
+                throw new JsonParsingException(
+                    "Expected a JsonObject, got " + first,
+                    parser.getLocation()
+                );
+            }
+            return Projection.object(parser, this.tree);
+        }
+    }
+
+    /**
+     * Read the projection of the JsonObject whose START_OBJECT event was
+     * just consumed. The parser is left right after the matching END_OBJECT.
+     * @param parser Parser.
+     * @param selected Keys selected in this object.
+     * @return Projected JsonObject.
+     */
+    private static JsonObject object(
+        final JsonParser parser, final Keys selected
+    ) {
+        final JsonObjectBuilder builder = JsonFactories.SHARED.builders()
+            .createObjectBuilder();
+        JsonParser.Event event = parser.next();
+        while(event != JsonParser.Event.END_OBJECT) {
+            final String key = parser.getString();
+            final Keys inner = selected.inner.get(key);
+            event = parser.next();
+            if(inner == null) {
+                Projection.skip(parser, event);
+            } else if(inner.whole()) {
+                builder.add(key, new JsonParserValue(parser).value(event));
+            } else if(event == JsonParser.Event.START_OBJECT) {
+                builder.add(key, Projection.object(parser, inner));
+            } else {
+                Projection.skip(parser, event);
+            }
+            event = parser.next();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Skip the value whose first event was just consumed.
+     * @param parser Parser.
+     * @param event First event of the value.
+     */
+    private static void skip(
+        final JsonParser parser, final JsonParser.Event event
+    ) {
+        if(event == JsonParser.Event.START_OBJECT
+            || event == JsonParser.Event.START_ARRAY) {
+            int depth = 1;
+            while(depth > 0) {
+                final JsonParser.Event next = parser.next();
+                if(next == JsonParser.Event.START_OBJECT
+                    || next == JsonParser.Event.START_ARRAY) {
+                    depth = depth + 1;
+                } else if(next == JsonParser.Event.END_OBJECT
+                    || next == JsonParser.Event.END_ARRAY) {
+                    depth = depth - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Keys selected inside a JsonObject.
+     */
+    private static final class Keys {
+
+        /**
+         * Selected keys and what is selected inside their values.
+         * Empty if the whole value is selected.
+         */
+        private final Map<String, Keys> inner = new HashMap<>();
+
+        /**
+         * Is the whole value selected?
+         * @return True or false.
+         */
+        boolean whole() {
+            return this.inner.isEmpty();
+        }
+
+        /**
+         * Select a path. Selecting a value selects everything inside it.
+         * @param path Dot-separated path.
+         */
+        void select(final String path) {
+            Keys node = this;
+            final String[] keys = path.split("\\.", -1);
+            for(int idx = 0; idx < keys.length; idx = idx + 1) {
+                if(keys[idx].isEmpty()) {
+                    throw new IllegalArgumentException(
+                        "Malformed path: " + path
+                    );
+                }
+                Keys child = node.inner.get(keys[idx]);
+                if(child == null) {
+                    child = new Keys();
+                    node.inner.put(keys[idx], child);
+                } else if(child.whole()) {
+                    break;
+                }
+                if(idx == keys.length - 1) {
+                    child.inner.clear();
+                }
+                node = child;
+            }
+        }
+    }
+}
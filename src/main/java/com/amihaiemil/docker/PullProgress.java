@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import javax.json.JsonObject;
+
+/**
+ * Progress of an image pull, as reported by the Docker engine for one
+ * layer (e.g. "Downloading" 1.2 MB of 5 MB), together with the transfer
+ * rates measured so far. See
+ * {@link Images#pull(String, String, java.util.function.Consumer,
+ * java.time.Duration)}.<br><br>
+ *
+ * Some messages are not about a layer (e.g. "Digest: sha256:..."); their
+ * layer is empty and they carry no byte counts.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class PullProgress {
+
+    /**
+     * The progress message, as sent by the Docker engine.
+     */
+    private final JsonObject json;
+
+    /**
+     * Rate of the layer's current phase, in bytes per second.
+     */
+    private final double rate;
+
+    /**
+     * Download rate of the whole pull, in bytes per second.
+     */
+    private final double throughput;
+
+    /**
+     * Ctor.
+     * @param json The progress message, as sent by the Docker engine.
+     * @param rate Rate of the layer's current phase, in bytes per second.
+     * @param throughput Download rate of the whole pull, in bytes per second.
+     */
+    PullProgress(
+        final JsonObject json, final double rate, final double throughput
+    ) {
+        this.json = json;
+        this.rate = rate;
+        this.throughput = throughput;
+    }
+
+    /**
+     * ID of the layer.
+     * @return String, empty if the message is not about a layer.
+     */
+    public String layer() {
+        return this.json.getString("id", "");
+    }
+
+    /**
+     * Status of the layer (e.g. Waiting, Downloading, Extracting,
+     * Pull complete).
+     * @return String.
+     */
+    public String status() {
+        return this.json.getString("status", "");
+    }
+
+    /**
+     * Bytes of the layer downloaded or extracted so far, in the current
+     * phase.
+     * @return Number of bytes, 0 if unknown.
+     */
+    public long current() {
+        return this.detail("current");
+    }
+
+    /**
+     * Size of the layer, in the current phase.
+     * @return Number of bytes, 0 if unknown.
+     */
+    public long total() {
+        return this.detail("total");
+    }
+
+    /**
+     * Rate at which the layer is downloaded or extracted, measured since
+     * its current phase started.
+     * @return Bytes per second.
+     */
+    public double rate() {
+        return this.rate;
+    }
+
+    /**
+     * Rate at which all the layers are downloaded together, measured
+     * since the pull started.
+     * @return Bytes per second.
+     */
+    public double throughput() {
+        return this.throughput;
+    }
+
+    /**
+     * The progress message, as sent by the Docker engine.
+     * @return JsonObject.
+     */
+    public JsonObject json() {
+        return this.json;
+    }
+
+    @Override
+    public String toString() {
+        return this.json.toString();
+    }
+
+    /**
+     * A number from the progress detail.
+     * @param name Name of the number.
+     * @return The number or 0 if it is missing.
+     */
+    private long detail(final String name) {
+        final JsonObject detail = this.json.getJsonObject("progressDetail");
+        final long value;
+        if(detail == null || !detail.containsKey(name)) {
+            value = 0L;
+        } else {
+            value = detail.getJsonNumber(name).longValue();
+        }
+        return value;
+    }
+}
@@ -27,7 +27,6 @@ package com.amihaiemil.docker;
 
 import org.apache.http.HttpResponse;
 import org.apache.http.client.ResponseHandler;
-import javax.json.Json;
 import javax.json.JsonArray;
 import java.io.IOException;
 
@@ -44,20 +43,35 @@ final class ReadJsonArray implements ResponseHandler<JsonArray> {
      */
     private final ResponseHandler<HttpResponse> other;
 
+    /**
+     * JSON factories to read with.
+     */
+    private final JsonFactories json;
+
     /**
      * Ctor.
      * @param other Handlers to be executed before actually reading the array.
      */
     ReadJsonArray(final ResponseHandler<HttpResponse> other) {
+        this(other, JsonFactories.SHARED);
+    }
+
+    /**
+     * Ctor.
+     * @param other Handlers to be executed before actually reading the array.
+     * @param json JSON factories to read with.
+     */
+    ReadJsonArray(
+        final ResponseHandler<HttpResponse> other, final JsonFactories json
+    ) {
         this.other = other;
+        this.json = json;
     }
 
     @Override
     public JsonArray handleResponse(final HttpResponse httpResponse)
         throws IOException {
         final HttpResponse resp = this.other.handleResponse(httpResponse);
-        return Json.createReader(
-            resp.getEntity().getContent()
-        ).readArray();
+        return this.json.array(resp.getEntity().getContent());
     }
 }
@@ -26,7 +26,6 @@
 package com.amihaiemil.docker;
 
 import java.io.IOException;
-import javax.json.Json;
 import javax.json.JsonObject;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.ResponseHandler;
@@ -44,20 +43,35 @@ final class ReadJsonObject implements ResponseHandler<JsonObject> {
      */
     private final ResponseHandler<HttpResponse> other;
 
+    /**
+     * JSON factories to read with.
+     */
+    private final JsonFactories json;
+
     /**
      * Ctor.
      * @param other Handlers to be executed before actually reading the array.
      */
     ReadJsonObject(final ResponseHandler<HttpResponse> other) {
+        this(other, JsonFactories.SHARED);
+    }
+
+    /**
+     * Ctor.
+     * @param other Handlers to be executed before actually reading the array.
+     * @param json JSON factories to read with.
+     */
+    ReadJsonObject(
+        final ResponseHandler<HttpResponse> other, final JsonFactories json
+    ) {
         this.other = other;
+        this.json = json;
     }
 
     @Override
     public JsonObject handleResponse(final HttpResponse httpResponse)
         throws IOException {
         final HttpResponse resp = this.other.handleResponse(httpResponse);
-        return Json.createReader(
-            resp.getEntity().getContent()
-        ).readObject();
+        return this.json.object(resp.getEntity().getContent());
     }
 }
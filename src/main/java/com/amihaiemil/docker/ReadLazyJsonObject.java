@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import javax.json.JsonObject;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Handler that reads the bytes of a JsonObject from the response and
+ * decodes them only as they are read (see {@link LazyJsonObject}).
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class ReadLazyJsonObject implements ResponseHandler<JsonObject> {
+
+    /**
+     * Handlers to be executed before actually reading the object.
+     */
+    private final ResponseHandler<HttpResponse> other;
+
+    /**
+     * JSON factories to decode the object with.
+     */
+    private final JsonFactories json;
+
+    /**
+     * Ctor.
+     * @param other Handlers to be executed before actually reading the
+     *  object.
+     */
+    ReadLazyJsonObject(final ResponseHandler<HttpResponse> other) {
+        this(other, JsonFactories.SHARED);
+    }
+
+    /**
+     * Ctor.
+     * @param other Handlers to be executed before actually reading the
+     *  object.
+     * @param json JSON factories to decode the object with.
+     */
+    ReadLazyJsonObject(
+        final ResponseHandler<HttpResponse> other, final JsonFactories json
+    ) {
+        this.other = other;
+        this.json = json;
+    }
+
+    @Override
+    public JsonObject handleResponse(final HttpResponse httpResponse)
+        throws IOException {
+        final HttpResponse resp = this.other.handleResponse(httpResponse);
+        return new LazyJsonObject(
+            EntityUtils.toByteArray(resp.getEntity()), this.json
+        );
+    }
+}
@@ -31,12 +31,12 @@ import org.apache.http.client.ResponseHandler;
 import org.apache.http.entity.ContentType;
 import org.apache.http.protocol.HTTP;
 import org.apache.http.util.Args;
-import org.apache.http.util.CharArrayBuffer;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 
 /**
@@ -83,75 +83,39 @@ final class ReadLogString implements ResponseHandler<String> {
      * 1) Read 8 bytes.
      * 2) Choose stdout or stderr depending on the first byte.
      * 3) Extract the frame size from the last four bytes.
-     * 4) Read the extracted size and output it on the correct output.
+     * 4) Read the extracted number of bytes and keep them.
      * 5) Goto 1.
      *
+     * The frames are read as bytes (see {@link MultiplexedStream}) and
+     * decoded only at the end, so multibyte characters cannot break
+     * the frame arithmetic.
+     *
      * @param entity HttpEntity for read message.
      * @return Logs from container in String.
      * @throws IOException if the entity cannot be read
      */
     private String toString(final HttpEntity entity) throws IOException {
         final InputStream instream = entity.getContent();
-        final CharArrayBuffer buffer = new CharArrayBuffer(
-                this.getCapacity(entity)
+        final ByteArrayOutputStream logs = new ByteArrayOutputStream(
+            this.getCapacity(entity)
         );
+        final WritableByteChannel channel = Channels.newChannel(logs);
         if (instream != null) {
             try {
-                final Reader reader = new InputStreamReader(
-                        instream,
-                        this.getCharset(ContentType.get(entity))
+                new MultiplexedStream(instream).readAll(
+                    (stream, payload) -> {
+                        if(stream != LogFrames.STDIN) {
+                            channel.write(payload);
+                        }
+                    }
                 );
-                this.read(buffer, reader);
             } finally {
                 instream.close();
             }
         }
-        return buffer.toString();
-    }
-
-    /**
-     * Docker logs contains header
-     * [8]byte{STREAM_TYPE, 0, 0, 0, SIZE1, SIZE2, SIZE3, SIZE4}
-     * STREAM_TYPE
-     * 0: stdin (is written on stdout)
-     * 1: stdout
-     * 2: stderr
-     *
-     * SIZE1, SIZE2, SIZE3, SIZE4 are the four bytes of the uint32 size
-     * encoded as big endian.
-     *
-     * 1) Read 8 bytes from reader.
-     * 2) Choose not stdin(0) depending on the first byte.
-     * 3) Extract the frame size from the last four bytes.
-     * 4) Read the extracted size from reader and save it in buffer in circle.
-     * 5) Goto 1.
-     *
-     * @param buffer Buffer for save message.
-     * @param reader Reader for read message.
-     * @throws IOException if the entity cannot be read
-     */
-    private void read(final CharArrayBuffer buffer,
-                      final Reader reader) throws IOException {
-        char[] controlChars = new char[8];
-        int len;
-        while (reader.read(controlChars) != -1) {
-            if (controlChars[0] != 0) {
-                long byteInLine = this.getUInt(controlChars);
-                char[] stdout;
-                if (byteInLine > 1024) {
-                    stdout = new char[1024];
-                } else {
-                    stdout = new char[(int) byteInLine];
-                }
-                while (byteInLine > 0) {
-                    len = reader.read(stdout);
-                    byteInLine -= len;
-                    if (len != -1) {
-                        buffer.append(stdout, 0, len);
-                    }
-                }
-            }
-        }
+        return new String(
+            logs.toByteArray(), this.getCharset(ContentType.get(entity))
+        );
     }
 
     /**
@@ -200,29 +164,4 @@ final class ReadLogString implements ResponseHandler<String> {
         }
         return charset;
     }
-
-    /**
-     * Convert byte to long.
-     *
-     * @param byteForConvert Byte for convert.
-     * @return Long Converted byte.
-     */
-    private long byteAsULong(final char byteForConvert) {
-        return ((long) byteForConvert) & 0x00000000000000FFL;
-    }
-
-    /**
-     * Convert byte from control byte to uint32.
-     *
-     * @param bytes Array of byte.
-     * @return Long uint32.
-     */
-    private long getUInt(final char[] bytes) {
-        return this.byteAsULong(bytes[7])
-                | (this.byteAsULong(bytes[6]) << 8)
-                | (this.byteAsULong(bytes[5]) << 16)
-                | (this.byteAsULong(bytes[4]) << 24);
-    }
-
-
 }
@@ -26,36 +26,47 @@
 package com.amihaiemil.docker;
 
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import javax.json.JsonObject;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.ResponseHandler;
 
 /**
- * Handler that returns the stream response as a Reader.
+ * Handler that reads a {@link Projection} of the JsonObject in
+ * the response.
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
- * @since 0.0.2
+ * @since 0.0.14
  */
-final class ReadStream implements ResponseHandler<Reader> {
+final class ReadProjection implements ResponseHandler<JsonObject> {
 
     /**
-     * Handlers to be executed before actually reading the array.
+     * The projection.
+     */
+    private final Projection projection;
+
+    /**
+     * Handlers to be executed before actually reading the object.
      */
     private final ResponseHandler<HttpResponse> other;
 
     /**
      * Ctor.
-     * @param other Handlers to be executed before actually reading the array.
+     * @param projection The projection.
+     * @param other Handlers to be executed before actually reading the
+     *  object.
      */
-    ReadStream(final ResponseHandler<HttpResponse> other) {
+    ReadProjection(
+        final Projection projection,
+        final ResponseHandler<HttpResponse> other
+    ) {
+        this.projection = projection;
         this.other = other;
     }
 
     @Override
-    public Reader handleResponse(final HttpResponse httpResponse)
+    public JsonObject handleResponse(final HttpResponse httpResponse)
         throws IOException {
         final HttpResponse resp = this.other.handleResponse(httpResponse);
-        return new InputStreamReader(resp.getEntity().getContent());
+        return this.projection.read(resp.getEntity().getContent());
     }
 }
@@ -25,70 +25,220 @@
  */
 package com.amihaiemil.docker;
 
-import org.apache.http.HttpStatus;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpGet;
-import javax.json.JsonArray;
-import javax.json.JsonObject;
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
 
 /**
- * Iterator over Docker resources (Containers, Images etc).
+ * Iterator over Docker resources (Containers, Images etc).<br><br>
+ *
+ * The request is performed when the iterator is created, but the
+ * received JsonArray is framed lazily, element by element, as the
+ * resources are iterated, so neither the time to the first resource nor
+ * the memory grow with the size of the listing. Each element is a
+ * {@link LazyJsonObject}, so only the fields which are read get decoded.
+ * The connection is released once the array is exhausted or when the
+ * iterator is closed, whichever comes first; code which may stop
+ * iterating early has to close it (see {@link #release(Iterator)}).
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.1
  * @param <T> The Json resoure (Image, Container etc) returned by the API.
  */
-final class ResourcesIterator<T extends JsonObject> implements Iterator<T> {
+final class ResourcesIterator<T extends JsonObject> implements
+    Iterator<T>, Closeable {
+
+    /**
+     * HTTP Request.
+     */
+    private final HttpGet request;
+
+    /**
+     * HTTP Response.
+     */
+    private final HttpResponse response;
+
+    /**
+     * Frames the elements of the JsonArray.
+     */
+    private final JsonFrames frames;
+
+    /**
+     * Reads the JsonObject of the last framed element.
+     */
+    private final Function<JsonFrames, JsonObject> reader;
+
+    /**
+     * Function which maps each JsonObject to the specified resource.
+     */
+    private final Function<JsonObject, T> mapper;
+
+    /**
+     * The next resource, if it was already parsed by hasNext().
+     */
+    private T next;
+
+    /**
+     * Whether the connection was released.
+     */
+    private boolean released;
+
+    /**
+     * Ctor.
+     * @param client Used HTTP Client.
+     * @param request HTTP Request.
+     * @param mapper Function which should map the received JsonObject
+     *  to the specified resource.
+     */
+    ResourcesIterator(
+        final HttpClient client, final HttpGet request,
+        final Function<JsonObject, T> mapper
+    ) {
+        this(client, request, JsonFactories.SHARED, mapper);
+    }
 
     /**
-     * Iterated resources.
+     * Ctor.
+     * @param client Used HTTP Client.
+     * @param request HTTP Request.
+     * @param json JSON factories to decode the elements with.
+     * @param mapper Function which should map the received JsonObject
+     *  to the specified resource.
+     * @checkstyle ParameterNumber (5 lines)
      */
-    private final Iterator<T> resources;
+    ResourcesIterator(
+        final HttpClient client, final HttpGet request,
+        final JsonFactories json, final Function<JsonObject, T> mapper
+    ) {
+        this(
+            client, request,
+            framed -> new LazyJsonObject(framed.bytes(), json),
+            mapper
+        );
+    }
 
     /**
      * Ctor.
      * @param client Used HTTP Client.
      * @param request HTTP Request.
+     * @param reader Function which reads the JsonObject of the last
+     *  framed element.
      * @param mapper Function which should map the received JsonObject
      *  to the specified resource.
+     * @checkstyle ParameterNumber (5 lines)
      */
     ResourcesIterator(
         final HttpClient client, final HttpGet request,
+        final Function<JsonFrames, JsonObject> reader,
         final Function<JsonObject, T> mapper
     ) {
+        this.request = request;
+        this.reader = reader;
+        this.mapper = mapper;
         try {
-            final JsonArray array = client.execute(
-                request,
-                new ReadJsonArray(
-                    new MatchStatus(request.getURI(), HttpStatus.SC_OK)
-                )
+            this.response = new MatchStatus(
+                request.getURI(), HttpStatus.SC_OK
+            ).handleResponse(client.execute(request));
+            this.frames = new JsonFrames(
+                this.response.getEntity().getContent()
             );
-            this.resources = array.stream()
-                .map(json -> (JsonObject) json)
-                .map(
-                    json -> mapper.apply(json)
-                ).collect(Collectors.toList())
-                .iterator();
         } catch (final IOException ex) {
+            request.releaseConnection();
             throw new IllegalStateException(
                 "IOException when calling " + request.getURI().toString(), ex
             );
-        } finally {
+        } catch (final UnexpectedResponseException ex) {
             request.releaseConnection();
+            throw ex;
         }
     }
 
     @Override
     public boolean hasNext() {
-        return this.resources.hasNext();
+        if(this.next == null && !this.released) {
+            this.next = this.parse();
+        }
+        return this.next != null;
     }
 
     @Override
     public T next() {
-        return this.resources.next();
+        if(!this.hasNext()) {
+            throw new NoSuchElementException(
+                "No more resources at " + this.request.getURI().toString()
+            );
+        }
+        final T resource = this.next;
+        this.next = null;
+        return resource;
+    }
+
+    /**
+     * Stop iterating and release the connection, without reading the
+     * remaining resources.
+     */
+    @Override
+    public void close() {
+        if(!this.released) {
+            this.released = true;
+            this.request.releaseConnection();
+        }
+    }
+
+    /**
+     * Close the given iterator, if it is a ResourcesIterator, so its
+     * connection is released even if it was not exhausted. To be called
+     * in a finally block by the code which iterates over a listing.
+     * @param iterator Iterator.
+     */
+    static void release(final Iterator<?> iterator) {
+        if(iterator instanceof ResourcesIterator) {
+            ((ResourcesIterator<?>) iterator).close();
+        }
+    }
+
+    /**
+     * Parse the next resource from the array.
+     * @return The next resource or null, if the array ended.
+     */
+    private T parse() {
+        T resource = null;
+        try {
+            if(this.frames.next()) {
+                resource = this.mapper.apply(this.reader.apply(this.frames));
+            }
+        } catch (final IllegalStateException | JsonException ex) {
+            this.close();
+            throw ex;
+        }
+        if(resource == null) {
+            this.exhausted();
+        }
+        return resource;
+    }
+
+    /**
+     * The array ended: consume what is left of the response, so the
+     * connection goes back to the pool, then release it.
+     */
+    private void exhausted() {
+        try {
+            EntityUtils.consume(this.response.getEntity());
+        } catch (final IOException ex) {
+            throw new IllegalStateException(
+                "IOException when calling " + this.request.getURI(), ex
+            );
+        } finally {
+            this.close();
+        }
     }
 }
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.http.client.methods.HttpRequestBase;
+
+/**
+ * The raw content of a streamed response. Closing it before the end of the
+ * content aborts the request, instead of reading (possibly gigabytes of)
+ * the remaining content just to reuse the connection. Once the content
+ * was fully read, closing it returns the connection to the pool.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class ResponseStream extends FilterInputStream {
+
+    /**
+     * The request whose response is streamed.
+     */
+    private final HttpRequestBase request;
+
+    /**
+     * Whether the end of the content was reached.
+     */
+    private boolean ended;
+
+    /**
+     * Ctor.
+     * @param request The request whose response is streamed.
+     * @param content Content of the response.
+     */
+    ResponseStream(final HttpRequestBase request, final InputStream content) {
+        super(content);
+        this.request = request;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int read = super.read();
+        if(read == -1) {
+            this.ended = true;
+        }
+        return read;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int off, final int len)
+        throws IOException {
+        final int read = super.read(buffer, off, len);
+        if(read == -1) {
+            this.ended = true;
+        }
+        return read;
+    }
+
+    /**
+     * Close this stream, for callers which cannot handle an IOException
+     * (e.g. the close handlers of a java.util.stream.Stream). If the
+     * connection cannot go back to the pool, it is discarded.
+     */
+    void release() {
+        try {
+            this.close();
+        } catch (final IOException ex) {
+            this.request.abort();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(this.ended) {
+            super.close();
+        } else {
+            this.request.abort();
+        }
+    }
+}
@@ -0,0 +1,398 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.json.JsonException;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+
+/**
+ * Iterator over streamed Docker events, which reconnects when the stream
+ * fails or ends, and resumes from the timestamp of the last returned event,
+ * using the since parameter. Docker sends again the events from that very
+ * timestamp (it may have more of them), so the ones which were already
+ * returned are skipped.<br><br>
+ *
+ * If no event was returned yet, it resumes from the since timestamp of the
+ * Events or, if there is none, from the moment of the first connection.
+ * Events without a timestamp are always returned.<br><br>
+ *
+ * A {@link Connection} is told each time the stream is opened and each
+ * time it is dropped, so the followers of the events (e.g. a cache) know
+ * when they may have missed some of them.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class ResumedEvents implements Iterator<JsonObject>, AutoCloseable {
+
+    /**
+     * The monitored events.
+     */
+    private final RtEvents events;
+
+    /**
+     * Is told when the stream is opened or dropped.
+     */
+    private final Connection connection;
+
+    /**
+     * Time to wait before the first reconnect attempt.
+     */
+    private final Duration backoff;
+
+    /**
+     * Maximum time to wait between reconnect attempts.
+     */
+    private final Duration max;
+
+    /**
+     * Were these events closed?
+     */
+    private final AtomicBoolean closed;
+
+    /**
+     * The events already returned, which have the timestamp of the last one.
+     */
+    private final Set<String> returned;
+
+    /**
+     * Time to wait before the next reconnect attempt.
+     */
+    private Duration delay;
+
+    /**
+     * Timestamp to resume from.
+     */
+    private Instant last;
+
+    /**
+     * Content of the current connection.
+     */
+    private volatile ResponseStream content;
+
+    /**
+     * Events of the current connection.
+     */
+    private volatile Iterator<JsonObject> current;
+
+    /**
+     * The next event, if it was already read by hasNext().
+     */
+    private JsonObject next;
+
+    /**
+     * Ctor.
+     * @param events The monitored events.
+     * @param backoff Time to wait before the first reconnect attempt.
+     * @param max Maximum time to wait between reconnect attempts.
+     */
+    ResumedEvents(
+        final RtEvents events, final Duration backoff, final Duration max
+    ) {
+        this(events, backoff, max, new Ignored());
+    }
+
+    /**
+     * Ctor.
+     * @param events The monitored events.
+     * @param backoff Time to wait before the first reconnect attempt.
+     * @param max Maximum time to wait between reconnect attempts.
+     * @param connection Is told when the stream is opened or dropped.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    ResumedEvents(
+        final RtEvents events, final Duration backoff, final Duration max,
+        final Connection connection
+    ) {
+        this.events = events;
+        this.connection = connection;
+        this.backoff = backoff;
+        this.max = max;
+        this.delay = backoff;
+        this.closed = new AtomicBoolean(false);
+        this.returned = new HashSet<>();
+    }
+
+    /**
+     * Connect for the first time.
+     * @throws IOException If any I/O problem occurs.
+     * @throws UnexpectedResponseException If the response status is not 200.
+     */
+    void start() throws IOException, UnexpectedResponseException {
+        this.begin();
+        this.connect(this.events);
+    }
+
+    /**
+     * Connect for the first time and, if it fails, keep trying as if the
+     * connection dropped, until it succeeds or these events are closed.
+     */
+    void follow() {
+        this.begin();
+        try {
+            this.connect(this.events);
+        } catch (final IOException | UnexpectedResponseException
+            | IllegalStateException | JsonException ex) {
+            this.reconnect();
+        }
+    }
+
+    /**
+     * Drop the current connection (e.g. because an event could not be
+     * handled), so it is reopened, resuming from the last event. It may be
+     * called from another thread than the one following the events.
+     */
+    void drop() {
+        this.release();
+        this.current = Collections.emptyIterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while(this.next == null && !this.closed.get()) {
+            try {
+                if(this.current.hasNext()) {
+                    final JsonObject event = this.current.next();
+                    this.delay = this.backoff;
+                    if(this.fresh(event)) {
+                        this.next = event;
+                    }
+                } else if(this.events.bounded()) {
+                    this.close();
+                } else {
+                    this.reconnect();
+                }
+            } catch (final IllegalStateException | JsonException ex) {
+                this.reconnect();
+            }
+        }
+        return this.next != null;
+    }
+
+    @Override
+    public JsonObject next() {
+        if(!this.hasNext()) {
+            throw new NoSuchElementException("No more events.");
+        }
+        final JsonObject event = this.next;
+        this.next = null;
+        return event;
+    }
+
+    /**
+     * Stop monitoring: abort the current connection and do not reconnect.
+     */
+    @Override
+    public void close() {
+        this.closed.set(true);
+        this.release();
+    }
+
+    /**
+     * Events which follow the given Events of a Docker of this library,
+     * reconnecting after 1 second, doubled after each failed attempt up to
+     * 30 seconds.
+     * @param events Events.
+     * @param connection Is told when the stream is opened or dropped.
+     * @return ResumedEvents, not yet connected (see {@link #follow()}).
+     * @throws IllegalArgumentException If the Events are not the ones of a
+     *  Docker of this library.
+     */
+    static ResumedEvents following(
+        final Events events, final Connection connection
+    ) {
+        if(!(events instanceof RtEvents)) {
+            throw new IllegalArgumentException(
+                "Only the Events of this library's Dockers can be followed."
+            );
+        }
+        return new ResumedEvents(
+            (RtEvents) events, Duration.ofSeconds(1L), Duration.ofSeconds(30L),
+            connection
+        );
+    }
+
+    /**
+     * Set the timestamp to start from.
+     */
+    private void begin() {
+        this.last = this.events.since();
+        if(this.last == null) {
+            this.last = Instant.now();
+        }
+    }
+
+    /**
+     * Release the current connection, if any.
+     */
+    private void release() {
+        final ResponseStream opened = this.content;
+        if(opened != null) {
+            opened.release();
+        }
+    }
+
+    /**
+     * Is the given event returned for the first time? Remember it, if so.
+     * @param event Event.
+     * @return True if it was not returned before, false otherwise.
+     */
+    private boolean fresh(final JsonObject event) {
+        final Instant time = ResumedEvents.time(event);
+        final boolean fresh;
+        if(time == null) {
+            fresh = true;
+        } else if(this.returned.isEmpty() || time.isAfter(this.last)) {
+            this.last = time;
+            this.returned.clear();
+            this.returned.add(event.toString());
+            fresh = true;
+        } else if(time.equals(this.last)) {
+            fresh = this.returned.add(event.toString());
+        } else {
+            fresh = false;
+        }
+        return fresh;
+    }
+
+    /**
+     * Wait and reconnect, resuming from the last event, until it succeeds
+     * or these events are closed.
+     */
+    private void reconnect() {
+        this.release();
+        this.connection.dropped();
+        while(!this.closed.get()) {
+            try {
+                Thread.sleep(this.delay.toMillis());
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                this.closed.set(true);
+            }
+            if(!this.closed.get()) {
+                try {
+                    this.connect(this.events.resumed(this.last));
+                    break;
+                } catch (final IOException | UnexpectedResponseException
+                    | IllegalStateException | JsonException ex) {
+                    this.release();
+                    final Duration doubled = this.delay.multipliedBy(2);
+                    if(doubled.compareTo(this.max) > 0) {
+                        this.delay = this.max;
+                    } else {
+                        this.delay = doubled;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Open the stream of the given events and tell the Connection. If these
+     * events were closed in the meantime, the new stream is closed right
+     * away.
+     * @param resumed Events to open.
+     * @throws IOException If any I/O problem occurs.
+     * @throws UnexpectedResponseException If the response status is not 200.
+     */
+    private void connect(final RtEvents resumed)
+        throws IOException, UnexpectedResponseException {
+        this.content = resumed.open();
+        this.current = new StreamedJsonObjects(
+            this.content, resumed.json()
+        );
+        if(this.closed.get()) {
+            this.content.release();
+        } else {
+            this.connection.opened();
+        }
+    }
+
+    /**
+     * Timestamp of the given event.
+     * @param event Event.
+     * @return Instant or null if the event has no timestamp.
+     */
+    private static Instant time(final JsonObject event) {
+        final JsonNumber nanos = event.getJsonNumber("timeNano");
+        final JsonNumber seconds = event.getJsonNumber("time");
+        final Instant time;
+        if(nanos != null) {
+            time = Instant.ofEpochSecond(0L, nanos.longValue());
+        } else if(seconds != null) {
+            time = Instant.ofEpochSecond(seconds.longValue());
+        } else {
+            time = null;
+        }
+        return time;
+    }
+
+    /**
+     * Is told when the stream of the events is opened or dropped.
+     */
+    interface Connection {
+
+        /**
+         * The stream was opened (or reopened); none of its events was
+         * returned yet. If this fails, the stream is dropped and opened
+         * again later.
+         * @throws IOException If any I/O problem occurs.
+         */
+        void opened() throws IOException;
+
+        /**
+         * The stream failed or ended; it is reopened after a pause, unless
+         * the events were closed.
+         */
+        void dropped();
+    }
+
+    /**
+     * Connection which nobody is told about.
+     */
+    private static final class Ignored implements Connection {
+
+        @Override
+        public void opened() {
+            //Nobody is told.
+        }
+
+        @Override
+        public void dropped() {
+            //Nobody is told.
+        }
+    }
+}
@@ -28,12 +28,16 @@ package com.amihaiemil.docker;
 import java.io.IOException;
 import java.net.URI;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
 
 /**
  * Restful Container.
@@ -81,7 +85,27 @@ final class RtContainer extends JsonResource implements Container {
 
     @Override
     public JsonObject inspect() throws IOException {
-        return new Inspection(this.client, this.baseUri.toString() + "/json");
+        return new Inspection(
+            this.client, this.baseUri.toString() + "/json",
+            RtDocker.json(this.docker)
+        );
+    }
+
+    @Override
+    public JsonObject inspect(final Projection projection)
+        throws IOException {
+        final HttpGet inspect = new HttpGet(this.baseUri.toString() + "/json");
+        try {
+            return this.client.execute(
+                inspect,
+                new ReadProjection(
+                    projection,
+                    new MatchStatus(inspect.getURI(), HttpStatus.SC_OK)
+                )
+            );
+        } finally {
+            inspect.releaseConnection();
+        }
     }
 
     @Override
@@ -198,6 +222,27 @@ final class RtContainer extends JsonResource implements Container {
         );
     }
 
+    @Override
+    public Stats stats() throws IOException, UnexpectedResponseException {
+        return this.stats(this.statsUri(false).build(), stats -> true);
+    }
+
+    @Override
+    public Stats snapshot() throws IOException, UnexpectedResponseException {
+        final UncheckedUriBuilder uri = this.statsUri(false);
+        if(ApiVersion.fromUri(this.baseUri).map(ApiVersion::oneShotStats)
+            .orElse(false)) {
+            uri.addParameter("one-shot", "true");
+        }
+        return this.stats(uri.build(), stats -> true);
+    }
+
+    @Override
+    public void stats(final StatsSamples samples)
+        throws IOException, UnexpectedResponseException {
+        this.stats(this.statsUri(true).build(), samples);
+    }
+
     @Override
     public Docker docker() {
         return this.docker;
@@ -247,7 +292,8 @@ final class RtContainer extends JsonResource implements Container {
             final JsonObject json = this.client.execute(
                 waiter,
                 new ReadJsonObject(
-                    new MatchStatus(waiter.getURI(), HttpStatus.SC_OK)
+                    new MatchStatus(waiter.getURI(), HttpStatus.SC_OK),
+                    RtDocker.json(this.docker)
                 )
             );
             return json.getInt("StatusCode");
@@ -268,7 +314,8 @@ final class RtContainer extends JsonResource implements Container {
             final JsonObject json = this.client.execute(
                 post,
                 new ReadJsonObject(
-                    new MatchStatus(post.getURI(), HttpStatus.SC_CREATED)
+                    new MatchStatus(post.getURI(), HttpStatus.SC_CREATED),
+                    RtDocker.json(this.docker)
                 )
             );
             return this.docker.execs().get(json.getString("Id"));
@@ -276,4 +323,55 @@ final class RtContainer extends JsonResource implements Container {
             post.releaseConnection();
         }
     }
+
+    /**
+     * Read the stats of this container. Every sample is parsed into the
+     * same Stats, without building its JsonObject. Streamed stats may keep
+     * the connection for as long as the container runs, so it is
+     * long-lived; it is released here in any case.
+     * @param uri URI of the stats.
+     * @param samples Receives the samples.
+     * @return The last sample.
+     * @throws IOException If something goes wrong.
+     * @throws UnexpectedResponseException If the status response is not
+     *  the expected one (200 OK).
+     */
+    private Stats stats(final URI uri, final StatsSamples samples)
+        throws IOException, UnexpectedResponseException {
+        final HttpGet stats = new HttpGet(uri);
+        final ParsedStats sample = new ParsedStats();
+        try {
+            final HttpEntity entity = new MatchStatus(
+                stats.getURI(), HttpStatus.SC_OK
+            ).handleResponse(
+                this.client.execute(stats, LeakDetectingHttpClient.longLived())
+            ).getEntity();
+            final JsonFrames frames = new JsonFrames(entity.getContent());
+            boolean more = true;
+            while(more && frames.next()) {
+                try (final JsonParser parser = JsonFactories.SHARED.parser(
+                    frames.frame()
+                )) {
+                    sample.parse(parser);
+                }
+                more = samples.sample(sample);
+            }
+            if(more) {
+                EntityUtils.consume(entity);
+            }
+        } finally {
+            stats.releaseConnection();
+        }
+        return sample;
+    }
+
+    /**
+     * URI of the stats of this container.
+     * @param stream Stream the stats or get only one sample.
+     * @return Builder of the URI.
+     */
+    private UncheckedUriBuilder statsUri(final boolean stream) {
+        return new UncheckedUriBuilder(this.baseUri.toString() + "/stats")
+            .addParameter("stream", String.valueOf(stream));
+    }
 }
@@ -34,12 +34,28 @@ import javax.json.Json;
 import javax.json.JsonObject;
 import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Containers API.
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.1
+ * @checkstyle ClassFanOutComplexity (500 lines)
  */
 abstract class RtContainers implements Containers {
 
@@ -121,7 +137,8 @@ abstract class RtContainers implements Containers {
             final JsonObject json = this.client.execute(
                 post,
                 new ReadJsonObject(
-                    new MatchStatus(post.getURI(), HttpStatus.SC_CREATED)
+                    new MatchStatus(post.getURI(), HttpStatus.SC_CREATED),
+                    RtDocker.json(this.docker)
                 )
             );
             return new RtContainer(
@@ -137,6 +154,67 @@ abstract class RtContainers implements Containers {
         }
     }
 
+    @Override
+    public void stats(final int connections, final ContainersStats samples)
+        throws IOException, UnexpectedResponseException {
+        final ExecutorService streams = Executors.newFixedThreadPool(
+            connections
+        );
+        final CompletionService<Void> completion =
+            new ExecutorCompletionService<>(streams);
+        final AtomicBoolean more = new AtomicBoolean(true);
+        final Iterator<Container> containers = this.iterator();
+        try {
+            int opened = 0;
+            while(containers.hasNext()) {
+                final Container container = containers.next();
+                completion.submit(
+                    () -> {
+                        RtContainers.stream(container, samples, more);
+                        return null;
+                    }
+                );
+                opened = opened + 1;
+            }
+            for(int closed = 0; closed < opened; closed = closed + 1) {
+                completion.take().get();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while streaming stats.", ex);
+        } catch (final ExecutionException ex) {
+            throw RtContainers.failure(ex);
+        } finally {
+            ResourcesIterator.release(containers);
+            more.set(false);
+            streams.shutdownNow();
+        }
+    }
+
+    @Override
+    public BulkOutcome startAll(final int parallel) throws IOException {
+        return this.bulk(this.all(), parallel, Container::start);
+    }
+
+    @Override
+    public BulkOutcome stopAll(final int parallel) throws IOException {
+        return this.bulk(this.iterator(), parallel, Container::stop);
+    }
+
+    @Override
+    public BulkOutcome killAll(final int parallel) throws IOException {
+        return this.bulk(this.iterator(), parallel, Container::kill);
+    }
+
+    @Override
+    public BulkOutcome removeAll(final int parallel, final boolean force)
+        throws IOException {
+        return this.bulk(
+            this.all(), parallel,
+            container -> container.remove(false, force, false)
+        );
+    }
+
     @Override
     public Docker docker() {
         return this.docker;
@@ -178,4 +256,171 @@ abstract class RtContainers implements Containers {
             this.docker
         );
     }
+
+    /**
+     * Stream the stats of one Container to the shared ContainersStats. The
+     * stream is not opened if the samples are no longer wanted.
+     * @param container Container.
+     * @param samples Shared ContainersStats.
+     * @param more Whether the samples are still wanted.
+     * @throws IOException If something goes wrong.
+     */
+    private static void stream(
+        final Container container, final ContainersStats samples,
+        final AtomicBoolean more
+    ) throws IOException {
+        if(!more.get()) {
+            return;
+        }
+        try {
+            container.stats(
+                stats -> {
+                    synchronized(samples) {
+                        if(more.get()) {
+                            more.set(samples.sample(container, stats));
+                        }
+                    }
+                    return more.get();
+                }
+            );
+        } catch (final UnexpectedResponseException ex) {
+            if(ex.actualStatus() != HttpStatus.SC_NOT_FOUND) {
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * The IOException which made a stats stream fail. Any other failure
+     * is thrown as it is.
+     * @param failed Failure of the stream.
+     * @return IOException.
+     */
+    private static IOException failure(final ExecutionException failed) {
+        final Throwable cause = failed.getCause();
+        if(cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if(!(cause instanceof IOException)) {
+            throw new IllegalStateException(cause);
+        }
+        return (IOException) cause;
+    }
+
+    /**
+     * Run an operation on each of the given Containers, at most the given
+     * number at a time, collecting the outcome of each. There are never
+     * more threads than connections per route in the pool of the
+     * HttpClient, if it is known, since the others would only wait.
+     * @param containers Containers.
+     * @param parallel Maximum number of parallel requests.
+     * @param operation Operation.
+     * @return BulkOutcome.
+     * @throws IOException If the calling thread is interrupted.
+     */
+    private BulkOutcome bulk(
+        final Iterator<Container> containers, final int parallel,
+        final Operation operation
+    ) throws IOException {
+        final ExecutorService requests = Executors.newFixedThreadPool(
+            Math.min(parallel, HttpClientEnvelope.maxPerRoute(this.client))
+        );
+        final Queue<String> succeeded = new ConcurrentLinkedQueue<>();
+        final Map<String, Exception> failed = new ConcurrentHashMap<>();
+        final AtomicLong slowest = new AtomicLong();
+        final long start = System.nanoTime();
+        try {
+            final Map<String, Future<?>> pending = new LinkedHashMap<>();
+            while(containers.hasNext()) {
+                final Container container = containers.next();
+                pending.put(
+                    container.containerId(),
+                    requests.submit(
+                        () -> RtContainers.apply(
+                            operation, container, succeeded, failed, slowest
+                        )
+                    )
+                );
+            }
+            for(final Map.Entry<String, Future<?>> request
+                : pending.entrySet()) {
+                RtContainers.await(
+                    request.getKey(), request.getValue(), failed
+                );
+            }
+        } finally {
+            ResourcesIterator.release(containers);
+            requests.shutdownNow();
+        }
+        return new BulkOutcome(
+            succeeded, failed,
+            Duration.ofNanos(System.nanoTime() - start),
+            Duration.ofNanos(slowest.get())
+        );
+    }
+
+    /**
+     * Wait for the request of one Container. If it ended with an unexpected
+     * error, it is recorded as its failure, so the other requests go on.
+     * @param container ID of the Container.
+     * @param request Request of the Container.
+     * @param failed Errors, by Container ID.
+     * @throws IOException If the calling thread is interrupted.
+     */
+    private static void await(
+        final String container, final Future<?> request,
+        final Map<String, Exception> failed
+    ) throws IOException {
+        try {
+            request.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting on requests.", ex);
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if(cause instanceof Exception) {
+                failed.put(container, (Exception) cause);
+            } else {
+                failed.put(container, new IllegalStateException(cause));
+            }
+        }
+    }
+
+    /**
+     * Run an operation on one Container and record its outcome.
+     * @param operation Operation.
+     * @param container Container.
+     * @param succeeded IDs of the Containers for which it succeeded.
+     * @param failed Errors, by Container ID.
+     * @param slowest Nanoseconds taken by the slowest request so far.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    private static void apply(
+        final Operation operation, final Container container,
+        final Queue<String> succeeded, final Map<String, Exception> failed,
+        final AtomicLong slowest
+    ) {
+        final long sent = System.nanoTime();
+        try {
+            operation.apply(container);
+            succeeded.add(container.containerId());
+        } catch (final IOException | UnexpectedResponseException ex) {
+            failed.put(container.containerId(), ex);
+        }
+        slowest.accumulateAndGet(System.nanoTime() - sent, Math::max);
+    }
+
+    /**
+     * An operation on one Container.
+     */
+    @FunctionalInterface
+    private interface Operation {
+
+        /**
+         * Run the operation.
+         * @param container Container.
+         * @throws IOException If something goes wrong.
+         */
+        void apply(Container container) throws IOException;
+    }
 }
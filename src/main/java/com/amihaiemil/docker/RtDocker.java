@@ -27,16 +27,21 @@ package com.amihaiemil.docker;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
 
 /**
  * Restful Docker.
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.1
+ * @checkstyle ClassFanOutComplexity (300 lines)
  */
 abstract class RtDocker implements Docker {
 
@@ -50,22 +55,51 @@ abstract class RtDocker implements Docker {
      */
     private final URI baseUri;
 
+    /**
+     * JSON factories of the resources and response handlers.
+     */
+    private final JsonFactories json;
+
+    /**
+     * Image pulls in flight, started by pre-pulls through this Docker.
+     */
+    private final Map<ImageReference, CompletableFuture<Void>> pulling =
+        new ConcurrentHashMap<>();
+
     /**
      * Ctor.
      * @param client Given HTTP Client.
      * @param baseUri Base URI.
      */
     RtDocker(final HttpClient client, final URI baseUri) {
+        this(client, baseUri, JsonFactories.SHARED);
+    }
+
+    /**
+     * Ctor.
+     * @param client Given HTTP Client.
+     * @param baseUri Base URI.
+     * @param json JSON factories of the resources and response handlers.
+     */
+    RtDocker(
+        final HttpClient client, final URI baseUri, final JsonFactories json
+    ) {
         this.client = client;
         this.baseUri = baseUri;
+        this.json = json;
     }
 
     @Override
     public final boolean ping() throws IOException {
         final HttpGet ping = new HttpGet(this.baseUri.toString() + "/_ping");
-        final HttpResponse response = this.client.execute(ping);
-        ping.releaseConnection();
-        return response.getStatusLine().getStatusCode() == HttpStatus.SC_OK;
+        try {
+            final HttpResponse response = this.client.execute(ping);
+            final int status = response.getStatusLine().getStatusCode();
+            EntityUtils.consume(response.getEntity());
+            return status == HttpStatus.SC_OK;
+        } finally {
+            ping.releaseConnection();
+        }
     }
 
     @Override
@@ -154,12 +188,23 @@ abstract class RtDocker implements Docker {
 
     @Override
     public Version version() throws IOException {
-        final String versionUri = this.baseUri.toString() + "/version";
-        return new RtVersion(
-            this.client,
-            URI.create(versionUri),
-            this
+        final HttpGet version = new HttpGet(
+            this.baseUri.toString() + "/version"
         );
+        try {
+            return new RtVersion(
+                this.client.execute(
+                    version,
+                    new ReadJsonObject(
+                        new MatchStatus(version.getURI(), HttpStatus.SC_OK),
+                        this.json
+                    )
+                ),
+                this
+            );
+        } finally {
+            version.releaseConnection();
+        }
     }
 
     @Override
@@ -170,7 +215,8 @@ abstract class RtDocker implements Docker {
                 this.client.execute(
                     info,
                     new ReadJsonObject(
-                        new MatchStatus(info.getURI(), HttpStatus.SC_OK)
+                        new MatchStatus(info.getURI(), HttpStatus.SC_OK),
+                        this.json
                     )
                 ),
                 this
@@ -180,8 +226,126 @@ abstract class RtDocker implements Docker {
         }
     }
 
+    @Override
+    public final ApiVersion apiVersion() {
+        return ApiVersion.fromUri(this.baseUri).orElseThrow(
+            () -> new IllegalStateException(
+                "No API version in the base URI " + this.baseUri
+            )
+        );
+    }
+
     @Override
     public HttpClient httpClient() {
         return this.client;
     }
+
+    /**
+     * Get the (protected) base URI for subclasses.
+     * @return URI.
+     */
+    final URI baseUri() {
+        return this.baseUri;
+    }
+
+    /**
+     * Base URI of the given Docker, for decorators. Decorators which
+     * delegate to another Docker (e.g. {@link MemoizedDocker}) have the
+     * base URI of the Docker they delegate to.
+     * @param docker Docker.
+     * @return Base URI.
+     * @throws IllegalArgumentException If the Docker is not one of the
+     *  implementations offered by this library.
+     */
+    static URI baseUri(final Docker docker) {
+        final URI uri;
+        if(docker instanceof RtDocker) {
+            uri = ((RtDocker) docker).baseUri();
+        } else if(docker instanceof MemoizedDocker) {
+            uri = RtDocker.baseUri(((MemoizedDocker) docker).origin());
+        } else if(docker instanceof CachedDocker) {
+            uri = RtDocker.baseUri(((CachedDocker) docker).origin());
+        } else if(docker instanceof NegotiatedDocker) {
+            uri = RtDocker.baseUri(((NegotiatedDocker) docker).negotiated());
+        } else {
+            throw new IllegalArgumentException(
+                "Only the Docker implementations of this library "
+                + "(e.g. UnixDocker, TcpDocker) can be decorated."
+            );
+        }
+        return uri;
+    }
+
+    /**
+     * JSON factories of the given Docker, which its resources and response
+     * handlers use. It looks through the decorators of this library; any
+     * other Docker (e.g. a mock) has the shared factories.
+     * @param docker Docker.
+     * @return JsonFactories.
+     */
+    static JsonFactories json(final Docker docker) {
+        final JsonFactories json;
+        if(docker instanceof RtDocker) {
+            json = ((RtDocker) docker).json;
+        } else if(docker instanceof MemoizedDocker) {
+            json = RtDocker.json(((MemoizedDocker) docker).origin());
+        } else if(docker instanceof CachedDocker) {
+            json = RtDocker.json(((CachedDocker) docker).origin());
+        } else if(docker instanceof NegotiatedDocker) {
+            json = RtDocker.json(((NegotiatedDocker) docker).negotiated());
+        } else {
+            json = JsonFactories.SHARED;
+        }
+        return json;
+    }
+
+    /**
+     * Image pulls in flight of the given Docker, which its pre-pulls share
+     * so an image is pulled only once at a time. It looks through the
+     * decorators of this library; any other Docker (e.g. a mock) has a new,
+     * empty map.
+     * @param docker Docker.
+     * @return Pulls in flight, by image reference.
+     */
+    static Map<ImageReference, CompletableFuture<Void>> pulling(
+        final Docker docker
+    ) {
+        final Map<ImageReference, CompletableFuture<Void>> pulling;
+        if(docker instanceof RtDocker) {
+            pulling = ((RtDocker) docker).pulling;
+        } else if(docker instanceof MemoizedDocker) {
+            pulling = RtDocker.pulling(((MemoizedDocker) docker).origin());
+        } else if(docker instanceof CachedDocker) {
+            pulling = RtDocker.pulling(((CachedDocker) docker).origin());
+        } else if(docker instanceof NegotiatedDocker) {
+            pulling = RtDocker.pulling(
+                ((NegotiatedDocker) docker).negotiated()
+            );
+        } else {
+            pulling = new ConcurrentHashMap<>();
+        }
+        return pulling;
+    }
+
+    /**
+     * Close the given Docker, if it is closeable (e.g. a decorator of this
+     * library). A checked exception other than IOException is wrapped.
+     * @param docker Docker.
+     * @throws IOException If the Docker cannot be closed.
+     * @checkstyle IllegalCatch (20 lines)
+     */
+    static void close(final Docker docker) throws IOException {
+        if(docker instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) docker).close();
+            } catch (final IOException | RuntimeException ex) {
+                throw ex;
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while closing Docker.", ex);
+            } catch (final Exception ex) {
+                throw new IOException("Could not close Docker.", ex);
+            }
+        }
+    }
 }
@@ -82,7 +82,8 @@ final class RtDockerSystem implements DockerSystem {
                         new MatchStatus(
                             init.getURI(),
                             HttpStatus.SC_OK
-                        )
+                        ),
+                        RtDocker.json(this.docker)
                     )
                 )
             );
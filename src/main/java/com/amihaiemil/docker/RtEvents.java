@@ -28,24 +28,25 @@ package com.amihaiemil.docker;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
 
 import javax.json.Json;
 import javax.json.JsonObject;
-import javax.json.JsonReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * RESTful Events API.
@@ -60,15 +61,14 @@ final class RtEvents implements Events {
     private final Map<String, Iterable<String>> filters;
 
     /**
-     * Since tim
-     * estamp.
+     * Since timestamp.
      */
-    private final LocalDateTime since;
+    private final Instant since;
 
     /**
      * Until timestamp.
      */
-    private final LocalDateTime until;
+    private final Instant until;
 
     /**
      * Apache HttpClient which sends the requests.
@@ -108,8 +108,8 @@ final class RtEvents implements Events {
     RtEvents(
         final HttpClient client, final URI baseUri, final Docker dkr,
         final Map<String, Iterable<String>> filters,
-        final LocalDateTime since,
-        final LocalDateTime until
+        final Instant since,
+        final Instant until
     ) {
         this.client = client;
         this.baseUri = baseUri;
@@ -126,7 +126,7 @@ final class RtEvents implements Events {
             this.baseUri,
             this.docker,
             this.filters,
-            timestamp,
+            RtEvents.instant(timestamp),
             this.until
         );
     }
@@ -139,7 +139,7 @@ final class RtEvents implements Events {
             this.docker,
             this.filters,
             this.since,
-            timestamp
+            RtEvents.instant(timestamp)
         );
     }
 
@@ -166,9 +166,9 @@ final class RtEvents implements Events {
      * Handlers, because Apache HTTP Client tries to consume the remaining
      * content after all the handlers have been executed, which results in
      * a blockage, since the underlying InputStream is potentially infinite.
+     * Closing the returned Stream aborts the request, unless the server
+     * already ended it, in which case the connection goes back to the pool.
      *
-     * @checkstyle CommentsIndentation (100 lines)
-     * @checkstyle Indentation (100 lines)
      * @return Stream of Events.
      * @throws IOException If any I/O problem occurs.
      * @throws UnexpectedResponseException If the response status is not 200.
@@ -176,56 +176,28 @@ final class RtEvents implements Events {
     @Override
     public Stream<JsonObject> monitor()
         throws IOException, UnexpectedResponseException {
-        final HttpGet monitor = new HttpGet(this.buildMonitorUri());
-        final HttpResponse response = this.client.execute(monitor);
-        final int actual = response.getStatusLine().getStatusCode();
-        if(actual != HttpStatus.SC_OK) {
-            throw new UnexpectedResponseException(
-                this.buildMonitorUri().toString(),
-                actual, HttpStatus.SC_OK,
-                Json.createObjectBuilder().build()
-            );
-        } else {
-            final InputStream content = response.getEntity().getContent();
-            final Stream<JsonObject> stream = Stream.generate(
-                () -> {
-                    JsonObject read = null;
-                    try {
-                        final byte[] tmp = new byte[4096];
-                        while (content.read(tmp) != -1) {
-                            try {
-                                final JsonReader reader = Json.createReader(
-                                    new ByteArrayInputStream(tmp)
-                                );
-                                read = reader.readObject();
-                                break;
-                            //@checkstyle IllegalCatch (1 line)
-                            } catch (final Exception exception) {
-                                //Couldn't parse byte[] to Json,
-                                //try to read more bytes.
-                            }
-                        }
-                    } catch (final IOException ex) {
-                        throw new IllegalStateException(
-                            "IOException when reading streamed JsonObjects!"
-                        );
-                    }
-                    return read;
-                }
-            ).onClose(
-                () -> {
-                    try {
-                        ((CloseableHttpResponse) response).close();
-                    } catch (final IOException ex) {
-                        //There is a bug in Apache HTTPClient, when closing
-                        //an infinite InputStream: IOException is thrown
-                        //because the client still tries to read the remainder
-                        // of the closed Stream. We should ignore this case.
-                    }
-                }
-            );
-            return stream;
-        }
+        final ResponseStream content = this.open();
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                new StreamedJsonObjects(content, this.json()),
+                Spliterator.ORDERED | Spliterator.NONNULL
+            ),
+            false
+        ).onClose(content::release);
+    }
+
+    @Override
+    public Stream<JsonObject> monitor(
+        final Duration backoff, final Duration max
+    ) throws IOException, UnexpectedResponseException {
+        final ResumedEvents events = new ResumedEvents(this, backoff, max);
+        events.start();
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                events, Spliterator.ORDERED | Spliterator.NONNULL
+            ),
+            false
+        ).onClose(events::close);
     }
 
     @Override
@@ -233,6 +205,77 @@ final class RtEvents implements Events {
         return this.docker;
     }
 
+    /**
+     * These Events, resumed from the given timestamp.
+     * @param timestamp Timestamp to resume from.
+     * @return RtEvents.
+     */
+    RtEvents resumed(final Instant timestamp) {
+        return new RtEvents(
+            this.client,
+            this.baseUri,
+            this.docker,
+            this.filters,
+            timestamp,
+            this.until
+        );
+    }
+
+    /**
+     * The since timestamp of these Events.
+     * @return Instant or null, if none was specified.
+     */
+    Instant since() {
+        return this.since;
+    }
+
+    /**
+     * Do these Events end at an until timestamp?
+     * @return True if an until timestamp was specified, false otherwise.
+     */
+    boolean bounded() {
+        return this.until != null;
+    }
+
+    /**
+     * JSON factories to read the events with: the ones of the Docker.
+     * @return JsonFactories.
+     */
+    JsonFactories json() {
+        return RtDocker.json(this.docker);
+    }
+
+    /**
+     * Open the stream of events.
+     * @return The streamed content.
+     * @throws IOException If any I/O problem occurs.
+     * @throws UnexpectedResponseException If the response status is not 200.
+     */
+    ResponseStream open() throws IOException, UnexpectedResponseException {
+        final HttpGet monitor = new HttpGet(this.buildMonitorUri());
+        final ResponseStream content;
+        try {
+            final HttpResponse response = this.client.execute(
+                monitor, LeakDetectingHttpClient.longLived()
+            );
+            final int actual = response.getStatusLine().getStatusCode();
+            if(actual != HttpStatus.SC_OK) {
+                throw new UnexpectedResponseException(
+                    monitor.getURI().toString(),
+                    actual, HttpStatus.SC_OK,
+                    Json.createObjectBuilder().build()
+                );
+            }
+            content = new ResponseStream(
+                monitor, response.getEntity().getContent()
+            );
+        } catch (final IOException | UnexpectedResponseException ex) {
+            monitor.releaseConnection();
+            throw ex;
+        }
+        return content;
+    }
+
     /**
      * Build up the URI for the monitoring operation.
      * Add the since/until query params if they are present
@@ -244,24 +287,10 @@ final class RtEvents implements Events {
                 this.baseUri.toString()
         );
         if (this.since != null) {
-            uriBuilder.addParameter(
-                "since",
-                String.valueOf(
-                    ZonedDateTime.of(
-                        this.since, ZoneId.systemDefault()
-                    ).toInstant().toEpochMilli()
-                )
-            );
+            uriBuilder.addParameter("since", RtEvents.timestamp(this.since));
         }
         if (this.until != null) {
-            uriBuilder.addParameter(
-                "until",
-                String.valueOf(
-                    ZonedDateTime.of(
-                        this.until, ZoneId.systemDefault()
-                    ).toInstant().toEpochMilli()
-                )
-            );
+            uriBuilder.addParameter("until", RtEvents.timestamp(this.until));
         }
         final FilteredUriBuilder uri = new FilteredUriBuilder(
             uriBuilder,
@@ -269,4 +298,25 @@ final class RtEvents implements Events {
         );
         return uri.build();
     }
+
+    /**
+     * The given local date-time, in the system's default time zone.
+     * @param local Local date-time.
+     * @return Instant.
+     */
+    private static Instant instant(final LocalDateTime local) {
+        return ZonedDateTime.of(local, ZoneId.systemDefault()).toInstant();
+    }
+
+    /**
+     * Format the given Instant the way the Docker API expects timestamps:
+     * seconds since the epoch, with the nanoseconds as fraction.
+     * @param instant Instant.
+     * @return Timestamp.
+     */
+    private static String timestamp(final Instant instant) {
+        return String.format(
+            "%d.%09d", instant.getEpochSecond(), instant.getNano()
+        );
+    }
 }
@@ -69,7 +69,10 @@ final class RtExec implements Exec {
     @Override
     public JsonObject inspect()
         throws IOException, UnexpectedResponseException {
-        return new Inspection(this.client, this.baseUri.toString() + "/json");
+        return new Inspection(
+            this.client, this.baseUri.toString() + "/json",
+            RtDocker.json(this.docker)
+        );
     }
 
 }
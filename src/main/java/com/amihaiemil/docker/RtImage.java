@@ -77,7 +77,10 @@ final class RtImage extends JsonResource implements Image {
     @Override
     public JsonObject inspect()
         throws IOException, UnexpectedResponseException {
-        return new Inspection(this.client, this.baseUri.toString() + "/json");
+        return new Inspection(
+            this.client, this.baseUri.toString() + "/json",
+            RtDocker.json(this.docker)
+        );
     }
 
     @Override
@@ -85,6 +88,7 @@ final class RtImage extends JsonResource implements Image {
         return () -> new ResourcesIterator<>(
             this.client,
             new HttpGet(this.baseUri.toString().concat("/history")),
+            RtDocker.json(this.docker),
             json -> new RtImage(
                 json,
                 this.client,
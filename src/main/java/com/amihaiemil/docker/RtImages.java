@@ -27,20 +27,31 @@ package com.amihaiemil.docker;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.StringJoiner;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import javax.json.Json;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
+import org.apache.http.entity.FileEntity;
+import org.apache.http.entity.InputStreamEntity;
 
 /**
  * Runtime {@link Images}.
@@ -64,6 +75,11 @@ abstract class RtImages implements Images {
      */
     private final Docker docker;
 
+    /**
+     * Image pulls in flight, shared with the other Images of the same Docker.
+     */
+    private final Map<ImageReference, CompletableFuture<Void>> pulling;
+
     /**
      * Ctor.
      * @param client The http client.
@@ -75,36 +91,71 @@ abstract class RtImages implements Images {
         this.client = client;
         this.baseUri = uri;
         this.docker = dkr;
+        this.pulling = RtDocker.pulling(dkr);
     }
 
     @Override
     public Image pull(
         final String name, final String tag
     ) throws IOException, UnexpectedResponseException {
-        final HttpPost create  = new HttpPost(
-            new UncheckedUriBuilder(this.baseUri.toString().concat("/create"))
-                .addParameter("fromImage", name)
-                .addParameter("tag", tag)
-                .build()
-        );
+        final HttpPost create  = new HttpPost(this.pullUri(name, tag));
         try {
             this.client.execute(
                 create,
                 new MatchStatus(create.getURI(), HttpStatus.SC_OK)
             );
-            return new RtImage(
-                Json.createObjectBuilder().add("Name", name).build(),
-                this.client,
-                URI.create(
-                    this.baseUri.toString() + "/" + name
-                ),
-                this.docker
-            );
+            return this.pulled(name);
         } finally {
             create.releaseConnection();
         }
     }
 
+    /**
+     * Unlike the other methods, this one cannot use Response Handlers,
+     * because the progress has to be read as it arrives and not after the
+     * pull ended.
+     * @param name Name of the image to pull.
+     * @param tag Tag or digest for the image.
+     * @param listener Consumer of the progress.
+     * @param stall Time without progress after which the pull is aborted.
+     * @return The created {@link Image}.
+     * @throws IOException If an I/O error occurs, if the pull failed or
+     *  stalled.
+     * @throws UnexpectedResponseException If the API responds with an
+     *  unexpected status.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    @Override
+    public Image pull(
+        final String name, final String tag,
+        final Consumer<PullProgress> listener, final Duration stall
+    ) throws IOException, UnexpectedResponseException {
+        final HttpPost create  = new HttpPost(this.pullUri(name, tag));
+        final InputStream content;
+        try {
+            content = new ResponseStream(
+                create,
+                new MatchStatus(create.getURI(), HttpStatus.SC_OK)
+                    .handleResponse(this.client.execute(create))
+                    .getEntity().getContent()
+            );
+        } catch (final IOException | UnexpectedResponseException ex) {
+            create.releaseConnection();
+            throw ex;
+        }
+        try (final InputStream progress = content) {
+            new StreamedPull(create, listener, stall).follow(progress);
+        }
+        return this.pulled(name);
+    }
+
+    @Override
+    public BulkOutcome prePull(
+        final Iterable<String> references, final int parallel
+    ) throws IOException {
+        return new PrePull(this).run(references, parallel);
+    }
+
     @Override
     public Image importImage(
         final URL source, final String repo
@@ -136,27 +187,25 @@ abstract class RtImages implements Images {
     @Override
     public Images importFromTar(
         final String file) throws IOException, UnexpectedResponseException {
-        final HttpPost load  = new HttpPost(
-            new UncheckedUriBuilder(this.baseUri.toString().concat("/load"))
-                .build()
+        return this.importFromTar(Paths.get(file));
+    }
+
+    @Override
+    public Images importFromTar(final Path file)
+        throws IOException, UnexpectedResponseException {
+        return this.load(
+            new FileEntity(file.toFile(), ContentType.DEFAULT_BINARY)
         );
-        try {
-            load.setEntity(
-                new StringEntity(
-                    new String(
-                        Files.readAllBytes(Paths.get(file))
-                    ),
-                    ContentType.DEFAULT_BINARY
-                )
-            );
-            this.client.execute(
-                load,
-                new MatchStatus(load.getURI(), HttpStatus.SC_OK)
-            );
-        } finally {
-            load.releaseConnection();
-        }
-        return this;
+    }
+
+    @Override
+    public Images importFromTar(final InputStream tar)
+        throws IOException, UnexpectedResponseException {
+        final InputStreamEntity tarball = new InputStreamEntity(
+            tar, ContentType.DEFAULT_BINARY
+        );
+        tarball.setChunked(true);
+        return this.load(tarball);
     }
 
     @Override
@@ -176,37 +225,121 @@ abstract class RtImages implements Images {
 
     @Override
     public Reader save() throws IOException, UnexpectedResponseException {
-        final Reader tarball;
-        final StringJoiner names = new StringJoiner(",");
-        for(final Image img : this) {
-            names.add(img.getString("Id"));
+        final List<String> names = new ArrayList<>();
+        final Iterator<Image> images = this.iterator();
+        try {
+            while(images.hasNext()) {
+                names.add(images.next().getString("Id"));
+            }
+        } finally {
+            ResourcesIterator.release(images);
         }
-        if(names.toString().isEmpty()) {
-            tarball = new InputStreamReader(
-                new ByteArrayInputStream(new byte[]{})
-            );
+        return new InputStreamReader(this.save(names));
+    }
+
+    @Override
+    public InputStream save(final Iterable<String> names)
+        throws IOException, UnexpectedResponseException {
+        final UncheckedUriBuilder uri = new UncheckedUriBuilder(
+            this.baseUri.toString().concat("/get")
+        );
+        boolean empty = true;
+        for(final String name : names) {
+            uri.addParameter("names", name);
+            empty = false;
+        }
+        final InputStream tarball;
+        if(empty) {
+            tarball = new ByteArrayInputStream(new byte[]{});
         } else {
-            final HttpGet save = new HttpGet(
-                new UncheckedUriBuilder(this.baseUri.toString().concat("/get"))
-                    .addParameter("names", names.toString())
-                    .build()
-            );
-            tarball = this.client.execute(
-                save,
-                new ReadStream(
+            final HttpGet save = new HttpGet(uri.build());
+            try {
+                tarball = new ResponseStream(
+                    save,
                     new MatchStatus(save.getURI(), HttpStatus.SC_OK)
-                )
-            );
+                        .handleResponse(this.client.execute(save))
+                        .getEntity().getContent()
+                );
+            } catch (final IOException | UnexpectedResponseException ex) {
+                save.releaseConnection();
+                throw ex;
+            }
         }
         return tarball;
     }
 
+    @Override
+    public long save(final Iterable<String> names, final Path target)
+        throws IOException, UnexpectedResponseException {
+        try (final InputStream tarball = this.save(names)) {
+            return Files.copy(
+                tarball, target, StandardCopyOption.REPLACE_EXISTING
+            );
+        }
+    }
 
     @Override
     public Docker docker() {
         return this.docker;
     }
 
+    /**
+     * Load the images from the given tarball, which is streamed
+     * to the Docker engine as it is read.
+     * @param tarball Entity with the tarball.
+     * @return These Images.
+     * @throws IOException If an I/O error occurs.
+     * @throws UnexpectedResponseException If the API responds with an
+     *  unexpected status.
+     */
+    private Images load(final HttpEntity tarball)
+        throws IOException, UnexpectedResponseException {
+        final HttpPost load  = new HttpPost(
+            new UncheckedUriBuilder(this.baseUri.toString().concat("/load"))
+                .build()
+        );
+        try {
+            load.setEntity(tarball);
+            this.client.execute(
+                load,
+                new MatchStatus(load.getURI(), HttpStatus.SC_OK)
+            );
+        } finally {
+            load.releaseConnection();
+        }
+        return this;
+    }
+
+    /**
+     * URI which pulls the given image.
+     * @param name Name of the image to pull.
+     * @param tag Tag or digest for the image.
+     * @return URI.
+     */
+    private URI pullUri(final String name, final String tag) {
+        return new UncheckedUriBuilder(
+            this.baseUri.toString().concat("/create")
+        ).addParameter("fromImage", name)
+            .addParameter("tag", tag)
+            .build();
+    }
+
+    /**
+     * The pulled image.
+     * @param name Name of the image.
+     * @return Image.
+     */
+    private Image pulled(final String name) {
+        return new RtImage(
+            Json.createObjectBuilder().add("Name", name).build(),
+            this.client,
+            URI.create(
+                this.baseUri.toString() + "/" + name
+            ),
+            this.docker
+        );
+    }
+
     /**
      * Get the (protected) HttpClient for subclasses.
      * @return HttpClient.
@@ -222,4 +355,12 @@ abstract class RtImages implements Images {
     URI baseUri() {
         return this.baseUri;
     }
+
+    /**
+     * Image pulls in flight, by image reference, for {@link PrePull}.
+     * @return Pulls in flight.
+     */
+    Map<ImageReference, CompletableFuture<Void>> pulling() {
+        return this.pulling;
+    }
 }
@@ -26,14 +26,25 @@
 package com.amihaiemil.docker;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
 
 /**
  * Restful container logs.
@@ -97,16 +108,7 @@ final class RtLogs implements Logs {
 
     @Override
     public String fetch() throws IOException, UnexpectedResponseException {
-        final HttpGet fetch = new HttpGet(
-            new UncheckedUriBuilder(this.baseUri.toString())
-                .addParameter("stdout",
-                    this.options.getOrDefault("stdout", "true")
-                )
-                .addParameter("stderr",
-                    this.options.getOrDefault("stderr", "true")
-                )
-                .build()
-        );
+        final HttpGet fetch = new HttpGet(this.uri(false));
         try {
             return this.client.execute(
                 fetch,
@@ -125,28 +127,96 @@ final class RtLogs implements Logs {
     @Override
     public Reader follow()
         throws IOException, UnexpectedResponseException {
-        final HttpGet follow = new HttpGet(
-            new UncheckedUriBuilder(this.baseUri.toString())
-                .addParameter("follow", "true")
-                .addParameter("stdout",
-                    this.options.getOrDefault("stdout", "true")
-                )
-                .addParameter("stderr",
-                    this.options.getOrDefault("stderr", "true")
-                )
-                .build()
+        final HttpGet follow = new HttpGet(this.uri(true));
+        try {
+            return new InputStreamReader(
+                new ResponseStream(
+                    follow,
+                    new MatchStatus(follow.getURI(), HttpStatus.SC_OK)
+                        .handleResponse(
+                            this.client.execute(
+                                follow, LeakDetectingHttpClient.longLived()
+                            )
+                        )
+                        .getEntity().getContent()
+                ),
+                StandardCharsets.UTF_8
+            );
+        } catch (final IOException | UnexpectedResponseException ex) {
+            follow.releaseConnection();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void fetch(final LogFrames frames)
+        throws IOException, UnexpectedResponseException {
+        this.demultiplex(
+            new HttpGet(this.uri(false)),
+            frames
         );
-        return this.client.execute(
-            follow,
-            new ReadStream(
-                new MatchStatus(
-                    follow.getURI(),
-                    HttpStatus.SC_OK
-                )
+    }
+
+    @Override
+    public void follow(final LogFrames frames)
+        throws IOException, UnexpectedResponseException {
+        this.demultiplex(
+            new HttpGet(this.uri(true)),
+            frames
+        );
+    }
+
+    @Override
+    public Stream<String> followLines()
+        throws IOException, UnexpectedResponseException {
+        final HttpGet follow = new HttpGet(this.uri(true));
+        final ResponseStream content;
+        try {
+            content = new ResponseStream(
+                follow,
+                new MatchStatus(follow.getURI(), HttpStatus.SC_OK)
+                    .handleResponse(
+                        this.client.execute(
+                            follow, LeakDetectingHttpClient.longLived()
+                        )
+                    )
+                    .getEntity().getContent()
+            );
+        } catch (final IOException | UnexpectedResponseException ex) {
+            follow.releaseConnection();
+            throw ex;
+        }
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                new LogLines(new MultiplexedStream(content)),
+                Spliterator.ORDERED | Spliterator.NONNULL
+            ),
+            false
+        ).onClose(content::release);
+    }
+
+    @Override
+    public Logs since(final LocalDateTime timestamp) {
+        return this.with(
+            "since",
+            String.valueOf(
+                ZonedDateTime.of(
+                    timestamp, ZoneId.systemDefault()
+                ).toEpochSecond()
             )
         );
     }
 
+    @Override
+    public Logs tail(final int lines) {
+        return this.with("tail", String.valueOf(lines));
+    }
+
+    @Override
+    public Logs timestamps() {
+        return this.with("timestamps", "true");
+    }
+
     @Override
     public Logs stdout() throws IOException, UnexpectedResponseException {
         final Map<String, String> params = new HashMap<>();
@@ -170,6 +240,72 @@ final class RtLogs implements Logs {
         return this.owner;
     }
 
+    /**
+     * These Logs, with one more option.
+     * @param name Name of the option.
+     * @param value Value of the option.
+     * @return New Logs.
+     */
+    private Logs with(final String name, final String value) {
+        final Map<String, String> params = new HashMap<>();
+        params.putAll(this.options);
+        params.put(name, value);
+        return new RtLogs(this.owner, this.client, this.baseUri, params);
+    }
+
+    /**
+     * Build the URI of the logs with all the options.
+     * @param follow Whether the logs should be followed.
+     * @return URI.
+     */
+    private URI uri(final boolean follow) {
+        final UncheckedUriBuilder uri = new UncheckedUriBuilder(
+            this.baseUri.toString()
+        );
+        if(follow) {
+            uri.addParameter("follow", "true");
+        }
+        uri.addParameter("stdout", this.options.getOrDefault("stdout", "true"));
+        uri.addParameter("stderr", this.options.getOrDefault("stderr", "true"));
+        for(final String name : new String[] {"since", "tail", "timestamps"}) {
+            if(this.options.containsKey(name)) {
+                uri.addParameter(name, this.options.get(name));
+            }
+        }
+        return uri.build();
+    }
+
+    /**
+     * Perform the request and give the demultiplexed frames of the response
+     * to the receiver. We do not use a ResponseHandler here because, if the
+     * receiver fails while following, Apache HTTP Client would try to consume
+     * the rest of the (potentially infinite) stream. The followed logs may
+     * keep the connection for as long as the container runs, so it is
+     * long-lived; it is released here in any case.
+     * @param request The request.
+     * @param frames Receiver of the frames.
+     * @throws IOException If something goes wrong.
+     * @throws UnexpectedResponseException If the status is not 200 OK.
+     */
+    private void demultiplex(final HttpGet request, final LogFrames frames)
+        throws IOException, UnexpectedResponseException {
+        try {
+            final HttpResponse response = new MatchStatus(
+                request.getURI(), HttpStatus.SC_OK
+            ).handleResponse(
+                this.client.execute(
+                    request, LeakDetectingHttpClient.longLived()
+                )
+            );
+            new MultiplexedStream(
+                response.getEntity().getContent()
+            ).readAll(frames);
+            EntityUtils.consume(response.getEntity());
+        } finally {
+            request.releaseConnection();
+        }
+    }
+
     @Override
     public String toString() {
         try {
@@ -81,7 +81,9 @@ final class RtNetwork extends JsonResource implements Network {
     @Override
     public JsonObject inspect()
         throws IOException, UnexpectedResponseException {
-        return new Inspection(this.client, this.baseUri.toString());
+        return new Inspection(
+            this.client, this.baseUri.toString(), RtDocker.json(this.docker)
+        );
     }
 
     @Override
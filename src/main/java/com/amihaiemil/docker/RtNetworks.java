@@ -146,7 +146,8 @@ abstract class RtNetworks implements Networks {
                     new MatchStatus(
                         create.getURI(),
                         HttpStatus.SC_CREATED
-                    )
+                    ),
+                    RtDocker.json(this.docker)
                 )
             );
             if (!createResult.isEmpty()) {
@@ -82,7 +82,8 @@ final class RtPlugin extends JsonResource implements Plugin {
     public JsonObject inspect()
         throws IOException, UnexpectedResponseException {
         return new Inspection(this.client,
-            String.format("%s/%s", this.uri.toString(), "json"));
+            String.format("%s/%s", this.uri.toString(), "json"),
+            RtDocker.json(this.docker));
     }
 
     @Override
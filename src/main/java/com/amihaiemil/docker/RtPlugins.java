@@ -137,6 +137,7 @@ abstract class RtPlugins implements Plugins {
             new HttpGet(
                 uri.build()
             ),
+            RtDocker.json(this.docker),
             PluginPrivilege::new
         );
     }
@@ -71,7 +71,9 @@ final class RtSwarm implements Swarm {
 
     @Override
     public JsonObject inspect() throws IOException {
-        return new Inspection(this.client, this.baseUri.toString());
+        return new Inspection(
+            this.client, this.baseUri.toString(), RtDocker.json(this.docker)
+        );
     }
 
     @Override
@@ -25,13 +25,7 @@
  */
 package com.amihaiemil.docker;
 
-import org.apache.http.HttpStatus;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpGet;
-
 import javax.json.JsonObject;
-import java.io.IOException;
-import java.net.URI;
 
 /**
  * Runtime {@link Version}.
@@ -47,43 +41,14 @@ final class RtVersion extends JsonResource implements Version {
 
     /**
      * Ctor.
-     * @param client The http client.
-     * @param uri The URI for this version.
+     * @param rep This version in JSON format.
      * @param dkr Parent Docker.
-     * @throws IOException If an I/O error occurs.
      */
-    RtVersion(
-        final HttpClient client,
-        final URI uri,
-        final Docker dkr
-    ) throws IOException {
-        super(fetch(client, uri));
+    RtVersion(final JsonObject rep, final Docker dkr) {
+        super(rep);
         this.docker = dkr;
     }
 
-    /**
-     * Fetch the JsonObject resource.
-     * @param client The Http client.
-     * @param uri The request URL.
-     * @return The fetched JsonObject.
-     * @throws UnexpectedResponseException If Docker's response code is not 200.
-     * @throws IOException If an I/O error occurs.
-     */
-    private static JsonObject fetch(final HttpClient client, final URI uri)
-        throws UnexpectedResponseException, IOException {
-        final HttpGet version = new HttpGet(uri);
-        try {
-            return client.execute(
-                version,
-                new ReadJsonObject(
-                    new MatchStatus(version.getURI(), HttpStatus.SC_OK)
-                )
-            );
-        } finally {
-            version.releaseConnection();
-        }
-    }
-
     /**
      * Returns the version of the connected docker engine.
      * @return Version of connected docker engine
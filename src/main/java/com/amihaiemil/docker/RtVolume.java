@@ -75,7 +75,9 @@ final class RtVolume extends JsonResource implements Volume {
     @Override
     public JsonObject inspect()
         throws IOException, UnexpectedResponseException {
-        return new Inspection(this.client, this.baseUri.toString());
+        return new Inspection(
+            this.client, this.baseUri.toString(), RtDocker.json(this.docker)
+        );
     }
 
     @Override
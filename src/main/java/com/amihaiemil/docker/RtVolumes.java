@@ -145,7 +145,8 @@ abstract class RtVolumes implements Volumes {
                     new MatchStatus(
                         create.getURI(),
                         HttpStatus.SC_CREATED
-                    )
+                    ),
+                    RtDocker.json(this.docker)
                 )
             );
             if (!createResult.isEmpty()) {
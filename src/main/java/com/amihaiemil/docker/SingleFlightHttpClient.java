@@ -0,0 +1,247 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * HttpClient which sends identical GET requests only once while they are
+ * in flight. When many threads inspect the same container, or read the
+ * version or info of the Docker engine, at the same time, the first of them
+ * sends the request and the others wait for its response, which each of
+ * them then handles (e.g. parses) separately. A request which arrives after
+ * the response was received is sent again: nothing is cached.<br><br>
+ *
+ * Only the GETs whose response is handled in full (e.g. inspections,
+ * listings of networks), through any of the execute overloads which take
+ * a ResponseHandler, are coalesced, and only if they also have the same
+ * headers (e.g. X-Registry-Auth, Accept); streamed responses (logs, events,
+ * image tarballs) and requests with their own HttpContext are never
+ * shared. It decorates any HttpClient, e.g. the pooled one of a
+ * {@link UnixDocker}:
+ * <pre>
+ *     final Docker docker = new UnixDocker(
+ *         new File("/var/run/docker.sock"), new PoolConfig(),
+ *         SingleFlightHttpClient::new
+ *     );
+ * </pre>
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class SingleFlightHttpClient extends HttpClientEnvelope {
+
+    /**
+     * Requests in flight, by key.
+     */
+    private final Map<String, CompletableFuture<BufferedResponse>> flights;
+
+    /**
+     * Ctor.
+     * @param origin HttpClient which sends the requests.
+     */
+    public SingleFlightHttpClient(final HttpClient origin) {
+        super(() -> origin);
+        this.flights = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public <T> T execute(
+        final HttpUriRequest request,
+        final ResponseHandler<? extends T> handler
+    ) throws IOException {
+        return this.coalesced(
+            SingleFlightHttpClient.key(null, request, null), handler,
+            () -> super.execute(request, BufferedResponse::new),
+            () -> super.execute(request, handler)
+        );
+    }
+
+    @Override
+    public <T> T execute(
+        final HttpUriRequest request,
+        final ResponseHandler<? extends T> handler, final HttpContext context
+    ) throws IOException {
+        return this.coalesced(
+            SingleFlightHttpClient.key(null, request, context), handler,
+            () -> super.execute(request, BufferedResponse::new, context),
+            () -> super.execute(request, handler, context)
+        );
+    }
+
+    @Override
+    public <T> T execute(
+        final HttpHost target, final HttpRequest request,
+        final ResponseHandler<? extends T> handler
+    ) throws IOException {
+        return this.coalesced(
+            SingleFlightHttpClient.key(target, request, null), handler,
+            () -> super.execute(target, request, BufferedResponse::new),
+            () -> super.execute(target, request, handler)
+        );
+    }
+
+    // @checkstyle ParameterNumber (4 lines)
+    @Override
+    public <T> T execute(
+        final HttpHost target, final HttpRequest request,
+        final ResponseHandler<? extends T> handler, final HttpContext context
+    ) throws IOException {
+        return this.coalesced(
+            SingleFlightHttpClient.key(target, request, context), handler,
+            () -> super.execute(
+                target, request, BufferedResponse::new, context
+            ),
+            () -> super.execute(target, request, handler, context)
+        );
+    }
+
+    /**
+     * Send the request once for all the identical ones in flight, or on
+     * its own if it cannot be coalesced.
+     * @param key Key of the request or null if it cannot be coalesced.
+     * @param handler Handler of the response.
+     * @param buffered Sends the request, reading the response in memory.
+     * @param direct Sends the request on its own.
+     * @param <T> Type of the result.
+     * @return Result.
+     * @throws IOException If the request fails or the calling thread is
+     *  interrupted.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    private <T> T coalesced(
+        final String key, final ResponseHandler<? extends T> handler,
+        final Call<BufferedResponse> buffered, final Call<T> direct
+    ) throws IOException {
+        final T result;
+        if(key == null) {
+            result = direct.call();
+        } else {
+            result = handler.handleResponse(
+                this.shared(key, buffered).response()
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Send the request, unless the same request is already in flight, in
+     * which case its response is awaited.
+     * @param key Key of the request.
+     * @param buffered Sends the request, reading the response in memory.
+     * @return The response, read in memory.
+     * @throws IOException If the request fails or the calling thread is
+     *  interrupted.
+     */
+    private BufferedResponse shared(
+        final String key, final Call<BufferedResponse> buffered
+    ) throws IOException {
+        final CompletableFuture<BufferedResponse> mine =
+            new CompletableFuture<>();
+        final CompletableFuture<BufferedResponse> flight = this.flights
+            .putIfAbsent(key, mine);
+        final BufferedResponse response;
+        if(flight == null) {
+            try {
+                response = buffered.call();
+                mine.complete(response);
+            } catch (final IOException ex) {
+                mine.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                if(!mine.isDone()) {
+                    mine.completeExceptionally(
+                        new IllegalStateException("Request failed: " + key)
+                    );
+                }
+                this.flights.remove(key, mine);
+            }
+        } else {
+            try {
+                response = flight.get();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(
+                    "Interrupted while waiting on " + key
+                );
+            } catch (final ExecutionException ex) {
+                throw new IOException(
+                    "Shared request failed: " + key, ex.getCause()
+                );
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Key of a request, which identical requests share: its target, URI
+     * and headers (e.g. X-Registry-Auth, Accept), so requests which the
+     * server may answer differently are never coalesced.
+     * @param target Target host, if it is given separately.
+     * @param request Request.
+     * @param context Context of the request, if any.
+     * @return Key or null, if the request is not a GET or has a context
+     *  (which the caller expects to be filled by its own exchange).
+     */
+    private static String key(
+        final HttpHost target, final HttpRequest request,
+        final HttpContext context
+    ) {
+        final String key;
+        if(context == null
+            && "GET".equals(HttpClientEnvelope.method(request))) {
+            final StringBuilder built = new StringBuilder("GET ");
+            if(target != null) {
+                built.append(target.toURI());
+            }
+            built.append(request.getRequestLine().getUri());
+            Arrays.stream(request.getAllHeaders())
+                .map(
+                    header -> header.getName().toLowerCase(Locale.ENGLISH)
+                        + ": " + header.getValue()
+                )
+                .sorted()
+                .forEach(header -> built.append('\n').append(header));
+            key = built.toString();
+        } else {
+            key = null;
+        }
+        return key;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+/**
+ * A sample of the resource usage statistics of a Container. Only the
+ * counters which are usually monitored are read, as primitives, so no
+ * JsonObject is built for each sample:
+ * <pre>
+ *     final Stats stats = container.stats();
+ *     System.out.println(stats.cpuPercent() + "% CPU");
+ *     System.out.println(stats.memoryUsage() + " bytes of memory");
+ * </pre>
+ * The counters which Docker did not send (e.g. the networks of a
+ * container with no network) are 0.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public interface Stats {
+
+    /**
+     * CPU time used by the container since the previous sample,
+     * in nanoseconds.
+     * @return CPU delta.
+     */
+    long cpuDelta();
+
+    /**
+     * CPU time used by the host since the previous sample, in nanoseconds.
+     * @return System CPU delta.
+     */
+    long systemCpuDelta();
+
+    /**
+     * Number of CPUs available to the container.
+     * @return Online CPUs.
+     */
+    int onlineCpus();
+
+    /**
+     * CPU usage of the container since the previous sample, in percents,
+     * computed like the docker stats command does it.
+     * @return CPU usage percentage.
+     */
+    double cpuPercent();
+
+    /**
+     * Memory used by the container, in bytes.
+     * @return Memory usage.
+     */
+    long memoryUsage();
+
+    /**
+     * Memory limit of the container, in bytes.
+     * @return Memory limit.
+     */
+    long memoryLimit();
+
+    /**
+     * Bytes received on all the networks of the container.
+     * @return Received bytes.
+     */
+    long networkRxBytes();
+
+    /**
+     * Bytes sent on all the networks of the container.
+     * @return Sent bytes.
+     */
+    long networkTxBytes();
+
+    /**
+     * Bytes read from all the block devices.
+     * @return Read bytes.
+     */
+    long blkioReadBytes();
+
+    /**
+     * Bytes written to all the block devices.
+     * @return Written bytes.
+     */
+    long blkioWriteBytes();
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import javax.json.JsonObject;
+
+/**
+ * Iterator over the JsonObjects which are streamed, one after
+ * the other, by the Docker API (e.g. the events from /events).<br><br>
+ *
+ * The objects are framed by {@link JsonFrames}, so a JsonObject is read
+ * only once its closing brace arrived, no matter how big it is or in how
+ * many chunks it was sent.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class StreamedJsonObjects implements Iterator<JsonObject> {
+
+    /**
+     * Framed content.
+     */
+    private final JsonFrames frames;
+
+    /**
+     * JSON factories to read the objects with.
+     */
+    private final JsonFactories json;
+
+    /**
+     * The next JsonObject, if it was already read by hasNext().
+     */
+    private JsonObject next;
+
+    /**
+     * Ctor.
+     * @param content Streamed content.
+     */
+    StreamedJsonObjects(final InputStream content) {
+        this(content, JsonFactories.SHARED);
+    }
+
+    /**
+     * Ctor.
+     * @param content Streamed content.
+     * @param json JSON factories to read the objects with.
+     */
+    StreamedJsonObjects(final InputStream content, final JsonFactories json) {
+        this(new JsonFrames(content), json);
+    }
+
+    /**
+     * Ctor.
+     * @param frames Framed content.
+     */
+    StreamedJsonObjects(final JsonFrames frames) {
+        this(frames, JsonFactories.SHARED);
+    }
+
+    /**
+     * Ctor.
+     * @param frames Framed content.
+     * @param json JSON factories to read the objects with.
+     */
+    StreamedJsonObjects(final JsonFrames frames, final JsonFactories json) {
+        this.frames = frames;
+        this.json = json;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if(this.next == null && this.frames.next()) {
+            this.next = this.json.object(this.frames.frame());
+        }
+        return this.next != null;
+    }
+
+    @Override
+    public JsonObject next() {
+        if(!this.hasNext()) {
+            throw new NoSuchElementException("No more JsonObjects streamed.");
+        }
+        final JsonObject object = this.next;
+        this.next = null;
+        return object;
+    }
+}
@@ -0,0 +1,332 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import org.apache.http.client.methods.HttpRequestBase;
+
+/**
+ * The progress messages streamed by the Docker engine while it pulls an
+ * image, read one by one as they arrive. Each of them is published as a
+ * {@link PullProgress}, with the rates measured so far.<br><br>
+ *
+ * If the pull makes no progress (no layer changes its status or its byte
+ * count) for longer than the stall timeout, the request is aborted. A
+ * single daemon thread, shared by all the pulls, watches them.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class StreamedPull {
+
+    /**
+     * Nanoseconds in a second.
+     */
+    private static final double SECOND = TimeUnit.SECONDS.toNanos(1L);
+
+    /**
+     * Watches the pulls, aborting the stalled ones.
+     */
+    private static final ScheduledExecutorService WATCHDOG = Executors
+        .newSingleThreadScheduledExecutor(StreamedPull::daemon);
+
+    /**
+     * The pull request.
+     */
+    private final HttpRequestBase request;
+
+    /**
+     * Consumer of the progress.
+     */
+    private final Consumer<PullProgress> listener;
+
+    /**
+     * Time without progress after which the pull is aborted.
+     */
+    private final Duration stall;
+
+    /**
+     * The pulled layers, by ID.
+     */
+    private final Map<String, Layer> layers;
+
+    /**
+     * When the pull started, in nanoseconds.
+     */
+    private final AtomicLong started;
+
+    /**
+     * When the pull last made progress, in nanoseconds.
+     */
+    private final AtomicLong progressed;
+
+    /**
+     * Was the pull aborted because it stalled?
+     */
+    private final AtomicBoolean stalled;
+
+    /**
+     * Did the pull finish?
+     */
+    private final AtomicBoolean finished;
+
+    /**
+     * The next check of the watchdog.
+     */
+    private final AtomicReference<ScheduledFuture<?>> check;
+
+    /**
+     * Ctor.
+     * @param request The pull request.
+     * @param listener Consumer of the progress.
+     * @param stall Time without progress after which the pull is aborted.
+     *  Duration.ZERO means the pull is never aborted.
+     */
+    StreamedPull(
+        final HttpRequestBase request,
+        final Consumer<PullProgress> listener,
+        final Duration stall
+    ) {
+        this.request = request;
+        this.listener = listener;
+        this.stall = stall;
+        this.layers = new HashMap<>();
+        this.started = new AtomicLong();
+        this.progressed = new AtomicLong();
+        this.stalled = new AtomicBoolean(false);
+        this.finished = new AtomicBoolean(false);
+        this.check = new AtomicReference<>();
+    }
+
+    /**
+     * Read the progress messages until the pull ends.
+     * @param content Content of the pull response.
+     * @throws IOException If the pull failed or stalled, or if any I/O
+     *  problem occurs.
+     */
+    void follow(final InputStream content) throws IOException {
+        this.started.set(System.nanoTime());
+        this.progressed.set(this.started.get());
+        if(!this.stall.isZero()) {
+            this.check.set(
+                StreamedPull.WATCHDOG.schedule(
+                    this::watch, this.stall.toNanos(), TimeUnit.NANOSECONDS
+                )
+            );
+        }
+        try {
+            final Iterator<JsonObject> messages = new StreamedJsonObjects(
+                content
+            );
+            while(messages.hasNext()) {
+                final JsonObject message = messages.next();
+                if(message.containsKey("error")) {
+                    throw new IOException(
+                        String.format(
+                            "Pull failed when calling %s: %s",
+                            this.request.getURI(), message.get("error")
+                        )
+                    );
+                }
+                this.listener.accept(this.progress(message));
+            }
+        } catch (final IllegalStateException | JsonException ex) {
+            if(this.stalled.get()) {
+                throw new IOException(
+                    String.format(
+                        "Pull made no progress for %s when calling %s",
+                        this.stall, this.request.getURI()
+                    ),
+                    ex
+                );
+            }
+            throw new IOException(
+                "Could not read the progress of the pull from "
+                + this.request.getURI(),
+                ex
+            );
+        } finally {
+            this.finished.set(true);
+            final ScheduledFuture<?> next = this.check.get();
+            if(next != null) {
+                next.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Update the layer which the given message is about.
+     * @param message Progress message.
+     * @return The progress of the layer.
+     */
+    private PullProgress progress(final JsonObject message) {
+        final long now = System.nanoTime();
+        final PullProgress reported = new PullProgress(message, 0.0, 0.0);
+        final Layer layer = this.layers.computeIfAbsent(
+            reported.layer(), id -> new Layer()
+        );
+        if(layer.update(reported, now)) {
+            this.progressed.set(now);
+        }
+        long downloaded = 0L;
+        for(final Layer pulled : this.layers.values()) {
+            downloaded = downloaded + pulled.downloaded();
+        }
+        return new PullProgress(
+            message,
+            layer.rate(now),
+            StreamedPull.perSecond(downloaded, now - this.started.get())
+        );
+    }
+
+    /**
+     * Abort the pull if it made no progress for longer than the stall
+     * timeout; check again later otherwise.
+     */
+    private void watch() {
+        if(!this.finished.get()) {
+            final long idle = System.nanoTime() - this.progressed.get();
+            if(idle >= this.stall.toNanos()) {
+                this.stalled.set(true);
+                this.request.abort();
+            } else {
+                this.check.set(
+                    StreamedPull.WATCHDOG.schedule(
+                        this::watch,
+                        this.stall.toNanos() - idle,
+                        TimeUnit.NANOSECONDS
+                    )
+                );
+            }
+        }
+    }
+
+    /**
+     * Daemon thread of the watchdog, so it never keeps the JVM alive.
+     * @param task Task of the watchdog.
+     * @return Thread.
+     */
+    private static Thread daemon(final Runnable task) {
+        final Thread watchdog = new Thread(task, "docker-pull-watchdog");
+        watchdog.setDaemon(true);
+        return watchdog;
+    }
+
+    /**
+     * Rate of the given bytes, transferred in the given time.
+     * @param bytes Number of bytes.
+     * @param nanos Nanoseconds.
+     * @return Bytes per second.
+     */
+    private static double perSecond(final long bytes, final long nanos) {
+        final double rate;
+        if(nanos <= 0L) {
+            rate = 0.0;
+        } else {
+            rate = bytes * StreamedPull.SECOND / nanos;
+        }
+        return rate;
+    }
+
+    /**
+     * A pulled layer.
+     */
+    private static final class Layer {
+
+        /**
+         * Current status.
+         */
+        private String status = "";
+
+        /**
+         * When the current status was first reported, in nanoseconds.
+         */
+        private long since;
+
+        /**
+         * Bytes transferred in the current status.
+         */
+        private long current;
+
+        /**
+         * Bytes downloaded.
+         */
+        private long downloaded;
+
+        /**
+         * Update this layer with the reported progress.
+         * @param reported Reported progress.
+         * @param now Current time, in nanoseconds.
+         * @return True if the layer made progress, false otherwise.
+         */
+        boolean update(final PullProgress reported, final long now) {
+            final boolean moved = !reported.status().equals(this.status);
+            final boolean progress = moved
+                || reported.current() != this.current;
+            if(moved) {
+                this.status = reported.status();
+                this.since = now;
+            }
+            this.current = reported.current();
+            if("Downloading".equals(this.status)) {
+                this.downloaded = this.current;
+            }
+            return progress;
+        }
+
+        /**
+         * Rate of the current status.
+         * @param now Current time, in nanoseconds.
+         * @return Bytes per second.
+         */
+        double rate(final long now) {
+            return StreamedPull.perSecond(this.current, now - this.since);
+        }
+
+        /**
+         * Bytes downloaded.
+         * @return Number of bytes.
+         */
+        long downloaded() {
+            return this.downloaded;
+        }
+    }
+}
@@ -122,6 +122,24 @@ public final class TcpDocker extends RtDocker {
     public TcpDocker(
         final HttpClient client, final URI uri, final String version
     ) {
-        super(client, URI.create(uri.toString() + "/" + version));
+        this(client, uri, version, JsonFactories.SHARED);
+    }
+
+    /**
+     * Tcp Docker engine, reading the JSON with the given factories
+     * (e.g. configured with a buffer pool). You have to configure your
+     * own HttpClient, as above.
+     *
+     * @param client The http client to use.
+     * @param uri Remote Docker URI.
+     * @param version API version (eg. v1.35).
+     * @param json JSON factories of the resources and response handlers.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    public TcpDocker(
+        final HttpClient client, final URI uri, final String version,
+        final JsonFactories json
+    ) {
+        super(client, URI.create(uri.toString() + "/" + version), json);
     }
 }
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Connection manager which measures how long each request waited for
+ * a connection. The connections are leased by the thread which executes
+ * the request, so the last wait is kept for that thread, until the
+ * {@link MeteredHttpClient} which sent the request takes it.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+final class TimedConnections implements HttpClientConnectionManager {
+
+    /**
+     * Last wait for a connection, of each thread.
+     */
+    private static final ThreadLocal<Duration> WAITED = new ThreadLocal<>();
+
+    /**
+     * The actual connection manager.
+     */
+    private final HttpClientConnectionManager origin;
+
+    /**
+     * Ctor.
+     * @param origin The actual connection manager.
+     */
+    TimedConnections(final HttpClientConnectionManager origin) {
+        this.origin = origin;
+    }
+
+    /**
+     * Take the last wait for a connection of the current thread.
+     * @return How long the thread waited, or empty if it did not ask
+     *  for a connection since the last call.
+     */
+    static Optional<Duration> waited() {
+        final Duration wait = TimedConnections.WAITED.get();
+        TimedConnections.WAITED.remove();
+        return Optional.ofNullable(wait);
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(
+        final HttpRoute route, final Object state
+    ) {
+        final ConnectionRequest request = this.origin.requestConnection(
+            route, state
+        );
+        return new TimedRequest(request);
+    }
+
+    // @checkstyle ParameterNumber (4 lines)
+    @Override
+    public void releaseConnection(
+        final HttpClientConnection conn, final Object newState,
+        final long validDuration, final TimeUnit unit
+    ) {
+        this.origin.releaseConnection(conn, newState, validDuration, unit);
+    }
+
+    // @checkstyle ParameterNumber (4 lines)
+    @Override
+    public void connect(
+        final HttpClientConnection conn, final HttpRoute route,
+        final int connectTimeout, final HttpContext context
+    ) throws IOException {
+        this.origin.connect(conn, route, connectTimeout, context);
+    }
+
+    @Override
+    public void upgrade(
+        final HttpClientConnection conn, final HttpRoute route,
+        final HttpContext context
+    ) throws IOException {
+        this.origin.upgrade(conn, route, context);
+    }
+
+    @Override
+    public void routeComplete(
+        final HttpClientConnection conn, final HttpRoute route,
+        final HttpContext context
+    ) throws IOException {
+        this.origin.routeComplete(conn, route, context);
+    }
+
+    @Override
+    public void closeIdleConnections(final long idletime, final TimeUnit unit) {
+        this.origin.closeIdleConnections(idletime, unit);
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        this.origin.closeExpiredConnections();
+    }
+
+    @Override
+    public void shutdown() {
+        this.origin.shutdown();
+    }
+
+    /**
+     * Request for a connection, timing how long it waits.
+     */
+    private static final class TimedRequest implements ConnectionRequest {
+
+        /**
+         * The actual request.
+         */
+        private final ConnectionRequest origin;
+
+        /**
+         * Ctor.
+         * @param origin The actual request.
+         */
+        TimedRequest(final ConnectionRequest origin) {
+            this.origin = origin;
+        }
+
+        @Override
+        public HttpClientConnection get(final long timeout, final TimeUnit unit)
+            throws InterruptedException, ExecutionException,
+            ConnectionPoolTimeoutException {
+            final long start = System.nanoTime();
+            try {
+                return this.origin.get(timeout, unit);
+            } finally {
+                TimedConnections.WAITED.set(
+                    Duration.ofNanos(System.nanoTime() - start)
+                );
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            return this.origin.cancel();
+        }
+    }
+}
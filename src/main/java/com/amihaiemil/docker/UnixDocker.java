@@ -27,7 +27,11 @@ package com.amihaiemil.docker;
 
 import java.io.File;
 import java.net.URI;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import org.apache.http.client.HttpClient;
+import org.apache.http.pool.PoolStats;
 
 /**
  * Local Docker API. Use this when you want to communicate with the local
@@ -37,16 +41,44 @@ import org.apache.http.client.HttpClient;
  *     final Docker docker = new LocalUnixDocker("unix:///var/run/docker.sock");
  * </pre>
  * 
- * This implementation manages an internal pool of 10 http connections. Users
- * who wish to alter this behaviour may provide their own {@link HttpClient}
- * via the specific constructor.
+ * This implementation manages an internal pool of 10 http connections by
+ * default. The pool can be tuned by giving a {@link PoolConfig}:
+ *
+ * <pre>
+ *     final UnixDocker docker = new UnixDocker(
+ *         new File("/var/run/docker.sock"),
+ *         new PoolConfig().maxTotal(100).maxPerRoute(100)
+ *     );
+ *     final Optional&lt;PoolStats&gt; stats = docker.poolStats();
+ * </pre>
+ *
+ * The pooled client can be decorated, e.g. to meter its calls or to send
+ * identical concurrent GETs only once:
+ *
+ * <pre>
+ *     final UnixDocker docker = new UnixDocker(
+ *         new File("/var/run/docker.sock"), new PoolConfig(),
+ *         client -> new SingleFlightHttpClient(
+ *             new MeteredHttpClient(client, metrics)
+ *         )
+ *     );
+ * </pre>
+ *
+ * Users who wish to alter this behaviour completely may provide their own
+ * {@link HttpClient} via the specific constructor.
  *
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.1
+ * @checkstyle ParameterNumber (200 lines)
  */
 public final class UnixDocker extends RtDocker {
 
+    /**
+     * Statistics of the connection pool, if it is managed by this Docker.
+     */
+    private final Supplier<Optional<PoolStats>> stats;
+
     /**
      * Unix Docker engine.
      * @param unixSocket Unix socket File on disk.
@@ -63,7 +95,61 @@ public final class UnixDocker extends RtDocker {
      * @param version API version (e.g. v1.30).
      */
     public UnixDocker(final File unixSocket, final String version){
-        this(new UnixHttpClient(unixSocket), version);
+        this(unixSocket, version, new PoolConfig());
+    }
+
+    /**
+     * Unix Docker engine with a configured connection pool.
+     * @param unixSocket Unix socket File on disk.
+     *     (most likely /var/run/docker.sock).
+     * @param config Configuration of the connection pool.
+     */
+    public UnixDocker(final File unixSocket, final PoolConfig config){
+        this(unixSocket, "v1.35", config);
+    }
+
+    /**
+     * Unix Docker engine with a configured connection pool.
+     * @param unixSocket Unix socket File on disk.
+     *     (most likely /var/run/docker.sock).
+     * @param version API version (e.g. v1.30).
+     * @param config Configuration of the connection pool.
+     */
+    public UnixDocker(
+        final File unixSocket, final String version, final PoolConfig config
+    ){
+        this(unixSocket, version, config, UnaryOperator.identity());
+    }
+
+    /**
+     * Unix Docker engine with a configured connection pool, whose client
+     * is decorated (e.g. with a {@link MeteredHttpClient}).
+     * @param unixSocket Unix socket File on disk.
+     *     (most likely /var/run/docker.sock).
+     * @param config Configuration of the connection pool.
+     * @param decorators Decorate the pooled client.
+     */
+    public UnixDocker(
+        final File unixSocket, final PoolConfig config,
+        final UnaryOperator<HttpClient> decorators
+    ){
+        this(unixSocket, "v1.35", config, decorators);
+    }
+
+    /**
+     * Unix Docker engine with a configured connection pool, whose client
+     * is decorated (e.g. with a {@link MeteredHttpClient}).
+     * @param unixSocket Unix socket File on disk.
+     *     (most likely /var/run/docker.sock).
+     * @param version API version (e.g. v1.30).
+     * @param config Configuration of the connection pool.
+     * @param decorators Decorate the pooled client.
+     */
+    public UnixDocker(
+        final File unixSocket, final String version, final PoolConfig config,
+        final UnaryOperator<HttpClient> decorators
+    ){
+        this(new UnixHttpClient(unixSocket, config), version, decorators);
     }
 
     /**
@@ -75,7 +161,68 @@ public final class UnixDocker extends RtDocker {
      * @param version API version (e.g. v1.30).
      */
     public UnixDocker(final HttpClient client, final String version) {
-        super(client, URI.create("unix://localhost:80/" + version));
+        this(client, version, JsonFactories.SHARED);
+    }
+
+    /**
+     * Unix Docker engine, reading the JSON with the given factories
+     * (e.g. configured with a buffer pool).
+     * <p>
+     * Users may supply their own {@link HttpClient} that must register a
+     * {@link UnixSocketFactory}.
+     * @param client The http client to use.
+     * @param version API version (e.g. v1.30).
+     * @param json JSON factories of the resources and response handlers.
+     */
+    public UnixDocker(
+        final HttpClient client, final String version,
+        final JsonFactories json
+    ) {
+        this(client, version, json, Optional::empty);
+    }
+
+    /**
+     * Unix Docker engine, with its own connection pool.
+     * @param pool Client managing the connection pool.
+     * @param version API version (e.g. v1.30).
+     * @param decorators Decorate the pooled client.
+     */
+    private UnixDocker(
+        final UnixHttpClient pool, final String version,
+        final UnaryOperator<HttpClient> decorators
+    ) {
+        this(
+            decorators.apply(pool), version, JsonFactories.SHARED,
+            () -> pool.stats()
+        );
+    }
+
+    /**
+     * Primary ctor.
+     * @param client The http client to use.
+     * @param version API version (e.g. v1.30).
+     * @param json JSON factories of the resources and response handlers.
+     * @param stats Statistics of the connection pool, if it is managed
+     *  by this Docker.
+     */
+    private UnixDocker(
+        final HttpClient client, final String version,
+        final JsonFactories json, final Supplier<Optional<PoolStats>> stats
+    ) {
+        super(client, URI.create("unix://localhost:80/" + version), json);
+        this.stats = stats;
+    }
+
+    /**
+     * Current statistics of the connection pool: how many connections
+     * are leased, how many requests are pending (waiting for a
+     * connection) and how many connections are available. Use it
+     * to size the pool under load.
+     * @return PoolStats, or empty if this Docker was created with a custom
+     *  {@link HttpClient}, whose pool is not known.
+     */
+    public Optional<PoolStats> poolStats() {
+        return this.stats.get();
     }
 
 }
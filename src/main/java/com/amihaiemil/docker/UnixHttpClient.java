@@ -25,13 +25,14 @@
  */
 package com.amihaiemil.docker;
 
+import java.io.File;
+import java.util.Optional;
+import java.util.function.Supplier;
 import org.apache.http.client.HttpClient;
 import org.apache.http.config.RegistryBuilder;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
-import org.apache.http.impl.client.HttpClientBuilder;
-import java.io.File;
-import java.util.function.Supplier;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 
 /**
  * An HttpClient which works over a UnixSocket.
@@ -43,26 +44,35 @@ import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
  * @checkstyle AnonInnerLength (150 lines)
  */
 final class UnixHttpClient extends HttpClientEnvelope {
+
+    /**
+     * Connection pool, or null if it is not managed by this client.
+     */
+    private final PoolingHttpClientConnectionManager pool;
+
     /**
      * Ctor.
      * @param socketFile Unix socket on disk.
      */
     UnixHttpClient(final File socketFile) {
-        this(() -> {
-            final PoolingHttpClientConnectionManager pool =
-                new PoolingHttpClientConnectionManager(
-                    RegistryBuilder
-                        .<ConnectionSocketFactory>create()
-                        .register("unix", new UnixSocketFactory(socketFile))
-                        .build()
-                );
-            pool.setDefaultMaxPerRoute(10);
-            pool.setMaxTotal(10);
-            return HttpClientBuilder.create()
-                .setConnectionManager(pool)
-                .addInterceptorFirst(new UserAgentRequestHeader())
-                .build();
-        });
+        this(socketFile, new PoolConfig());
+    }
+
+    /**
+     * Ctor.
+     * @param socketFile Unix socket on disk.
+     * @param config Configuration of the connection pool.
+     */
+    UnixHttpClient(final File socketFile, final PoolConfig config) {
+        this(
+            config.manager(
+                RegistryBuilder
+                    .<ConnectionSocketFactory>create()
+                    .register("unix", new UnixSocketFactory(socketFile))
+                    .build()
+            ),
+            config
+        );
     }
 
     /**
@@ -70,6 +80,59 @@ final class UnixHttpClient extends HttpClientEnvelope {
      * @param client The http client
      */
     UnixHttpClient(final Supplier<HttpClient> client) {
+        this(client, null);
+    }
+
+    /**
+     * Ctor.
+     * @param pool Connection pool.
+     * @param config Configuration of the connection pool.
+     */
+    private UnixHttpClient(
+        final PoolingHttpClientConnectionManager pool, final PoolConfig config
+    ) {
+        this(
+            () -> config.builder(pool)
+                .addInterceptorFirst(new UserAgentRequestHeader())
+                .build(),
+            pool
+        );
+    }
+
+    /**
+     * Primary ctor.
+     * @param client The http client.
+     * @param pool Connection pool, or null if it is not managed by this
+     *  client.
+     */
+    private UnixHttpClient(
+        final Supplier<HttpClient> client,
+        final PoolingHttpClientConnectionManager pool
+    ) {
         super(client);
+        this.pool = pool;
+    }
+
+    /**
+     * Current statistics of the connection pool: leased, pending
+     * and available connections.
+     * @return PoolStats, or empty if the pool is not managed by this client.
+     */
+    Optional<PoolStats> stats() {
+        return Optional.ofNullable(this.pool)
+            .map(PoolingHttpClientConnectionManager::getTotalStats);
+    }
+
+    @Override
+    int maxPerRoute() {
+        final int max;
+        if(this.pool == null) {
+            max = super.maxPerRoute();
+        } else {
+            max = Math.min(
+                this.pool.getDefaultMaxPerRoute(), this.pool.getMaxTotal()
+            );
+        }
+        return max;
     }
 }
@@ -26,6 +26,7 @@
 package com.amihaiemil.docker;
 
 import java.io.IOException;
+import java.util.Map;
 import javax.json.JsonObject;
 
 /**
@@ -70,6 +71,14 @@ public interface Volumes extends Iterable<Volume> {
      */
     void prune() throws IOException, UnexpectedResponseException;
 
+    /**
+     * Filter these volumes.
+     * @param filters Filters to apply.
+     * @return Filtered volumes.
+     * @see <a href="https://docs.docker.com/engine/api/v1.35/#operation/VolumeList">Docker API Docs</a>
+     */
+    Volumes filter(Map<String, Iterable<String>> filters);
+
     /**
      * Return the Docker engine where these Images came from.
      * @return Docker.
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.net.URI;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ApiVersion}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class ApiVersionTestCase {
+
+    /**
+     * ApiVersion can be read with or without the leading v and compares
+     * the minor versions as numbers.
+     */
+    @Test
+    public void comparesVersions() {
+        MatcherAssert.assertThat(
+            new ApiVersion("1.41"), Matchers.equalTo(new ApiVersion("v1.41"))
+        );
+        MatcherAssert.assertThat(
+            new ApiVersion("1.41").toString(), Matchers.equalTo("v1.41")
+        );
+        MatcherAssert.assertThat(
+            new ApiVersion("v1.9"),
+            Matchers.lessThan(new ApiVersion("v1.35"))
+        );
+        MatcherAssert.assertThat(
+            new ApiVersion("v2.0"),
+            Matchers.greaterThan(new ApiVersion("v1.41"))
+        );
+    }
+
+    /**
+     * ApiVersion offers the one-shot stats only from v1.41 on.
+     */
+    @Test
+    public void offersOneShotStatsFromRecentVersions() {
+        MatcherAssert.assertThat(
+            new ApiVersion("v1.35").oneShotStats(), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            new ApiVersion("v1.41").oneShotStats(), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            new ApiVersion("v1.43").oneShotStats(), Matchers.is(true)
+        );
+    }
+
+    /**
+     * ApiVersion can be read from the path of a URI, if it is there.
+     */
+    @Test
+    public void readsVersionFromUri() {
+        MatcherAssert.assertThat(
+            ApiVersion.fromUri(
+                URI.create("unix://localhost:80/v1.40/containers")
+            ),
+            Matchers.equalTo(Optional.of(new ApiVersion("v1.40")))
+        );
+        MatcherAssert.assertThat(
+            ApiVersion.fromUri(URI.create("http://localhost/containers/123")),
+            Matchers.equalTo(Optional.empty())
+        );
+    }
+
+    /**
+     * ApiVersion complains about an invalid version.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidVersion() {
+        new ApiVersion("latest");
+    }
+}
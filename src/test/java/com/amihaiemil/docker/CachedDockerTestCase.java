@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import com.amihaiemil.docker.mock.Response;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.protocol.HttpContext;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link CachedDocker}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class CachedDockerTestCase {
+
+    /**
+     * CachedDocker sends the requests through the inspection cache.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void requestsThroughCache() throws Exception {
+        try (
+            final CachedDocker docker = new CachedDocker(
+                new UnixDocker(Mockito.mock(HttpClient.class), "v1.35")
+            )
+        ) {
+            MatcherAssert.assertThat(
+                docker.httpClient(), Matchers.instanceOf(InspectionCache.class)
+            );
+            MatcherAssert.assertThat(
+                docker.containers().docker(), Matchers.is(docker)
+            );
+        }
+    }
+
+    /**
+     * CachedDocker delegates the Version and Info to the decorated Docker,
+     * so its decorations (e.g. memoization) are kept, and closes it.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void delegatesToOrigin() throws Exception {
+        final Docker unix = new UnixDocker(
+            Mockito.mock(HttpClient.class), "v1.35"
+        );
+        final Docker origin = Mockito.mock(
+            Docker.class,
+            Mockito.withSettings().extraInterfaces(AutoCloseable.class)
+        );
+        Mockito.when(origin.httpClient()).thenReturn(unix.httpClient());
+        Mockito.when(origin.events()).thenReturn(unix.events());
+        final Version version = Mockito.mock(Version.class);
+        Mockito.when(origin.version()).thenReturn(version);
+        Mockito.when(origin.apiVersion()).thenReturn(new ApiVersion("v1.35"));
+        try (final CachedDocker docker = new CachedDocker(origin)) {
+            MatcherAssert.assertThat(
+                docker.version(), Matchers.sameInstance(version)
+            );
+            MatcherAssert.assertThat(
+                docker.apiVersion(), Matchers.equalTo(new ApiVersion("v1.35"))
+            );
+        }
+        Mockito.verify((AutoCloseable) origin).close();
+    }
+
+    /**
+     * CachedDocker keeps following the events after the server answered
+     * with an unexpected status (e.g. while the daemon restarts).
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void followsAfterUnexpectedStatus() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        Mockito.when(client.execute(Mockito.any(HttpUriRequest.class)))
+            .thenAnswer(
+                invocation -> {
+                    final Response response;
+                    if(calls.incrementAndGet() == 1) {
+                        response = new Response(
+                            HttpStatus.SC_SERVICE_UNAVAILABLE
+                        );
+                    } else {
+                        response = new Response(HttpStatus.SC_OK, "");
+                    }
+                    return response;
+                }
+            );
+        Mockito.when(
+            client.execute(
+                Mockito.any(HttpUriRequest.class), Mockito.<HttpContext>any()
+            )
+        ).thenAnswer(
+            invocation -> client.execute(
+                (HttpUriRequest) invocation.getArguments()[0]
+            )
+            );
+        try (
+            final CachedDocker docker = new CachedDocker(
+                new UnixDocker(client, "v1.35")
+            )
+        ) {
+            final long deadline = System.currentTimeMillis() + 10000L;
+            while(calls.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            MatcherAssert.assertThat(
+                calls.get(), Matchers.greaterThanOrEqualTo(2)
+            );
+        }
+    }
+
+    /**
+     * CachedDocker cannot reach the APIs of Docker implementations from
+     * elsewhere, since it does not know their base URI.
+     * @throws Exception If something goes wrong.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsForeignDocker() throws Exception {
+        final Docker unix = new UnixDocker(
+            Mockito.mock(HttpClient.class), "v1.35"
+        );
+        final Docker origin = Mockito.mock(Docker.class);
+        Mockito.when(origin.httpClient()).thenReturn(unix.httpClient());
+        Mockito.when(origin.events()).thenReturn(unix.events());
+        try (final CachedDocker docker = new CachedDocker(origin)) {
+            docker.containers();
+        }
+    }
+}
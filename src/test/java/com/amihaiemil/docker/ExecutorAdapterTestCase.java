@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import javax.json.Json;
+import javax.json.JsonObject;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link ExecutorAdapter}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class ExecutorAdapterTestCase {
+
+    /**
+     * ExecutorAdapter can create and start a container.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void createsAndStarts() throws Exception {
+        final JsonObject config = Json.createObjectBuilder()
+            .add("Image", "ubuntu").build();
+        final Container container = Mockito.mock(Container.class);
+        final Containers containers = Mockito.mock(Containers.class);
+        Mockito.when(containers.create("web", config)).thenReturn(container);
+        final Docker docker = Mockito.mock(Docker.class);
+        Mockito.when(docker.containers()).thenReturn(containers);
+        final ExecutorAdapter executed = new ExecutorAdapter(
+            docker, Executors.newSingleThreadExecutor()
+        );
+        MatcherAssert.assertThat(
+            executed.create("web", config).thenCompose(executed::start).get(),
+            Matchers.is(container)
+        );
+        Mockito.verify(container, Mockito.times(1)).start();
+    }
+
+    /**
+     * ExecutorAdapter completes the future exceptionally if the call fails.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void failsExceptionally() throws Exception {
+        final Container container = Mockito.mock(Container.class);
+        Mockito.doThrow(new IOException("boom")).when(container).stop();
+        final CompletableFuture<Container> stopped = new ExecutorAdapter(
+            Mockito.mock(Docker.class), Runnable::run
+        ).stop(container);
+        MatcherAssert.assertThat(
+            stopped.isCompletedExceptionally(), Matchers.is(true)
+        );
+        try {
+            stopped.join();
+        } catch (final CompletionException ex) {
+            MatcherAssert.assertThat(
+                ex.getCause(), Matchers.instanceOf(IOException.class)
+            );
+        }
+    }
+
+    /**
+     * ExecutorAdapter can run any call against the Docker.
+     */
+    @Test
+    public void runsAnyCall() {
+        final Docker docker = Mockito.mock(Docker.class);
+        MatcherAssert.assertThat(
+            new ExecutorAdapter(docker, Runnable::run)
+                .call(dkr -> dkr).join(),
+            Matchers.is(docker)
+        );
+    }
+}
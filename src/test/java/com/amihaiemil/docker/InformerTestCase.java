@@ -0,0 +1,425 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import com.amihaiemil.docker.mock.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.protocol.HttpContext;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link Informer}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class InformerTestCase {
+
+    /**
+     * Informer re-lists a container when an event about it comes and
+     * removes it when it is destroyed.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void appliesContainerEvents() throws Exception {
+        final JsonObject web = Json.createObjectBuilder()
+            .add("Id", "123").add("State", "running").build();
+        final Containers filtered = Mockito.mock(Containers.class);
+        Mockito.when(filtered.all()).thenAnswer(
+            invocation -> Collections.singletonList(
+                new RtContainer(web, null, null, null)
+            ).iterator()
+        );
+        final Containers containers = Mockito.mock(Containers.class);
+        Mockito.when(containers.filter(Mockito.anyMap()))
+            .thenReturn(filtered);
+        final Docker docker = InformerTestCase.docker();
+        Mockito.when(docker.containers()).thenReturn(containers);
+        try (final Informer informer = new Informer(docker)) {
+            informer.apply(InformerTestCase.event("container", "start"));
+            informer.flush();
+            MatcherAssert.assertThat(
+                informer.containers().indexed("status", "running"),
+                Matchers.contains(web)
+            );
+            informer.apply(InformerTestCase.event("container", "exec_start"));
+            Mockito.verify(filtered, Mockito.times(1)).all();
+            informer.apply(InformerTestCase.event("container", "destroy"));
+            MatcherAssert.assertThat(
+                informer.containers().all(), Matchers.emptyIterable()
+            );
+        }
+    }
+
+    /**
+     * Informer applies the changes told by the events to the mirrored
+     * containers, without listing them again, and lists a container once
+     * for a burst of events about it.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void appliesDeltasAndCoalesces() throws Exception {
+        final JsonObject web = Json.createObjectBuilder()
+            .add("Id", "123").add("State", "created")
+            .add("Names", Json.createArrayBuilder().add("/web"))
+            .build();
+        final Containers filtered = Mockito.mock(Containers.class);
+        Mockito.when(filtered.all()).thenAnswer(
+            invocation -> Collections.singletonList(
+                new RtContainer(web, null, null, null)
+            ).iterator()
+        );
+        final Containers containers = Mockito.mock(Containers.class);
+        Mockito.when(containers.filter(Mockito.anyMap()))
+            .thenReturn(filtered);
+        final Docker docker = InformerTestCase.docker();
+        Mockito.when(docker.containers()).thenReturn(containers);
+        try (final Informer informer = new Informer(docker)) {
+            informer.apply(InformerTestCase.event("container", "create"));
+            informer.apply(InformerTestCase.event("container", "attach"));
+            informer.flush();
+            Mockito.verify(filtered, Mockito.times(1)).all();
+            informer.apply(InformerTestCase.event("container", "start"));
+            informer.apply(
+                InformerTestCase.event(
+                    "container", "rename",
+                    Json.createObjectBuilder().add("name", "api")
+                )
+            );
+            informer.flush();
+            Mockito.verify(filtered, Mockito.times(1)).all();
+            final JsonObject mirrored = informer.containers()
+                .indexed("status", "running").iterator().next();
+            MatcherAssert.assertThat(
+                mirrored.getJsonArray("Names").getString(0),
+                Matchers.equalTo("/api")
+            );
+        }
+    }
+
+    /**
+     * Informer lists again only the volume an event is about, filtered by
+     * its name.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void refreshesVolumeByName() throws Exception {
+        final Volumes filtered = Mockito.mock(Volumes.class);
+        Mockito.when(filtered.iterator()).thenAnswer(
+            invocation -> Collections.emptyIterator()
+        );
+        final Volumes volumes = Mockito.mock(Volumes.class);
+        Mockito.when(volumes.filter(Mockito.anyMap())).thenReturn(filtered);
+        final Docker docker = InformerTestCase.docker();
+        Mockito.when(docker.volumes()).thenReturn(volumes);
+        try (final Informer informer = new Informer(docker)) {
+            informer.apply(InformerTestCase.event("volume", "create"));
+            informer.apply(InformerTestCase.event("volume", "mount"));
+            informer.flush();
+            Mockito.verify(volumes).filter(
+                Collections.singletonMap(
+                    "name", Collections.singletonList("123")
+                )
+            );
+            Mockito.verify(volumes, Mockito.never()).iterator();
+        }
+    }
+
+    /**
+     * Informer lists again the images with the reference of an event and
+     * takes the reference away from the image which had it before.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void movesImageReference() throws Exception {
+        final JsonObject old = Json.createObjectBuilder()
+            .add("Id", "sha256:old")
+            .add("RepoTags", Json.createArrayBuilder().add("web:latest"))
+            .build();
+        final JsonObject fresh = Json.createObjectBuilder()
+            .add("Id", "sha256:new")
+            .add("RepoTags", Json.createArrayBuilder().add("web:latest"))
+            .build();
+        final Images all = Mockito.mock(Images.class);
+        Mockito.when(all.iterator()).thenAnswer(
+            invocation -> Collections.singletonList(
+                (Image) new RtImage(old, null, null, null)
+            ).iterator()
+        );
+        final Images filtered = Mockito.mock(Images.class);
+        Mockito.when(filtered.iterator()).thenAnswer(
+            invocation -> Collections.singletonList(
+                (Image) new RtImage(fresh, null, null, null)
+            ).iterator()
+        );
+        Mockito.when(all.filter(Mockito.anyMap())).thenReturn(filtered);
+        final Docker docker = InformerTestCase.docker();
+        Mockito.when(docker.images()).thenReturn(all);
+        try (final Informer informer = new Informer(docker)) {
+            informer.images().resync();
+            informer.apply(
+                InformerTestCase.event(
+                    "image", "tag",
+                    Json.createObjectBuilder().add("name", "web:latest")
+                )
+            );
+            informer.flush();
+            MatcherAssert.assertThat(informer.images().size(), Matchers.is(2));
+            MatcherAssert.assertThat(
+                informer.images().indexed("id", "sha256:old").iterator()
+                    .next().getJsonArray("RepoTags"),
+                Matchers.emptyIterable()
+            );
+            Mockito.verify(all).filter(
+                Collections.singletonMap(
+                    "reference", Collections.singletonList("web:latest")
+                )
+            );
+        }
+    }
+
+    /**
+     * Informer is not synced while it cannot follow the events.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void notSyncedWithoutEvents() throws Exception {
+        final Docker docker = InformerTestCase.docker();
+        try (final Informer informer = new Informer(docker)) {
+            MatcherAssert.assertThat(informer.synced(), Matchers.is(false));
+        }
+    }
+
+    /**
+     * Informer lists everything again and gets in sync, after a listing
+     * failed with an unexpected status.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void syncsAfterFailedListing() throws Exception {
+        final AtomicInteger listings = new AtomicInteger();
+        final AtomicBoolean open = new AtomicBoolean(true);
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        Mockito.when(client.execute(Mockito.any(HttpUriRequest.class)))
+            .thenAnswer(
+                invocation -> InformerTestCase.respond(
+                    (HttpUriRequest) invocation.getArguments()[0],
+                    listings, open
+                )
+            );
+        Mockito.when(
+            client.execute(
+                Mockito.any(HttpUriRequest.class), Mockito.<HttpContext>any()
+            )
+        ).thenAnswer(
+            invocation -> client.execute(
+                (HttpUriRequest) invocation.getArguments()[0]
+            )
+            );
+        Mockito.when(
+            client.execute(
+                Mockito.any(HttpUriRequest.class),
+                Mockito.any(ResponseHandler.class)
+            )
+        ).thenAnswer(
+            invocation -> ((ResponseHandler<?>) invocation.getArguments()[1])
+                .handleResponse(
+                    InformerTestCase.respond(
+                        (HttpUriRequest) invocation.getArguments()[0],
+                        listings, open
+                    )
+                )
+            );
+        try (
+            final Informer informer = new Informer(
+                new UnixDocker(client, "v1.35")
+            )
+        ) {
+            final long deadline = System.currentTimeMillis() + 10000L;
+            while(!informer.synced()
+                && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            MatcherAssert.assertThat(informer.synced(), Matchers.is(true));
+            MatcherAssert.assertThat(listings.get(), Matchers.is(2));
+        } finally {
+            open.set(false);
+        }
+    }
+
+    /**
+     * Respond like a Docker engine whose first listing of containers fails.
+     * @param request Request.
+     * @param listings Number of listings of containers.
+     * @param open Is the event stream open?
+     * @return HttpResponse.
+     */
+    private static HttpResponse respond(
+        final HttpUriRequest request, final AtomicInteger listings,
+        final AtomicBoolean open
+    ) {
+        final String path = request.getURI().getPath();
+        final HttpResponse response;
+        if(path.endsWith("/events")) {
+            response = new Response(HttpStatus.SC_OK);
+            response.setEntity(new InputStreamEntity(new Idle(open)));
+        } else if(path.endsWith("/containers/json")
+            && listings.incrementAndGet() == 1) {
+            response = new Response(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+        } else if(path.endsWith("/volumes")) {
+            response = new Response(HttpStatus.SC_OK, "{\"Volumes\":[]}");
+        } else {
+            response = new Response(HttpStatus.SC_OK, "[]");
+        }
+        return response;
+    }
+
+    /**
+     * Docker whose event stream cannot be opened.
+     * @return Docker.
+     * @throws IOException Never.
+     */
+    private static Docker docker() throws IOException {
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        Mockito.when(client.execute(Mockito.any(HttpUriRequest.class)))
+            .thenThrow(new IOException("down"));
+        Mockito.when(
+            client.execute(
+                Mockito.any(HttpUriRequest.class), Mockito.<HttpContext>any()
+            )
+        ).thenAnswer(
+            invocation -> client.execute(
+                (HttpUriRequest) invocation.getArguments()[0]
+            )
+            );
+        final Docker docker = Mockito.mock(Docker.class);
+        Mockito.when(docker.events()).thenReturn(
+            new RtEvents(client, URI.create("http://localhost/events"), docker)
+        );
+        return docker;
+    }
+
+    /**
+     * An event about resource 123.
+     * @param type Type of the resource.
+     * @param action Action.
+     * @return JsonObject.
+     */
+    private static JsonObject event(final String type, final String action) {
+        return InformerTestCase.event(
+            type, action, Json.createObjectBuilder()
+        );
+    }
+
+    /**
+     * An event about resource 123, with attributes.
+     * @param type Type of the resource.
+     * @param action Action.
+     * @param attributes Attributes.
+     * @return JsonObject.
+     */
+    private static JsonObject event(
+        final String type, final String action,
+        final JsonObjectBuilder attributes
+    ) {
+        return Json.createObjectBuilder()
+            .add("Type", type)
+            .add("Action", action)
+            .add(
+                "Actor",
+                Json.createObjectBuilder()
+                    .add("ID", "123")
+                    .add("Attributes", attributes)
+            ).build();
+    }
+
+    /**
+     * Event stream which sends no events, until it is no longer open.
+     */
+    private static final class Idle extends InputStream {
+
+        /**
+         * Is the stream open?
+         */
+        private final AtomicBoolean open;
+
+        /**
+         * Ctor.
+         * @param open Is the stream open?
+         */
+        Idle(final AtomicBoolean open) {
+            this.open = open;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read;
+            if(this.open.get()) {
+                try {
+                    Thread.sleep(10L);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(ex);
+                }
+                read = ' ';
+            } else {
+                read = -1;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int off, final int len)
+            throws IOException {
+            final int read = this.read();
+            final int count;
+            if(read < 0) {
+                count = -1;
+            } else {
+                buffer[off] = (byte) read;
+                count = 1;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import com.amihaiemil.docker.mock.AssertRequest;
+import com.amihaiemil.docker.mock.Condition;
+import com.amihaiemil.docker.mock.Response;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.json.Json;
+import javax.json.JsonObject;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpPost;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link InspectionCache}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class InspectionCacheTestCase {
+
+    /**
+     * InspectionCache serves a repeated inspection from memory.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void servesRepeatedInspection() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final InspectionCache cache = InspectionCacheTestCase.cache(
+            requests, Duration.ofMinutes(1), 10
+        );
+        cache.live(true);
+        final Container container = InspectionCacheTestCase.container(cache);
+        MatcherAssert.assertThat(
+            container.inspect().getString("Id"), Matchers.equalTo("123456")
+        );
+        MatcherAssert.assertThat(
+            container.inspect().getString("Id"), Matchers.equalTo("123456")
+        );
+        MatcherAssert.assertThat(requests.get(), Matchers.is(1));
+    }
+
+    /**
+     * InspectionCache does not keep inspections while the events
+     * are not followed.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void bypassedWhenNotLive() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final Container container = InspectionCacheTestCase.container(
+            InspectionCacheTestCase.cache(requests, Duration.ofMinutes(1), 10)
+        );
+        container.inspect();
+        container.inspect();
+        MatcherAssert.assertThat(requests.get(), Matchers.is(2));
+    }
+
+    /**
+     * InspectionCache forgets an inspection after its time to live.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void expiresInspections() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final InspectionCache cache = InspectionCacheTestCase.cache(
+            requests, Duration.ZERO, 10
+        );
+        cache.live(true);
+        final Container container = InspectionCacheTestCase.container(cache);
+        container.inspect();
+        container.inspect();
+        MatcherAssert.assertThat(requests.get(), Matchers.is(2));
+    }
+
+    /**
+     * InspectionCache evicts the least recently read inspection when full.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void evictsLeastRecentlyRead() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final InspectionCache cache = InspectionCacheTestCase.cache(
+            requests, Duration.ofMinutes(1), 1
+        );
+        cache.live(true);
+        final Volume first = new RtVolume(
+            Json.createObjectBuilder().add("Name", "first").build(), cache,
+            URI.create("http://localhost/v1.35/volumes/first"),
+            Mockito.mock(Docker.class)
+        );
+        final Volume second = new RtVolume(
+            Json.createObjectBuilder().add("Name", "second").build(), cache,
+            URI.create("http://localhost/v1.35/volumes/second"),
+            Mockito.mock(Docker.class)
+        );
+        first.inspect();
+        second.inspect();
+        first.inspect();
+        MatcherAssert.assertThat(requests.get(), Matchers.is(3));
+    }
+
+    /**
+     * InspectionCache invalidates a container inspected by a short ID when
+     * an event about it comes.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void invalidatesOnContainerEvent() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final InspectionCache cache = InspectionCacheTestCase.cache(
+            requests, Duration.ofMinutes(1), 10
+        );
+        cache.live(true);
+        final Container container = InspectionCacheTestCase.container(cache);
+        container.inspect();
+        cache.invalidate(
+            InspectionCacheTestCase.event("container", "456789", "other")
+        );
+        cache.invalidate(
+            InspectionCacheTestCase.event("container", "123789", "other")
+        );
+        container.inspect();
+        MatcherAssert.assertThat(requests.get(), Matchers.is(1));
+        cache.invalidate(
+            InspectionCacheTestCase.event("container", "123456", "web")
+        );
+        container.inspect();
+        MatcherAssert.assertThat(requests.get(), Matchers.is(2));
+    }
+
+    /**
+     * InspectionCache does not invalidate an inspection when an event about
+     * another resource comes, even if the name it was requested by is a
+     * prefix of that resource's ID or name.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void keepsUnrelatedOnEvent() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final InspectionCache cache = InspectionCacheTestCase.cache(
+            requests, Duration.ofMinutes(1), 10
+        );
+        cache.live(true);
+        final Volume volume = new RtVolume(
+            Json.createObjectBuilder().add("Name", "db").build(), cache,
+            URI.create("http://localhost/v1.35/volumes/db"),
+            Mockito.mock(Docker.class)
+        );
+        volume.inspect();
+        cache.invalidate(
+            InspectionCacheTestCase.event("volume", "dbbackup", "dbbackup")
+        );
+        volume.inspect();
+        MatcherAssert.assertThat(requests.get(), Matchers.is(1));
+        cache.invalidate(InspectionCacheTestCase.event("volume", "db", "db"));
+        volume.inspect();
+        MatcherAssert.assertThat(requests.get(), Matchers.is(2));
+    }
+
+    /**
+     * InspectionCache invalidates a container when it is changed through it.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void invalidatesOnWrite() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final InspectionCache cache = InspectionCacheTestCase.cache(
+            requests, Duration.ofMinutes(1), 10
+        );
+        cache.live(true);
+        final Container container = InspectionCacheTestCase.container(cache);
+        container.inspect();
+        final HttpPost start = new HttpPost(
+            "http://localhost/v1.35/containers/123/start"
+        );
+        cache.execute(
+            start, new MatchStatus(start.getURI(), HttpStatus.SC_OK)
+        );
+        container.inspect();
+        MatcherAssert.assertThat(requests.get(), Matchers.is(3));
+    }
+
+    /**
+     * InspectionCache drops an inspection which was fetched while a change
+     * of the same container was in flight.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void invalidatesAfterWrite() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicReference<Container> inflight = new AtomicReference<>();
+        final InspectionCache cache = new InspectionCache(
+            new AssertRequest(
+                new Response(HttpStatus.SC_OK, "{\"Id\": \"123456\"}"),
+                new Condition(
+                    "Inspects while the change is in flight",
+                    req -> requests.incrementAndGet() > 0
+                        && InspectionCacheTestCase.inspect(req, inflight)
+                )
+            ),
+            Duration.ofMinutes(1), 10
+        );
+        cache.live(true);
+        final Container container = InspectionCacheTestCase.container(cache);
+        inflight.set(container);
+        final HttpPost start = new HttpPost(
+            "http://localhost/v1.35/containers/123/start"
+        );
+        cache.execute(
+            start, new MatchStatus(start.getURI(), HttpStatus.SC_OK)
+        );
+        container.inspect();
+        MatcherAssert.assertThat(requests.get(), Matchers.is(3));
+    }
+
+    /**
+     * Inspect the container, if the request is not a GET.
+     * @param request Request.
+     * @param container Container to inspect.
+     * @return Always true.
+     */
+    private static boolean inspect(
+        final HttpRequest request, final AtomicReference<Container> container
+    ) {
+        if(!"GET".equals(request.getRequestLine().getMethod())) {
+            try {
+                container.get().inspect();
+            } catch (final IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * InspectionCache which counts the requests it forwards.
+     * @param requests Counter of requests.
+     * @param ttl Time to live.
+     * @param size Maximum size.
+     * @return InspectionCache.
+     */
+    private static InspectionCache cache(
+        final AtomicInteger requests, final Duration ttl, final int size
+    ) {
+        final HttpClient origin = new AssertRequest(
+            new Response(HttpStatus.SC_OK, "{\"Id\": \"123456\"}"),
+            new Condition(
+                "Counts the requests",
+                req -> requests.incrementAndGet() > 0
+            )
+        );
+        return new InspectionCache(origin, ttl, size);
+    }
+
+    /**
+     * Container 123, requested through the given client.
+     * @param client HttpClient.
+     * @return Container.
+     */
+    private static Container container(final HttpClient client) {
+        return new RtContainer(
+            Json.createObjectBuilder().add("Id", "123").build(), client,
+            URI.create("http://localhost/v1.35/containers/123"),
+            Mockito.mock(Docker.class)
+        );
+    }
+
+    /**
+     * An event, as sent by Docker.
+     * @param type Type of the resource.
+     * @param id ID of the resource.
+     * @param name Name of the resource.
+     * @return JsonObject.
+     */
+    private static JsonObject event(
+        final String type, final String id, final String name
+    ) {
+        return Json.createObjectBuilder()
+            .add("Type", type)
+            .add("Action", "die")
+            .add(
+                "Actor",
+                Json.createObjectBuilder()
+                    .add("ID", id)
+                    .add(
+                        "Attributes",
+                        Json.createObjectBuilder().add("name", name)
+                    )
+            ).build();
+    }
+}
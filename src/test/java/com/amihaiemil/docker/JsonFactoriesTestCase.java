@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import com.amihaiemil.docker.mock.AssertRequest;
+import com.amihaiemil.docker.mock.Response;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonReaderFactory;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+import org.apache.http.HttpStatus;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link JsonFactories}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class JsonFactoriesTestCase {
+
+    /**
+     * JsonFactories can read a JsonObject and close the stream.
+     */
+    @Test
+    public void readsObjectAndCloses() {
+        final AtomicBoolean closed = new AtomicBoolean();
+        MatcherAssert.assertThat(
+            JsonFactories.SHARED.object(
+                JsonFactoriesTestCase.stream("{\"Id\":\"123\"}", closed)
+            ).getString("Id"),
+            Matchers.equalTo("123")
+        );
+        MatcherAssert.assertThat(closed.get(), Matchers.is(true));
+    }
+
+    /**
+     * JsonFactories can read a JsonArray and close the stream.
+     */
+    @Test
+    public void readsArrayAndCloses() {
+        final AtomicBoolean closed = new AtomicBoolean();
+        MatcherAssert.assertThat(
+            JsonFactories.SHARED.array(
+                JsonFactoriesTestCase.stream("[{},{},{}]", closed)
+            ),
+            Matchers.hasSize(3)
+        );
+        MatcherAssert.assertThat(closed.get(), Matchers.is(true));
+    }
+
+    /**
+     * JsonFactories can create a parser, which it leaves open.
+     */
+    @Test
+    public void createsParser() {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final JsonParser parser = JsonFactories.SHARED.parser(
+            JsonFactoriesTestCase.stream("[1]", closed)
+        );
+        MatcherAssert.assertThat(
+            parser.next(), Matchers.is(JsonParser.Event.START_ARRAY)
+        );
+        MatcherAssert.assertThat(
+            parser.next(), Matchers.is(JsonParser.Event.VALUE_NUMBER)
+        );
+        MatcherAssert.assertThat(closed.get(), Matchers.is(false));
+        parser.close();
+        MatcherAssert.assertThat(closed.get(), Matchers.is(true));
+    }
+
+    /**
+     * JsonFactories can create object and array builders.
+     */
+    @Test
+    public void createsBuilders() {
+        MatcherAssert.assertThat(
+            JsonFactories.SHARED.builders().createObjectBuilder().add(
+                "Names", JsonFactories.SHARED.builders().createArrayBuilder()
+                    .add("/a").add("/b")
+            ).build().getJsonArray("Names").getString(1),
+            Matchers.equalTo("/b")
+        );
+    }
+
+    /**
+     * The JsonFactories given to a Docker are the ones its resources and
+     * response handlers read with, also through the decorators.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void threadedThroughDocker() throws Exception {
+        final JsonProvider provider = JsonProvider.provider();
+        final JsonReaderFactory readers = Mockito.spy(
+            provider.createReaderFactory(Collections.emptyMap())
+        );
+        final JsonFactories json = new JsonFactories(
+            readers,
+            provider.createParserFactory(Collections.emptyMap()),
+            provider.createBuilderFactory(Collections.emptyMap())
+        );
+        final Docker docker = new UnixDocker(
+            new AssertRequest(
+                new Response(HttpStatus.SC_OK, "{\"ApiVersion\": \"1.35\"}")
+            ),
+            "v1.35", json
+        );
+        MatcherAssert.assertThat(
+            RtDocker.json(new MemoizedDocker(docker, Duration.ZERO)),
+            Matchers.sameInstance(json)
+        );
+        MatcherAssert.assertThat(
+            RtDocker.json(Mockito.mock(Docker.class)),
+            Matchers.sameInstance(JsonFactories.SHARED)
+        );
+        docker.version();
+        Mockito.verify(readers).createReader(Mockito.any(InputStream.class));
+    }
+
+    /**
+     * JsonFactories can be built from a given provider and configuration.
+     */
+    @Test
+    public void passesConfigToProvider() {
+        final JsonProvider provider = Mockito.spy(JsonProvider.provider());
+        final JsonFactories factories = new JsonFactories(
+            provider, Collections.singletonMap("some.config", true)
+        );
+        Mockito.verify(provider).createReaderFactory(
+            Collections.singletonMap("some.config", true)
+        );
+        Mockito.verify(provider).createParserFactory(
+            Collections.singletonMap("some.config", true)
+        );
+        Mockito.verify(provider).createBuilderFactory(
+            Collections.singletonMap("some.config", true)
+        );
+        MatcherAssert.assertThat(
+            factories.array(
+                JsonFactoriesTestCase.stream("[1]", new AtomicBoolean())
+            ),
+            Matchers.hasSize(1)
+        );
+    }
+
+    /**
+     * JsonFactories uses the factories it is given.
+     */
+    @Test
+    public void usesInjectedFactories() {
+        final JsonParserFactory parsers = Mockito.mock(JsonParserFactory.class);
+        final JsonBuilderFactory builders = Mockito.mock(
+            JsonBuilderFactory.class
+        );
+        final JsonFactories factories = new JsonFactories(
+            Mockito.mock(JsonReaderFactory.class), parsers, builders
+        );
+        final InputStream content = JsonFactoriesTestCase.stream(
+            "{}", new AtomicBoolean()
+        );
+        factories.parser(content);
+        Mockito.verify(parsers).createParser(content);
+        MatcherAssert.assertThat(
+            factories.builders(), Matchers.sameInstance(builders)
+        );
+    }
+
+    /**
+     * A stream which remembers being closed.
+     * @param json Content.
+     * @param closed Set when the stream is closed.
+     * @return InputStream.
+     */
+    private static InputStream stream(
+        final String json, final AtomicBoolean closed
+    ) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LazyJsonObject}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class LazyJsonObjectTestCase {
+
+    /**
+     * Json with all kinds of values.
+     */
+    private static final String JSON = "{ \"Id\" : \"a1\", \"Size\":-12.5e2,"
+        + "\"Count\":3,\"Up\":true,\"Down\":false,\"Gone\":null,"
+        + "\"Labels\":{\"a\":\"}{\",\"b\":[1,{\"c\":\"]\"}]},"
+        + "\"Names\":[\"/web\", \"/db\"],\"Esc\\\"aped\":\"q\\\"\\u00e9\\\\\","
+        + "\"Name\":\"île\"}";
+
+    /**
+     * LazyJsonObject reads every kind of value like an eager JsonObject.
+     */
+    @Test
+    public void readsValues() {
+        final JsonObject lazy = LazyJsonObjectTestCase.lazy(
+            LazyJsonObjectTestCase.JSON
+        );
+        MatcherAssert.assertThat(lazy.getString("Id"), Matchers.equalTo("a1"));
+        MatcherAssert.assertThat(
+            lazy.getJsonNumber("Size").doubleValue(), Matchers.is(-1250.0)
+        );
+        MatcherAssert.assertThat(lazy.getInt("Count"), Matchers.is(3));
+        MatcherAssert.assertThat(lazy.getBoolean("Up"), Matchers.is(true));
+        MatcherAssert.assertThat(lazy.getBoolean("Down"), Matchers.is(false));
+        MatcherAssert.assertThat(lazy.isNull("Gone"), Matchers.is(true));
+        MatcherAssert.assertThat(
+            lazy.getJsonObject("Labels").getJsonArray("b")
+                .getJsonObject(1).getString("c"),
+            Matchers.equalTo("]")
+        );
+        MatcherAssert.assertThat(
+            lazy.getJsonArray("Names").getString(1), Matchers.equalTo("/db")
+        );
+        MatcherAssert.assertThat(
+            lazy.getString("Esc\"aped"), Matchers.equalTo("q\"é\\")
+        );
+        MatcherAssert.assertThat(
+            lazy.getString("Name"), Matchers.equalTo("île")
+        );
+    }
+
+    /**
+     * LazyJsonObject falls back to the defaults for missing values or
+     * values of other types.
+     */
+    @Test
+    public void readsDefaults() {
+        final JsonObject lazy = LazyJsonObjectTestCase.lazy(
+            LazyJsonObjectTestCase.JSON
+        );
+        MatcherAssert.assertThat(
+            lazy.getString("Missing", "none"), Matchers.equalTo("none")
+        );
+        MatcherAssert.assertThat(
+            lazy.getString("Count", "none"), Matchers.equalTo("none")
+        );
+        MatcherAssert.assertThat(lazy.getInt("Id", 7), Matchers.is(7));
+        MatcherAssert.assertThat(
+            lazy.getBoolean("Gone", true), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(lazy.get("Missing"), Matchers.nullValue());
+        MatcherAssert.assertThat(
+            lazy.containsKey("Missing"), Matchers.is(false)
+        );
+    }
+
+    /**
+     * LazyJsonObject is equal to the eager JsonObject of the same Json.
+     */
+    @Test
+    public void equalsEagerObject() {
+        final JsonObject eager = Json.createReader(
+            new StringReader(LazyJsonObjectTestCase.JSON)
+        ).readObject();
+        final JsonObject lazy = LazyJsonObjectTestCase.lazy(
+            LazyJsonObjectTestCase.JSON
+        );
+        MatcherAssert.assertThat(lazy.size(), Matchers.is(eager.size()));
+        MatcherAssert.assertThat(
+            lazy.keySet(), Matchers.contains(eager.keySet().toArray())
+        );
+        MatcherAssert.assertThat(lazy, Matchers.equalTo(eager));
+        MatcherAssert.assertThat(
+            lazy.hashCode(), Matchers.is(eager.hashCode())
+        );
+        MatcherAssert.assertThat(
+            lazy.toString(), Matchers.equalTo(eager.toString())
+        );
+        MatcherAssert.assertThat(
+            lazy.getValueType(), Matchers.is(JsonValue.ValueType.OBJECT)
+        );
+    }
+
+    /**
+     * The last of duplicate keys wins.
+     */
+    @Test
+    public void keepsLastDuplicate() {
+        final JsonObject lazy = LazyJsonObjectTestCase.lazy(
+            "{\"a\":1,\"b\":2,\"a\":3}"
+        );
+        MatcherAssert.assertThat(lazy.size(), Matchers.is(2));
+        MatcherAssert.assertThat(lazy.getInt("a"), Matchers.is(3));
+    }
+
+    /**
+     * LazyJsonObject reads an empty object.
+     */
+    @Test
+    public void readsEmptyObject() {
+        MatcherAssert.assertThat(
+            LazyJsonObjectTestCase.lazy(" { } ").isEmpty(), Matchers.is(true)
+        );
+    }
+
+    /**
+     * LazyJsonObject is unmodifiable.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void isUnmodifiable() {
+        LazyJsonObjectTestCase.lazy("{\"a\":1}").put("b", JsonValue.NULL);
+    }
+
+    /**
+     * LazyJsonObject complains about malformed Json when it is read.
+     */
+    @Test(expected = JsonException.class)
+    public void complainsAboutMalformedJson() {
+        LazyJsonObjectTestCase.lazy("{\"a\":1,\"b\"}").get("a");
+    }
+
+    /**
+     * LazyJsonObject complains about truncated Json when it is read.
+     */
+    @Test(expected = JsonException.class)
+    public void complainsAboutTruncatedJson() {
+        LazyJsonObjectTestCase.lazy("{\"a\":{\"b\":1").get("a");
+    }
+
+    /**
+     * A LazyJsonObject of the given Json.
+     * @param json Json.
+     * @return JsonObject.
+     */
+    private static JsonObject lazy(final String json) {
+        return new LazyJsonObject(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import com.amihaiemil.docker.mock.Response;
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link LeakDetectingHttpClient}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class LeakDetectingHttpClientTestCase {
+
+    /**
+     * LeakDetectingHttpClient reports, once, the streamed responses which
+     * are not consumed in time, with the stack trace of their request.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void reportsLeaksOnce() throws Exception {
+        final List<ConnectionLeak> leaks = new ArrayList<>();
+        final LeakDetectingHttpClient client = new LeakDetectingHttpClient(
+            LeakDetectingHttpClientTestCase.streaming(3),
+            Duration.ZERO, leaks::add
+        );
+        client.execute(new HttpGet("http://localhost/v1.35/events"));
+        EntityUtils.consume(
+            client.execute(
+                new HttpGet("http://localhost/v1.35/images/get")
+            ).getEntity()
+        );
+        Thread.sleep(1);
+        EntityUtils.consume(
+            client.execute(
+                new HttpGet("http://localhost/v1.35/_ping")
+            ).getEntity()
+        );
+        client.check();
+        MatcherAssert.assertThat(leaks, Matchers.hasSize(1));
+        MatcherAssert.assertThat(
+            leaks.get(0).held().isNegative(), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            Arrays.stream(leaks.get(0).trace().getStackTrace())
+                .map(StackTraceElement::getMethodName)
+                .collect(Collectors.toList()),
+            Matchers.hasItem("reportsLeaksOnce")
+        );
+    }
+
+    /**
+     * LeakDetectingHttpClient does not report the responses which are
+     * held for less than the threshold.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void ignoresRecentLeases() throws Exception {
+        final List<ConnectionLeak> leaks = new ArrayList<>();
+        final LeakDetectingHttpClient client = new LeakDetectingHttpClient(
+            LeakDetectingHttpClientTestCase.streaming(2),
+            Duration.ofMinutes(1), leaks::add
+        );
+        client.execute(new HttpGet("http://localhost/v1.35/events"));
+        client.execute(new HttpGet("http://localhost/v1.35/events"));
+        client.check();
+        MatcherAssert.assertThat(leaks, Matchers.empty());
+    }
+
+    /**
+     * LeakDetectingHttpClient does not report the long-lived streams, e.g.
+     * the events followed by a CachedDocker or an Informer.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void ignoresLongLivedStreams() throws Exception {
+        final List<ConnectionLeak> leaks = new ArrayList<>();
+        final LeakDetectingHttpClient client = new LeakDetectingHttpClient(
+            LeakDetectingHttpClientTestCase.streaming(2),
+            Duration.ZERO, leaks::add
+        );
+        client.execute(
+            new HttpGet("http://localhost/v1.35/events"),
+            LeakDetectingHttpClient.longLived()
+        );
+        Thread.sleep(1);
+        client.check();
+        MatcherAssert.assertThat(leaks, Matchers.empty());
+    }
+
+    /**
+     * HttpClient which gives a new streamed response to each request.
+     * @param count Number of responses.
+     * @return HttpClient.
+     * @throws Exception If something goes wrong.
+     */
+    private static HttpClient streaming(final int count) throws Exception {
+        final HttpResponse[] responses = new HttpResponse[count];
+        for(int idx = 0; idx < count; idx = idx + 1) {
+            final Response response = new Response(HttpStatus.SC_OK, "");
+            response.setEntity(
+                new InputStreamEntity(
+                    new ByteArrayInputStream(new byte[] {1})
+                )
+            );
+            responses[idx] = response;
+        }
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        final HttpResponse[] rest = Arrays.copyOfRange(
+            responses, 1, responses.length
+        );
+        Mockito.when(client.execute(Mockito.any(HttpUriRequest.class)))
+            .thenReturn(responses[0], rest);
+        Mockito.when(
+            client.execute(
+                Mockito.any(HttpUriRequest.class), Mockito.<HttpContext>any()
+            )
+        ).thenReturn(responses[0], rest);
+        return client;
+    }
+}
@@ -30,9 +30,15 @@ import com.amihaiemil.docker.mock.Condition;
 import com.amihaiemil.docker.mock.Response;
 import org.apache.http.HttpStatus;
 import org.apache.http.NameValuePair;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.protocol.HttpContext;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
 
 import java.util.*;
 
@@ -103,6 +109,40 @@ public final class ListedContainersTestCase {
         );
     }
 
+    /**
+     * {@link ListedContainers} can project the listed containers on some
+     * of their fields, keeping their Id.
+     */
+    @Test
+    public void iteratesProjected() {
+        final Docker docker = new UnixDocker(
+            new AssertRequest(
+                new Response(
+                    HttpStatus.SC_OK,
+                    "[{\"Id\":\"abc1\",\"Image\":\"redis\","
+                    + "\"State\":\"running\",\"Labels\":{\"a\":\"b\"}},"
+                    + "{\"Id\":\"cde2\",\"State\":\"exited\","
+                    + "\"Mounts\":[{\"Name\":\"data\"}]}]"
+                )
+            ),
+            "v1.35"
+        );
+        final Iterator<Container> all = docker.containers()
+            .projected(new Projection("State")).all();
+        final Container first = all.next();
+        MatcherAssert.assertThat(first.keySet(), Matchers.hasSize(2));
+        MatcherAssert.assertThat(
+            first.getString("Id"), Matchers.equalTo("abc1")
+        );
+        MatcherAssert.assertThat(
+            first.getString("State"), Matchers.equalTo("running")
+        );
+        MatcherAssert.assertThat(
+            all.next().getString("State"), Matchers.equalTo("exited")
+        );
+        MatcherAssert.assertThat(all.hasNext(), Matchers.is(false));
+    }
+
     /**
      * {@link ListedImages} can include filters in request to fetch images.
      */
@@ -192,4 +232,171 @@ public final class ListedContainersTestCase {
         ).containers().filter(initial).filter(added).withSize(true).iterator();
     }
 
+    /**
+     * {@link ListedContainers} can stream the stats of all the containers
+     * to the same consumer, skipping the containers which disappeared.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void streamsStatsOfAll() throws Exception {
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        Mockito.when(client.execute(Mockito.any(HttpUriRequest.class)))
+            .thenAnswer(
+                invocation -> ListedContainersTestCase.statsResponse(
+                    ((HttpUriRequest) invocation.getArguments()[0])
+                        .getURI().toString()
+                )
+            );
+        Mockito.when(
+            client.execute(
+                Mockito.any(HttpUriRequest.class), Mockito.<HttpContext>any()
+            )
+        ).thenAnswer(
+            invocation -> client.execute(
+                (HttpUriRequest) invocation.getArguments()[0]
+            )
+            );
+        final List<String> samples = new ArrayList<>();
+        final Containers containers = new UnixDocker(client, "v1.35")
+            .containers();
+        containers.stats(
+            2,
+            (container, stats) -> samples.add(
+                container.containerId() + ":" + stats.cpuDelta()
+            )
+        );
+        MatcherAssert.assertThat(
+            samples,
+            Matchers.containsInAnyOrder("abc1:1", "abc1:2", "efg3:3")
+        );
+    }
+
+    /**
+     * {@link ListedContainers} can remove all the containers, reporting
+     * the ones which could not be removed instead of stopping at them.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void removesAll() throws Exception {
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        Mockito.when(client.execute(Mockito.any(HttpUriRequest.class)))
+            .thenReturn(
+                new Response(
+                    HttpStatus.SC_OK,
+                    "[{\"Id\":\"abc1\"},{\"Id\":\"cde2\"},{\"Id\":\"efg3\"}]"
+                )
+            );
+        Mockito.doAnswer(ListedContainersTestCase::removal).when(client)
+            .execute(
+                Mockito.any(HttpUriRequest.class),
+                Mockito.any(ResponseHandler.class)
+        );
+        final BulkOutcome removed = new UnixDocker(client, "v1.35")
+            .containers().removeAll(2, true);
+        MatcherAssert.assertThat(
+            removed.succeeded(), Matchers.containsInAnyOrder("abc1", "efg3")
+        );
+        MatcherAssert.assertThat(
+            removed.failed().get("cde2"),
+            Matchers.instanceOf(UnexpectedResponseException.class)
+        );
+        MatcherAssert.assertThat(removed.total(), Matchers.is(3));
+    }
+
+    /**
+     * {@link ListedContainers} records any error of a Container as its
+     * failure, not only the I/O errors, and goes on with the others.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void recordsAnyFailure() throws Exception {
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        Mockito.when(client.execute(Mockito.any(HttpUriRequest.class)))
+            .thenReturn(
+                new Response(
+                    HttpStatus.SC_OK, "[{\"Id\":\"abc1\"},{\"Id\":\"cde2\"}]"
+                )
+            );
+        Mockito.doAnswer(ListedContainersTestCase::broken).when(client)
+            .execute(
+                Mockito.any(HttpUriRequest.class),
+                Mockito.any(ResponseHandler.class)
+        );
+        final BulkOutcome started = new UnixDocker(client, "v1.35")
+            .containers().startAll(2);
+        MatcherAssert.assertThat(
+            started.succeeded(), Matchers.contains("abc1")
+        );
+        MatcherAssert.assertThat(
+            started.failed().get("cde2"),
+            Matchers.instanceOf(IllegalStateException.class)
+        );
+    }
+
+    /**
+     * Handle a request, for the recordsAnyFailure test: the handling of
+     * the requests of container cde2 is broken.
+     * @param invocation Call of HttpClient.execute(request, handler).
+     * @return Nothing.
+     */
+    private static Object broken(final InvocationOnMock invocation) {
+        final HttpUriRequest request =
+            (HttpUriRequest) invocation.getArguments()[0];
+        if(request.getURI().getPath().contains("/cde2/")) {
+            throw new IllegalStateException("Broken handler");
+        }
+        return null;
+    }
+
+    /**
+     * Handle a removal request, for the removeAll test: container cde2
+     * cannot be removed.
+     * @param invocation Call of HttpClient.execute(request, handler).
+     * @return Result of the handler.
+     * @throws Exception If something goes wrong.
+     */
+    private static Object removal(final InvocationOnMock invocation)
+        throws Exception {
+        final HttpUriRequest request =
+            (HttpUriRequest) invocation.getArguments()[0];
+        final int status;
+        if(request.getURI().getPath().endsWith("/cde2")) {
+            status = HttpStatus.SC_CONFLICT;
+        } else {
+            status = HttpStatus.SC_NO_CONTENT;
+        }
+        return ((ResponseHandler<?>) invocation.getArguments()[1])
+            .handleResponse(new Response(status));
+    }
+
+    /**
+     * Response of the Docker API, for the stats test.
+     * @param uri Requested URI.
+     * @return Response.
+     */
+    private static Response statsResponse(final String uri) {
+        final Response response;
+        if(uri.contains("/containers/json")) {
+            response = new Response(
+                HttpStatus.SC_OK,
+                "[{\"Id\":\"abc1\"},{\"Id\":\"cde2\"},{\"Id\":\"efg3\"}]"
+            );
+        } else if(uri.contains("/abc1/stats?stream=true")) {
+            response = new Response(
+                HttpStatus.SC_OK,
+                "{\"cpu_stats\":{\"cpu_usage\":{\"total_usage\":1}}}"
+                + "{\"cpu_stats\":{\"cpu_usage\":{\"total_usage\":2}}}"
+            );
+        } else if(uri.contains("/efg3/stats?stream=true")) {
+            response = new Response(
+                HttpStatus.SC_OK,
+                "{\"cpu_stats\":{\"cpu_usage\":{\"total_usage\":3}}}"
+            );
+        } else {
+            response = new Response(HttpStatus.SC_NOT_FOUND);
+        }
+        return response;
+    }
 }
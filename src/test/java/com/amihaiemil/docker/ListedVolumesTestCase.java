@@ -133,4 +133,32 @@ public final class ListedVolumesTestCase {
             Collections.singletonMap("Name", Arrays.asList("def2", "jkl4"))
         ).iterator();
     }
+
+    /**
+     * {@link ListedVolumes} can be filtered further, keeping its filters.
+     */
+    @Test
+    public void filtersFurther() {
+        new ListedVolumes(
+            new AssertRequest(
+                new Response(HttpStatus.SC_OK, "{\"Volumes\":[]}"),
+                new Condition(
+                    "iterate() query parameters must include both filters",
+                    req -> {
+                        final String filters = new UncheckedUriBuilder(
+                            req.getRequestLine().getUri()
+                        ).getQueryParams().get(0).getValue();
+                        return filters.contains("\"driver\"")
+                            && filters.contains("\"name\"")
+                            && filters.contains("\"db\"");
+                    }
+                )
+            ),
+            URI.create("http://localhost/volumes"),
+            Mockito.mock(Docker.class),
+            Collections.singletonMap("driver", Arrays.asList("local"))
+        ).filter(
+            Collections.singletonMap("name", Arrays.asList("db"))
+        ).iterator();
+    }
 }
@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import com.amihaiemil.docker.mock.Response;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+
+/**
+ * Unit tests for {@link MemoizedDocker}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class MemoizedDockerTestCase {
+
+    /**
+     * MemoizedDocker fetches the Version and Info once, until it is
+     * refreshed.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void memoizesUntilRefreshed() throws Exception {
+        final HttpClient client = MemoizedDockerTestCase.engine();
+        final MemoizedDocker docker = new MemoizedDocker(
+            new LocalDocker(client, "v1.35"), Duration.ZERO
+        );
+        for(int idx = 0; idx < 3; idx = idx + 1) {
+            MatcherAssert.assertThat(
+                docker.version().apiVersion(), Matchers.equalTo("1.40")
+            );
+            MatcherAssert.assertThat(
+                docker.info().getString("Name"), Matchers.equalTo("host")
+            );
+        }
+        Mockito.verify(client, Mockito.times(2)).execute(
+            Mockito.any(HttpUriRequest.class),
+            Mockito.any(ResponseHandler.class)
+        );
+        docker.refresh();
+        docker.version();
+        docker.info();
+        Mockito.verify(client, Mockito.times(4)).execute(
+            Mockito.any(HttpUriRequest.class),
+            Mockito.any(ResponseHandler.class)
+        );
+    }
+
+    /**
+     * MemoizedDocker fetches the Version again once it expired.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void fetchesExpiredVersion() throws Exception {
+        final HttpClient client = MemoizedDockerTestCase.engine();
+        final Docker docker = new MemoizedDocker(
+            new LocalDocker(client, "v1.35"), Duration.ofNanos(1L)
+        );
+        docker.version();
+        Thread.sleep(1L);
+        docker.version();
+        Mockito.verify(client, Mockito.times(2)).execute(
+            Mockito.any(HttpUriRequest.class),
+            Mockito.any(ResponseHandler.class)
+        );
+    }
+
+    /**
+     * MemoizedDocker delegates everything but the Version and Info to the
+     * decorated Docker, including closing it.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void delegatesToOrigin() throws Exception {
+        final Docker origin = Mockito.mock(
+            Docker.class,
+            Mockito.withSettings().extraInterfaces(AutoCloseable.class)
+        );
+        final Containers containers = Mockito.mock(Containers.class);
+        Mockito.when(origin.containers()).thenReturn(containers);
+        Mockito.when(origin.apiVersion()).thenReturn(new ApiVersion("v1.35"));
+        final MemoizedDocker docker = new MemoizedDocker(
+            origin, Duration.ZERO
+        );
+        MatcherAssert.assertThat(
+            docker.containers(), Matchers.sameInstance(containers)
+        );
+        MatcherAssert.assertThat(
+            docker.apiVersion(), Matchers.equalTo(new ApiVersion("v1.35"))
+        );
+        docker.close();
+        Mockito.verify((AutoCloseable) origin).close();
+    }
+
+    /**
+     * MemoizedDocker wraps a checked exception, other than IOException,
+     * thrown while closing the decorated Docker.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void wrapsFailureToClose() throws Exception {
+        final Docker origin = Mockito.mock(
+            Docker.class,
+            Mockito.withSettings().extraInterfaces(AutoCloseable.class)
+        );
+        final Exception failure = new TimeoutException("Still closing");
+        Mockito.doThrow(failure).when((AutoCloseable) origin).close();
+        try {
+            new MemoizedDocker(origin, Duration.ZERO).close();
+            MatcherAssert.assertThat("IOException expected", false);
+        } catch (final IOException ex) {
+            MatcherAssert.assertThat(
+                ex.getCause(), Matchers.sameInstance(failure)
+            );
+        }
+    }
+
+    /**
+     * MemoizedDocker has the base URI of the decorated Docker, so it can
+     * be decorated further.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void keepsBaseUri() throws Exception {
+        MatcherAssert.assertThat(
+            RtDocker.baseUri(
+                new MemoizedDocker(
+                    new LocalDocker(
+                        MemoizedDockerTestCase.engine(), "v1.35"
+                    ),
+                    Duration.ZERO
+                )
+            ),
+            Matchers.equalTo(URI.create("unix://localhost:80/v1.35"))
+        );
+    }
+
+    /**
+     * Docker engine which responds with its version or info.
+     * @return HttpClient.
+     * @throws Exception If something goes wrong.
+     */
+    private static HttpClient engine() throws Exception {
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        Mockito.when(
+            client.execute(
+                Mockito.any(HttpUriRequest.class),
+                Mockito.any(ResponseHandler.class)
+            )
+        ).thenAnswer(MemoizedDockerTestCase::respond);
+        return client;
+    }
+
+    /**
+     * Respond with the version or the info.
+     * @param invocation Invocation of HttpClient.execute(request, handler).
+     * @return What the response handler returns.
+     * @throws Exception If something goes wrong.
+     */
+    private static Object respond(final InvocationOnMock invocation)
+        throws Exception {
+        final HttpUriRequest request =
+            (HttpUriRequest) invocation.getArguments()[0];
+        final String body;
+        if(request.getURI().getPath().endsWith("/version")) {
+            body = "{\"ApiVersion\":\"1.40\"}";
+        } else {
+            body = "{\"Name\":\"host\"}";
+        }
+        return ((ResponseHandler<?>) invocation.getArguments()[1])
+            .handleResponse(new Response(HttpStatus.SC_OK, body));
+    }
+}
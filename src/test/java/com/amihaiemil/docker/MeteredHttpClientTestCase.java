@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import com.amihaiemil.docker.mock.AssertRequest;
+import com.amihaiemil.docker.mock.Response;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.json.Json;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.util.EntityUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link MeteredHttpClient}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class MeteredHttpClientTestCase {
+
+    /**
+     * MeteredHttpClient turns paths into endpoint templates.
+     */
+    @Test
+    public void templatesEndpoints() {
+        MatcherAssert.assertThat(
+            MeteredHttpClient.endpoint("/v1.35/containers/4fa6e0f0/start"),
+            Matchers.equalTo("/containers/{id}/start")
+        );
+        MatcherAssert.assertThat(
+            MeteredHttpClient.endpoint("/v1.35/containers/json"),
+            Matchers.equalTo("/containers/json")
+        );
+        MatcherAssert.assertThat(
+            MeteredHttpClient.endpoint("/v1.35/images/library/ubuntu:18/json"),
+            Matchers.equalTo("/images/{name}/json")
+        );
+        MatcherAssert.assertThat(
+            MeteredHttpClient.endpoint("/v1.35/images/library/ubuntu"),
+            Matchers.equalTo("/images/{name}")
+        );
+        MatcherAssert.assertThat(
+            MeteredHttpClient.endpoint("/v1.35/networks/create"),
+            Matchers.equalTo("/networks/create")
+        );
+        MatcherAssert.assertThat(
+            MeteredHttpClient.endpoint("/v1.35/_ping"),
+            Matchers.equalTo("/_ping")
+        );
+    }
+
+    /**
+     * MeteredHttpClient reports each call, with its status and the bytes
+     * read from the response.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void reportsCalls() throws Exception {
+        final Recorded metrics = new Recorded();
+        final List<String> started = metrics.started;
+        final List<Exchange> finished = metrics.finished;
+        final MeteredHttpClient client = new MeteredHttpClient(
+            new AssertRequest(
+                new Response(HttpStatus.SC_OK, "{\"Id\":\"123\"}")
+            ),
+            metrics
+        );
+        new RtContainer(
+            Json.createObjectBuilder().add("Id", "123").build(), client,
+            URI.create("http://localhost/v1.35/containers/123"),
+            Mockito.mock(Docker.class)
+        ).inspect();
+        MatcherAssert.assertThat(
+            started, Matchers.contains("GET /containers/{id}/json")
+        );
+        MatcherAssert.assertThat(finished, Matchers.hasSize(1));
+        MatcherAssert.assertThat(
+            finished.get(0).status(), Matchers.is(HttpStatus.SC_OK)
+        );
+        MatcherAssert.assertThat(
+            finished.get(0).received(), Matchers.is(12L)
+        );
+        MatcherAssert.assertThat(finished.get(0).sent(), Matchers.is(0L));
+    }
+
+    /**
+     * MeteredHttpClient reports the calls made through the overloads with
+     * an HttpHost or an HttpContext too.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void reportsAllOverloads() throws Exception {
+        final Recorded metrics = new Recorded();
+        final MeteredHttpClient client = new MeteredHttpClient(
+            new AssertRequest(new Response(HttpStatus.SC_NO_CONTENT, "")),
+            metrics
+        );
+        client.execute(
+            new HttpHost("localhost"),
+            new BasicHttpRequest("POST", "/v1.35/containers/123/start")
+        );
+        client.execute(
+            new HttpGet("http://localhost/v1.35/_ping"),
+            new BasicHttpContext()
+        );
+        MatcherAssert.assertThat(
+            metrics.started,
+            Matchers.contains("POST /containers/{id}/start", "GET /_ping")
+        );
+        MatcherAssert.assertThat(metrics.finished, Matchers.hasSize(2));
+        MatcherAssert.assertThat(
+            metrics.finished.get(0).status(),
+            Matchers.is(HttpStatus.SC_NO_CONTENT)
+        );
+    }
+
+    /**
+     * MeteredHttpClient counts the bytes of a returned response with no
+     * Content-Length (e.g. chunked) and reports the call only once its body
+     * was read.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void reportsChunkedResponseOnceRead() throws Exception {
+        final Recorded metrics = new Recorded();
+        final Response chunked = new Response(HttpStatus.SC_OK, "");
+        chunked.setEntity(
+            new InputStreamEntity(
+                new ByteArrayInputStream(
+                    "{\"Id\":\"123\"}".getBytes(StandardCharsets.UTF_8)
+                )
+            )
+        );
+        final MeteredHttpClient client = new MeteredHttpClient(
+            new AssertRequest(chunked), metrics
+        );
+        final InputStream body = client.execute(
+            new HttpGet("http://localhost/v1.35/containers/123/json")
+        ).getEntity().getContent();
+        MatcherAssert.assertThat(metrics.finished, Matchers.empty());
+        MatcherAssert.assertThat(
+            EntityUtils.toString(new InputStreamEntity(body)),
+            Matchers.equalTo("{\"Id\":\"123\"}")
+        );
+        body.close();
+        MatcherAssert.assertThat(metrics.finished, Matchers.hasSize(1));
+        MatcherAssert.assertThat(
+            metrics.finished.get(0).received(), Matchers.is(12L)
+        );
+    }
+
+    /**
+     * Metrics which record the readings.
+     */
+    private static final class Recorded implements Metrics {
+
+        /**
+         * Started calls.
+         */
+        private final List<String> started = new ArrayList<>();
+
+        /**
+         * Finished calls.
+         */
+        private final List<Exchange> finished = new ArrayList<>();
+
+        @Override
+        public void started(final String method, final String endpoint) {
+            this.started.add(method + " " + endpoint);
+        }
+
+        @Override
+        public void finished(final Exchange exchange) {
+            this.finished.add(exchange);
+        }
+
+        @Override
+        public void leased(final Duration wait) {
+            throw new UnsupportedOperationException("Not pooled.");
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.json.Json;
+import javax.json.JsonObject;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Mirror}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class MirrorTestCase {
+
+    /**
+     * Mirror can list the resources and index them.
+     */
+    @Test
+    public void resyncsAndIndexes() {
+        final List<JsonObject> server = new ArrayList<>(
+            Arrays.asList(
+                MirrorTestCase.container("1", "web", "running", "bridge"),
+                MirrorTestCase.container("2", "db", "exited", "backend")
+            )
+        );
+        final Mirror mirror = MirrorTestCase.mirror(server);
+        mirror.resync();
+        MatcherAssert.assertThat(mirror.size(), Matchers.is(2));
+        MatcherAssert.assertThat(
+            mirror.labeled("app", "web"),
+            Matchers.contains(server.get(0))
+        );
+        MatcherAssert.assertThat(
+            mirror.labeled("app"), Matchers.hasSize(2)
+        );
+        MatcherAssert.assertThat(
+            mirror.indexed("status", "exited"),
+            Matchers.contains(server.get(1))
+        );
+        MatcherAssert.assertThat(
+            mirror.indexed("network", "net-backend"),
+            Matchers.contains(server.get(1))
+        );
+        MatcherAssert.assertThat(
+            mirror.indexed("id", "1"), Matchers.contains(server.get(0))
+        );
+        server.remove(0);
+        mirror.resync();
+        MatcherAssert.assertThat(
+            mirror.indexed("id", "1"), Matchers.emptyIterable()
+        );
+        MatcherAssert.assertThat(
+            mirror.labeled("app", "web"), Matchers.emptyIterable()
+        );
+    }
+
+    /**
+     * Mirror can refresh one resource, re-indexing it.
+     */
+    @Test
+    public void refreshesOne() {
+        final List<JsonObject> server = new ArrayList<>(
+            Arrays.asList(
+                MirrorTestCase.container("1", "web", "running", "bridge")
+            )
+        );
+        final Mirror mirror = MirrorTestCase.mirror(server);
+        mirror.resync();
+        server.set(0, MirrorTestCase.container("1", "web", "exited", "bridge"));
+        mirror.refresh("1");
+        MatcherAssert.assertThat(
+            mirror.indexed("status", "running"), Matchers.emptyIterable()
+        );
+        MatcherAssert.assertThat(
+            mirror.indexed("status", "exited"), Matchers.hasSize(1)
+        );
+        server.clear();
+        mirror.refresh("1");
+        MatcherAssert.assertThat(mirror.all(), Matchers.emptyIterable());
+    }
+
+    /**
+     * Mirror can change one resource without listing it, re-indexing it.
+     */
+    @Test
+    public void updatesOne() {
+        final Mirror mirror = MirrorTestCase.mirror(
+            new ArrayList<>(
+                Arrays.asList(
+                    MirrorTestCase.container("1", "web", "running", "bridge")
+                )
+            )
+        );
+        mirror.resync();
+        MatcherAssert.assertThat(
+            mirror.update(
+                "1", json -> MirrorTestCase.container(
+                    "1", "web", "exited", "bridge"
+                )
+            ),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            mirror.indexed("status", "running"), Matchers.emptyIterable()
+        );
+        MatcherAssert.assertThat(
+            mirror.indexed("status", "exited"), Matchers.hasSize(1)
+        );
+        MatcherAssert.assertThat(
+            mirror.update("2", json -> json), Matchers.is(false)
+        );
+    }
+
+    /**
+     * Mirror complains about unknown indexes.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownIndex() {
+        MirrorTestCase.mirror(new ArrayList<>()).indexed("color", "blue");
+    }
+
+    /**
+     * Mirror of containers over the given "server" list.
+     * @param server Listed containers.
+     * @return Mirror.
+     */
+    private static Mirror mirror(final List<JsonObject> server) {
+        final Map<String, Function<JsonObject, Collection<String>>> indexes;
+        indexes = new HashMap<>();
+        indexes.put("label", Mirror::labels);
+        indexes.put("status", json -> Mirror.strings(json, "State"));
+        indexes.put("network", json -> Mirror.networks(json));
+        return new Mirror(
+            "Id",
+            () -> new ArrayList<>(server).iterator(),
+            id -> server.stream()
+                .filter(json -> json.getString("Id").equals(id)).iterator(),
+            indexes
+        );
+    }
+
+    /**
+     * A listed container.
+     * @param id ID.
+     * @param app Value of the app label.
+     * @param state State.
+     * @param network Name of its network.
+     * @return JsonObject.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    private static JsonObject container(
+        final String id, final String app, final String state,
+        final String network
+    ) {
+        return Json.createObjectBuilder()
+            .add("Id", id)
+            .add("State", state)
+            .add("Labels", Json.createObjectBuilder().add("app", app))
+            .add(
+                "NetworkSettings",
+                Json.createObjectBuilder().add(
+                    "Networks",
+                    Json.createObjectBuilder().add(
+                        network,
+                        Json.createObjectBuilder()
+                            .add("NetworkID", "net-" + network)
+                    )
+                )
+            ).build();
+    }
+}
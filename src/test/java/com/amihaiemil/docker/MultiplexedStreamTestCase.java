@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MultiplexedStream}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class MultiplexedStreamTestCase {
+
+    /**
+     * MultiplexedStream demultiplexes stdout and stderr frames, with
+     * multibyte characters in their payloads.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void demultiplexesFrames() throws Exception {
+        final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        MultiplexedStreamTestCase.frame(raw, LogFrames.STDOUT, "héllo ✓\n");
+        MultiplexedStreamTestCase.frame(raw, LogFrames.STDERR, "ërror\n");
+        final List<String> read = new ArrayList<>();
+        new MultiplexedStream(
+            new ByteArrayInputStream(raw.toByteArray())
+        ).readAll(
+            (stream, payload) -> read.add(
+                stream + ":" + StandardCharsets.UTF_8.decode(payload)
+            )
+        );
+        MatcherAssert.assertThat(
+            read, Matchers.contains("1:héllo ✓\n", "2:ërror\n")
+        );
+    }
+
+    /**
+     * MultiplexedStream gives big frames in more pieces.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void givesBigFramesInPieces() throws Exception {
+        final StringBuilder big = new StringBuilder();
+        for(int idx = 0; idx < 100000; idx = idx + 1) {
+            big.append('x');
+        }
+        final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        MultiplexedStreamTestCase.frame(raw, LogFrames.STDOUT, big.toString());
+        final List<Integer> pieces = new ArrayList<>();
+        new MultiplexedStream(
+            new ByteArrayInputStream(raw.toByteArray())
+        ).readAll((stream, payload) -> pieces.add(payload.remaining()));
+        MatcherAssert.assertThat(pieces, Matchers.contains(65536, 34464));
+    }
+
+    /**
+     * MultiplexedStream complains if the stream ends inside a frame.
+     * @throws Exception If something goes wrong.
+     */
+    @Test(expected = IOException.class)
+    public void failsOnTruncatedFrame() throws Exception {
+        final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        MultiplexedStreamTestCase.frame(raw, LogFrames.STDOUT, "truncated");
+        new MultiplexedStream(
+            new ByteArrayInputStream(raw.toByteArray(), 0, raw.size() - 2)
+        ).readAll((stream, payload) -> { });
+    }
+
+    /**
+     * Write a frame.
+     * @param raw Where to write the frame.
+     * @param stream Stream type.
+     * @param payload Payload.
+     * @throws IOException If something goes wrong.
+     */
+    private static void frame(
+        final ByteArrayOutputStream raw, final int stream, final String payload
+    ) throws IOException {
+        final byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        raw.write(
+            ByteBuffer.allocate(8).put(0, (byte) stream)
+                .putInt(4, bytes.length).array()
+        );
+        raw.write(bytes);
+    }
+}
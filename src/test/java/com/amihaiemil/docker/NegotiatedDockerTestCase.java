@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import com.amihaiemil.docker.mock.AssertRequest;
+import com.amihaiemil.docker.mock.Condition;
+import com.amihaiemil.docker.mock.Response;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import javax.json.Json;
+import javax.json.JsonObject;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link NegotiatedDocker}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class NegotiatedDockerTestCase {
+
+    /**
+     * NegotiatedDocker speaks the engine's version, if it is older than
+     * the supported one.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void negotiatesEngineVersion() throws Exception {
+        final Docker docker = NegotiatedDockerTestCase.negotiated(
+            "1.30", "1.12"
+        );
+        MatcherAssert.assertThat(
+            docker.apiVersion(), Matchers.equalTo(new ApiVersion("v1.30"))
+        );
+        MatcherAssert.assertThat(
+            RtDocker.baseUri(docker),
+            Matchers.equalTo(URI.create("unix://localhost:80/v1.30"))
+        );
+    }
+
+    /**
+     * NegotiatedDocker speaks the supported version to a newer engine.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void negotiatesSupportedVersion() throws Exception {
+        final Docker docker = NegotiatedDockerTestCase.negotiated(
+            "1.45", "1.24"
+        );
+        MatcherAssert.assertThat(
+            docker.apiVersion(), Matchers.equalTo(ApiVersion.SUPPORTED)
+        );
+        MatcherAssert.assertThat(
+            docker.apiVersion().oneShotStats(), Matchers.is(true)
+        );
+    }
+
+    /**
+     * NegotiatedDocker does not use the one-shot stats with an engine
+     * which does not offer them.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void negotiatesFeatures() throws Exception {
+        MatcherAssert.assertThat(
+            NegotiatedDockerTestCase.negotiated("1.40", "1.12")
+                .apiVersion().oneShotStats(),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * NegotiatedDocker reads the engine's version only when it is first
+     * needed, and only once.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void negotiatesOnceOnFirstUse() throws Exception {
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        final JsonObject engine = Json.createObjectBuilder()
+            .add("ApiVersion", "1.30").build();
+        Mockito.when(
+            client.execute(
+                Mockito.any(HttpUriRequest.class),
+                Mockito.any(ResponseHandler.class)
+            )
+        ).thenReturn(engine);
+        final Docker docker = new NegotiatedDocker(
+            new LocalDocker(client, "v1.35")
+        );
+        Mockito.verifyZeroInteractions(client);
+        MatcherAssert.assertThat(
+            docker.containers(), Matchers.notNullValue()
+        );
+        MatcherAssert.assertThat(
+            docker.apiVersion(), Matchers.equalTo(new ApiVersion("v1.30"))
+        );
+        Mockito.verify(client, Mockito.times(1)).execute(
+            Mockito.any(HttpUriRequest.class),
+            Mockito.any(ResponseHandler.class)
+        );
+    }
+
+    /**
+     * NegotiatedDocker speaks the decorated Docker's version while the
+     * engine cannot be reached, and negotiates once it can.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void negotiatesAgainAfterFailure() throws Exception {
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        final JsonObject engine = Json.createObjectBuilder()
+            .add("ApiVersion", "1.30").build();
+        Mockito.when(
+            client.execute(
+                Mockito.any(HttpUriRequest.class),
+                Mockito.any(ResponseHandler.class)
+            )
+        ).thenThrow(new IOException("Connection refused")).thenReturn(engine);
+        final Docker docker = new NegotiatedDocker(
+            new LocalDocker(client, "v1.35"), Duration.ZERO
+        );
+        MatcherAssert.assertThat(
+            docker.apiVersion(), Matchers.equalTo(new ApiVersion("v1.35"))
+        );
+        MatcherAssert.assertThat(
+            docker.apiVersion(), Matchers.equalTo(new ApiVersion("v1.30"))
+        );
+    }
+
+    /**
+     * NegotiatedDocker does not read the engine's version again before
+     * the backoff after a failed negotiation ended.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void remembersFailure() throws Exception {
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        Mockito.when(
+            client.execute(
+                Mockito.any(HttpUriRequest.class),
+                Mockito.any(ResponseHandler.class)
+            )
+        ).thenThrow(new IOException("Connection refused"));
+        final Docker docker = new NegotiatedDocker(
+            new LocalDocker(client, "v1.35"), Duration.ofMinutes(1)
+        );
+        for(int idx = 0; idx < 3; idx = idx + 1) {
+            MatcherAssert.assertThat(
+                docker.apiVersion(), Matchers.equalTo(new ApiVersion("v1.35"))
+            );
+        }
+        Mockito.verify(client, Mockito.times(1)).execute(
+            Mockito.any(HttpUriRequest.class),
+            Mockito.any(ResponseHandler.class)
+        );
+    }
+
+    /**
+     * NegotiatedDocker delegates what does not depend on the API version
+     * to the decorated Docker, including closing it.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void delegatesToOrigin() throws Exception {
+        final Docker origin = Mockito.mock(
+            Docker.class,
+            Mockito.withSettings().extraInterfaces(AutoCloseable.class)
+        );
+        final Version version = Mockito.mock(Version.class);
+        Mockito.when(origin.version()).thenReturn(version);
+        final NegotiatedDocker docker = new NegotiatedDocker(origin);
+        MatcherAssert.assertThat(
+            docker.version(), Matchers.sameInstance(version)
+        );
+        docker.close();
+        Mockito.verify((AutoCloseable) origin).close();
+    }
+
+    /**
+     * NegotiatedDocker speaks the engine's minimum version, if the engine
+     * no longer accepts the supported one.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void negotiatesMinimumVersion() throws Exception {
+        MatcherAssert.assertThat(
+            NegotiatedDockerTestCase.negotiated("1.47", "1.44").apiVersion(),
+            Matchers.equalTo(new ApiVersion("v1.44"))
+        );
+    }
+
+    /**
+     * A Docker negotiated with an engine which reports the given versions,
+     * on the unversioned /version endpoint.
+     * @param max The engine's version.
+     * @param min The engine's minimum version.
+     * @return Docker.
+     */
+    private static Docker negotiated(final String max, final String min) {
+        return new NegotiatedDocker(
+            new LocalDocker(
+                new AssertRequest(
+                    new Response(
+                        HttpStatus.SC_OK,
+                        String.format(
+                            "{\"ApiVersion\":\"%s\",\"MinAPIVersion\":\"%s\"}",
+                            max, min
+                        )
+                    ),
+                    new Condition(
+                        "Request must go to the unversioned /version",
+                        req -> "unix://localhost:80/version".equals(
+                            req.getRequestLine().getUri()
+                        )
+                    )
+                ),
+                "v1.35"
+            )
+        );
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.File;
+import java.time.Duration;
+import org.apache.http.HttpHost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PoolConfig}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class PoolConfigTestCase {
+
+    /**
+     * PoolConfig builds a pool of 10 connections by default.
+     */
+    @Test
+    public void defaultsToTenConnections() {
+        final PoolingHttpClientConnectionManager pool = new PoolConfig()
+            .manager(PoolConfigTestCase.registry());
+        MatcherAssert.assertThat(pool.getMaxTotal(), Matchers.is(10));
+        MatcherAssert.assertThat(
+            pool.getDefaultMaxPerRoute(), Matchers.is(10)
+        );
+        MatcherAssert.assertThat(
+            pool.getValidateAfterInactivity(), Matchers.is(2000)
+        );
+    }
+
+    /**
+     * PoolConfig builds a pool with the configured limits.
+     */
+    @Test
+    public void configuresLimits() {
+        final PoolingHttpClientConnectionManager pool = new PoolConfig()
+            .maxTotal(300)
+            .maxPerRoute(250)
+            .validateAfterInactivity(Duration.ofMillis(500))
+            .timeToLive(Duration.ofMinutes(5))
+            .manager(PoolConfigTestCase.registry());
+        MatcherAssert.assertThat(pool.getMaxTotal(), Matchers.is(300));
+        MatcherAssert.assertThat(
+            pool.getDefaultMaxPerRoute(), Matchers.is(250)
+        );
+        MatcherAssert.assertThat(
+            pool.getValidateAfterInactivity(), Matchers.is(500)
+        );
+        MatcherAssert.assertThat(
+            pool.getMaxPerRoute(new HttpRoute(
+                new HttpHost("localhost", 80, "unix")
+            )),
+            Matchers.is(250)
+        );
+    }
+
+    /**
+     * PoolConfig is immutable.
+     */
+    @Test
+    public void isImmutable() {
+        final PoolConfig config = new PoolConfig();
+        config.maxTotal(100);
+        MatcherAssert.assertThat(
+            config.manager(PoolConfigTestCase.registry()).getMaxTotal(),
+            Matchers.is(10)
+        );
+    }
+
+    /**
+     * PoolConfig builds an HttpClient with timeouts and idle eviction.
+     */
+    @Test
+    public void buildsClient() {
+        final PoolConfig config = new PoolConfig()
+            .evictIdleAfter(Duration.ofSeconds(30))
+            .socketTimeout(Duration.ofSeconds(10))
+            .connectTimeout(Duration.ofSeconds(1));
+        MatcherAssert.assertThat(
+            config.builder(
+                config.manager(PoolConfigTestCase.registry())
+            ).build(),
+            Matchers.notNullValue()
+        );
+    }
+
+    /**
+     * PoolConfig refuses a non-positive pool size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void refusesEmptyPool() {
+        new PoolConfig().maxTotal(0);
+    }
+
+    /**
+     * Registry with the unix socket factory.
+     * @return Registry.
+     */
+    private static Registry<ConnectionSocketFactory> registry() {
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+            .register(
+                "unix",
+                new UnixSocketFactory(new File("/var/run/docker.sock"))
+            ).build();
+    }
+}
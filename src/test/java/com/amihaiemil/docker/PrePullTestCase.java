@@ -0,0 +1,396 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import com.amihaiemil.docker.mock.Response;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Unit tests for {@link PrePull}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class PrePullTestCase {
+
+    /**
+     * PrePull does not pull the images which are present and pulls each
+     * missing image once, no matter how it is referenced.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void pullsMissingImagesOnce() throws Exception {
+        final HttpClient client = PrePullTestCase.engine(
+            new CountDownLatch(0)
+        );
+        final BulkOutcome outcome = new ListedImages(
+            client, URI.create("http://localhost/images"),
+            Mockito.mock(Docker.class)
+        ).prePull(
+            Arrays.asList(
+                "ubuntu:18.04", "alpine@sha256:abc", "redis",
+                "redis:latest", "docker.io/library/redis"
+            ),
+            4
+        );
+        MatcherAssert.assertThat(
+            outcome.succeeded(),
+            Matchers.containsInAnyOrder(
+                "ubuntu:18.04", "alpine@sha256:abc", "redis"
+            )
+        );
+        MatcherAssert.assertThat(outcome.failed().keySet(), Matchers.empty());
+        MatcherAssert.assertThat(
+            PrePullTestCase.pulls(client),
+            Matchers.contains(
+                Matchers.endsWith("/images/create?fromImage=redis&tag=latest")
+            )
+        );
+    }
+
+    /**
+     * PrePull sends one request for an image which is pre-pulled by two
+     * threads at the same time.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void coalescesConcurrentPulls() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final HttpClient client = PrePullTestCase.engine(release);
+        final Images images = new ListedImages(
+            client, URI.create("http://localhost/images"),
+            Mockito.mock(Docker.class)
+        );
+        final CompletableFuture<BulkOutcome> first = CompletableFuture
+            .supplyAsync(() -> PrePullTestCase.prePull(images, "nginx"));
+        final CompletableFuture<BulkOutcome> second = CompletableFuture
+            .supplyAsync(() -> PrePullTestCase.prePull(images, "nginx:latest"));
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while(!PrePullTestCase.awaiting() && System.nanoTime() < deadline) {
+            Thread.sleep(10L);
+        }
+        release.countDown();
+        MatcherAssert.assertThat(
+            first.get().succeeded(), Matchers.contains("nginx")
+        );
+        MatcherAssert.assertThat(
+            second.get().succeeded(), Matchers.contains("nginx:latest")
+        );
+        MatcherAssert.assertThat(
+            PrePullTestCase.pulls(client), Matchers.hasSize(1)
+        );
+    }
+
+    /**
+     * PrePull sends one request for an image which is pre-pulled at the
+     * same time through two Images of the same Docker.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void coalescesPullsOfOneDocker() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final HttpClient client = PrePullTestCase.engine(release);
+        final Docker docker = new UnixDocker(client, "v1.35");
+        final CompletableFuture<BulkOutcome> first = CompletableFuture
+            .supplyAsync(
+                () -> PrePullTestCase.prePull(docker.images(), "nginx")
+            );
+        final CompletableFuture<BulkOutcome> second = CompletableFuture
+            .supplyAsync(
+                () -> PrePullTestCase.prePull(docker.images(), "nginx:latest")
+            );
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while(!PrePullTestCase.awaiting() && System.nanoTime() < deadline) {
+            Thread.sleep(10L);
+        }
+        release.countDown();
+        MatcherAssert.assertThat(
+            first.get().succeeded(), Matchers.contains("nginx")
+        );
+        MatcherAssert.assertThat(
+            second.get().succeeded(), Matchers.contains("nginx:latest")
+        );
+        MatcherAssert.assertThat(
+            PrePullTestCase.pulls(client), Matchers.hasSize(1)
+        );
+    }
+
+    /**
+     * PrePull reports the error which the Docker engine sends in the
+     * progress of a pull, even if the response status is 200 OK.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void reportsErrorInProgress() throws Exception {
+        final BulkOutcome outcome = new ListedImages(
+            PrePullTestCase.engine(
+                new CountDownLatch(0),
+                invocation -> new Response(
+                    HttpStatus.SC_OK, "{\"error\":\"manifest unknown\"}"
+                )
+            ),
+            URI.create("http://localhost/images"),
+            Mockito.mock(Docker.class)
+        ).prePull(Collections.singletonList("redis:nope"), 1);
+        MatcherAssert.assertThat(outcome.succeeded(), Matchers.empty());
+        MatcherAssert.assertThat(
+            outcome.failed().get("redis:nope"),
+            Matchers.instanceOf(IOException.class)
+        );
+    }
+
+    /**
+     * PrePull goes on with the other pulls when one of them fails with an
+     * unexpected error, and the threads awaiting that pull are released.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void goesOnAfterUnexpectedError() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Images images = new ListedImages(
+            PrePullTestCase.engine(
+                release,
+                invocation -> PrePullTestCase.failing(invocation)
+            ),
+            URI.create("http://localhost/images"),
+            Mockito.mock(Docker.class)
+        );
+        final CompletableFuture<BulkOutcome> first = CompletableFuture
+            .supplyAsync(
+                () -> PrePullTestCase.prePull(
+                    images, Arrays.asList("redis", "nginx")
+                )
+            );
+        final CompletableFuture<BulkOutcome> second = CompletableFuture
+            .supplyAsync(
+                () -> PrePullTestCase.prePull(
+                    images, Collections.singletonList("redis:latest")
+                )
+            );
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while(!PrePullTestCase.awaiting() && System.nanoTime() < deadline) {
+            Thread.sleep(10L);
+        }
+        release.countDown();
+        final BulkOutcome outcome = first.get(5L, TimeUnit.SECONDS);
+        MatcherAssert.assertThat(
+            outcome.succeeded(), Matchers.contains("nginx")
+        );
+        MatcherAssert.assertThat(
+            outcome.failed().get("redis"),
+            Matchers.instanceOf(IllegalStateException.class)
+        );
+        MatcherAssert.assertThat(
+            second.get(5L, TimeUnit.SECONDS).failed().keySet(),
+            Matchers.contains("redis:latest")
+        );
+    }
+
+    /**
+     * PrePull records an Error thrown by a pull as the failure of
+     * that image.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void recordsErrorAsFailure() throws Exception {
+        final CountDownLatch release = new CountDownLatch(0);
+        final Images images = new ListedImages(
+            PrePullTestCase.engine(
+                release,
+                invocation -> {
+                    throw new NoClassDefFoundError("org/apache/http/Header");
+                }
+            ),
+            URI.create("http://localhost/images"),
+            Mockito.mock(Docker.class)
+        );
+        final Exception failure = PrePullTestCase.prePull(images, "redis")
+            .failed().get("redis");
+        MatcherAssert.assertThat(
+            failure, Matchers.instanceOf(IllegalStateException.class)
+        );
+        MatcherAssert.assertThat(
+            failure.getCause(), Matchers.instanceOf(NoClassDefFoundError.class)
+        );
+    }
+
+    /**
+     * Docker engine which has ubuntu:18.04 and alpine@sha256:abc and
+     * pulls the images once the given latch is released.
+     * @param release Latch released when the pulls can end.
+     * @return HttpClient.
+     * @throws Exception If something goes wrong.
+     */
+    private static HttpClient engine(final CountDownLatch release)
+        throws Exception {
+        return PrePullTestCase.engine(
+            release,
+            invocation -> new Response(
+                HttpStatus.SC_OK, "{\"status\":\"Downloaded newer image\"}"
+            )
+        );
+    }
+
+    /**
+     * Docker engine which has ubuntu:18.04 and alpine@sha256:abc and
+     * pulls the images once the given latch is released.
+     * @param release Latch released when the pulls can end.
+     * @param pull Answer to the pulls.
+     * @return HttpClient.
+     * @throws Exception If something goes wrong.
+     */
+    private static HttpClient engine(
+        final CountDownLatch release, final Answer<?> pull
+    ) throws Exception {
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        Mockito.when(client.execute(Mockito.any(HttpUriRequest.class)))
+            .thenAnswer(
+                invocation -> {
+                    final Object response;
+                    if(PrePullTestCase.pull(invocation)) {
+                        release.await();
+                        response = pull.answer(invocation);
+                    } else {
+                        response = new Response(
+                            HttpStatus.SC_OK,
+                            "[{\"Id\":\"sha256:1\","
+                            + "\"RepoTags\":[\"ubuntu:18.04\"],"
+                            + "\"RepoDigests\":[\"alpine@sha256:abc\"]},"
+                            + "{\"Id\":\"sha256:2\",\"RepoTags\":null}]"
+                        );
+                    }
+                    return response;
+                }
+            );
+        return client;
+    }
+
+    /**
+     * Pull which fails unexpectedly for redis and succeeds for the rest.
+     * @param invocation Invocation of HttpClient.execute(request).
+     * @return Response.
+     */
+    private static Response failing(final InvocationOnMock invocation) {
+        if(((HttpUriRequest) invocation.getArguments()[0]).getURI()
+            .toString().contains("fromImage=redis")) {
+            throw new IllegalStateException("Connection pool shut down");
+        }
+        return new Response(HttpStatus.SC_OK, "{\"status\":\"Pulled\"}");
+    }
+
+    /**
+     * Is this invocation a pull?
+     * @param invocation Invocation of HttpClient.execute(request).
+     * @return True or false.
+     */
+    private static boolean pull(final InvocationOnMock invocation) {
+        return "POST".equals(
+            ((HttpUriRequest) invocation.getArguments()[0]).getMethod()
+        );
+    }
+
+    /**
+     * URIs of the pulls sent through the given client.
+     * @param client Mock HttpClient.
+     * @return URIs.
+     * @throws Exception If something goes wrong.
+     */
+    private static List<String> pulls(final HttpClient client)
+        throws Exception {
+        final ArgumentCaptor<HttpUriRequest> requests = ArgumentCaptor
+            .forClass(HttpUriRequest.class);
+        Mockito.verify(client, Mockito.atLeastOnce()).execute(
+            requests.capture()
+        );
+        return requests.getAllValues().stream()
+            .filter(request -> "POST".equals(request.getMethod()))
+            .map(request -> request.getURI().toString())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Pre-pull one image.
+     * @param images Images.
+     * @param reference Reference of the image.
+     * @return BulkOutcome.
+     */
+    private static BulkOutcome prePull(
+        final Images images, final String reference
+    ) {
+        return PrePullTestCase.prePull(
+            images, Collections.singletonList(reference)
+        );
+    }
+
+    /**
+     * Pre-pull the given images, one at a time.
+     * @param images Images.
+     * @param references References of the images.
+     * @return BulkOutcome.
+     */
+    private static BulkOutcome prePull(
+        final Images images, final List<String> references
+    ) {
+        try {
+            return images.prePull(references, 1);
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Is any thread waiting for a pull which is in flight?
+     * @return True or false.
+     */
+    private static boolean awaiting() {
+        return Thread.getAllStackTraces().values().stream().anyMatch(
+            trace -> Arrays.stream(trace).anyMatch(
+                frame -> PrePull.class.getName().equals(frame.getClassName())
+                    && "pull".equals(frame.getMethodName())
+            ) && Arrays.stream(trace).anyMatch(
+                frame -> "join".equals(frame.getMethodName())
+            )
+        );
+    }
+}
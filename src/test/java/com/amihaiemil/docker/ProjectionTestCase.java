@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParsingException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Projection}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class ProjectionTestCase {
+
+    /**
+     * Json of an inspected container.
+     */
+    private static final String JSON = "{\"Id\":\"123\",\"Args\":[\"-c\",{}],"
+        + "\"State\":{\"Status\":\"running\",\"Running\":true,"
+        + "\"Health\":{\"Status\":\"healthy\",\"Log\":[{\"ExitCode\":0}]}},"
+        + "\"Config\":{\"Env\":[\"A=B\"],\"Labels\":{\"State\":\"no\"}},"
+        + "\"NetworkSettings\":{\"IPAddress\":\"172.17.0.2\","
+        + "\"Ports\":null}}";
+
+    /**
+     * Projection reads the selected paths and skips everything else.
+     */
+    @Test
+    public void readsSelectedPaths() {
+        MatcherAssert.assertThat(
+            new Projection(
+                "State.Status", "State.Health", "NetworkSettings.IPAddress"
+            ).read(ProjectionTestCase.content()),
+            Matchers.equalTo(
+                Json.createObjectBuilder()
+                    .add(
+                        "State",
+                        Json.createObjectBuilder()
+                            .add("Status", "running")
+                            .add(
+                                "Health",
+                                Json.createObjectBuilder()
+                                    .add("Status", "healthy")
+                                    .add(
+                                        "Log",
+                                        Json.createArrayBuilder().add(
+                                            Json.createObjectBuilder()
+                                                .add("ExitCode", 0)
+                                        )
+                                    )
+                            )
+                    )
+                    .add(
+                        "NetworkSettings",
+                        Json.createObjectBuilder()
+                            .add("IPAddress", "172.17.0.2")
+                    )
+                    .build()
+            )
+        );
+    }
+
+    /**
+     * Selecting a value selects everything inside it, no matter
+     * the order of the paths.
+     */
+    @Test
+    public void wholeValueWins() {
+        final JsonObject projected = new Projection("State.Status", "State")
+            .read(ProjectionTestCase.content());
+        MatcherAssert.assertThat(
+            projected.getJsonObject("State").keySet(),
+            Matchers.contains("Status", "Running", "Health")
+        );
+        MatcherAssert.assertThat(
+            new Projection("State", "State.Status")
+                .read(ProjectionTestCase.content()),
+            Matchers.equalTo(projected)
+        );
+    }
+
+    /**
+     * Paths which are missing or go through something else than
+     * a JsonObject select nothing.
+     */
+    @Test
+    public void skipsUnmatchedPaths() {
+        MatcherAssert.assertThat(
+            new Projection("Missing.Key", "Args.Value", "Id.Value", "Config")
+                .with("NetworkSettings.Ports")
+                .read(ProjectionTestCase.content()),
+            Matchers.equalTo(
+                Json.createObjectBuilder()
+                    .add(
+                        "Config",
+                        Json.createObjectBuilder()
+                            .add("Env", Json.createArrayBuilder().add("A=B"))
+                            .add(
+                                "Labels",
+                                Json.createObjectBuilder().add("State", "no")
+                            )
+                    )
+                    .add(
+                        "NetworkSettings",
+                        Json.createObjectBuilder().addNull("Ports")
+                    )
+                    .build()
+            )
+        );
+    }
+
+    /**
+     * Projection refuses malformed paths.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void refusesMalformedPath() {
+        new Projection("State..Status");
+    }
+
+    /**
+     * Projection refuses to project on nothing.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void refusesNoPaths() {
+        new Projection();
+    }
+
+    /**
+     * Projection can only read JsonObjects.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void readsOnlyObjects() {
+        new Projection("Id").read(
+            new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    /**
+     * Content of the inspected container.
+     * @return Json content.
+     */
+    private static ByteArrayInputStream content() {
+        return new ByteArrayInputStream(
+            ProjectionTestCase.JSON.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import com.amihaiemil.docker.mock.AssertRequest;
+import com.amihaiemil.docker.mock.Response;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.json.JsonObject;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ResourcesIterator}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class ResourcesIteratorTestCase {
+
+    /**
+     * ResourcesIterator maps the elements lazily, one by one.
+     */
+    @Test
+    public void mapsLazily() {
+        final AtomicInteger mapped = new AtomicInteger();
+        final ResourcesIterator<JsonObject> resources =
+            new ResourcesIterator<>(
+                new AssertRequest(
+                    new Response(
+                        HttpStatus.SC_OK,
+                        "[{\"Id\":\"a\"},{\"Id\":\"b\"},{\"Id\":\"c\"}]"
+                    )
+                ),
+                new HttpGet("http://localhost/containers/json"),
+                json -> {
+                    mapped.incrementAndGet();
+                    return json;
+                }
+            );
+        MatcherAssert.assertThat(mapped.get(), Matchers.is(0));
+        MatcherAssert.assertThat(
+            resources.next().getString("Id"), Matchers.equalTo("a")
+        );
+        MatcherAssert.assertThat(mapped.get(), Matchers.is(1));
+        resources.next();
+        resources.next();
+        MatcherAssert.assertThat(resources.hasNext(), Matchers.is(false));
+        MatcherAssert.assertThat(mapped.get(), Matchers.is(3));
+    }
+
+    /**
+     * ResourcesIterator reads nested values as the Json reader would.
+     */
+    @Test
+    public void readsNestedValues() {
+        final String json = "{\"Id\":\"a\",\"Names\":[\"/one\",\"/two\"],"
+            + "\"Labels\":{\"x\":\"y\"},\"Size\":12,\"Cpu\":1.5,"
+            + "\"Ok\":true,\"No\":false,\"Nil\":null,\"Nested\":[[1],[]]}";
+        final JsonObject read = new ResourcesIterator<>(
+            new AssertRequest(
+                new Response(HttpStatus.SC_OK, "[" + json + "]")
+            ),
+            new HttpGet("http://localhost/containers/json"),
+            obj -> obj
+        ).next();
+        MatcherAssert.assertThat(
+            read.getJsonArray("Names").getString(1), Matchers.equalTo("/two")
+        );
+        MatcherAssert.assertThat(
+            read.getJsonObject("Labels").getString("x"), Matchers.equalTo("y")
+        );
+        MatcherAssert.assertThat(read.getInt("Size"), Matchers.is(12));
+        MatcherAssert.assertThat(
+            read.getJsonNumber("Cpu").doubleValue(), Matchers.is(1.5)
+        );
+        MatcherAssert.assertThat(read.getBoolean("Ok"), Matchers.is(true));
+        MatcherAssert.assertThat(read.getBoolean("No"), Matchers.is(false));
+        MatcherAssert.assertThat(read.isNull("Nil"), Matchers.is(true));
+        MatcherAssert.assertThat(
+            read.getJsonArray("Nested").getJsonArray(0).getInt(0),
+            Matchers.is(1)
+        );
+    }
+
+    /**
+     * ResourcesIterator over an empty array has no elements.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void iteratesEmptyArray() {
+        final ResourcesIterator<JsonObject> resources =
+            new ResourcesIterator<>(
+                new AssertRequest(new Response(HttpStatus.SC_OK, "[]")),
+                new HttpGet("http://localhost/images/json"),
+                json -> json
+            );
+        MatcherAssert.assertThat(resources.hasNext(), Matchers.is(false));
+        resources.next();
+    }
+
+    /**
+     * ResourcesIterator stops iterating once it is closed.
+     */
+    @Test
+    public void stopsWhenClosed() {
+        final ResourcesIterator<JsonObject> resources =
+            new ResourcesIterator<>(
+                new AssertRequest(
+                    new Response(HttpStatus.SC_OK, "[{\"Id\":\"a\"},{}]")
+                ),
+                new HttpGet("http://localhost/images/json"),
+                json -> json
+            );
+        MatcherAssert.assertThat(resources.hasNext(), Matchers.is(true));
+        resources.next();
+        resources.close();
+        MatcherAssert.assertThat(resources.hasNext(), Matchers.is(false));
+    }
+
+    /**
+     * ResourcesIterator streams the listing, holding the connection until
+     * the iteration is abandoned and released by the caller.
+     */
+    @Test
+    public void releasesConnectionWhenAbandoned() {
+        final Released request = new Released(
+            "http://localhost/containers/json"
+        );
+        final ResourcesIterator<JsonObject> resources =
+            new ResourcesIterator<>(
+                new AssertRequest(
+                    new Response(
+                        HttpStatus.SC_OK, "[{\"Id\":\"a\"},{\"Id\":\"b\"}]"
+                    )
+                ),
+                request,
+                json -> json
+            );
+        MatcherAssert.assertThat(
+            resources.next().getString("Id"), Matchers.equalTo("a")
+        );
+        MatcherAssert.assertThat(request.released(), Matchers.is(0));
+        ResourcesIterator.release(resources);
+        MatcherAssert.assertThat(request.released(), Matchers.is(1));
+        MatcherAssert.assertThat(resources.hasNext(), Matchers.is(false));
+        ResourcesIterator.release(resources);
+        MatcherAssert.assertThat(request.released(), Matchers.is(1));
+    }
+
+    /**
+     * HttpGet which counts how many times its connection was released.
+     */
+    private static final class Released extends HttpGet {
+
+        /**
+         * Releases.
+         */
+        private final AtomicInteger count;
+
+        /**
+         * Ctor.
+         * @param uri URI.
+         */
+        Released(final String uri) {
+            super(uri);
+            this.count = new AtomicInteger();
+        }
+
+        @Override
+        public void releaseConnection() {
+            this.count.incrementAndGet();
+            super.releaseConnection();
+        }
+
+        /**
+         * How many times was the connection released?
+         * @return Count.
+         */
+        int released() {
+            return this.count.get();
+        }
+    }
+}
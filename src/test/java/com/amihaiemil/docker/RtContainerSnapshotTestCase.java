@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import com.amihaiemil.docker.mock.AssertRequest;
+import com.amihaiemil.docker.mock.Condition;
+import com.amihaiemil.docker.mock.Response;
+import java.net.URI;
+import javax.json.Json;
+import org.apache.http.HttpStatus;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link RtContainer#snapshot()}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class RtContainerSnapshotTestCase {
+
+    /**
+     * RtContainer reads a snapshot of its stats with one-shot, if the API
+     * version offers it.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void readsOneShotSnapshot() throws Exception {
+        final Stats stats = RtContainerSnapshotTestCase.container(
+            "v1.41", "/123/stats?stream=false&one-shot=true"
+        ).snapshot();
+        MatcherAssert.assertThat(stats.memoryUsage(), Matchers.is(1024L));
+        MatcherAssert.assertThat(stats.cpuDelta(), Matchers.is(0L));
+    }
+
+    /**
+     * RtContainer reads a snapshot of its stats without one-shot, if the
+     * API version does not offer it.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void readsSnapshotWithoutOneShot() throws Exception {
+        final Stats stats = RtContainerSnapshotTestCase.container(
+            "v1.35", "/123/stats?stream=false"
+        ).snapshot();
+        MatcherAssert.assertThat(stats.memoryUsage(), Matchers.is(1024L));
+    }
+
+    /**
+     * Container which expects its stats to be read from the given path.
+     * @param version API version in the Container's URI.
+     * @param path End of the expected request path.
+     * @return Container.
+     */
+    private static Container container(
+        final String version, final String path
+    ) {
+        return new RtContainer(
+            Json.createObjectBuilder().add("Id", "123").build(),
+            new AssertRequest(
+                new Response(
+                    HttpStatus.SC_OK,
+                    Json.createObjectBuilder()
+                        .add(
+                            "memory_stats",
+                            Json.createObjectBuilder().add("usage", 1024)
+                        ).build().toString()
+                ),
+                new Condition(
+                    "Resource path must end with " + path,
+                    req -> req.getRequestLine().getUri().endsWith(path)
+                )
+            ),
+            URI.create(
+                String.format("http://localhost:80/%s/containers/123", version)
+            ),
+            Mockito.mock(Docker.class)
+        );
+    }
+}
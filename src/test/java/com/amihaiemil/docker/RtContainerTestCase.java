@@ -38,6 +38,8 @@ import javax.json.Json;
 import javax.json.JsonObject;
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.when;
 
@@ -125,6 +127,34 @@ public final class RtContainerTestCase {
         );
     }
 
+    /**
+     * RtContainer can inspect itself, reading only the projected fields.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void inspectsProjection() throws Exception {
+        final JsonObject info = new RtContainer(
+            Json.createObjectBuilder().add("Id", "123").build(),
+            new AssertRequest(
+                new Response(
+                    HttpStatus.SC_OK,
+                    "{\"Id\":\"123\",\"State\":{\"Status\":\"running\","
+                    + "\"Pid\":42},\"HostConfig\":{\"Binds\":[]}}"
+                ),
+                new Condition(
+                    "Resource path must be /{id}/json",
+                    req -> req.getRequestLine().getUri().endsWith("/123/json")
+                )
+            ),
+            URI.create("http://localhost:80/1.30/containers/123"),
+            Mockito.mock(Docker.class)
+        ).inspect(new Projection("State.Status"));
+        MatcherAssert.assertThat(info.keySet(), Matchers.contains("State"));
+        MatcherAssert.assertThat(
+            info.getJsonObject("State").keySet(), Matchers.contains("Status")
+        );
+    }
+
     /**
      * RtContainer.inspect() throws URE because the HTTP Response's status
      * is not 200 OK.
@@ -796,4 +826,173 @@ public final class RtContainerTestCase {
             Mockito.mock(Docker.class)
         ).exec(json);
     }
+
+    /**
+     * RtContainer can read one sample of its stats.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void readsStats() throws Exception {
+        final Stats stats = new RtContainer(
+            Json.createObjectBuilder().add("Id", "123").build(),
+            new AssertRequest(
+                new Response(
+                    HttpStatus.SC_OK,
+                    RtContainerTestCase.stats(400, 200).toString()
+                ),
+                new Condition(
+                    "Resource path must be /123/stats?stream=false",
+                    req -> req.getRequestLine().getUri().endsWith(
+                        "/123/stats?stream=false"
+                    )
+                )
+            ),
+            URI.create("http://localhost:80/1.30/containers/123"),
+            Mockito.mock(Docker.class)
+        ).stats();
+        MatcherAssert.assertThat(stats.cpuDelta(), Matchers.is(200L));
+        MatcherAssert.assertThat(stats.systemCpuDelta(), Matchers.is(1000L));
+        MatcherAssert.assertThat(stats.onlineCpus(), Matchers.is(2));
+        MatcherAssert.assertThat(stats.cpuPercent(), Matchers.is(40.0));
+        MatcherAssert.assertThat(stats.memoryUsage(), Matchers.is(1024L));
+        MatcherAssert.assertThat(stats.memoryLimit(), Matchers.is(4096L));
+        MatcherAssert.assertThat(stats.networkRxBytes(), Matchers.is(30L));
+        MatcherAssert.assertThat(stats.networkTxBytes(), Matchers.is(70L));
+        MatcherAssert.assertThat(stats.blkioReadBytes(), Matchers.is(512L));
+        MatcherAssert.assertThat(stats.blkioWriteBytes(), Matchers.is(256L));
+    }
+
+    /**
+     * RtContainer can stream its stats, until the samples are no longer
+     * wanted.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void streamsStats() throws Exception {
+        final List<Long> deltas = new ArrayList<>();
+        new RtContainer(
+            Json.createObjectBuilder().add("Id", "123").build(),
+            new AssertRequest(
+                new Response(
+                    HttpStatus.SC_OK,
+                    RtContainerTestCase.stats(400, 200).toString() + "\n"
+                    + RtContainerTestCase.stats(700, 400).toString() + "\n"
+                    + RtContainerTestCase.stats(900, 700).toString() + "\n"
+                ),
+                new Condition(
+                    "Resource path must be /123/stats?stream=true",
+                    req -> req.getRequestLine().getUri().endsWith(
+                        "/123/stats?stream=true"
+                    )
+                )
+            ),
+            URI.create("http://localhost:80/1.30/containers/123"),
+            Mockito.mock(Docker.class)
+        ).stats(
+            stats -> {
+                deltas.add(stats.cpuDelta());
+                return deltas.size() < 2;
+            }
+        );
+        MatcherAssert.assertThat(deltas, Matchers.contains(200L, 300L));
+    }
+
+    /**
+     * RtContainer throws URE if the stats are not found.
+     * @throws Exception If something goes wrong.
+     */
+    @Test(expected = UnexpectedResponseException.class)
+    public void statsNotFound() throws Exception {
+        new RtContainer(
+            Json.createObjectBuilder().add("Id", "123").build(),
+            new AssertRequest(
+                new Response(HttpStatus.SC_NOT_FOUND)
+            ),
+            URI.create("http://localhost:80/1.30/containers/123"),
+            Mockito.mock(Docker.class)
+        ).stats();
+    }
+
+    /**
+     * A stats document, as sent by Docker.
+     * @param cpu Total CPU usage.
+     * @param precpu Previous total CPU usage.
+     * @return JsonObject.
+     */
+    private static JsonObject stats(final long cpu, final long precpu) {
+        return Json.createObjectBuilder()
+            .add("read", "2019-01-01T00:00:01Z")
+            .add("pids_stats", Json.createObjectBuilder().add("current", 3))
+            .add(
+                "networks",
+                Json.createObjectBuilder()
+                    .add(
+                        "eth0",
+                        Json.createObjectBuilder()
+                            .add("rx_bytes", 10).add("tx_bytes", 20)
+                    )
+                    .add(
+                        "eth1",
+                        Json.createObjectBuilder()
+                            .add("rx_bytes", 20).add("tx_bytes", 50)
+                    )
+            )
+            .add(
+                "memory_stats",
+                Json.createObjectBuilder()
+                    .add("stats", Json.createObjectBuilder().add("cache", 1))
+                    .add("usage", 1024)
+                    .add("limit", 4096)
+            )
+            .add(
+                "blkio_stats",
+                Json.createObjectBuilder().add(
+                    "io_service_bytes_recursive",
+                    Json.createArrayBuilder()
+                        .add(RtContainerTestCase.blkio("Read", 512))
+                        .add(RtContainerTestCase.blkio("Write", 256))
+                        .add(RtContainerTestCase.blkio("Total", 768))
+                )
+            )
+            .add(
+                "cpu_stats",
+                Json.createObjectBuilder()
+                    .add(
+                        "cpu_usage",
+                        Json.createObjectBuilder()
+                            .add("total_usage", cpu)
+                            .add(
+                                "percpu_usage",
+                                Json.createArrayBuilder().add(1).add(2)
+                            )
+                    )
+                    .add("system_cpu_usage", 2000)
+                    .add("online_cpus", 2)
+            )
+            .add(
+                "precpu_stats",
+                Json.createObjectBuilder()
+                    .add(
+                        "cpu_usage",
+                        Json.createObjectBuilder().add("total_usage", precpu)
+                    )
+                    .add("system_cpu_usage", 1000)
+            )
+            .build();
+    }
+
+    /**
+     * An entry of the blkio stats.
+     * @param operation Operation.
+     * @param value Bytes.
+     * @return JsonObject.
+     */
+    private static JsonObject blkio(final String operation, final long value) {
+        return Json.createObjectBuilder()
+            .add("major", 8)
+            .add("minor", 0)
+            .add("op", operation)
+            .add("value", value)
+            .build();
+    }
 }
@@ -34,6 +34,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 import javax.json.Json;
 import javax.json.JsonObject;
 import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.protocol.HttpContext;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
@@ -528,4 +531,45 @@ public final class RtContainersTestCase {
             Matchers.is("df2419f4")
         );
     }
+
+    /**
+     * RtContainers opens no more stats streams once the samples are no
+     * longer wanted.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void opensNoStreamsAfterStop() throws Exception {
+        final AtomicInteger streams = new AtomicInteger();
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        Mockito.when(client.execute(Mockito.any(HttpUriRequest.class)))
+            .thenAnswer(
+                invocation -> {
+                    final HttpUriRequest request =
+                        (HttpUriRequest) invocation.getArguments()[0];
+                    final String body;
+                    if(request.getURI().getPath().endsWith("/stats")) {
+                        streams.incrementAndGet();
+                        body = "{\"memory_stats\":{\"usage\":1}}";
+                    } else {
+                        body = "[{\"Id\":\"a\"},{\"Id\":\"b\"},"
+                            + "{\"Id\":\"c\"}]";
+                    }
+                    return new Response(HttpStatus.SC_OK, body);
+                }
+            );
+        Mockito.when(
+            client.execute(
+                Mockito.any(HttpUriRequest.class), Mockito.<HttpContext>any()
+            )
+        ).thenAnswer(
+            invocation -> client.execute(
+                (HttpUriRequest) invocation.getArguments()[0]
+            )
+            );
+        new ListedContainers(
+            client, URI.create("http://localhost/containers"),
+            Mockito.mock(Docker.class)
+        ).stats(1, (container, stats) -> false);
+        MatcherAssert.assertThat(streams.get(), Matchers.is(1));
+    }
 }
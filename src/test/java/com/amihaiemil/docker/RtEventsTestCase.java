@@ -29,14 +29,20 @@ import com.amihaiemil.docker.mock.AssertRequest;
 import com.amihaiemil.docker.mock.Condition;
 import com.amihaiemil.docker.mock.Response;
 import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.protocol.HttpContext;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import javax.json.JsonObject;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URLDecoder;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -92,10 +98,10 @@ public final class RtEventsTestCase {
     @Test
     public void monitorsSince() throws Exception {
         final LocalDateTime since = LocalDateTime.parse("2020-04-01T00:00");
-        final long sinceMillis = ZonedDateTime.of(
+        final String sinceStamp = ZonedDateTime.of(
             since,
             ZoneId.systemDefault()
-        ).toInstant().toEpochMilli();
+        ).toEpochSecond() + ".000000000";
         final Events all = new RtEvents(
             new AssertRequest(
                 new Response(
@@ -109,7 +115,7 @@ public final class RtEventsTestCase {
                 new Condition(
                     "monitor() resource URL must be '/events?since=...'",
                     req -> req.getRequestLine()
-                        .getUri().endsWith("/events?since=" + sinceMillis)
+                        .getUri().endsWith("/events?since=" + sinceStamp)
                 )
             ),
             URI.create("http://localhost/1.40/events"),
@@ -131,10 +137,10 @@ public final class RtEventsTestCase {
     @Test
     public void monitorsUntil() throws Exception {
         final LocalDateTime until = LocalDateTime.parse("2020-06-01T00:00");
-        final long untilMillis = ZonedDateTime.of(
+        final String untilStamp = ZonedDateTime.of(
             until,
             ZoneId.systemDefault()
-        ).toInstant().toEpochMilli();
+        ).toEpochSecond() + ".000000000";
         final Events all = new RtEvents(
             new AssertRequest(
                 new Response(
@@ -148,7 +154,7 @@ public final class RtEventsTestCase {
                 new Condition(
                     "monitor() resource URL must be '/events?until=...'",
                     req -> req.getRequestLine()
-                        .getUri().endsWith("/events?until=" + untilMillis)
+                        .getUri().endsWith("/events?until=" + untilStamp)
                 )
             ),
             URI.create("http://localhost/1.40/events"),
@@ -214,15 +220,15 @@ public final class RtEventsTestCase {
     @Test
     public void monitorsWithSinceUntilAndFilters() throws Exception {
         final LocalDateTime since = LocalDateTime.parse("2020-04-01T00:00");
-        final long sinceMillis = ZonedDateTime.of(
+        final String sinceStamp = ZonedDateTime.of(
             since,
             ZoneId.systemDefault()
-        ).toInstant().toEpochMilli();
+        ).toEpochSecond() + ".000000000";
         final LocalDateTime until = LocalDateTime.parse("2020-06-01T00:00");
-        final long untilMillis = ZonedDateTime.of(
+        final String untilStamp = ZonedDateTime.of(
             until,
             ZoneId.systemDefault()
-        ).toInstant().toEpochMilli();
+        ).toEpochSecond() + ".000000000";
         final Events all = new RtEvents(
             new AssertRequest(
                 new Response(
@@ -239,8 +245,8 @@ public final class RtEventsTestCase {
                     req -> URLDecoder.decode(
                         req.getRequestLine().getUri()
                     ).endsWith(
-                        "/events?since=" + sinceMillis
-                      + "&until=" + untilMillis
+                        "/events?since=" + sinceStamp
+                      + "&until=" + untilStamp
                       + "&filters={\"type\":[\"container\"]}"
                     )
                 )
@@ -262,4 +268,55 @@ public final class RtEventsTestCase {
             Matchers.equalTo("eventId")
         );
     }
+
+    /**
+     * RtEvents can reconnect when the stream ends or fails, resuming from
+     * the last event, without returning the same event twice.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void resumesFromLastEvent() throws Exception {
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        final Response first = new Response(
+            HttpStatus.SC_OK,
+            "{\"id\": \"a\", \"timeNano\": 1585699200000000100}"
+            + "{\"id\": \"b\", \"timeNano\": 1585699200000000200}"
+        );
+        final Response second = new Response(
+            HttpStatus.SC_OK,
+            "{\"id\": \"b\", \"timeNano\": 1585699200000000200}"
+            + "{\"id\": \"c\", \"timeNano\": 1585699200000000200}"
+            + "{\"id\": \"d\", \"timeNano\": 1585699200000000300}"
+        );
+        Mockito.when(client.execute(Mockito.any(HttpUriRequest.class)))
+            .thenReturn(first)
+            .thenThrow(new IOException("Daemon is restarting."))
+            .thenReturn(second);
+        Mockito.when(
+            client.execute(
+                Mockito.any(HttpUriRequest.class), Mockito.<HttpContext>any()
+            )
+        ).thenAnswer(
+            invocation -> client.execute(
+                (HttpUriRequest) invocation.getArguments()[0]
+            )
+            );
+        final List<String> ids = new RtEvents(
+            client,
+            URI.create("http://localhost/1.40/events"),
+            Mockito.mock(Docker.class)
+        ).monitor(Duration.ofMillis(1L), Duration.ofMillis(2L)).limit(4)
+            .map(event -> event.getString("id"))
+            .collect(Collectors.toList());
+        MatcherAssert.assertThat(
+            ids, Matchers.contains("a", "b", "c", "d")
+        );
+        final ArgumentCaptor<HttpUriRequest> requests = ArgumentCaptor
+            .forClass(HttpUriRequest.class);
+        Mockito.verify(client, Mockito.times(3)).execute(requests.capture());
+        MatcherAssert.assertThat(
+            requests.getAllValues().get(2).getURI().toString(),
+            Matchers.endsWith("/events?since=1585699200.000000200")
+        );
+    }
 }
@@ -28,12 +28,24 @@ package com.amihaiemil.docker;
 import com.amihaiemil.docker.mock.AssertRequest;
 import com.amihaiemil.docker.mock.Condition;
 import com.amihaiemil.docker.mock.Response;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.json.Json;
+import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequest;
 import org.apache.http.HttpStatus;
 import org.apache.http.util.EntityUtils;
 import org.hamcrest.MatcherAssert;
@@ -152,6 +164,55 @@ public final class RtImagesTestCase {
         ).pull("testImage", "1.23");
     }
 
+    /**
+     * RtImages can pull an image and publish its progress, layer by layer.
+     * @throws Exception If an error occurs.
+     */
+    @Test
+    public void pullsWithProgress() throws Exception {
+        final List<PullProgress> progress = new ArrayList<>();
+        final Image pulled = new ListedImages(
+            new AssertRequest(
+                new Response(
+                    HttpStatus.SC_OK,
+                    "{\"status\":\"Pulling from library/ubuntu\","
+                    + "\"id\":\"18.04\"}"
+                    + "{\"status\":\"Downloading\",\"id\":\"a1\","
+                    + "\"progressDetail\":{\"current\":512,\"total\":2048}}"
+                    + "{\"status\":\"Pull complete\",\"id\":\"a1\","
+                    + "\"progressDetail\":{}}"
+                ),
+                new Condition(
+                    "Pull with progress must create the image",
+                    req -> req.getRequestLine().getUri().endsWith(
+                        "/create?fromImage=ubuntu&tag=18.04"
+                    )
+                )
+            ),
+            URI.create("http://localhost/images"),
+            DOCKER
+        ).pull("ubuntu", "18.04", progress::add, Duration.ofMinutes(1L));
+        MatcherAssert.assertThat(progress, Matchers.hasSize(3));
+        MatcherAssert.assertThat(
+            progress.get(1).layer(), Matchers.equalTo("a1")
+        );
+        MatcherAssert.assertThat(
+            progress.get(1).status(), Matchers.equalTo("Downloading")
+        );
+        MatcherAssert.assertThat(
+            progress.get(1).current(), Matchers.equalTo(512L)
+        );
+        MatcherAssert.assertThat(
+            progress.get(1).total(), Matchers.equalTo(2048L)
+        );
+        MatcherAssert.assertThat(
+            progress.get(2).status(), Matchers.equalTo("Pull complete")
+        );
+        MatcherAssert.assertThat(
+            pulled.getString("Name"), Matchers.equalTo("ubuntu")
+        );
+    }
+
     /**
      * RtImages.create() must throw an {@link UnexpectedResponseException}
      * if the docker API responds with status code 404.
@@ -286,6 +347,141 @@ public final class RtImagesTestCase {
                 this.getClass().getResource("/images.tar.txt").getFile());
     }
 
+    /**
+     * RtImages can import images from a tar Path, sending its bytes as they
+     * are, with no charset decoding.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void importsFromTarPath() throws Exception {
+        final byte[] tar = {0, -1, -128, 127, 10, -61, 40};
+        final Path file = Files.createTempFile("images", ".tar");
+        Files.write(file, tar);
+        new ListedImages(
+            new AssertRequest(
+                new Response(HttpStatus.SC_OK),
+                new Condition(
+                    "importFromTar(Path) must send the tar bytes unchanged",
+                    req -> RtImagesTestCase.body(req, tar)
+                )
+            ),
+            URI.create("http://localhost/images"),
+            DOCKER
+        ).importFromTar(file);
+        Files.delete(file);
+    }
+
+    /**
+     * RtImages can import images from a tar InputStream, sending it
+     * chunked.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void importsFromTarStream() throws Exception {
+        final byte[] tar = {0, -1, -128, 127, 10, -61, 40};
+        new ListedImages(
+            new AssertRequest(
+                new Response(HttpStatus.SC_OK),
+                new Condition(
+                    "importFromTar(InputStream) must send the body chunked",
+                    req -> ((HttpEntityEnclosingRequest) req)
+                        .getEntity().isChunked()
+                ),
+                new Condition(
+                    "importFromTar(InputStream) must send the tar bytes",
+                    req -> RtImagesTestCase.body(req, tar)
+                )
+            ),
+            URI.create("http://localhost/images"),
+            DOCKER
+        ).importFromTar(new ByteArrayInputStream(tar));
+    }
+
+    /**
+     * RtImages can save the given images as a raw InputStream.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void savesImagesAsStream() throws Exception {
+        final InputStream tarball = new ListedImages(
+            new AssertRequest(
+                new Response(HttpStatus.SC_OK, "tarbäll"),
+                new Condition(
+                    "save(names) must send a GET request",
+                    req -> "GET".equals(req.getRequestLine().getMethod())
+                ),
+                new Condition(
+                    "save(names) must send each name as a parameter",
+                    req -> req.getRequestLine().getUri().endsWith(
+                        "/images/get?names=ubuntu%3Alatest&names=abc123"
+                    )
+                )
+            ),
+            URI.create("http://localhost/images"),
+            DOCKER
+        ).save(Arrays.asList("ubuntu:latest", "abc123"));
+        MatcherAssert.assertThat(
+            IOUtils.toByteArray(tarball),
+            Matchers.equalTo("tarbäll".getBytes(StandardCharsets.UTF_8))
+        );
+        tarball.close();
+    }
+
+    /**
+     * RtImages can save the given images directly to a file.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void savesImagesToPath() throws Exception {
+        final Path target = Files.createTempFile("images", ".tar");
+        final long written = new ListedImages(
+            new AssertRequest(new Response(HttpStatus.SC_OK, "tarball")),
+            URI.create("http://localhost/images"),
+            DOCKER
+        ).save(Collections.singletonList("abc123"), target);
+        MatcherAssert.assertThat(written, Matchers.is(7L));
+        MatcherAssert.assertThat(
+            new String(Files.readAllBytes(target), StandardCharsets.UTF_8),
+            Matchers.equalTo("tarball")
+        );
+        Files.delete(target);
+    }
+
+    /**
+     * RtImages saves no images as an empty tarball, with no request.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void savesNoImages() throws Exception {
+        MatcherAssert.assertThat(
+            new ListedImages(
+                new AssertRequest(
+                    new Response(HttpStatus.SC_OK),
+                    new Condition(
+                        "save(names) must not be called with no names",
+                        req -> false
+                    )
+                ),
+                URI.create("http://localhost/images"),
+                DOCKER
+            ).save(Collections.emptyList()).read(),
+            Matchers.is(-1)
+        );
+    }
+
+    /**
+     * RtImages.save(names) fails if the response is not 200 OK.
+     * @throws Exception If something goes wrong.
+     */
+    @Test(expected = UnexpectedResponseException.class)
+    public void saveFailsIfNotOk() throws Exception {
+        new ListedImages(
+            new AssertRequest(new Response(HttpStatus.SC_NOT_FOUND)),
+            URI.create("http://localhost/images"),
+            DOCKER
+        ).save(Collections.singletonList("missing"));
+    }
+
     /**
      * {@link RtImages#importImage(URL, String)} must construct the
      * URL with parameters correctly.
@@ -334,4 +530,25 @@ public final class RtImagesTestCase {
             new URL("http://nonexisting.com/exampleimage.tgz"), "hello-world"
         );
     }
+
+    /**
+     * Check that the request's body has the expected bytes.
+     * @param req The request.
+     * @param expected Expected bytes.
+     * @return True if the body is as expected.
+     */
+    private static boolean body(final HttpRequest req, final byte[] expected) {
+        boolean equal;
+        try {
+            equal = Arrays.equals(
+                expected,
+                EntityUtils.toByteArray(
+                    ((HttpEntityEnclosingRequest) req).getEntity()
+                )
+            );
+        } catch (final IOException ex) {
+            equal = false;
+        }
+        return equal;
+    }
 }
@@ -30,7 +30,12 @@ import com.amihaiemil.docker.mock.Condition;
 import com.amihaiemil.docker.mock.Response;
 import java.io.BufferedReader;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.json.Json;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
@@ -130,6 +135,100 @@ public final class RtLogsTestCase {
         );
     }
 
+    /**
+     * RtLogs can fetch the Container's logs frame by frame.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void fetchesLogFrames() throws Exception {
+        final Logs logs = new RtLogs(
+            Mockito.mock(Container.class),
+            new AssertRequest(
+                new Response(
+                    HttpStatus.SC_OK, this.prepareMessage("...frame...")
+                ),
+                new Condition(
+                    "Resource path must be /123/logs",
+                    req -> req.getRequestLine().getUri().endsWith(
+                        "/123/logs?stdout=true&stderr=true"
+                    )
+                )
+            ),
+            URI.create("http://localhost:80/1.30/containers/123/logs")
+        );
+        final StringBuilder read = new StringBuilder();
+        logs.fetch(
+            (stream, payload) -> read.append(stream).append(':').append(
+                StandardCharsets.UTF_8.decode(payload)
+            )
+        );
+        MatcherAssert.assertThat(
+            read.toString(), Matchers.equalTo("1:...frame...")
+        );
+    }
+
+    /**
+     * RtLogs can follow the logs line by line, with lines split across
+     * frames put back together.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void followsLogLines() throws Exception {
+        final Logs logs = new RtLogs(
+            Mockito.mock(Container.class),
+            new AssertRequest(
+                new Response(
+                    HttpStatus.SC_OK,
+                    this.prepareMessage("first\nsec")
+                        + this.prepareMessage("ond\nthird")
+                ),
+                new Condition(
+                    "Resource path must be /123/logs",
+                    req -> req.getRequestLine().getUri().endsWith(
+                        "/123/logs?follow=true&stdout=true&stderr=true"
+                    )
+                )
+            ),
+            URI.create("http://localhost:80/1.30/containers/123/logs")
+        );
+        try (final Stream<String> lines = logs.followLines()) {
+            MatcherAssert.assertThat(
+                lines.collect(Collectors.toList()),
+                Matchers.contains("first", "second", "third")
+            );
+        }
+    }
+
+    /**
+     * RtLogs sends the since, tail and timestamps options.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void sendsOptions() throws Exception {
+        final Logs logs = new RtLogs(
+            Mockito.mock(Container.class),
+            new AssertRequest(
+                new Response(HttpStatus.SC_OK, this.prepareMessage("logs")),
+                new Condition(
+                    "Resource path must contain the options",
+                    req -> req.getRequestLine().getUri().endsWith(
+                        "/123/logs?stdout=true&stderr=true&since=60"
+                        + "&tail=10&timestamps=true"
+                    )
+                )
+            ),
+            URI.create("http://localhost:80/1.30/containers/123/logs")
+        );
+        MatcherAssert.assertThat(
+            logs.timestamps().tail(10).since(
+                LocalDateTime.ofInstant(
+                    Instant.ofEpochSecond(60), ZoneId.systemDefault()
+                )
+            ).fetch(),
+            Matchers.equalTo("logs")
+        );
+    }
+
     /**
      * Docker logs contains header -
      * header := [8]byte{STREAM_TYPE, 0, 0, 0, SIZE1, SIZE2, SIZE3, SIZE4}
@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import com.amihaiemil.docker.mock.Response;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonObject;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+
+/**
+ * Unit tests for {@link SingleFlightHttpClient}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class SingleFlightHttpClientTestCase {
+
+    /**
+     * SingleFlightHttpClient sends identical concurrent GETs once and
+     * gives the response to all the callers.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void sharesConcurrentGets() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final HttpClient origin = SingleFlightHttpClientTestCase.engine(
+            release
+        );
+        final HttpClient client = new SingleFlightHttpClient(origin);
+        final CompletableFuture<JsonObject> first = CompletableFuture
+            .supplyAsync(() -> SingleFlightHttpClientTestCase.inspect(client));
+        final CompletableFuture<JsonObject> second = CompletableFuture
+            .supplyAsync(() -> SingleFlightHttpClientTestCase.inspect(client));
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while(!SingleFlightHttpClientTestCase.awaiting()
+            && System.nanoTime() < deadline) {
+            Thread.sleep(10L);
+        }
+        release.countDown();
+        MatcherAssert.assertThat(
+            first.get().getString("Id"), Matchers.equalTo("123")
+        );
+        MatcherAssert.assertThat(
+            second.get().getString("Id"), Matchers.equalTo("123")
+        );
+        Mockito.verify(origin, Mockito.times(1)).execute(
+            Mockito.any(HttpUriRequest.class),
+            Mockito.any(ResponseHandler.class)
+        );
+    }
+
+    /**
+     * SingleFlightHttpClient does not keep the responses: a GET which is
+     * sent after the response of an identical one arrived goes to the
+     * server.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void doesNotCacheResponses() throws Exception {
+        final HttpClient origin = SingleFlightHttpClientTestCase.engine(
+            new CountDownLatch(0)
+        );
+        final HttpClient client = new SingleFlightHttpClient(origin);
+        SingleFlightHttpClientTestCase.inspect(client);
+        SingleFlightHttpClientTestCase.inspect(client);
+        Mockito.verify(origin, Mockito.times(2)).execute(
+            Mockito.any(HttpUriRequest.class),
+            Mockito.any(ResponseHandler.class)
+        );
+    }
+
+    /**
+     * SingleFlightHttpClient does not share concurrent GETs whose headers
+     * differ, e.g. which are sent with different registry credentials.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void doesNotShareGetsWithOtherHeaders() throws Exception {
+        final CountDownLatch arrived = new CountDownLatch(2);
+        final HttpClient origin = Mockito.mock(HttpClient.class);
+        Mockito.when(
+            origin.execute(
+                Mockito.any(HttpUriRequest.class),
+                Mockito.any(ResponseHandler.class)
+            )
+        ).thenAnswer(invocation -> together(invocation, arrived));
+        final HttpClient client = new SingleFlightHttpClient(origin);
+        final CompletableFuture<JsonObject> first = CompletableFuture
+            .supplyAsync(
+                () -> SingleFlightHttpClientTestCase.inspect(client, "alice")
+            );
+        final CompletableFuture<JsonObject> second = CompletableFuture
+            .supplyAsync(
+                () -> SingleFlightHttpClientTestCase.inspect(client, "bob")
+            );
+        first.get();
+        second.get();
+        MatcherAssert.assertThat(arrived.getCount(), Matchers.is(0L));
+        Mockito.verify(origin, Mockito.times(2)).execute(
+            Mockito.any(HttpUriRequest.class),
+            Mockito.any(ResponseHandler.class)
+        );
+    }
+
+    /**
+     * Docker engine which responds to every request with the inspection
+     * of container 123, once the given latch is released.
+     * @param release Latch released when the requests can end.
+     * @return HttpClient.
+     * @throws Exception If something goes wrong.
+     */
+    private static HttpClient engine(final CountDownLatch release)
+        throws Exception {
+        final HttpClient client = Mockito.mock(HttpClient.class);
+        Mockito.when(
+            client.execute(
+                Mockito.any(HttpUriRequest.class),
+                Mockito.any(ResponseHandler.class)
+            )
+        ).thenAnswer(invocation -> respond(invocation, release));
+        return client;
+    }
+
+    /**
+     * Respond to a request, once the given latch is released.
+     * @param invocation Invocation of HttpClient.execute(request, handler).
+     * @param release Latch released when the request can end.
+     * @return What the response handler returns.
+     * @throws Exception If something goes wrong.
+     */
+    private static Object respond(
+        final InvocationOnMock invocation, final CountDownLatch release
+    ) throws Exception {
+        release.await();
+        return ((ResponseHandler<?>) invocation.getArguments()[1])
+            .handleResponse(new Response(HttpStatus.SC_OK, "{\"Id\":\"123\"}"));
+    }
+
+    /**
+     * Respond to a request once the given number of requests arrived,
+     * or after 5 seconds.
+     * @param invocation Invocation of HttpClient.execute(request, handler).
+     * @param arrived Latch counted down by each request.
+     * @return What the response handler returns.
+     * @throws Exception If something goes wrong.
+     */
+    private static Object together(
+        final InvocationOnMock invocation, final CountDownLatch arrived
+    ) throws Exception {
+        arrived.countDown();
+        arrived.await(5L, TimeUnit.SECONDS);
+        return SingleFlightHttpClientTestCase.respond(
+            invocation, new CountDownLatch(0)
+        );
+    }
+
+    /**
+     * Inspect container 123.
+     * @param client HttpClient.
+     * @return Inspection.
+     */
+    private static JsonObject inspect(final HttpClient client) {
+        try {
+            return new RtContainer(
+                Json.createObjectBuilder().add("Id", "123").build(), client,
+                URI.create("http://localhost/v1.35/containers/123"),
+                Mockito.mock(Docker.class)
+            ).inspect();
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Inspect image 123 with the given registry credentials.
+     * @param client HttpClient.
+     * @param auth Value of the X-Registry-Auth header.
+     * @return Inspection.
+     */
+    private static JsonObject inspect(
+        final HttpClient client, final String auth
+    ) {
+        final HttpGet inspect = new HttpGet(
+            "http://localhost/v1.35/images/123/json"
+        );
+        inspect.setHeader("X-Registry-Auth", auth);
+        try {
+            return client.execute(
+                inspect,
+                new ReadJsonObject(
+                    new MatchStatus(inspect.getURI(), HttpStatus.SC_OK)
+                )
+            );
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Is any thread waiting for a request which is in flight?
+     * @return True or false.
+     */
+    private static boolean awaiting() {
+        return Thread.getAllStackTraces().values().stream().anyMatch(
+            trace -> Arrays.stream(trace).anyMatch(
+                frame -> SingleFlightHttpClient.class.getName()
+                    .equals(frame.getClassName())
+            ) && Arrays.stream(trace).anyMatch(
+                frame -> CompletableFuture.class.getName()
+                    .equals(frame.getClassName())
+            )
+        );
+    }
+}
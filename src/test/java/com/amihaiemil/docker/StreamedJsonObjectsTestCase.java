@@ -0,0 +1,266 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import javax.json.JsonObject;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link StreamedJsonObjects}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class StreamedJsonObjectsTestCase {
+
+    /**
+     * StreamedJsonObjects reads consecutive JsonObjects.
+     */
+    @Test
+    public void readsConsecutiveObjects() {
+        final List<JsonObject> read = StreamedJsonObjectsTestCase.readAll(
+            new ByteArrayInputStream(
+                "{\"id\":\"a\"}\n{\"id\":\"b\"}{\"id\":\"c\"}\n"
+                    .getBytes(StandardCharsets.UTF_8)
+            )
+        );
+        MatcherAssert.assertThat(read, Matchers.iterableWithSize(3));
+        MatcherAssert.assertThat(
+            read.get(2).getString("id"), Matchers.equalTo("c")
+        );
+    }
+
+    /**
+     * StreamedJsonObjects reads JsonObjects which arrive byte by byte.
+     */
+    @Test
+    public void readsSplitObjects() {
+        final List<JsonObject> read = StreamedJsonObjectsTestCase.readAll(
+            new OneByOne(
+                "{\"id\":\"a\",\"Actor\":{\"Attributes\":{\"x\":\"y\"}}}\n"
+                + "{\"id\":\"b\"}"
+            )
+        );
+        MatcherAssert.assertThat(read, Matchers.iterableWithSize(2));
+        MatcherAssert.assertThat(
+            read.get(0).getJsonObject("Actor").getJsonObject("Attributes")
+                .getString("x"),
+            Matchers.equalTo("y")
+        );
+        MatcherAssert.assertThat(
+            read.get(1).getString("id"), Matchers.equalTo("b")
+        );
+    }
+
+    /**
+     * StreamedJsonObjects reads JsonObjects bigger than its buffers.
+     */
+    @Test
+    public void readsBigObjects() {
+        final StringBuilder big = new StringBuilder();
+        for(int idx = 0; idx < 20000; idx = idx + 1) {
+            big.append('x');
+        }
+        final List<JsonObject> read = StreamedJsonObjectsTestCase.readAll(
+            new ByteArrayInputStream(
+                ("{\"big\":\"" + big + "\"}{\"id\":\"small\"}")
+                    .getBytes(StandardCharsets.UTF_8)
+            )
+        );
+        MatcherAssert.assertThat(read, Matchers.iterableWithSize(2));
+        MatcherAssert.assertThat(
+            read.get(0).getString("big").length(), Matchers.is(20000)
+        );
+    }
+
+    /**
+     * StreamedJsonObjects refuses a JsonObject bigger than the maximum
+     * size of a frame, instead of buffering it all.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void refusesOversizedObjects() {
+        new StreamedJsonObjects(
+            new JsonFrames(
+                new ByteArrayInputStream(
+                    "{\"id\":\"abcdefghijklmnopqrstuvwxyz\"}"
+                        .getBytes(StandardCharsets.UTF_8)
+                ),
+                16
+            )
+        ).hasNext();
+    }
+
+    /**
+     * StreamedJsonObjects skips the rest of an oversized JsonObject, without
+     * being confused by the braces in its strings, and reads the next one.
+     */
+    @Test
+    public void skipsOversizedObjects() {
+        final StreamedJsonObjects objects = new StreamedJsonObjects(
+            new JsonFrames(
+                new ByteArrayInputStream(
+                    (
+                        "{\"id\":\"}{abcdefghijklmnopqrstuvwxyz\",\"x\":{}}"
+                        + "{\"id\":\"b\"}"
+                    ).getBytes(StandardCharsets.UTF_8)
+                ),
+                16
+            )
+        );
+        try {
+            objects.hasNext();
+            MatcherAssert.assertThat("Oversized object read", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(), Matchers.containsString("bigger than 16")
+            );
+        }
+        MatcherAssert.assertThat(objects.hasNext(), Matchers.is(true));
+        MatcherAssert.assertThat(
+            objects.next().getString("id"), Matchers.equalTo("b")
+        );
+        MatcherAssert.assertThat(objects.hasNext(), Matchers.is(false));
+    }
+
+    /**
+     * StreamedJsonObjects refuses an unterminated JsonObject once it is
+     * bigger than the maximum size of a frame, without waiting for the
+     * end of the stream.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void refusesUnterminatedObjects() {
+        new StreamedJsonObjects(
+            new JsonFrames(
+                new Unterminated(),
+                1024
+            )
+        ).hasNext();
+    }
+
+    /**
+     * StreamedJsonObjects ignores braces and escaped quotes inside strings.
+     */
+    @Test
+    public void ignoresBracesInStrings() {
+        final List<JsonObject> read = StreamedJsonObjectsTestCase.readAll(
+            new OneByOne("{\"cmd\":\"echo \\\"}{\\\" \\\\\"}{\"id\":\"ü\"}")
+        );
+        MatcherAssert.assertThat(read, Matchers.iterableWithSize(2));
+        MatcherAssert.assertThat(
+            read.get(0).getString("cmd"), Matchers.equalTo("echo \"}{\" \\")
+        );
+        MatcherAssert.assertThat(
+            read.get(1).getString("id"), Matchers.equalTo("ü")
+        );
+    }
+
+    /**
+     * StreamedJsonObjects has no next element once the stream ended.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void endsWithTheStream() {
+        final StreamedJsonObjects objects = new StreamedJsonObjects(
+            new ByteArrayInputStream("\n".getBytes(StandardCharsets.UTF_8))
+        );
+        MatcherAssert.assertThat(objects.hasNext(), Matchers.is(false));
+        objects.next();
+    }
+
+    /**
+     * Read all the JsonObjects from the given stream.
+     * @param content InputStream.
+     * @return List of JsonObject.
+     */
+    private static List<JsonObject> readAll(final InputStream content) {
+        final List<JsonObject> read = new ArrayList<>();
+        new StreamedJsonObjects(content).forEachRemaining(read::add);
+        return read;
+    }
+
+    /**
+     * InputStream which gives one byte per read.
+     */
+    private static final class OneByOne extends InputStream {
+
+        /**
+         * Bytes to give.
+         */
+        private final InputStream bytes;
+
+        /**
+         * Ctor.
+         * @param content Content.
+         */
+        OneByOne(final String content) {
+            this.bytes = new ByteArrayInputStream(
+                content.getBytes(StandardCharsets.UTF_8)
+            );
+        }
+
+        @Override
+        public int read() throws IOException {
+            return this.bytes.read();
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int off, final int len)
+            throws IOException {
+            return this.bytes.read(buffer, off, Math.min(len, 1));
+        }
+    }
+
+    /**
+     * InputStream which starts a JsonObject and never ends.
+     */
+    private static final class Unterminated extends InputStream {
+
+        /**
+         * Was the opening brace given?
+         */
+        private boolean opened;
+
+        @Override
+        public int read() {
+            final int current;
+            if(this.opened) {
+                current = 'x';
+            } else {
+                this.opened = true;
+                current = '{';
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2018-2019, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of docker-java-api nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.docker;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link StreamedPull}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.14
+ */
+public final class StreamedPullTestCase {
+
+    /**
+     * StreamedPull publishes the progress of each layer, with the rates.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void publishesLayerProgress() throws Exception {
+        final List<PullProgress> progress = new ArrayList<>();
+        new StreamedPull(
+            new HttpPost("http://localhost/images/create"),
+            progress::add,
+            Duration.ZERO
+        ).follow(
+            StreamedPullTestCase.content(
+                "{\"status\":\"Downloading\",\"id\":\"a1\","
+                + "\"progressDetail\":{\"current\":100,\"total\":300}}"
+                + "{\"status\":\"Downloading\",\"id\":\"b2\","
+                + "\"progressDetail\":{\"current\":50,\"total\":80}}"
+                + "{\"status\":\"Downloading\",\"id\":\"a1\","
+                + "\"progressDetail\":{\"current\":300,\"total\":300}}"
+                + "{\"status\":\"Status: Downloaded newer image\"}"
+            )
+        );
+        MatcherAssert.assertThat(progress, Matchers.hasSize(4));
+        MatcherAssert.assertThat(
+            progress.get(2).current(), Matchers.equalTo(300L)
+        );
+        MatcherAssert.assertThat(
+            progress.get(2).rate(), Matchers.greaterThan(0.0)
+        );
+        MatcherAssert.assertThat(
+            progress.get(2).throughput(), Matchers.greaterThan(0.0)
+        );
+        MatcherAssert.assertThat(
+            progress.get(3).layer(), Matchers.isEmptyString()
+        );
+        MatcherAssert.assertThat(
+            progress.get(3).total(), Matchers.equalTo(0L)
+        );
+    }
+
+    /**
+     * StreamedPull fails if the Docker engine reports an error.
+     * @throws Exception If something goes wrong.
+     */
+    @Test(expected = IOException.class)
+    public void failsOnReportedError() throws Exception {
+        new StreamedPull(
+            new HttpPost("http://localhost/images/create"),
+            new ArrayList<PullProgress>()::add,
+            Duration.ZERO
+        ).follow(
+            StreamedPullTestCase.content(
+                "{\"status\":\"Pulling fs layer\",\"id\":\"a1\"}"
+                + "{\"errorDetail\":{\"message\":\"unauthorized\"},"
+                + "\"error\":\"unauthorized\"}"
+            )
+        );
+    }
+
+    /**
+     * StreamedPull aborts the request if the pull makes no progress.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void abortsStalledPull() throws Exception {
+        final HttpPost pull = new HttpPost(
+            "http://localhost/images/create"
+        );
+        try {
+            new StreamedPull(
+                pull,
+                new ArrayList<PullProgress>()::add,
+                Duration.ofMillis(100L)
+            ).follow(new Hanging(pull));
+            MatcherAssert.assertThat("Stalled pull was not aborted", false);
+        } catch (final IOException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(), Matchers.startsWith("Pull made no progress")
+            );
+        }
+        MatcherAssert.assertThat(pull.isAborted(), Matchers.is(true));
+    }
+
+    /**
+     * Streamed content.
+     * @param messages Progress messages.
+     * @return InputStream.
+     */
+    private static InputStream content(final String messages) {
+        return new ByteArrayInputStream(
+            messages.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Content which never arrives, until the request is aborted.
+     */
+    private static final class Hanging extends InputStream {
+
+        /**
+         * The request.
+         */
+        private final HttpRequestBase request;
+
+        /**
+         * Ctor.
+         * @param request The request.
+         */
+        Hanging(final HttpRequestBase request) {
+            this.request = request;
+        }
+
+        @Override
+        public int read() throws IOException {
+            while(!this.request.isAborted()) {
+                try {
+                    Thread.sleep(10L);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(ex);
+                }
+            }
+            throw new IOException("Request aborted.");
+        }
+    }
+}
@@ -57,6 +57,59 @@ public final class UnixDockerTestCase {
         );
     }
 
+    /**
+     * UnixDocker exposes the statistics of its connection pool.
+     */
+    @Test
+    public void exposesPoolStats() {
+        final UnixDocker docker = new UnixDocker(
+            new File("/var/run/docker.sock"),
+            new PoolConfig().maxTotal(50).maxPerRoute(50)
+        );
+        MatcherAssert.assertThat(
+            docker.poolStats().get().getMax(), Matchers.is(50)
+        );
+        MatcherAssert.assertThat(
+            docker.poolStats().get().getLeased(), Matchers.is(0)
+        );
+        MatcherAssert.assertThat(
+            docker.poolStats().get().getPending(), Matchers.is(0)
+        );
+    }
+
+    /**
+     * UnixDocker cannot know the pool statistics of a custom HttpClient.
+     */
+    @Test
+    public void noPoolStatsForCustomClient() {
+        MatcherAssert.assertThat(
+            new UnixDocker(
+                new AssertRequest(new Response(HttpStatus.SC_OK)), "v1.35"
+            ).poolStats().isPresent(),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * UnixDocker decorates its pooled client and still knows the
+     * statistics of the pool.
+     */
+    @Test
+    public void decoratesPooledClient() {
+        final UnixDocker docker = new UnixDocker(
+            new File("/var/run/docker.sock"),
+            new PoolConfig().maxTotal(20).maxPerRoute(20),
+            SingleFlightHttpClient::new
+        );
+        MatcherAssert.assertThat(
+            docker.httpClient(),
+            Matchers.instanceOf(SingleFlightHttpClient.class)
+        );
+        MatcherAssert.assertThat(
+            docker.poolStats().get().getMax(), Matchers.is(20)
+        );
+    }
+
     /**
      * Ping must be TRUE if response is OK.
      * @throws Exception If an error occurs.
@@ -61,6 +61,31 @@ public final class UnixHttpClientTestCase {
         );
     }
 
+    /**
+     * UnixHttpClient knows the maximum number of connections per route of
+     * its pool, also through the decorators.
+     */
+    @Test
+    public void knowsMaxPerRoute() {
+        MatcherAssert.assertThat(
+            HttpClientEnvelope.maxPerRoute(
+                new SingleFlightHttpClient(
+                    new UnixHttpClient(
+                        new File("/var/run/docker.sock"),
+                        new PoolConfig().maxTotal(20).maxPerRoute(5)
+                    )
+                )
+            ),
+            Matchers.is(5)
+        );
+        MatcherAssert.assertThat(
+            HttpClientEnvelope.maxPerRoute(
+                new UnixHttpClient(() -> Mockito.mock(HttpClient.class))
+            ),
+            Matchers.is(Integer.MAX_VALUE)
+        );
+    }
+
     /**
      * UnixHttpClient returns its HttpParams.
      */
@@ -135,7 +135,7 @@ public final class Response implements HttpResponse {
 
     @Override
     public void setEntity(final HttpEntity entity) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        this.backbone.setEntity(entity);
     }
 
     @Override